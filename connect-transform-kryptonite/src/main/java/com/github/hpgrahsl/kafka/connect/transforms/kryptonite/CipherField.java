@@ -19,12 +19,12 @@ package com.github.hpgrahsl.kafka.connect.transforms.kryptonite;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.hpgrahsl.kafka.connect.transforms.kryptonite.validators.*;
 import com.github.hpgrahsl.kryptonite.CipherMode;
 import com.github.hpgrahsl.kryptonite.Kryptonite;
-import org.apache.kafka.common.cache.Cache;
-import org.apache.kafka.common.cache.LRUCache;
-import org.apache.kafka.common.cache.SynchronizedCache;
+import com.github.hpgrahsl.kryptonite.metrics.CacheMetrics;
 import org.apache.kafka.common.config.ConfigDef;
 import org.apache.kafka.common.config.ConfigDef.NonEmptyString;
 import org.apache.kafka.common.config.ConfigDef.Type;
@@ -65,7 +65,7 @@ public abstract class CipherField<R extends ConnectRecord<R>> implements Transfo
 
   public static final ConfigDef CONFIG_DEF = new ConfigDef()
       .define(FIELD_CONFIG, Type.STRING, ConfigDef.NO_DEFAULT_VALUE, new FieldConfigValidator(),
-          ConfigDef.Importance.HIGH, "JSON array with field config objects specifying which fields together with their settings should get either encrypted / decrypted (nested field names are expected to be separated by '.' per default, or by a custom 'path_delimiter' config")
+          ConfigDef.Importance.HIGH, "JSON array with field config objects specifying which fields together with their settings should get either encrypted / decrypted (nested field names are expected to be separated by '.' per default, or by a custom 'path_delimiter' config), field config objects with 'members' encrypt these top-level fields together into the single field they name")
       .define(PATH_DELIMITER, Type.STRING, PATH_DELIMITER_DEFAULT, new NonEmptyString(), ConfigDef.Importance.LOW,
           "path delimiter used as field name separator when referring to nested fields in the input record")
       .define(FIELD_MODE, Type.STRING, FIELD_MODE_DEFAULT, new FieldModeValidator(), ConfigDef.Importance.MEDIUM,
@@ -79,13 +79,15 @@ public abstract class CipherField<R extends ConnectRecord<R>> implements Transfo
       .define(CIPHER_DATA_KEY_IDENTIFIER, Type.STRING, CIPHER_DATA_KEY_IDENTIFIER_DEFAULT,
           ConfigDef.Importance.HIGH, "secret key identifier to be used as default data encryption key for all fields which don't refer to a field-specific secret key identifier")
       .define(CIPHER_TEXT_ENCODING, Type.STRING, CIPHER_TEXT_ENCODING_DEFAULT, new CipherEncodingValidator(),
-          ConfigDef.Importance.LOW, "defines the encoding of the resulting ciphertext bytes (currently supports 'BASE64' and 'RAW_BYTES')")
+          ConfigDef.Importance.LOW, "defines the encoding of the resulting ciphertext bytes, either 'BASE64' strings or 'RAW_BYTES' (BYTES schema for schema-aware records), decryption accepts both")
       .define(CIPHER_FPE_TWEAK, Type.STRING, CIPHER_FPE_TWEAK_DEFAULT,
           ConfigDef.Importance.LOW, "defines the default tweak used for field-preserving encryption ciphers (must be a 7 or 8 bytes string)")
       .define(CIPHER_FPE_ALPHABET_TYPE, Type.STRING, CIPHER_FPE_ALPHABET_TYPE_DEFAULT,
           ConfigDef.Importance.MEDIUM, "defines the default alphabet type used for field-preserving encryption ciphers (currently supports 'DIGITS', 'ALPHANUMERIC', 'ALPHANUMERIC_EXTENDED', 'UPPERCASE', 'LOWERCASE', 'HEXADECIMAL', 'CUSTOM')")
       .define(CIPHER_FPE_ALPHABET_CUSTOM, Type.STRING, CIPHER_FPE_ALPHABET_CUSTOM_DEFAULT,
           ConfigDef.Importance.LOW, "defines the actual custom alphabet used for field-preserving encryption ciphers (mandatory if "+CIPHER_FPE_ALPHABET_TYPE_DEFAULT+") is set to 'CUSTOM')")
+      .define(CIPHER_FPE_ENGINE, Type.STRING, CIPHER_FPE_ENGINE_DEFAULT, new FpeEngineValidator(),
+          ConfigDef.Importance.LOW, "defines the FF3-1 implementation used for field-preserving encryption ciphers, either 'MYSTO' (default) or the in-house 'NATIVE' engine which produces identical ciphertexts")
       .define(CIPHER_MODE, Type.STRING, ConfigDef.NO_DEFAULT_VALUE, new CipherModeValidator(),
           ConfigDef.Importance.HIGH, "defines whether the data should get encrypted or decrypted")
       .define(KEY_SOURCE, Type.STRING, KEY_SOURCE_DEFAULT, new KeySourceValidator(), ConfigDef.Importance.HIGH,
@@ -101,7 +103,7 @@ public abstract class CipherField<R extends ConnectRecord<R>> implements Transfo
       .define(KEK_URI, Type.PASSWORD, KEK_URI_DEFAULT, ConfigDef.Importance.LOW,
           "remote/cloud KMS-specific URI to refer to the key encryption key if applicable")
       .define(SERDE_TYPE, Type.STRING, SERDE_TYPE_DEFAULT, ConfigDef.Importance.LOW,
-          "defines the serde type used for field value serialization ('KRYO' or 'AVRO')")
+          "defines the serde type used for field value serialization ('KRYO', 'AVRO' or 'PRIMITIVE')")
       .define(ENVELOPE_KEK_CONFIGS, Type.PASSWORD, ENVELOPE_KEK_CONFIGS_DEFAULT, ConfigDef.Importance.MEDIUM,
           "JSON array with envelope KEK config objects specifying identifier, kek_type, kek_uri and kek_config for each cloud KMS key encryption key to be used with TINK/AES_GCM_ENVELOPE_KMS")
       .define(ENVELOPE_KEK_IDENTIFIER, Type.STRING, ENVELOPE_KEK_IDENTIFIER_DEFAULT, ConfigDef.Importance.MEDIUM,
@@ -112,20 +114,32 @@ public abstract class CipherField<R extends ConnectRecord<R>> implements Transfo
           "maximum number of encrypt operations per DEK session before a new DEK is generated")
       .define(DEK_TTL_MINUTES, Type.LONG, DEK_TTL_MINUTES_DEFAULT, ConfigDef.Importance.LOW,
           "time-to-live in minutes for a DEK session before a new DEK is generated")
+      .define(DEK_ROTATION_WATERMARK, Type.DOUBLE, DEK_ROTATION_WATERMARK_DEFAULT, ConfigDef.Importance.LOW,
+          "fraction of dek_max_encryptions or dek_ttl_minutes after which the next DEK session is created in the background (1.0 disables proactive rotation)")
       .define(DEK_CACHE_SIZE, Type.INT, DEK_CACHE_SIZE_DEFAULT, ConfigDef.Importance.LOW,
           "maximum number of unwrapped DEKs to keep in the decrypt-side cache")
+      .define(DETERMINISTIC_CACHE_SIZE, Type.LONG, DETERMINISTIC_CACHE_SIZE_DEFAULT, ConfigDef.Importance.LOW,
+          "maximum number of memoized results of deterministic ciphers (TINK/AES_GCM_SIV and CUSTOM/MYSTO_FPE_FF3_1) to keep per instance (0 disables the cache)")
+      .define(DETERMINISTIC_CACHE_MAX_ENTRY_BYTES, Type.INT, DETERMINISTIC_CACHE_MAX_ENTRY_BYTES_DEFAULT, ConfigDef.Range.atLeast(1), ConfigDef.Importance.LOW,
+          "maximum size in bytes of a plaintext or ciphertext to be memoized by the deterministic cipher cache")
+      .define(SCHEMA_CACHE_SIZE, Type.INT, SCHEMA_CACHE_SIZE_DEFAULT, ConfigDef.Range.atLeast(1), ConfigDef.Importance.LOW,
+          "maximum number of distinct record schemas for which the rewritten schema and compiled field plan are cached")
       .define(EDEK_STORE_CONFIG, Type.PASSWORD, EDEK_STORE_CONFIG_DEFAULT, ConfigDef.Importance.MEDIUM,
-          "JSON object with EdekStore configuration (e.g. KCache-specific settings) to be used with TINK/AES_GCM_ENVELOPE_KMS");
+          "JSON object with EdekStore configuration (e.g. KCache-specific settings) to be used with TINK/AES_GCM_ENVELOPE_KMS")
+      .define(METRICS_TYPE, Type.STRING, METRICS_TYPE_DEFAULT, new MetricsTypeValidator(), ConfigDef.Importance.LOW,
+          "metrics implementation to report cipher operations, DEK sessions and cache statistics to, either NONE or JMX");
 
   private static final String PURPOSE = "(de)cipher connect record fields";
 
   private static final Logger LOGGER = LoggerFactory.getLogger(CipherField.class);
   private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
-  private FieldPathMatcher recordHandlerWithSchema;
+  private Kryptonite kryptonite;
+  private SchemaawareRecordHandler recordHandlerWithSchema;
   private FieldPathMatcher recordHandlerWithoutSchema;
   private SchemaRewriter schemaRewriter;
-  private Cache<Schema, Schema> schemaCache;
+  private Cache<Schema, SchemaawareRecordHandler.StructPlan> planCache;
+  private Cache<Schema, SchemaawareRecordHandler.StructPlan> planInstanceCache;
 
   @Override
   public R apply(R record) {
@@ -149,16 +163,39 @@ public abstract class CipherField<R extends ConnectRecord<R>> implements Transfo
   public R processWithSchema(R record) {
     LOGGER.debug("processing schema-aware data");
     var valueStruct = requireStruct(operatingValue(record), PURPOSE);
-    var updatedSchema = schemaCache.get(valueStruct.schema());
-    if(updatedSchema == null) {
-      LOGGER.debug("adapting schema because record's schema not present in cache");
-      updatedSchema = schemaRewriter.adaptSchema(valueStruct.schema(),"");
-      schemaCache.put(valueStruct.schema(),updatedSchema);
+    var plan = planInstanceCache.getIfPresent(valueStruct.schema());
+    if (plan == null) {
+      plan = planCache.get(valueStruct.schema(), this::compilePlan);
+      planInstanceCache.put(valueStruct.schema(), plan);
     }
-    var updatedValueStruct = new Struct(updatedSchema);
-    recordHandlerWithSchema.matchFields(valueStruct.schema(),valueStruct,updatedSchema,updatedValueStruct,"");
+    var updatedValueStruct = new Struct(plan.targetSchema());
+    recordHandlerWithSchema.apply(plan,valueStruct,updatedValueStruct);
     LOGGER.trace("resulting record data {}",updatedValueStruct);
-    return newRecord(record, updatedSchema, updatedValueStruct);
+    return newRecord(record, plan.targetSchema(), updatedValueStruct);
+  }
+
+  private SchemaawareRecordHandler.StructPlan compilePlan(Schema schema) {
+    LOGGER.debug("adapting schema and compiling field plan because record's schema not present in cache");
+    var updatedSchema = schemaRewriter.adaptSchema(schema,"");
+    return recordHandlerWithSchema.compile(schema,updatedSchema);
+  }
+
+  /**
+   * Statistics of the cache holding the rewritten schema and compiled field plan per record schema.
+   * Hits include lookups served by schema instance, misses are the schemas which had to be rewritten.
+   */
+  public CacheMetrics schemaCacheStats() {
+    var stats = planCache.stats();
+    var instanceHits = planInstanceCache.stats().hitCount();
+    return new CacheMetrics(instanceHits + stats.hitCount(), stats.missCount(), stats.evictionCount(), planCache.estimatedSize());
+  }
+
+  /**
+   * Performs pending maintenance of the schema cache, including evictions. Intended for testing only.
+   */
+  void cleanUpSchemaCache() {
+    planCache.cleanUp();
+    planInstanceCache.cleanUp();
   }
 
   @Override
@@ -166,27 +203,53 @@ public abstract class CipherField<R extends ConnectRecord<R>> implements Transfo
     return CONFIG_DEF;
   }
 
+  /**
+   * Closes the {@link Kryptonite} instance created by {@link #configure(Map)}, which releases its
+   * key material and background tasks and unregisters its metrics, e.g. the JMX MBeans which
+   * would otherwise pin this transformation across task restarts.
+   */
   @Override
   public void close() {
-
+    if (kryptonite != null) {
+      kryptonite.close();
+      kryptonite = null;
+    }
   }
 
   @Override
   public void configure(Map<String, ?> props) {
     try {
       var config = new SimpleConfig(CONFIG_DEF, props);
-      var fieldPathMap =
-          OBJECT_MAPPER
-              .readValue(config.getString(FIELD_CONFIG), new TypeReference<Set<FieldConfig>>() {})
-              .stream().collect(Collectors.toMap(FieldConfig::getName, Function.identity()));
-      var kryptonite = Kryptonite.createFromConfig(adaptToNormalizedStringsMap(config));
+      var fieldConfigs =
+          OBJECT_MAPPER.readValue(config.getString(FIELD_CONFIG), new TypeReference<Set<FieldConfig>>() {});
+      // NOTE: field configs with members configure field groups which are encrypted into a single
+      // carrier field instead of being matched against the record's fields like all others
+      var fieldPathMap = fieldConfigs.stream().filter(fc -> fc.getMembers().isEmpty())
+          .collect(Collectors.toMap(FieldConfig::getName, Function.identity()));
+      var fieldGroupMap = fieldConfigs.stream().filter(fc -> fc.getMembers().isPresent())
+          .collect(Collectors.toMap(FieldConfig::getName, Function.identity()));
+      close();
+      kryptonite = Kryptonite.createFromConfig(adaptToNormalizedStringsMap(config));
       recordHandlerWithSchema = new SchemaawareRecordHandler(config, kryptonite,
-          CipherMode.valueOf(config.getString(CIPHER_MODE)), fieldPathMap);
+          CipherMode.valueOf(config.getString(CIPHER_MODE)), fieldPathMap, fieldGroupMap);
       recordHandlerWithoutSchema = new SchemalessRecordHandler(config, kryptonite,
-          CipherMode.valueOf(config.getString(CIPHER_MODE)), fieldPathMap);
+          CipherMode.valueOf(config.getString(CIPHER_MODE)), fieldPathMap, fieldGroupMap);
       schemaRewriter = new SchemaRewriter(fieldPathMap, FieldMode.valueOf(config.getString(
-          FIELD_MODE)),CipherMode.valueOf(config.getString(CIPHER_MODE)), config.getString(PATH_DELIMITER));
-      schemaCache = new SynchronizedCache<>(new LRUCache<>(16));
+          FIELD_MODE)),CipherMode.valueOf(config.getString(CIPHER_MODE)), config.getString(PATH_DELIMITER),
+          new SchemaRewriter.DefaultTypeSchemaMapper(), CipherEncoding.valueOf(config.getString(CIPHER_TEXT_ENCODING)),
+          config.getString(CIPHER_ALGORITHM), fieldGroupMap);
+      planCache = Caffeine.newBuilder()
+          .maximumSize(config.getInt(SCHEMA_CACHE_SIZE))
+          .recordStats()
+          .build();
+      // NOTE: identity-keyed tier in front of the plan cache which spares the deep hashing of
+      // Connect schemas as long as converters keep handing out the same schema instance
+      planInstanceCache = Caffeine.newBuilder()
+          .weakKeys()
+          .maximumSize(config.getInt(SCHEMA_CACHE_SIZE))
+          .recordStats()
+          .build();
+      kryptonite.getMetrics().registerCache("schemaCache", this::schemaCacheStats);
     } catch (JsonProcessingException e) {
       throw new ConfigException(e.getMessage());
     }
@@ -206,6 +269,7 @@ public abstract class CipherField<R extends ConnectRecord<R>> implements Transfo
       Map.entry(CIPHER_FPE_TWEAK,Optional.ofNullable(config.getString(CIPHER_FPE_TWEAK)).orElse(CIPHER_FPE_TWEAK_DEFAULT)),
       Map.entry(CIPHER_FPE_ALPHABET_TYPE,Optional.ofNullable(config.getString(CIPHER_FPE_ALPHABET_TYPE)).orElse(CIPHER_FPE_ALPHABET_TYPE_DEFAULT)),
       Map.entry(CIPHER_FPE_ALPHABET_CUSTOM,Optional.ofNullable(config.getString(CIPHER_FPE_ALPHABET_CUSTOM)).orElse(CIPHER_FPE_ALPHABET_CUSTOM_DEFAULT)),
+      Map.entry(CIPHER_FPE_ENGINE,Optional.ofNullable(config.getString(CIPHER_FPE_ENGINE)).orElse(CIPHER_FPE_ENGINE_DEFAULT)),
       Map.entry(CIPHER_MODE, config.getString(CIPHER_MODE)),
       Map.entry(KEY_SOURCE, Optional.ofNullable(config.getString(KEY_SOURCE)).orElse(KEY_SOURCE_DEFAULT)),
       Map.entry(KMS_TYPE, Optional.ofNullable(config.getString(KMS_TYPE)).orElse(KMS_TYPE_DEFAULT)),
@@ -219,8 +283,12 @@ public abstract class CipherField<R extends ConnectRecord<R>> implements Transfo
       Map.entry(DEK_KEY_BITS, String.valueOf(config.getInt(DEK_KEY_BITS))),
       Map.entry(DEK_MAX_ENCRYPTIONS, String.valueOf(config.getLong(DEK_MAX_ENCRYPTIONS))),
       Map.entry(DEK_TTL_MINUTES, String.valueOf(config.getLong(DEK_TTL_MINUTES))),
+      Map.entry(DEK_ROTATION_WATERMARK, String.valueOf(config.getDouble(DEK_ROTATION_WATERMARK))),
       Map.entry(DEK_CACHE_SIZE, String.valueOf(config.getInt(DEK_CACHE_SIZE))),
-      Map.entry(EDEK_STORE_CONFIG, Optional.ofNullable(config.getPassword(EDEK_STORE_CONFIG).value()).orElse(EDEK_STORE_CONFIG_DEFAULT))
+      Map.entry(DETERMINISTIC_CACHE_SIZE, String.valueOf(config.getLong(DETERMINISTIC_CACHE_SIZE))),
+      Map.entry(DETERMINISTIC_CACHE_MAX_ENTRY_BYTES, String.valueOf(config.getInt(DETERMINISTIC_CACHE_MAX_ENTRY_BYTES))),
+      Map.entry(EDEK_STORE_CONFIG, Optional.ofNullable(config.getPassword(EDEK_STORE_CONFIG).value()).orElse(EDEK_STORE_CONFIG_DEFAULT)),
+      Map.entry(METRICS_TYPE, Optional.ofNullable(config.getString(METRICS_TYPE)).orElse(METRICS_TYPE_DEFAULT))
     );
   }
 
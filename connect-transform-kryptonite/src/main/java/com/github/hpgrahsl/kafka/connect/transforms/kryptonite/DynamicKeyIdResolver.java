@@ -3,11 +3,14 @@ package com.github.hpgrahsl.kafka.connect.transforms.kryptonite;
 import com.github.hpgrahsl.kryptonite.Kryptonite;
 import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings;
 import org.apache.kafka.common.config.AbstractConfig;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.connect.errors.DataException;
 
 import java.util.Arrays;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 /**
  * Resolves dynamic key identifiers for the Kafka Connect SMT against the root record.
@@ -27,7 +30,7 @@ import java.util.Map;
  * <p>If the selected identifier starts with {@code dynamic_key_id_prefix}, the remaining
  * suffix is interpreted as a field path and resolved from the root record. The extracted
  * value must be a non-blank {@link String}; otherwise resolution fails with a
- * {@link DataException}.
+ * {@link DataException}. The SMT compiles each such field path once into an {@link Accessor}.
  */
 final class DynamicKeyIdResolver {
 
@@ -36,25 +39,36 @@ final class DynamicKeyIdResolver {
 
     static String resolve(FieldConfig fieldConfig, AbstractConfig config, Map<String, Object> rootRecord) {
         var configuredKeyId = configuredKeyId(fieldConfig, config);
-        var prefix = config.getString(KryptoniteSettings.DYNAMIC_KEY_ID_PREFIX);
-        if (!configuredKeyId.startsWith(prefix)) {
+        if (!isDynamic(configuredKeyId, config)) {
             return configuredKeyId;
         }
-        var fieldPath = stripPrefix(configuredKeyId, prefix);
-        return requireNonBlank(extractFromMap(rootRecord, fieldPath, config.getString(KryptoniteSettings.PATH_DELIMITER)), configuredKeyId, fieldPath);
+        return compile(configuredKeyId, config).resolve(rootRecord);
     }
 
     static String resolve(FieldConfig fieldConfig, AbstractConfig config, Struct rootRecord) {
         var configuredKeyId = configuredKeyId(fieldConfig, config);
-        var prefix = config.getString(KryptoniteSettings.DYNAMIC_KEY_ID_PREFIX);
-        if (!configuredKeyId.startsWith(prefix)) {
+        if (!isDynamic(configuredKeyId, config)) {
             return configuredKeyId;
         }
-        var fieldPath = stripPrefix(configuredKeyId, prefix);
-        return requireNonBlank(extractFromStruct(rootRecord, fieldPath, config.getString(KryptoniteSettings.PATH_DELIMITER)), configuredKeyId, fieldPath);
+        return compile(configuredKeyId, config).resolve(rootRecord);
+    }
+
+    /**
+     * Whether the configured key identifier needs to be resolved against each record.
+     */
+    static boolean isDynamic(String configuredKeyId, AbstractConfig config) {
+        return configuredKeyId.startsWith(config.getString(KryptoniteSettings.DYNAMIC_KEY_ID_PREFIX));
+    }
+
+    /**
+     * Compiles the field path of a dynamic key identifier into an {@link Accessor}.
+     */
+    static Accessor compile(String configuredKeyId, AbstractConfig config) {
+        var prefix = config.getString(KryptoniteSettings.DYNAMIC_KEY_ID_PREFIX);
+        return new Accessor(configuredKeyId, prefix, config.getString(KryptoniteSettings.PATH_DELIMITER));
     }
 
-    private static String configuredKeyId(FieldConfig fieldConfig, AbstractConfig config) {
+    static String configuredKeyId(FieldConfig fieldConfig, AbstractConfig config) {
         return fieldConfig.getKeyId().orElseGet(() -> defaultConfiguredKeyId(fieldConfig, config));
     }
 
@@ -66,59 +80,91 @@ final class DynamicKeyIdResolver {
                 : config.getString(KryptoniteSettings.CIPHER_DATA_KEY_IDENTIFIER);
     }
 
-    private static String stripPrefix(String configuredKeyId, String prefix) {
-        var fieldPath = configuredKeyId.substring(prefix.length());
-        if (fieldPath.isBlank()) {
-            throw new DataException("Dynamic key identifier '" + configuredKeyId + "' has no field path after prefix '" + prefix + "'");
+    /**
+     * Pre-split field path of one dynamic key identifier which walks {@link Map} and {@link Struct}
+     * segments of a record. For structs the {@link Field} of each segment is remembered for the
+     * schema instance it was last looked up in, so consecutive records of the same schema skip
+     * the field lookup by name. An expression without field path only fails once it is resolved.
+     */
+    static final class Accessor {
+
+        private final String configuredKeyId;
+        private final String prefix;
+        private final String fieldPath;
+        private final String pathDelimiter;
+        private final String[] segments;
+        private final FieldLookup[] fieldLookups;
+
+        private Accessor(String configuredKeyId, String prefix, String pathDelimiter) {
+            this.configuredKeyId = configuredKeyId;
+            this.prefix = prefix;
+            this.fieldPath = configuredKeyId.substring(prefix.length());
+            this.pathDelimiter = pathDelimiter;
+            this.segments = fieldPath.isBlank() ? new String[0] : fieldPath.split(Pattern.quote(pathDelimiter));
+            this.fieldLookups = new FieldLookup[segments.length];
+            for (int i = 0; i < segments.length; i++) {
+                fieldLookups[i] = new FieldLookup();
+            }
         }
-        return fieldPath;
-    }
 
-    @SuppressWarnings("unchecked")
-    private static String extractFromMap(Map<String, Object> rootRecord, String fieldPath, String pathDelimiter) {
-        if (!fieldPath.contains(pathDelimiter)) {
-            var value = rootRecord.get(fieldPath);
-            return requireString(value, fieldPath, false);
+        String configuredKeyId() {
+            return configuredKeyId;
         }
-        var fields = fieldPath.split("\\" + pathDelimiter);
-        var head = rootRecord.get(fields[0]);
-        if (head instanceof Map<?, ?> mapValue) {
-            return extractFromMap((Map<String, Object>) mapValue,
-                    String.join(pathDelimiter, Arrays.copyOfRange(fields, 1, fields.length)), pathDelimiter);
+
+        String resolve(Object rootRecord) {
+            if (segments.length == 0) {
+                throw new DataException("Dynamic key identifier '" + configuredKeyId + "' has no field path after prefix '" + prefix + "'");
+            }
+            var last = segments.length - 1;
+            Object current = rootRecord;
+            for (int i = 0; i <= last; i++) {
+                Object value;
+                if (current instanceof Map<?, ?> mapValue) {
+                    value = mapValue.get(segments[i]);
+                } else if (current instanceof Struct structValue) {
+                    var field = fieldLookups[i].field(structValue.schema(), segments[i]);
+                    if (field == null) {
+                        throw missingOrWrongValue(remainingPath(i), i < last);
+                    }
+                    value = structValue.get(field);
+                } else {
+                    throw missingOrWrongIntermediate(remainingPath(i));
+                }
+                if (i < last && !(value instanceof Map) && !(value instanceof Struct)) {
+                    throw missingOrWrongIntermediate(remainingPath(i));
+                }
+                current = value;
+            }
+            if (!(current instanceof String)) {
+                requireString(current, remainingPath(last), false);
+            }
+            return requireNonBlank((String) current, configuredKeyId, fieldPath);
         }
-        if (head instanceof Struct structValue) {
-            return extractFromStruct(structValue,
-                    String.join(pathDelimiter, Arrays.copyOfRange(fields, 1, fields.length)), pathDelimiter);
+
+        private String remainingPath(int segment) {
+            return segment == 0 ? fieldPath : String.join(pathDelimiter, Arrays.copyOfRange(segments, segment, segments.length));
         }
-        throw missingOrWrongIntermediate(fieldPath);
+
     }
 
-    private static String extractFromStruct(Struct rootRecord, String fieldPath, String pathDelimiter) {
-        if (!fieldPath.contains(pathDelimiter)) {
-            if (rootRecord.schema().field(fieldPath) == null) {
-                throw missingOrWrongValue(fieldPath, false);
+    private static final class FieldLookup {
+
+        private volatile SchemaField last;
+
+        Field field(Schema schema, String name) {
+            var cached = last;
+            if (cached != null && cached.schema() == schema) {
+                return cached.field();
             }
-            var value = rootRecord.get(fieldPath);
-            return requireString(value, fieldPath, false);
-        }
-        var fields = fieldPath.split("\\" + pathDelimiter);
-        if (rootRecord.schema().field(fields[0]) == null) {
-            throw missingOrWrongIntermediate(fieldPath);
-        }
-        var head = rootRecord.get(fields[0]);
-        if (head instanceof Struct structValue) {
-            return extractFromStruct(structValue,
-                    String.join(pathDelimiter, Arrays.copyOfRange(fields, 1, fields.length)), pathDelimiter);
+            var field = schema.field(name);
+            last = new SchemaField(schema, field);
+            return field;
         }
-        if (head instanceof Map<?, ?> mapValue) {
-            @SuppressWarnings("unchecked")
-            var typedMap = (Map<String, Object>) mapValue;
-            return extractFromMap(typedMap,
-                    String.join(pathDelimiter, Arrays.copyOfRange(fields, 1, fields.length)), pathDelimiter);
-        }
-        throw missingOrWrongIntermediate(fieldPath);
+
     }
 
+    private record SchemaField(Schema schema, Field field) {}
+
     private static String requireString(Object value, String fieldPath, boolean intermediate) {
         if (value == null) {
             throw missingOrWrongValue(fieldPath, intermediate);
@@ -16,6 +16,7 @@
 
 package com.github.hpgrahsl.kafka.connect.transforms.kryptonite;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -33,6 +34,8 @@ public class FieldConfig {
   private AlphabetTypeFPE fpeAlphabetType;
   private String fpeAlphabetCustom;
   private String encoding;
+  private Integer compressionThreshold;
+  private List<String> members;
 
   private CipherField.FieldMode fieldMode;
 
@@ -52,6 +55,20 @@ public class FieldConfig {
     this.encoding = encoding;
   }
 
+  public FieldConfig(String name, String algorithm, String keyId,
+      Map<String, Object> schema, CipherField.FieldMode fieldMode, String fpeTweak, AlphabetTypeFPE fpeAlphabetType, String fpeAlphabetCustom, String encoding,
+      Integer compressionThreshold) {
+    this(name, algorithm, keyId, schema, fieldMode, fpeTweak, fpeAlphabetType, fpeAlphabetCustom, encoding);
+    this.compressionThreshold = compressionThreshold;
+  }
+
+  public FieldConfig(String name, String algorithm, String keyId,
+      Map<String, Object> schema, CipherField.FieldMode fieldMode, String fpeTweak, AlphabetTypeFPE fpeAlphabetType, String fpeAlphabetCustom, String encoding,
+      Integer compressionThreshold, List<String> members) {
+    this(name, algorithm, keyId, schema, fieldMode, fpeTweak, fpeAlphabetType, fpeAlphabetCustom, encoding, compressionThreshold);
+    this.members = members;
+  }
+
   public String getName() {
     return name;
   }
@@ -88,6 +105,22 @@ public class FieldConfig {
     return Optional.ofNullable(encoding);
   }
 
+  /**
+   * @return minimum serialized size in bytes at which the field value gets compressed before
+   *         encryption, if compression is enabled for this field
+   */
+  public Optional<Integer> getCompressionThreshold() {
+    return Optional.ofNullable(compressionThreshold);
+  }
+
+  /**
+   * @return names of the top-level fields which get encrypted together into the field named by
+   *         this config, if it configures a field group instead of a single field
+   */
+  public Optional<List<String>> getMembers() {
+    return Optional.ofNullable(members);
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o)
@@ -115,6 +148,8 @@ public class FieldConfig {
             ", fpeAlphabetType='" + fpeAlphabetType + '\'' +
             ", fpeAlphabetCustom='" + fpeAlphabetCustom + '\'' +
             ", encoding='" + encoding + '\'' +
+            ", compressionThreshold=" + compressionThreshold +
+            ", members=" + members +
             '}';
   }
 
@@ -131,6 +166,8 @@ public class FieldConfig {
     private AlphabetTypeFPE fpeAlphabetType;
     private String fpeAlphabetCustom;
     private String encoding;
+    private Integer compressionThreshold;
+    private List<String> members;
     private FieldMode fieldMode;
 
     private Builder() {
@@ -176,13 +213,24 @@ public class FieldConfig {
       return this;
     }
 
+    public Builder compressionThreshold(Integer compressionThreshold) {
+      this.compressionThreshold = compressionThreshold;
+      return this;
+    }
+
+    public Builder members(List<String> members) {
+      this.members = members;
+      return this;
+    }
+
     public Builder fieldMode(FieldMode fieldMode) {
       this.fieldMode = fieldMode;
       return this;
     }
 
     public FieldConfig build() {
-      return new FieldConfig(name, algorithm, keyId, schema, fieldMode, fpeTweak, fpeAlphabetType, fpeAlphabetCustom, encoding);
+      return new FieldConfig(name, algorithm, keyId, schema, fieldMode, fpeTweak, fpeAlphabetType, fpeAlphabetCustom, encoding,
+          compressionThreshold, members);
     }
   }
 
@@ -23,14 +23,21 @@ import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.AlphabetTypeFPE;
 import com.github.hpgrahsl.kryptonite.serdes.FieldHandler;
 
 import org.apache.kafka.common.config.AbstractConfig;
+import org.apache.kafka.common.config.ConfigException;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.connect.errors.DataException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Package-private helper shared by {@link SchemalessRecordHandler} and
@@ -48,54 +55,169 @@ class RecordHandler {
   private final Kryptonite kryptonite;
 
   final String pathDelimiter;
+  final String serdeName;
   final CipherMode cipherMode;
+  final CipherField.FieldMode defaultFieldMode;
   final Map<String, FieldConfig> fieldConfig;
+  private final Map<String, FieldSettings> fieldSettings;
+  private final FieldSettings defaultSettings;
+  private final Set<String> elementConfigParents;
+  private final Map<String, KeyIdSlot> keyIdSlots;
+  /** field groups by the name of their carrier field */
+  final Map<String, ResolvedGroup> fieldGroups;
+  /** field groups by the names of their members */
+  final Map<String, ResolvedGroup> fieldGroupMembers;
 
   RecordHandler(AbstractConfig config,
       Kryptonite kryptonite,
       CipherMode cipherMode,
       Map<String, FieldConfig> fieldConfig) {
+    this(config, kryptonite, cipherMode, fieldConfig, Map.of());
+  }
+
+  RecordHandler(AbstractConfig config,
+      Kryptonite kryptonite,
+      CipherMode cipherMode,
+      Map<String, FieldConfig> fieldConfig,
+      Map<String, FieldConfig> fieldGroupConfig) {
     this.config = config;
     this.kryptonite = kryptonite;
     this.pathDelimiter = config.getString(KryptoniteSettings.PATH_DELIMITER);
+    this.serdeName = config.getString(KryptoniteSettings.SERDE_TYPE);
     this.cipherMode = cipherMode;
+    this.defaultFieldMode = CipherField.FieldMode.valueOf(config.getString(KryptoniteSettings.FIELD_MODE));
     this.fieldConfig = fieldConfig;
+    this.fieldSettings = new HashMap<>();
+    this.elementConfigParents = new HashSet<>();
+    this.keyIdSlots = new HashMap<>();
+    fieldConfig.forEach((path, fc) -> {
+      fieldSettings.put(path, resolveSettings(fc));
+      for (int delim = path.lastIndexOf(pathDelimiter); delim > 0; delim = path.lastIndexOf(pathDelimiter, delim - 1)) {
+        elementConfigParents.add(path.substring(0, delim));
+      }
+    });
+    this.defaultSettings = resolveSettings(FieldConfig.builder().name("").build());
+    this.fieldGroups = new LinkedHashMap<>();
+    this.fieldGroupMembers = new HashMap<>();
+    fieldGroupConfig.forEach((name, fc) -> {
+      var group = resolveGroup(fc);
+      fieldGroups.put(name, group);
+      group.members.forEach(member -> fieldGroupMembers.put(member, group));
+    });
   }
 
   AbstractConfig getConfig() {
     return config;
   }
 
-  boolean isCipherFPE(FieldMetaData fieldMetaData) {
-    return CipherSpec.fromName(fieldMetaData.getAlgorithm().toUpperCase()).isCipherFPE();
+  /**
+   * Resolves the field at {@code fieldPath} to the settings of its field config, falling back to
+   * the config of an ELEMENT mode parent or to the defaults if there is none.
+   */
+  ResolvedField resolveField(String fieldPath) {
+    var settings = Optional.ofNullable(fieldSettings.get(fieldPath))
+        .or(() -> resolveElementModeParentPath(fieldPath).map(fieldSettings::get))
+        .orElse(defaultSettings);
+    return new ResolvedField(fieldPath, settings, elementConfigParents.contains(fieldPath));
+  }
+
+  /**
+   * Starts processing of a single record whose dynamic key ids are resolved against {@code rootRecord}.
+   */
+  RecordScope newScope(Object rootRecord) {
+    return new RecordScope(rootRecord, keyIdSlots.size());
+  }
+
+  /**
+   * Returns the pre-built {@link FieldMetaData} of the resolved field, or derives it for a
+   * dynamic key id which is resolved against the root record of {@code scope}.
+   */
+  FieldMetaData fieldMetaData(ResolvedField field, RecordScope scope) {
+    var settings = field.settings;
+    if (settings.keyIdSlot == null) {
+      return settings.fieldMetaData;
+    }
+    var template = settings.fieldMetaData;
+    return new FieldMetaData(template.getAlgorithm(), template.getDataType(), scope.keyId(settings.keyIdSlot),
+        template.getFpeTweak(), template.getFpeAlphabet(), template.getEncoding());
+  }
+
+  /**
+   * Returns the pre-built {@link PayloadMetaData} of the resolved field, or derives it for a
+   * dynamic key id which is resolved against the root record of {@code scope}.
+   */
+  PayloadMetaData payloadMetaData(ResolvedField field, RecordScope scope) {
+    var settings = field.settings;
+    if (settings.keyIdSlot == null) {
+      return settings.payloadMetaData;
+    }
+    return new PayloadMetaData(Kryptonite.KRYPTONITE_VERSION, settings.payloadMetaData.getAlgorithmId(),
+        scope.keyId(settings.keyIdSlot));
   }
 
-  FieldMetaData determineFieldMetaData(Object rootRecord, Object fieldValue, String fieldPath) {
-    var fieldConfig = Optional.ofNullable(this.fieldConfig.get(fieldPath))
-        .or(() -> resolveElementModeParentPath(fieldPath).map(this.fieldConfig::get))
-        .orElseGet(() -> FieldConfig.builder().name(fieldPath).build());
+  private FieldSettings resolveSettings(FieldConfig fieldConfig) {
     var algorithm = fieldConfig.getAlgorithm().orElseGet(() -> config.getString(KryptoniteSettings.CIPHER_ALGORITHM));
-    var keyId = resolveKeyId(fieldConfig, rootRecord);
-    return FieldMetaData.builder()
+    var cipherSpec = CipherSpec.fromName(algorithm.toUpperCase());
+    var configuredKeyId = DynamicKeyIdResolver.configuredKeyId(fieldConfig, config);
+    var fieldMetaData = FieldMetaData.builder()
         .algorithm(algorithm)
-        .dataType(Optional.ofNullable(fieldValue).map(o -> o.getClass().getName()).orElse(""))
-        .keyId(keyId)
+        .dataType("")
+        .keyId(configuredKeyId)
         .fpeTweak(fieldConfig.getFpeTweak().orElseGet(() -> config.getString(KryptoniteSettings.CIPHER_FPE_TWEAK)))
         .fpeAlphabet(determineAlphabetFromFieldConfig(fieldConfig))
         .encoding(fieldConfig.getEncoding().orElse(config.getString(KryptoniteSettings.CIPHER_TEXT_ENCODING)))
         .build();
+    var algorithmId = Kryptonite.CIPHERSPEC_ID_LUT.get(cipherSpec);
+    return new FieldSettings(
+        fieldConfig,
+        fieldConfig.getFieldMode().orElse(defaultFieldMode),
+        cipherSpec.isCipherFPE(),
+        CipherField.CipherEncoding.RAW_BYTES.name().equals(fieldMetaData.getEncoding()),
+        fieldConfig.getCompressionThreshold().orElse(FieldHandler.COMPRESSION_DISABLED),
+        DynamicKeyIdResolver.isDynamic(configuredKeyId, config) ? keyIdSlot(configuredKeyId) : null,
+        fieldMetaData,
+        algorithmId != null ? new PayloadMetaData(Kryptonite.KRYPTONITE_VERSION, algorithmId, configuredKeyId) : null);
   }
 
-  private String resolveKeyId(FieldConfig fieldConfig, Object rootRecord) {
-    if (rootRecord instanceof Map<?, ?> rootMap) {
-      @SuppressWarnings("unchecked")
-      var typedMap = (Map<String, Object>) rootMap;
-      return DynamicKeyIdResolver.resolve(fieldConfig, config, typedMap);
+  /**
+   * Resolves the settings of a field group after validating that its carrier and members are
+   * distinct top-level fields which are neither configured on their own nor part of another group.
+   */
+  private ResolvedGroup resolveGroup(FieldConfig groupConfig) {
+    var name = groupConfig.getName();
+    var members = groupConfig.getMembers().orElse(List.of());
+    if (members.isEmpty()) {
+      throw new ConfigException("field group '" + name + "' must have at least one member");
+    }
+    var fieldNames = new ArrayList<String>(members.size() + 1);
+    fieldNames.add(name);
+    fieldNames.addAll(members);
+    var seen = new HashSet<String>();
+    for (var fieldName : fieldNames) {
+      if (fieldName == null || fieldName.isBlank() || fieldName.contains(pathDelimiter)) {
+        throw new ConfigException("field group '" + name + "' may only refer to top-level fields but found '" + fieldName + "'");
+      }
+      if (!seen.add(fieldName) || fieldConfig.containsKey(fieldName) || fieldGroupMembers.containsKey(fieldName)
+          || fieldGroups.containsKey(fieldName)) {
+        throw new ConfigException("field group '" + name + "' refers to field '" + fieldName
+            + "' which is already configured elsewhere");
+      }
     }
-    if (rootRecord instanceof Struct rootStruct) {
-      return DynamicKeyIdResolver.resolve(fieldConfig, config, rootStruct);
+    var settings = resolveSettings(groupConfig);
+    if (settings.cipherFPE) {
+      throw new ConfigException("field group '" + name + "' requires an AEAD cipher but found FPE cipher "
+          + settings.fieldMetaData.getAlgorithm());
     }
-    return fieldConfig.getKeyId().orElseGet(() -> config.getString(KryptoniteSettings.CIPHER_DATA_KEY_IDENTIFIER));
+    return new ResolvedGroup(new ResolvedField(name, settings, false), List.copyOf(members));
+  }
+
+  /**
+   * Fields sharing the same dynamic key id expression share one compiled accessor and slot, so
+   * that the expression is resolved at most once per record.
+   */
+  private KeyIdSlot keyIdSlot(String configuredKeyId) {
+    return keyIdSlots.computeIfAbsent(configuredKeyId,
+        keyId -> new KeyIdSlot(keyIdSlots.size(), DynamicKeyIdResolver.compile(keyId, config)));
   }
 
   /**
@@ -106,21 +228,40 @@ class RecordHandler {
     int lastDelim = fieldPath.lastIndexOf(pathDelimiter);
     if (lastDelim < 0) return Optional.empty();
     var parentPath = fieldPath.substring(0, lastDelim);
-    var parentFc = fieldConfig.get(parentPath);
-    if (parentFc == null) return Optional.empty();
-    var mode = parentFc.getFieldMode()
-        .orElse(CipherField.FieldMode.valueOf(config.getString(KryptoniteSettings.FIELD_MODE)));
-    return mode == CipherField.FieldMode.ELEMENT ? Optional.of(parentPath) : Optional.empty();
+    var parentSettings = fieldSettings.get(parentPath);
+    if (parentSettings == null) return Optional.empty();
+    return parentSettings.fieldMode == CipherField.FieldMode.ELEMENT ? Optional.of(parentPath) : Optional.empty();
   }
 
-  String encryptNonFPE(Object fieldValue, FieldMetaData fieldMetaData) {
+  /**
+   * Encrypts the field into a Base64 {@link String}, or into raw envelope bytes if the field's
+   * encoding is {@link CipherField.CipherEncoding#RAW_BYTES}.
+   */
+  Object encryptNonFPE(Object fieldValue, PayloadMetaData metadata, ResolvedField field) {
     LOGGER.trace("object to be encrypted: {}", fieldValue);
-    var metadata = PayloadMetaData.from(fieldMetaData);
-    var encodedField = FieldHandler.encryptField(fieldValue, metadata, kryptonite, config.getString(KryptoniteSettings.SERDE_TYPE));
+    var compressionThreshold = field.settings.compressionThreshold;
+    if (field.settings.rawBytes) {
+      var envelope = FieldHandler.encryptFieldRaw(fieldValue, metadata, kryptonite, serdeName, compressionThreshold);
+      LOGGER.trace("returning raw field of {} bytes", envelope.length);
+      return envelope;
+    }
+    var encodedField = FieldHandler.encryptField(fieldValue, metadata, kryptonite, serdeName, compressionThreshold);
     LOGGER.trace("returning encoded field: {}", encodedField);
     return encodedField;
   }
 
+  /**
+   * Encrypts the canonical values of all members of a field group together into a single
+   * envelope, encoded like {@link #encryptNonFPE} according to the group's settings.
+   */
+  Object encryptGroup(Map<String, ?> members, PayloadMetaData metadata, ResolvedField group) {
+    LOGGER.trace("field group to be encrypted: {}", members.keySet());
+    var compressionThreshold = group.settings.compressionThreshold;
+    return group.settings.rawBytes
+        ? FieldHandler.encryptFieldGroupRaw(members, metadata, kryptonite, serdeName, compressionThreshold)
+        : FieldHandler.encryptFieldGroup(members, metadata, kryptonite, serdeName, compressionThreshold);
+  }
+
   String encryptFPE(Object fieldValue, FieldMetaData fieldMetaData) {
     LOGGER.trace("object to be FPE encrypted: {}", fieldValue);
     if (fieldValue == null) {
@@ -137,7 +278,8 @@ class RecordHandler {
   }
 
   /**
-   * Decrypts the encoded field and returns the raw serde output.
+   * Decrypts the encoded field, given either as Base64 {@link String} or as raw envelope bytes,
+   * and returns the raw serde output.
    * The caller is responsible for any post-decrypt type conversion.
    */
   Object decryptNonFPE(Object fieldValue) {
@@ -145,11 +287,25 @@ class RecordHandler {
       return null;
     }
     LOGGER.debug("object to be decrypted: {}", fieldValue);
-    var restoredField = FieldHandler.decryptField((String) fieldValue, kryptonite);
+    var restoredField = FieldHandler.decryptField(fieldValue, kryptonite);
     LOGGER.trace("restored field: {}", restoredField);
     return restoredField;
   }
 
+  /**
+   * Decrypts the envelope of a field group and returns its members mapped to their raw serde
+   * output, or {@code null} if there is no envelope.
+   */
+  Map<String, Object> decryptGroup(Object fieldValue) {
+    if (fieldValue == null) {
+      return null;
+    }
+    LOGGER.debug("field group to be decrypted: {}", fieldValue);
+    var restoredMembers = FieldHandler.decryptFieldGroup(fieldValue, kryptonite);
+    LOGGER.trace("restored field group members: {}", restoredMembers.keySet());
+    return restoredMembers;
+  }
+
   String decryptFPE(Object fieldValue, FieldMetaData fieldMetaData) {
     if (fieldValue == null) {
       return null;
@@ -170,14 +326,115 @@ class RecordHandler {
         () -> AlphabetTypeFPE.valueOf(config.getString(KryptoniteSettings.CIPHER_FPE_ALPHABET_TYPE))
     );
     return AlphabetTypeFPE.CUSTOM == alphabetType
-        ? fieldConfig.getFpeAlphabetCustom().orElseGet(() -> config.getString(KryptoniteSettings.CIPHER_FPE_ALPHABET_CUSTOM_DEFAULT))
+        ? fieldConfig.getFpeAlphabetCustom().orElseGet(() -> config.getString(KryptoniteSettings.CIPHER_FPE_ALPHABET_CUSTOM))
         : alphabetType.getAlphabet();
   }
 
-  private String getAlphabetFromGlobalConfig() {
-    return config.getString(KryptoniteSettings.CIPHER_FPE_ALPHABET_TYPE) == AlphabetTypeFPE.CUSTOM.name()
-        ? config.getString(KryptoniteSettings.CIPHER_FPE_ALPHABET_CUSTOM)
-        : AlphabetTypeFPE.valueOf(config.getString(KryptoniteSettings.CIPHER_FPE_ALPHABET_TYPE)).getAlphabet();
+  /**
+   * Settings of a single {@link FieldConfig} merged with the configured defaults, resolved once
+   * per handler. For dynamic key ids the meta-data only serves as template for each record.
+   */
+  static final class FieldSettings {
+
+    final FieldConfig fieldConfig;
+    final CipherField.FieldMode fieldMode;
+    final boolean cipherFPE;
+    final boolean rawBytes;
+    final int compressionThreshold;
+    /** {@code null} unless the key id is resolved from each record */
+    final KeyIdSlot keyIdSlot;
+    private final FieldMetaData fieldMetaData;
+    private final PayloadMetaData payloadMetaData;
+
+    private FieldSettings(FieldConfig fieldConfig, CipherField.FieldMode fieldMode, boolean cipherFPE, boolean rawBytes,
+        int compressionThreshold, KeyIdSlot keyIdSlot, FieldMetaData fieldMetaData, PayloadMetaData payloadMetaData) {
+      this.fieldConfig = fieldConfig;
+      this.fieldMode = fieldMode;
+      this.cipherFPE = cipherFPE;
+      this.rawBytes = rawBytes;
+      this.compressionThreshold = compressionThreshold;
+      this.keyIdSlot = keyIdSlot;
+      this.fieldMetaData = fieldMetaData;
+      this.payloadMetaData = payloadMetaData;
+    }
+
+  }
+
+  /**
+   * A field path together with the settings it resolves to, see {@link #resolveField(String)}.
+   */
+  static final class ResolvedField {
+
+    final String path;
+    final FieldSettings settings;
+    /** whether any field config exists for a key-appended path below this one (e.g. "mymap.k1") */
+    final boolean hasElementConfigs;
+
+    private ResolvedField(String path, FieldSettings settings, boolean hasElementConfigs) {
+      this.path = path;
+      this.settings = settings;
+      this.hasElementConfigs = hasElementConfigs;
+    }
+
+  }
+
+  /**
+   * A field group, i.e. top-level fields which get encrypted together into a single carrier field,
+   * see {@link FieldConfig#getMembers()}.
+   */
+  static final class ResolvedGroup {
+
+    /** the carrier field of the group, resolved to the group's settings */
+    final ResolvedField carrier;
+    final List<String> members;
+
+    private ResolvedGroup(ResolvedField carrier, List<String> members) {
+      this.carrier = carrier;
+      this.members = members;
+    }
+
+  }
+
+  /**
+   * A compiled dynamic key id expression together with its index into {@link RecordScope}.
+   */
+  static final class KeyIdSlot {
+
+    private final int index;
+    private final DynamicKeyIdResolver.Accessor accessor;
+
+    private KeyIdSlot(int index, DynamicKeyIdResolver.Accessor accessor) {
+      this.index = index;
+      this.accessor = accessor;
+    }
+
+  }
+
+  /**
+   * The root of the record being processed together with the dynamic key ids already resolved
+   * from it. Only valid for the processing of this one record.
+   */
+  static final class RecordScope {
+
+    private final Object rootRecord;
+    private final String[] keyIds;
+
+    private RecordScope(Object rootRecord, int keyIdSlots) {
+      this.rootRecord = rootRecord;
+      this.keyIds = keyIdSlots == 0 ? null : new String[keyIdSlots];
+    }
+
+    private String keyId(KeyIdSlot slot) {
+      var keyId = keyIds[slot.index];
+      if (keyId == null) {
+        keyId = rootRecord instanceof Map || rootRecord instanceof Struct
+            ? slot.accessor.resolve(rootRecord)
+            : slot.accessor.configuredKeyId();
+        keyIds[slot.index] = keyId;
+      }
+      return keyId;
+    }
+
   }
 
 }
@@ -16,12 +16,18 @@
 
 package com.github.hpgrahsl.kafka.connect.transforms.kryptonite;
 
+import com.github.hpgrahsl.kafka.connect.transforms.kryptonite.CipherField.CipherEncoding;
 import com.github.hpgrahsl.kafka.connect.transforms.kryptonite.CipherField.FieldMode;
 import com.github.hpgrahsl.kryptonite.CipherMode;
+import com.github.hpgrahsl.kryptonite.Kryptonite.CipherSpec;
+import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.Schema.Type;
@@ -42,26 +48,58 @@ public class SchemaRewriter {
   private final CipherMode cipherMode;
   private final String pathDelimiter;
   private final TypeSchemaMapper typeSchemaMapper;
+  private final CipherEncoding defaultEncoding;
+  private final String defaultAlgorithm;
+  private final Map<String, FieldConfig> fieldGroups;
+  private final Map<String, FieldConfig> fieldGroupMembers;
 
   public SchemaRewriter(
       Map<String, FieldConfig> fieldConfig,
       FieldMode fieldMode, CipherMode cipherMode, String pathDelimiter) {
-    this.fieldConfig = fieldConfig;
-    this.fieldMode = fieldMode;
-    this.cipherMode = cipherMode;
-    this.pathDelimiter = pathDelimiter;
-    this.typeSchemaMapper = new DefaultTypeSchemaMapper();
+    this(fieldConfig, fieldMode, cipherMode, pathDelimiter, new DefaultTypeSchemaMapper());
   }
 
   public SchemaRewriter(
       Map<String, FieldConfig> fieldConfig,
       FieldMode fieldMode, CipherMode cipherMode, String pathDelimiter,
       TypeSchemaMapper typeSchemaMapper) {
+    this(fieldConfig, fieldMode, cipherMode, pathDelimiter, typeSchemaMapper,
+        CipherEncoding.valueOf(KryptoniteSettings.CIPHER_TEXT_ENCODING_DEFAULT), KryptoniteSettings.CIPHER_ALGORITHM_DEFAULT);
+  }
+
+  /**
+   * @param defaultEncoding  ciphertext encoding for fields which don't configure their own; encrypted
+   *                         non-FPE fields are rewritten to {@code BYTES} instead of {@code STRING}
+   *                         for {@link CipherEncoding#RAW_BYTES}
+   * @param defaultAlgorithm cipher algorithm for fields which don't configure their own
+   */
+  public SchemaRewriter(
+      Map<String, FieldConfig> fieldConfig,
+      FieldMode fieldMode, CipherMode cipherMode, String pathDelimiter,
+      TypeSchemaMapper typeSchemaMapper, CipherEncoding defaultEncoding, String defaultAlgorithm) {
+    this(fieldConfig, fieldMode, cipherMode, pathDelimiter, typeSchemaMapper, defaultEncoding, defaultAlgorithm, Map.of());
+  }
+
+  /**
+   * @param fieldGroups field group configs by the name of their carrier field, see
+   *                    {@link FieldConfig#getMembers()}
+   */
+  public SchemaRewriter(
+      Map<String, FieldConfig> fieldConfig,
+      FieldMode fieldMode, CipherMode cipherMode, String pathDelimiter,
+      TypeSchemaMapper typeSchemaMapper, CipherEncoding defaultEncoding, String defaultAlgorithm,
+      Map<String, FieldConfig> fieldGroups) {
     this.fieldConfig = fieldConfig;
     this.fieldMode = fieldMode;
     this.cipherMode = cipherMode;
     this.pathDelimiter = pathDelimiter;
     this.typeSchemaMapper = typeSchemaMapper;
+    this.defaultEncoding = defaultEncoding;
+    this.defaultAlgorithm = defaultAlgorithm;
+    this.fieldGroups = fieldGroups;
+    this.fieldGroupMembers = new HashMap<>();
+    fieldGroups.values().forEach(group -> group.getMembers().orElse(List.of())
+        .forEach(member -> fieldGroupMembers.put(member, group)));
   }
 
   public Schema adaptSchema(Schema original, String matchedPath) {
@@ -69,7 +107,9 @@ public class SchemaRewriter {
     var builder  = SchemaUtil.copySchemaBasics(original);
     for (var field : original.fields()) {
       var updatedPath = matchedPath.isEmpty() ? field.name() : matchedPath + pathDelimiter + field.name();
-      if (fieldConfig.containsKey(updatedPath)) {
+      if (matchedPath.isEmpty() && adaptFieldGroup(original, builder, field)) {
+        LOGGER.trace("adapted schema for field group of field '{}'",updatedPath);
+      } else if (fieldConfig.containsKey(updatedPath)) {
         LOGGER.trace("adapting schema for matched field '{}'",updatedPath);
         adaptField(derivePrimaryType(field,updatedPath),builder,field,updatedPath);
       } else {
@@ -94,10 +134,7 @@ public class SchemaRewriter {
         break;
       default:
         builder.field(field.name(),
-            typeSchemaMapper.getSchemaForPrimitiveType(
-                decisiveType,field.schema().isOptional(),cipherMode
-            )
-        );
+            primitiveFieldSchema(updatedPath, decisiveType, field.schema().isOptional()));
     }
   }
 
@@ -107,8 +144,8 @@ public class SchemaRewriter {
         LOGGER.trace("creating field schema for type {}",Type.ARRAY);
         builder.field(field.name(),
             FieldMode.ELEMENT == fieldConfig.get(fieldPath).getFieldMode().orElse(fieldMode)
-                ? SchemaBuilder.array(typeSchemaMapper.getSchemaForPrimitiveType(field.schema().valueSchema().type(), field.schema().valueSchema().isOptional(), cipherMode)).build()
-                : (field.schema().isOptional() ? Schema.OPTIONAL_STRING_SCHEMA : Schema.STRING_SCHEMA)
+                ? SchemaBuilder.array(primitiveFieldSchema(fieldPath, field.schema().valueSchema().type(), field.schema().valueSchema().isOptional())).build()
+                : encryptedObjectSchema(fieldPath, field.schema().isOptional())
         );
       } else {
         //NOTE: whether or not the array itself is optional is specified
@@ -129,8 +166,8 @@ public class SchemaRewriter {
         builder.field(field.name(),
             FieldMode.ELEMENT == fieldConfig.get(fieldPath).getFieldMode().orElse(fieldMode)
                 ? SchemaBuilder.map(typeSchemaMapper.getSchemaForPrimitiveType(field.schema().keySchema().type(), field.schema().keySchema().isOptional(), cipherMode),
-                typeSchemaMapper.getSchemaForPrimitiveType(field.schema().valueSchema().type(), field.schema().valueSchema().isOptional(), cipherMode)).build()
-                : (field.schema().isOptional() ? Schema.OPTIONAL_STRING_SCHEMA : Schema.STRING_SCHEMA)
+                primitiveFieldSchema(fieldPath, field.schema().valueSchema().type(), field.schema().valueSchema().isOptional())).build()
+                : encryptedObjectSchema(fieldPath, field.schema().isOptional())
         );
       } else {
         //NOTE: whether or not the map itself is optional is specified
@@ -150,7 +187,7 @@ public class SchemaRewriter {
         builder.field(field.name(),
             FieldMode.ELEMENT == fieldConfig.get(fieldPath).getFieldMode().orElse(fieldMode)
             ? adaptSchema(field.schema(), fieldPath)
-            : field.schema().isOptional() ? Schema.OPTIONAL_STRING_SCHEMA : Schema.STRING_SCHEMA
+            : encryptedObjectSchema(fieldPath, field.schema().isOptional())
         );
       } else {
         //NOTE: whether or not the struct itself is optional is specified
@@ -161,6 +198,86 @@ public class SchemaRewriter {
       }
   }
 
+  /**
+   * For encryption, replaces the members of a field group with its carrier field at the position
+   * of the first member. For decryption, replaces the carrier field with the members as given by
+   * the group's STRUCT schema spec.
+   *
+   * @return whether {@code field} is either a member or the carrier of a field group
+   */
+  private boolean adaptFieldGroup(Schema original, SchemaBuilder builder, Field field) {
+    if (CipherMode.ENCRYPT == cipherMode) {
+      var group = fieldGroupMembers.get(field.name());
+      if (group == null) {
+        return false;
+      }
+      if (original.field(group.getName()) != null) {
+        throw new DataException("field group '" + group.getName() + "' collides with an existing field of the same name");
+      }
+      if (builder.field(group.getName()) == null) {
+        LOGGER.trace("creating carrier field schema for field group '{}'",group.getName());
+        builder.field(group.getName(), encryptedObjectSchema(group, false));
+      }
+      return true;
+    }
+    var group = fieldGroups.get(field.name());
+    if (group == null) {
+      return false;
+    }
+    LOGGER.trace("rebuilding member field schemas for field group '{}' from config",group.getName());
+    var fieldSpec = group.getSchema().orElseThrow(
+        () -> new DataException(
+            "schema-aware data needs schema spec for "+cipherMode+" but none was given"
+                + " for field group '"+group.getName()+"'")
+    );
+    var membersSchema = extractAndAdaptStructSchemaFromConfig(fieldSpec, group.getName());
+    var memberNames = membersSchema.fields().stream().map(Field::name).collect(Collectors.toSet());
+    if (!memberNames.equals(Set.copyOf(group.getMembers().orElse(List.of())))) {
+      throw new DataException("schema spec of field group '" + group.getName() + "' must define exactly its members "
+          + group.getMembers().orElse(List.of()) + " but found " + memberNames);
+    }
+    membersSchema.fields().forEach(member -> builder.field(member.name(), member.schema()));
+    return true;
+  }
+
+  /**
+   * Schema of a primitive field (or element) at {@code fieldPath} after applying the cipher mode.
+   */
+  private Schema primitiveFieldSchema(String fieldPath, Type type, boolean isOptional) {
+    if (CipherMode.ENCRYPT == cipherMode && isRawBytesEncoded(fieldPath)) {
+      return isOptional ? Schema.OPTIONAL_BYTES_SCHEMA : Schema.BYTES_SCHEMA;
+    }
+    return typeSchemaMapper.getSchemaForPrimitiveType(type, isOptional, cipherMode);
+  }
+
+  /**
+   * Schema of a complex field at {@code fieldPath} which is encrypted as a whole.
+   */
+  private Schema encryptedObjectSchema(String fieldPath, boolean isOptional) {
+    return encryptedObjectSchema(fieldConfig.get(fieldPath), isOptional);
+  }
+
+  private Schema encryptedObjectSchema(FieldConfig fc, boolean isOptional) {
+    if (isRawBytesEncoded(fc)) {
+      return isOptional ? Schema.OPTIONAL_BYTES_SCHEMA : Schema.BYTES_SCHEMA;
+    }
+    return isOptional ? Schema.OPTIONAL_STRING_SCHEMA : Schema.STRING_SCHEMA;
+  }
+
+  private boolean isRawBytesEncoded(String fieldPath) {
+    return isRawBytesEncoded(fieldConfig.get(fieldPath));
+  }
+
+  private boolean isRawBytesEncoded(FieldConfig fc) {
+    var encoding = Optional.ofNullable(fc).flatMap(FieldConfig::getEncoding).orElse(defaultEncoding.name());
+    if (CipherEncoding.RAW_BYTES != CipherEncoding.valueOf(encoding)) {
+      return false;
+    }
+    // FPE ciphertexts are always strings regardless of the configured encoding
+    var algorithm = Optional.ofNullable(fc).flatMap(FieldConfig::getAlgorithm).orElse(defaultAlgorithm);
+    return !CipherSpec.fromName(algorithm.toUpperCase()).isCipherFPE();
+  }
+
   private Type derivePrimaryType(Field field, String fieldPath) {
     try {
       if(CipherMode.ENCRYPT == cipherMode)
@@ -24,6 +24,7 @@ import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings;
 import com.github.hpgrahsl.kryptonite.converters.ConnectFieldConverter;
 
 import org.apache.kafka.common.config.AbstractConfig;
+import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.Schema.Type;
 import org.apache.kafka.connect.data.Struct;
@@ -32,7 +33,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class SchemaawareRecordHandler implements FieldPathMatcher {
 
@@ -46,7 +46,15 @@ public class SchemaawareRecordHandler implements FieldPathMatcher {
                                   Kryptonite kryptonite,
                                   CipherMode cipherMode,
                                   Map<String, FieldConfig> fieldConfig) {
-    this.handler = new RecordHandler(config, kryptonite, cipherMode, fieldConfig);
+    this(config, kryptonite, cipherMode, fieldConfig, Map.of());
+  }
+
+  public SchemaawareRecordHandler(AbstractConfig config,
+                                  Kryptonite kryptonite,
+                                  CipherMode cipherMode,
+                                  Map<String, FieldConfig> fieldConfig,
+                                  Map<String, FieldConfig> fieldGroupConfig) {
+    this.handler = new RecordHandler(config, kryptonite, cipherMode, fieldConfig, fieldGroupConfig);
     this.fieldConverter = new ConnectFieldConverter();
     this.schemaCache = initializeSchemaCache(fieldConfig, config);
   }
@@ -54,111 +62,232 @@ public class SchemaawareRecordHandler implements FieldPathMatcher {
   @Override
   public Object matchFields(Schema sourceSchema, Object sourceRecord, Schema targetSchema,
       Object targetRecord, String matchedPath) {
-    return matchFields((Struct) sourceRecord, sourceSchema, (Struct) sourceRecord,
-        targetSchema, (Struct) targetRecord, matchedPath);
+    return apply(compile(sourceSchema, targetSchema, matchedPath), (Struct) sourceRecord, (Struct) targetRecord);
   }
 
   /**
-   * Recursively traverses the current source/target struct pair while keeping the original
-   * top-level record available for aspects such as dynamic key id resolution.
+   * Compiles the plan to process records of {@code sourceSchema} into records of the
+   * {@code targetSchema} which the {@link SchemaRewriter} derived from it. Plans only depend on
+   * the schemas and the configuration, so they are meant to be cached and reused per schema.
    */
-  private Object matchFields(Struct rootRecord, Schema sourceSchema, Struct sourceStruct, Schema targetSchema,
-      Struct targetStruct, String matchedPath) {
-    LOGGER.trace("checking fields in record {}", sourceStruct);
-    sourceSchema.fields().forEach(field -> {
+  StructPlan compile(Schema sourceSchema, Schema targetSchema) {
+    return compile(sourceSchema, targetSchema, "");
+  }
+
+  /**
+   * Processes all fields of {@code sourceRecord} into {@code targetRecord} as compiled into the plan.
+   */
+  Struct apply(StructPlan plan, Struct sourceRecord, Struct targetRecord) {
+    return apply(plan, handler.newScope(sourceRecord), sourceRecord, targetRecord);
+  }
+
+  private StructPlan compile(Schema sourceSchema, Schema targetSchema, String matchedPath) {
+    var copiedFields = new ArrayList<Field>();
+    var steps = new ArrayList<FieldStep>();
+    var groupFields = new LinkedHashMap<RecordHandler.ResolvedGroup, List<Field>>();
+    for (var field : sourceSchema.fields()) {
       var updatedPath = matchedPath.isEmpty() ? field.name() : matchedPath + handler.pathDelimiter + field.name();
-      var fc = handler.fieldConfig.get(updatedPath);
-      if (fc != null) {
-        LOGGER.trace("matched field '{}'", updatedPath);
-        if (FieldMode.ELEMENT == fc.getFieldMode()
-            .orElse(FieldMode.valueOf(handler.getConfig().getString(KryptoniteSettings.FIELD_MODE)))) {
-          if (field.schema().type() == Type.ARRAY) {
-            LOGGER.trace("processing {} field element-wise", Type.ARRAY);
-            targetStruct.put(targetSchema.field(field.name()), processListField(rootRecord,
-                (List<?>) sourceStruct.get(field.name()), updatedPath, field.schema().valueSchema()));
-          } else if (field.schema().type() == Type.MAP) {
-            LOGGER.trace("processing {} field element-wise", Type.MAP);
-            targetStruct.put(targetSchema.field(field.name()), processMapField(rootRecord,
-                (Map<?, ?>) sourceStruct.get(field.name()), updatedPath, field.schema().valueSchema()));
-          } else if (field.schema().type() == Type.STRUCT) {
-            if (sourceStruct.get(field.name()) != null) {
-              LOGGER.trace("processing {} field element-wise", Type.STRUCT);
-              targetStruct.put(targetSchema.field(field.name()),
-                  matchFields(rootRecord, field.schema(), (Struct) sourceStruct.get(field.name()),
-                      targetSchema.field(field.name()).schema(), new Struct(targetSchema.field(field.name()).schema()), updatedPath));
-            } else {
-              LOGGER.trace("value of {} field was null -> skip element-wise sub-field matching", Type.STRUCT);
-            }
+      var group = !matchedPath.isEmpty() ? null
+          : CipherMode.ENCRYPT == handler.cipherMode
+              ? handler.fieldGroupMembers.get(field.name())
+              : handler.fieldGroups.get(field.name());
+      if (group != null) {
+        LOGGER.trace("matched field '{}' of field group '{}'", updatedPath, group.carrier.path);
+        groupFields.computeIfAbsent(group, g -> new ArrayList<>()).add(field);
+        continue;
+      }
+      if (!handler.fieldConfig.containsKey(updatedPath)) {
+        LOGGER.trace("copying non-matched field '{}'", updatedPath);
+        copiedFields.add(field);
+        continue;
+      }
+      LOGGER.trace("matched field '{}'", updatedPath);
+      var resolved = handler.resolveField(updatedPath);
+      var targetField = targetSchema.field(field.name());
+      var fieldSchema = field.schema();
+      if (FieldMode.ELEMENT == resolved.settings.fieldMode && fieldSchema.type() == Type.ARRAY) {
+        LOGGER.trace("processing {} field element-wise", Type.ARRAY);
+        steps.add(new FieldStep(StepType.LIST_ELEMENTS, field, targetField,
+            compileField(resolved, fieldSchema.valueSchema()), null));
+      } else if (FieldMode.ELEMENT == resolved.settings.fieldMode && fieldSchema.type() == Type.MAP) {
+        LOGGER.trace("processing {} field element-wise", Type.MAP);
+        steps.add(new FieldStep(StepType.MAP_VALUES, field, targetField,
+            compileField(resolved, fieldSchema.valueSchema()), null));
+      } else if (FieldMode.ELEMENT == resolved.settings.fieldMode && fieldSchema.type() == Type.STRUCT) {
+        LOGGER.trace("processing {} field element-wise", Type.STRUCT);
+        steps.add(new FieldStep(StepType.STRUCT_FIELDS, field, targetField, null,
+            compile(fieldSchema, targetField.schema(), updatedPath)));
+      } else {
+        LOGGER.trace("processing field of type {}", fieldSchema.type());
+        steps.add(new FieldStep(StepType.FIELD, field, targetField, compileField(resolved, fieldSchema), null));
+      }
+    }
+    var groupSteps = new ArrayList<GroupStep>();
+    groupFields.forEach((group, fields) -> groupSteps.add(CipherMode.ENCRYPT == handler.cipherMode
+        ? new GroupStep(group, fields.toArray(Field[]::new), new Field[] {targetSchema.field(group.carrier.path)})
+        : new GroupStep(group, fields.toArray(Field[]::new),
+            group.members.stream().map(targetSchema::field).toArray(Field[]::new))));
+    return new StructPlan(targetSchema,
+        copiedFields.stream().map(f -> new Field[] {f, targetSchema.field(f.name())}).toArray(Field[][]::new),
+        steps.toArray(FieldStep[]::new), groupSteps.toArray(GroupStep[]::new));
+  }
+
+  private CompiledField compileField(RecordHandler.ResolvedField resolved, Schema connectSchema) {
+    var decryptSchema = getCachedSchema(resolved.path)
+        .or(() -> handler.resolveElementModeParentPath(resolved.path).flatMap(this::getCachedSchema))
+        .orElse(null);
+    return new CompiledField(resolved, connectSchema, decryptSchema);
+  }
+
+  /**
+   * Recursively executes the plan for the current source/target struct pair while keeping the
+   * scope of the top-level record available for aspects such as dynamic key id resolution.
+   */
+  private Struct apply(StructPlan plan, RecordHandler.RecordScope scope, Struct sourceStruct, Struct targetStruct) {
+    LOGGER.trace("checking fields in record {}", sourceStruct);
+    for (var copied : plan.copiedFields) {
+      targetStruct.put(copied[1], sourceStruct.get(copied[0]));
+    }
+    for (var step : plan.steps) {
+      var fieldValue = sourceStruct.get(step.sourceField());
+      switch (step.type()) {
+        case LIST_ELEMENTS:
+          targetStruct.put(step.targetField(), processListField(scope, (List<?>) fieldValue,
+              step.field().field().path, step.field(), step.field().field().hasElementConfigs));
+          break;
+        case MAP_VALUES:
+          targetStruct.put(step.targetField(), processMapField(scope, (Map<?, ?>) fieldValue,
+              step.field().field().path, step.field(), step.field().field().hasElementConfigs));
+          break;
+        case STRUCT_FIELDS:
+          if (fieldValue != null) {
+            targetStruct.put(step.targetField(), apply(step.fieldsPlan(), scope, (Struct) fieldValue,
+                new Struct(step.targetField().schema())));
           } else {
-            LOGGER.trace("processing primitive field of type {}", field.schema().type());
-            targetStruct.put(targetSchema.field(field.name()), processField(rootRecord,
-                sourceStruct.get(field.name()), updatedPath, field.schema()));
+            LOGGER.trace("value of {} field was null -> skip element-wise sub-field matching", Type.STRUCT);
           }
-        } else {
-          LOGGER.trace("processing field of type {}", field.schema().type());
-          targetStruct.put(targetSchema.field(field.name()), processField(rootRecord,
-              sourceStruct.get(field.name()), updatedPath, field.schema()));
-        }
-      } else {
-        LOGGER.trace("copying non-matched field '{}'", updatedPath);
-        targetStruct.put(targetSchema.field(field.name()), sourceStruct.get(field.name()));
+          break;
+        default:
+          targetStruct.put(step.targetField(), processField(scope, fieldValue, step.field().field().path, step.field()));
       }
-    });
+    }
+    for (var step : plan.groupSteps) {
+      processFieldGroup(scope, step, sourceStruct, targetStruct);
+    }
     return targetStruct;
   }
 
-  private Object processField(Struct rootRecord, Object fieldValue, String matchedPath, Schema connectSchema) {
+  /**
+   * Encrypts the members of a field group into its carrier field, or restores them from it for
+   * decryption. Members are null if the carrier field of the decrypted record is null.
+   */
+  private void processFieldGroup(RecordHandler.RecordScope scope, GroupStep step, Struct sourceStruct, Struct targetStruct) {
+    var carrier = step.group().carrier;
     try {
-      LOGGER.debug("{} field {}", handler.cipherMode, matchedPath);
-      var fieldMetaData = handler.determineFieldMetaData(rootRecord, fieldValue, matchedPath);
-      LOGGER.trace("field meta-data for path '{}' {}", matchedPath, fieldMetaData);
+      LOGGER.debug("{} field group {}", handler.cipherMode, carrier.path);
       if (CipherMode.ENCRYPT == handler.cipherMode) {
-        if (handler.isCipherFPE(fieldMetaData)) {
-          return handler.encryptFPE(fieldValue, fieldMetaData);
+        var members = new LinkedHashMap<String, Object>();
+        for (var member : step.sourceFields()) {
+          members.put(member.name(),
+              fieldConverter.toCanonical(sourceStruct.get(member), member.schema(), member.name(), handler.serdeName));
         }
-        var serdeName = handler.getConfig().getString(KryptoniteSettings.SERDE_TYPE);
-        var canonical = fieldConverter.toCanonical(fieldValue, connectSchema, matchedPath, serdeName);
-        return handler.encryptNonFPE(canonical, fieldMetaData);
+        var payloadMetaData = handler.payloadMetaData(carrier, scope);
+        LOGGER.trace("payload meta-data for field group '{}' {}", carrier.path, payloadMetaData);
+        targetStruct.put(step.targetFields()[0], handler.encryptGroup(members, payloadMetaData, carrier));
       } else {
-        if (handler.isCipherFPE(fieldMetaData)) {
-          return handler.decryptFPE(fieldValue, fieldMetaData);
+        var members = handler.decryptGroup(sourceStruct.get(step.sourceFields()[0]));
+        if (members == null) {
+          return;
+        }
+        for (var member : step.targetFields()) {
+          targetStruct.put(member, fieldConverter.fromCanonical(members.get(member.name()), member.schema()));
         }
+      }
+    } catch (Exception e) {
+      throw new DataException("error: " + handler.cipherMode + " of field group '" + carrier.path + "' failed unexpectedly", e);
+    }
+  }
+
+  private Object processField(RecordHandler.RecordScope scope, Object fieldValue, String matchedPath, CompiledField compiled) {
+    try {
+      LOGGER.debug("{} field {}", handler.cipherMode, matchedPath);
+      var resolved = compiled.field();
+      if (resolved.settings.cipherFPE) {
+        var fieldMetaData = handler.fieldMetaData(resolved, scope);
+        LOGGER.trace("field meta-data for path '{}' {}", matchedPath, fieldMetaData);
+        return CipherMode.ENCRYPT == handler.cipherMode
+            ? handler.encryptFPE(fieldValue, fieldMetaData)
+            : handler.decryptFPE(fieldValue, fieldMetaData);
+      }
+      if (CipherMode.ENCRYPT == handler.cipherMode) {
+        var payloadMetaData = handler.payloadMetaData(resolved, scope);
+        LOGGER.trace("payload meta-data for path '{}' {}", matchedPath, payloadMetaData);
+        var canonical = fieldConverter.toCanonical(fieldValue, compiled.connectSchema(), matchedPath, handler.serdeName);
+        return handler.encryptNonFPE(canonical, payloadMetaData, resolved);
+      } else {
         var decrypted = handler.decryptNonFPE(fieldValue);
-        return getCachedSchema(matchedPath)
-            .or(() -> handler.resolveElementModeParentPath(matchedPath).flatMap(this::getCachedSchema))
-            .map(schema -> {
-              var convertedField = fieldConverter.fromCanonical(decrypted, schema);
-              LOGGER.trace("converted field with schema {}: {}", schema, convertedField);
-              return convertedField;
-            })
-            .orElseThrow(() -> {
-              LOGGER.error("no schema found in schema cache for field '{}', the field misses a mandatory schema configuration", matchedPath);
-              return new KryptoniteException("no schema found in schema cache for field '" + matchedPath + "')");
-            });
+        var schema = compiled.decryptSchema();
+        if (schema == null) {
+          LOGGER.error("no schema found in schema cache for field '{}', the field misses a mandatory schema configuration", matchedPath);
+          throw new KryptoniteException("no schema found in schema cache for field '" + matchedPath + "')");
+        }
+        var convertedField = fieldConverter.fromCanonical(decrypted, schema);
+        LOGGER.trace("converted field with schema {}: {}", schema, convertedField);
+        return convertedField;
       }
     } catch (Exception e) {
       throw new DataException("error: " + handler.cipherMode + " of field path '" + matchedPath + "' having data '" + fieldValue + "' failed unexpectedly", e);
     }
   }
 
-  private List<?> processListField(Struct rootRecord, List<?> fieldValues, String matchedPath, Schema elementSchema) {
-    return fieldValues.stream().map(elementValue -> {
-      if (elementValue instanceof List) return processListField(rootRecord, (List<?>) elementValue, matchedPath, elementSchema);
-      if (elementValue instanceof Map) return processMapField(rootRecord, (Map<?, ?>) elementValue, matchedPath, elementSchema);
-      return processField(rootRecord, elementValue, matchedPath, elementSchema);
-    }).collect(Collectors.toList());
+  /**
+   * Processes list elements with the field compiled for the list itself. Maps nested in the list
+   * resolve their entries per key only if {@code resolveMapKeys} is set, see {@link #processMapField}.
+   */
+  private List<?> processListField(RecordHandler.RecordScope scope, List<?> fieldValues, String matchedPath,
+      CompiledField compiled, boolean resolveMapKeys) {
+    if (fieldValues == null) {
+      return null;
+    }
+    var processed = new ArrayList<>(fieldValues.size());
+    for (var elementValue : fieldValues) {
+      if (elementValue instanceof List) {
+        processed.add(processListField(scope, (List<?>) elementValue, matchedPath, compiled, resolveMapKeys));
+      } else if (elementValue instanceof Map) {
+        processed.add(processMapField(scope, (Map<?, ?>) elementValue, matchedPath, compiled, resolveMapKeys));
+      } else {
+        processed.add(processField(scope, elementValue, matchedPath, compiled));
+      }
+    }
+    return processed;
   }
 
-  private Map<?, ?> processMapField(Struct rootRecord, Map<?, ?> fieldValues, String matchedPath, Schema valueSchema) {
-    return fieldValues.entrySet().stream()
-        .map(entry -> {
-          var pathUpdate = matchedPath + handler.pathDelimiter + entry.getKey();
-          if (entry.getValue() instanceof List)
-            return new AbstractMap.SimpleEntry<>(entry.getKey(), processListField(rootRecord, (List<?>) entry.getValue(), pathUpdate, valueSchema));
-          if (entry.getValue() instanceof Map)
-            return new AbstractMap.SimpleEntry<>(entry.getKey(), processMapField(rootRecord, (Map<?, ?>) entry.getValue(), pathUpdate, valueSchema));
-          return new AbstractMap.SimpleEntry<>(entry.getKey(), processField(rootRecord, entry.getValue(), pathUpdate, valueSchema));
-        }).collect(LinkedHashMap::new, (lhm, entry) -> lhm.put(entry.getKey(), entry.getValue()), HashMap::putAll);
+  /**
+   * Processes map values by their key-appended paths. Unless {@code resolveKeys} is set, i.e. either
+   * field configs exist for key-appended paths or the map is nested below such a path, every entry
+   * shares the field compiled for the map itself and no per-key config resolution takes place.
+   */
+  private Map<?, ?> processMapField(RecordHandler.RecordScope scope, Map<?, ?> fieldValues, String matchedPath,
+      CompiledField compiled, boolean resolveKeys) {
+    if (fieldValues == null) {
+      return null;
+    }
+    var processed = new LinkedHashMap<Object, Object>();
+    for (var entry : fieldValues.entrySet()) {
+      var pathUpdate = matchedPath + handler.pathDelimiter + entry.getKey();
+      var entryField = resolveKeys
+          ? compileField(handler.resolveField(pathUpdate), compiled.connectSchema())
+          : compiled;
+      var value = entry.getValue();
+      if (value instanceof List) {
+        processed.put(entry.getKey(), processListField(scope, (List<?>) value, pathUpdate, entryField, true));
+      } else if (value instanceof Map) {
+        processed.put(entry.getKey(), processMapField(scope, (Map<?, ?>) value, pathUpdate, entryField, true));
+      } else {
+        processed.put(entry.getKey(), processField(scope, value, pathUpdate, entryField));
+      }
+    }
+    return processed;
   }
 
   private Optional<Schema> getCachedSchema(String fieldPath) {
@@ -196,4 +325,46 @@ public class SchemaawareRecordHandler implements FieldPathMatcher {
     return cache;
   }
 
+  /**
+   * Compiled processing steps for the fields of one struct schema. Fields which are neither
+   * configured themselves nor below an ELEMENT mode struct are pruned into plain copies.
+   */
+  static final class StructPlan {
+
+    private final Schema targetSchema;
+    private final Field[][] copiedFields;
+    private final FieldStep[] steps;
+    /** only present for the top-level struct since field groups consist of top-level fields */
+    private final GroupStep[] groupSteps;
+
+    private StructPlan(Schema targetSchema, Field[][] copiedFields, FieldStep[] steps, GroupStep[] groupSteps) {
+      this.targetSchema = targetSchema;
+      this.copiedFields = copiedFields;
+      this.steps = steps;
+      this.groupSteps = groupSteps;
+    }
+
+    Schema targetSchema() {
+      return targetSchema;
+    }
+
+  }
+
+  private enum StepType {
+    FIELD,
+    LIST_ELEMENTS,
+    MAP_VALUES,
+    STRUCT_FIELDS
+  }
+
+  private record FieldStep(StepType type, Field sourceField, Field targetField, CompiledField field, StructPlan fieldsPlan) {}
+
+  /**
+   * For encryption the source fields are the members of the group present in the schema and the
+   * only target field is its carrier, for decryption it's the other way around.
+   */
+  private record GroupStep(RecordHandler.ResolvedGroup group, Field[] sourceFields, Field[] targetFields) {}
+
+  private record CompiledField(RecordHandler.ResolvedField field, Schema connectSchema, Schema decryptSchema) {}
+
 }
@@ -19,7 +19,6 @@ package com.github.hpgrahsl.kafka.connect.transforms.kryptonite;
 import com.github.hpgrahsl.kafka.connect.transforms.kryptonite.CipherField.FieldMode;
 import com.github.hpgrahsl.kryptonite.CipherMode;
 import com.github.hpgrahsl.kryptonite.Kryptonite;
-import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings;
 import com.github.hpgrahsl.kryptonite.converters.MapFieldConverter;
 
 import org.apache.kafka.common.config.AbstractConfig;
@@ -29,6 +28,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class SchemalessRecordHandler implements FieldPathMatcher {
@@ -37,13 +37,24 @@ public class SchemalessRecordHandler implements FieldPathMatcher {
 
   private final RecordHandler recordHandler;
   private final MapFieldConverter fieldConverter;
+  private final Map<String, RecordHandler.ResolvedField> resolvedFields;
 
   public SchemalessRecordHandler(AbstractConfig config,
                                  Kryptonite kryptonite,
                                  CipherMode cipherMode,
                                  Map<String, FieldConfig> fieldConfig) {
-    this.recordHandler = new RecordHandler(config, kryptonite, cipherMode, fieldConfig);
+    this(config, kryptonite, cipherMode, fieldConfig, Map.of());
+  }
+
+  public SchemalessRecordHandler(AbstractConfig config,
+                                 Kryptonite kryptonite,
+                                 CipherMode cipherMode,
+                                 Map<String, FieldConfig> fieldConfig,
+                                 Map<String, FieldConfig> fieldGroupConfig) {
+    this.recordHandler = new RecordHandler(config, kryptonite, cipherMode, fieldConfig, fieldGroupConfig);
     this.fieldConverter = new MapFieldConverter();
+    this.resolvedFields = fieldConfig.keySet().stream()
+        .collect(Collectors.toMap(Function.identity(), recordHandler::resolveField));
   }
 
   @SuppressWarnings("unchecked")
@@ -53,50 +64,99 @@ public class SchemalessRecordHandler implements FieldPathMatcher {
     LOGGER.trace("checking fields in record {}", sourceRecord);
     var sourceMap = (Map<String, Object>) sourceRecord;
     var targetMap = (Map<String, Object>) targetRecord;
+    var scope = recordHandler.newScope(sourceMap);
     sourceMap.forEach((fieldName, fieldValue) -> {
-      var updatedPath = matchedPath.isEmpty() ? fieldName : matchedPath + recordHandler.pathDelimiter + fieldName;
-      var fc = recordHandler.fieldConfig.get(updatedPath);
-      if (fc != null) {
-        LOGGER.trace("matched field '{}'", updatedPath);
-        if (FieldMode.ELEMENT == fc.getFieldMode()
-            .orElse(FieldMode.valueOf(recordHandler.getConfig().getString(KryptoniteSettings.FIELD_MODE)))) {
+      var resolved = matchedPath.isEmpty()
+          ? resolvedFields.get(fieldName)
+          : resolvedFields.get(matchedPath + recordHandler.pathDelimiter + fieldName);
+      if (resolved != null) {
+        LOGGER.trace("matched field '{}'", resolved.path);
+        if (FieldMode.ELEMENT == resolved.settings.fieldMode) {
           if (fieldValue instanceof List) {
             LOGGER.trace("processing {} field element-wise", List.class.getSimpleName());
-            targetMap.put(fieldName, processListField(sourceMap, (List<?>) sourceMap.get(fieldName), updatedPath));
+            targetMap.put(fieldName, processListField(scope, (List<?>) fieldValue, resolved.path, resolved, resolved.hasElementConfigs));
           } else if (fieldValue instanceof Map) {
             LOGGER.trace("processing {} field element-wise", Map.class.getSimpleName());
-            targetMap.put(fieldName, processMapField(sourceMap, (Map<?, ?>) sourceMap.get(fieldName), updatedPath));
+            targetMap.put(fieldName, processMapField(scope, (Map<?, ?>) fieldValue, resolved.path, resolved, resolved.hasElementConfigs));
           } else {
             LOGGER.trace("processing primitive field");
-            targetMap.put(fieldName, processField(sourceMap, sourceMap.get(fieldName), updatedPath));
+            targetMap.put(fieldName, processField(scope, fieldValue, resolved.path, resolved));
           }
         } else {
           LOGGER.trace("processing field");
-          targetMap.put(fieldName, processField(sourceMap, sourceMap.get(fieldName), updatedPath));
+          targetMap.put(fieldName, processField(scope, fieldValue, resolved.path, resolved));
         }
       } else {
-        LOGGER.trace("copying non-matched field '{}'", updatedPath);
-        targetMap.put(fieldName, sourceMap.get(fieldName));
+        LOGGER.trace("copying non-matched field '{}'", fieldName);
+        targetMap.put(fieldName, fieldValue);
       }
     });
+    if (matchedPath.isEmpty()) {
+      recordHandler.fieldGroups.values().forEach(group -> processFieldGroup(scope, sourceMap, targetMap, group));
+    }
     return targetMap;
   }
 
-  private Object processField(Map<String, Object> rootRecord, Object fieldValue, String matchedPath) {
+  /**
+   * Replaces the members of the field group which are present in the record with its carrier
+   * field for encryption, and restores them from the carrier field for decryption.
+   */
+  private void processFieldGroup(RecordHandler.RecordScope scope, Map<String, Object> sourceMap,
+      Map<String, Object> targetMap, RecordHandler.ResolvedGroup group) {
+    var carrier = group.carrier;
     try {
-      LOGGER.debug("{} field {}", recordHandler.cipherMode, matchedPath);
-      var fieldMetaData = recordHandler.determineFieldMetaData(rootRecord, fieldValue, matchedPath);
-      LOGGER.trace("field meta-data for path '{}' {}", matchedPath, fieldMetaData);
+      LOGGER.debug("{} field group {}", recordHandler.cipherMode, carrier.path);
       if (CipherMode.ENCRYPT == recordHandler.cipherMode) {
-        if (recordHandler.isCipherFPE(fieldMetaData)) {
-          return recordHandler.encryptFPE(fieldValue, fieldMetaData);
+        var members = new LinkedHashMap<String, Object>();
+        for (var member : group.members) {
+          if (sourceMap.containsKey(member)) {
+            members.put(member, fieldConverter.toCanonical(sourceMap.get(member), member, recordHandler.serdeName));
+            targetMap.remove(member);
+          }
+        }
+        if (members.isEmpty()) {
+          return;
         }
-        var converted = fieldConverter.toCanonical(fieldValue, matchedPath, recordHandler.getConfig().getString(KryptoniteSettings.SERDE_TYPE));
-        return recordHandler.encryptNonFPE(converted, fieldMetaData);
+        if (sourceMap.containsKey(carrier.path)) {
+          throw new DataException("field group '" + carrier.path + "' collides with an existing field of the same name");
+        }
+        var payloadMetaData = recordHandler.payloadMetaData(carrier, scope);
+        LOGGER.trace("payload meta-data for field group '{}' {}", carrier.path, payloadMetaData);
+        targetMap.put(carrier.path, recordHandler.encryptGroup(members, payloadMetaData, carrier));
       } else {
-        if (recordHandler.isCipherFPE(fieldMetaData)) {
-          return recordHandler.decryptFPE(fieldValue, fieldMetaData);
+        if (!sourceMap.containsKey(carrier.path)) {
+          return;
+        }
+        targetMap.remove(carrier.path);
+        var members = recordHandler.decryptGroup(sourceMap.get(carrier.path));
+        if (members != null) {
+          members.forEach((member, value) -> targetMap.put(member, fieldConverter.fromCanonical(value)));
         }
+      }
+    } catch (DataException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new DataException("error: " + recordHandler.cipherMode + " of field group '" + carrier.path + "' failed unexpectedly", e);
+    }
+  }
+
+  private Object processField(RecordHandler.RecordScope scope, Object fieldValue, String matchedPath,
+      RecordHandler.ResolvedField resolved) {
+    try {
+      LOGGER.debug("{} field {}", recordHandler.cipherMode, matchedPath);
+      if (resolved.settings.cipherFPE) {
+        var fieldMetaData = recordHandler.fieldMetaData(resolved, scope);
+        LOGGER.trace("field meta-data for path '{}' {}", matchedPath, fieldMetaData);
+        return CipherMode.ENCRYPT == recordHandler.cipherMode
+            ? recordHandler.encryptFPE(fieldValue, fieldMetaData)
+            : recordHandler.decryptFPE(fieldValue, fieldMetaData);
+      }
+      if (CipherMode.ENCRYPT == recordHandler.cipherMode) {
+        var payloadMetaData = recordHandler.payloadMetaData(resolved, scope);
+        LOGGER.trace("payload meta-data for path '{}' {}", matchedPath, payloadMetaData);
+        var converted = fieldConverter.toCanonical(fieldValue, matchedPath, recordHandler.serdeName);
+        return recordHandler.encryptNonFPE(converted, payloadMetaData, resolved);
+      } else {
         return fieldConverter.fromCanonical(recordHandler.decryptNonFPE(fieldValue));
       }
     } catch (Exception e) {
@@ -104,24 +164,41 @@ public class SchemalessRecordHandler implements FieldPathMatcher {
     }
   }
 
-  private List<?> processListField(Map<String, Object> rootRecord, List<?> fieldValues, String matchedPath) {
-    return fieldValues.stream().map(elementValue -> {
-      if (elementValue instanceof List) return processListField(rootRecord, (List<?>) elementValue, matchedPath);
-      if (elementValue instanceof Map) return processMapField(rootRecord, (Map<?, ?>) elementValue, matchedPath);
-      return processField(rootRecord, elementValue, matchedPath);
-    }).collect(Collectors.toList());
+  private List<?> processListField(RecordHandler.RecordScope scope, List<?> fieldValues, String matchedPath,
+      RecordHandler.ResolvedField resolved, boolean resolveMapKeys) {
+    var processed = new ArrayList<>(fieldValues.size());
+    for (var elementValue : fieldValues) {
+      if (elementValue instanceof List) {
+        processed.add(processListField(scope, (List<?>) elementValue, matchedPath, resolved, resolveMapKeys));
+      } else if (elementValue instanceof Map) {
+        processed.add(processMapField(scope, (Map<?, ?>) elementValue, matchedPath, resolved, resolveMapKeys));
+      } else {
+        processed.add(processField(scope, elementValue, matchedPath, resolved));
+      }
+    }
+    return processed;
   }
 
-  private Map<?, ?> processMapField(Map<String, Object> rootRecord, Map<?, ?> fieldValues, String matchedPath) {
-    return fieldValues.entrySet().stream()
-        .map(entry -> {
-          var pathUpdate = matchedPath + recordHandler.pathDelimiter + entry.getKey();
-          if (entry.getValue() instanceof List)
-            return new AbstractMap.SimpleEntry<>(entry.getKey(), processListField(rootRecord, (List<?>) entry.getValue(), pathUpdate));
-          if (entry.getValue() instanceof Map)
-            return new AbstractMap.SimpleEntry<>(entry.getKey(), processMapField(rootRecord, (Map<?, ?>) entry.getValue(), pathUpdate));
-          return new AbstractMap.SimpleEntry<>(entry.getKey(), processField(rootRecord, entry.getValue(), pathUpdate));
-        }).collect(LinkedHashMap::new, (lhm, entry) -> lhm.put(entry.getKey(), entry.getValue()), HashMap::putAll);
+  /**
+   * Processes map values by their key-appended paths, sharing the field resolved for the map itself
+   * unless {@code resolveKeys} requires a per-key config resolution (see {@link SchemaawareRecordHandler}).
+   */
+  private Map<?, ?> processMapField(RecordHandler.RecordScope scope, Map<?, ?> fieldValues, String matchedPath,
+      RecordHandler.ResolvedField resolved, boolean resolveKeys) {
+    var processed = new LinkedHashMap<Object, Object>();
+    for (var entry : fieldValues.entrySet()) {
+      var pathUpdate = matchedPath + recordHandler.pathDelimiter + entry.getKey();
+      var entryField = resolveKeys ? recordHandler.resolveField(pathUpdate) : resolved;
+      var value = entry.getValue();
+      if (value instanceof List) {
+        processed.put(entry.getKey(), processListField(scope, (List<?>) value, pathUpdate, entryField, true));
+      } else if (value instanceof Map) {
+        processed.put(entry.getKey(), processMapField(scope, (Map<?, ?>) value, pathUpdate, entryField, true));
+      } else {
+        processed.put(entry.getKey(), processField(scope, value, pathUpdate, entryField));
+      }
+    }
+    return processed;
   }
 
 }
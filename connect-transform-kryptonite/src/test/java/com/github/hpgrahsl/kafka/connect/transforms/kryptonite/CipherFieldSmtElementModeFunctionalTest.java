@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2021. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.hpgrahsl.kafka.connect.transforms.kryptonite;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.hpgrahsl.kafka.connect.transforms.kryptonite.CipherField.FieldMode;
+import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings;
+import com.github.hpgrahsl.kryptonite.crypto.tink.TinkAesGcmSiv;
+import com.github.hpgrahsl.kryptonite.tink.test.PlaintextKeysets;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.apache.kafka.connect.source.SourceRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Functional tests for ELEMENT mode processing of nested structs, collections and per-key map
+ * configs, covering the field plans compiled per schema as well as the schemaless traversal.
+ */
+public class CipherFieldSmtElementModeFunctionalTest {
+
+  static final Schema ADDRESS_SCHEMA = SchemaBuilder.struct().optional()
+      .field("street", Schema.STRING_SCHEMA)
+      .field("zip", Schema.OPTIONAL_INT32_SCHEMA)
+      .build();
+
+  static final Schema PERSON_SCHEMA = SchemaBuilder.struct().name("person")
+      .field("name", Schema.STRING_SCHEMA)
+      .field("address", ADDRESS_SCHEMA)
+      .field("tags", SchemaBuilder.array(Schema.STRING_SCHEMA).build())
+      .field("scores", SchemaBuilder.map(Schema.STRING_SCHEMA, Schema.STRING_SCHEMA).build())
+      .field("note", Schema.OPTIONAL_STRING_SCHEMA)
+      .build();
+
+  static final String ENCRYPT_FIELD_CONFIG =
+      "["
+          + "    {\"name\":\"address\"},"
+          + "    {\"name\":\"address.street\"},"
+          + "    {\"name\":\"scores\"},"
+          + "    {\"name\":\"scores.k1\",\"algorithm\":\"" + TinkAesGcmSiv.CIPHER_ALGORITHM + "\",\"keyId\":\"key9\"}"
+          + "]";
+
+  static final String DECRYPT_FIELD_CONFIG =
+      "["
+          + "    {\"name\":\"address\",\"schema\": {\"type\": \"STRUCT\",\"optional\": true,\"fields\": ["
+          + "        {\"name\": \"street\",\"schema\": {\"type\": \"STRING\"}},"
+          + "        {\"name\": \"zip\",\"schema\": {\"type\": \"INT32\",\"optional\": true}}]}},"
+          + "    {\"name\":\"address.street\",\"schema\": {\"type\": \"STRING\"}},"
+          + "    {\"name\":\"scores\",\"schema\": {\"type\": \"MAP\",\"keySchema\": {\"type\": \"STRING\"},\"valueSchema\": {\"type\": \"STRING\"}}},"
+          + "    {\"name\":\"scores.k1\",\"algorithm\":\"" + TinkAesGcmSiv.CIPHER_ALGORITHM + "\"}"
+          + "]";
+
+  static Struct person(String name, Struct address) {
+    var scores = new LinkedHashMap<String, String>();
+    scores.put("k1", "same");
+    scores.put("k2", "same");
+    return new Struct(PERSON_SCHEMA)
+        .put("name", name)
+        .put("address", address)
+        .put("tags", List.of("a", "b"))
+        .put("scores", scores)
+        .put("note", name + "'s note");
+  }
+
+  static CipherField.Value<SourceRecord> encryptTransform(String fieldConfig) {
+    var props = new HashMap<String, Object>();
+    props.put(KryptoniteSettings.CIPHER_MODE, "ENCRYPT");
+    props.put(KryptoniteSettings.FIELD_CONFIG, fieldConfig);
+    props.put(KryptoniteSettings.CIPHER_DATA_KEYS, PlaintextKeysets.CIPHER_DATA_KEYS_CONFIG);
+    props.put(KryptoniteSettings.CIPHER_DATA_KEY_IDENTIFIER, "keyA");
+    props.put(KryptoniteSettings.FIELD_MODE, FieldMode.ELEMENT.name());
+    var transform = new CipherField.Value<SourceRecord>();
+    transform.configure(props);
+    return transform;
+  }
+
+  static CipherField.Value<SinkRecord> decryptTransform(String fieldConfig) {
+    var props = new HashMap<String, Object>();
+    props.put(KryptoniteSettings.CIPHER_MODE, "DECRYPT");
+    props.put(KryptoniteSettings.FIELD_CONFIG, fieldConfig);
+    props.put(KryptoniteSettings.CIPHER_DATA_KEYS, PlaintextKeysets.CIPHER_DATA_KEYS_CONFIG);
+    props.put(KryptoniteSettings.FIELD_MODE, FieldMode.ELEMENT.name());
+    var transform = new CipherField.Value<SinkRecord>();
+    transform.configure(props);
+    return transform;
+  }
+
+  @Test
+  @DisplayName("apply SMT in ELEMENT mode to nested structs including null struct values")
+  void encryptDecryptSchemafulRecordWithNestedStructsTest() {
+    var encryptTransform = encryptTransform(ENCRYPT_FIELD_CONFIG);
+    var decryptTransform = decryptTransform(DECRYPT_FIELD_CONFIG);
+
+    var withAddress = person("jane", new Struct(ADDRESS_SCHEMA).put("street", "main st").put("zip", 1010));
+    var withoutAddress = person("john", null);
+
+    var encryptedWithAddress = (Struct) encryptTransform.apply(
+        new SourceRecord(null, null, "some-kafka-topic", 0, PERSON_SCHEMA, withAddress)).value();
+    var encryptedWithoutAddress = (Struct) encryptTransform.apply(
+        new SourceRecord(null, null, "some-kafka-topic", 0, PERSON_SCHEMA, withoutAddress)).value();
+
+    var encryptedAddress = encryptedWithAddress.getStruct("address");
+    assertAll(
+        () -> assertSame(encryptedWithAddress.schema(), encryptedWithoutAddress.schema()),
+        () -> assertTrue(encryptedAddress.get("street") instanceof String),
+        () -> assertNotEquals("main st", encryptedAddress.get("street")),
+        () -> assertEquals(1010, encryptedAddress.get("zip")),
+        () -> assertNull(encryptedWithoutAddress.get("address"))
+    );
+
+    for (var expected : List.of(withAddress, withoutAddress)) {
+      var encrypted = (Struct) encryptTransform.apply(
+          new SourceRecord(null, null, "some-kafka-topic", 0, PERSON_SCHEMA, expected)).value();
+      var decrypted = (Struct) decryptTransform.apply(
+          new SinkRecord("some-kafka-topic", 0, null, null, encrypted.schema(), encrypted, 0)).value();
+      assertAll(
+          () -> assertEquals(expected.get("name"), decrypted.get("name")),
+          () -> assertEquals(expected.get("tags"), decrypted.get("tags")),
+          () -> assertEquals(expected.get("scores"), decrypted.get("scores")),
+          () -> assertEquals(expected.get("note"), decrypted.get("note")),
+          () -> assertEquals(expected.getStruct("address") == null ? null : expected.getStruct("address").get("street"),
+              decrypted.getStruct("address") == null ? null : decrypted.getStruct("address").get("street")),
+          () -> assertEquals(expected.getStruct("address") == null ? null : expected.getStruct("address").get("zip"),
+              decrypted.getStruct("address") == null ? null : decrypted.getStruct("address").get("zip"))
+      );
+    }
+  }
+
+  @Test
+  @DisplayName("apply SMT in ELEMENT mode copies all unmatched fields of schemaful records as is")
+  void encryptSchemafulRecordCopiesUnmatchedFieldsTest() {
+    var record = person("jane", new Struct(ADDRESS_SCHEMA).put("street", "main st").put("zip", 1010));
+
+    var encrypted = (Struct) encryptTransform(ENCRYPT_FIELD_CONFIG).apply(
+        new SourceRecord(null, null, "some-kafka-topic", 0, PERSON_SCHEMA, record)).value();
+
+    assertAll(
+        () -> assertEquals(PERSON_SCHEMA.name(), encrypted.schema().name()),
+        () -> assertEquals(PERSON_SCHEMA.field("name").schema(), encrypted.schema().field("name").schema()),
+        () -> assertEquals(PERSON_SCHEMA.field("tags").schema(), encrypted.schema().field("tags").schema()),
+        () -> assertEquals(PERSON_SCHEMA.field("note").schema(), encrypted.schema().field("note").schema()),
+        () -> assertSame(record.get("name"), encrypted.get("name")),
+        () -> assertSame(record.get("tags"), encrypted.get("tags")),
+        () -> assertSame(record.get("note"), encrypted.get("note")),
+        () -> assertEquals(ADDRESS_SCHEMA.field("zip").schema(),
+            encrypted.schema().field("address").schema().field("zip").schema())
+    );
+  }
+
+  @Test
+  @DisplayName("apply SMT in ELEMENT mode resolves per-key configs for map values of schemaful records")
+  @SuppressWarnings("unchecked")
+  void encryptDecryptSchemafulRecordWithPerKeyMapConfigTest() {
+    var encryptTransform = encryptTransform(ENCRYPT_FIELD_CONFIG);
+    var record = person("jane", null);
+
+    var first = (Map<String, String>) ((Struct) encryptTransform.apply(
+        new SourceRecord(null, null, "some-kafka-topic", 0, PERSON_SCHEMA, record)).value()).get("scores");
+    var second = (Map<String, String>) ((Struct) encryptTransform.apply(
+        new SourceRecord(null, null, "some-kafka-topic", 0, PERSON_SCHEMA, record)).value()).get("scores");
+
+    // k1 is configured with a deterministic cipher, k2 falls back to the probabilistic one of the map
+    assertAll(
+        () -> assertEquals(first.get("k1"), second.get("k1")),
+        () -> assertNotEquals(first.get("k2"), second.get("k2")),
+        () -> assertNotEquals(first.get("k1"), first.get("k2"))
+    );
+
+    var encrypted = (Struct) encryptTransform.apply(
+        new SourceRecord(null, null, "some-kafka-topic", 0, PERSON_SCHEMA, record)).value();
+    var decrypted = (Struct) decryptTransform(DECRYPT_FIELD_CONFIG).apply(
+        new SinkRecord("some-kafka-topic", 0, null, null, encrypted.schema(), encrypted, 0)).value();
+    assertEquals(record.get("scores"), decrypted.get("scores"));
+  }
+
+  @Test
+  @DisplayName("apply SMT in ELEMENT mode decrypt(encrypt(plaintext)) = plaintext for schemaless arrays of maps and maps of arrays")
+  @SuppressWarnings("unchecked")
+  void encryptDecryptSchemalessRecordWithNestedCollectionsTest() {
+    var record = new LinkedHashMap<String, Object>();
+    record.put("id", "1234");
+    record.put("arrayOfMaps", List.of(Map.of("a", 1, "b", "x"), Map.of("c", true)));
+    record.put("mapOfArrays", new LinkedHashMap<>(Map.of("k1", List.of("x", "y"), "k2", List.of(1L, 2L))));
+    record.put("scores", new LinkedHashMap<>(Map.of("k1", "same", "k2", "same")));
+
+    var encryptFieldConfig =
+        "["
+            + "    {\"name\":\"arrayOfMaps\"},"
+            + "    {\"name\":\"mapOfArrays\"},"
+            + "    {\"name\":\"scores\"},"
+            + "    {\"name\":\"scores.k1\",\"algorithm\":\"" + TinkAesGcmSiv.CIPHER_ALGORITHM + "\",\"keyId\":\"key9\"}"
+            + "]";
+    var encryptTransform = encryptTransform(encryptFieldConfig);
+    var encrypted = (Map<String, Object>) encryptTransform.apply(
+        new SourceRecord(null, null, "some-kafka-topic", 0, null, record)).value();
+    var encryptedAgain = (Map<String, Object>) encryptTransform.apply(
+        new SourceRecord(null, null, "some-kafka-topic", 0, null, record)).value();
+
+    var arrayOfMaps = (List<Map<String, Object>>) encrypted.get("arrayOfMaps");
+    var mapOfArrays = (Map<String, List<Object>>) encrypted.get("mapOfArrays");
+    assertAll(
+        () -> assertEquals("1234", encrypted.get("id")),
+        () -> assertEquals(2, arrayOfMaps.size()),
+        () -> assertEquals(Map.of("a", 1, "b", "x").keySet(), arrayOfMaps.get(0).keySet()),
+        () -> assertTrue(arrayOfMaps.stream().flatMap(m -> m.values().stream()).allMatch(String.class::isInstance)),
+        () -> assertEquals(2, mapOfArrays.get("k1").size()),
+        () -> assertEquals(2, mapOfArrays.get("k2").size()),
+        () -> assertTrue(mapOfArrays.values().stream().flatMap(List::stream).allMatch(String.class::isInstance)),
+        () -> assertEquals(((Map<?, ?>) encrypted.get("scores")).get("k1"), ((Map<?, ?>) encryptedAgain.get("scores")).get("k1")),
+        () -> assertNotEquals(((Map<?, ?>) encrypted.get("scores")).get("k2"), ((Map<?, ?>) encryptedAgain.get("scores")).get("k2"))
+    );
+
+    var decryptFieldConfig =
+        "["
+            + "    {\"name\":\"arrayOfMaps\"},"
+            + "    {\"name\":\"mapOfArrays\"},"
+            + "    {\"name\":\"scores\"},"
+            + "    {\"name\":\"scores.k1\",\"algorithm\":\"" + TinkAesGcmSiv.CIPHER_ALGORITHM + "\"}"
+            + "]";
+    var decrypted = (Map<String, Object>) decryptTransform(decryptFieldConfig).apply(
+        new SinkRecord("some-kafka-topic", 0, null, null, null, encrypted, 0)).value();
+
+    assertEquals(record, decrypted);
+  }
+
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2021. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.hpgrahsl.kafka.connect.transforms.kryptonite;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.hpgrahsl.kafka.connect.transforms.kryptonite.CipherField.CipherEncoding;
+import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings;
+import com.github.hpgrahsl.kryptonite.crypto.custom.MystoFpeFF31;
+import com.github.hpgrahsl.kryptonite.tink.test.PlaintextKeysets;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.common.config.ConfigException;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.apache.kafka.connect.source.SourceRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * Functional tests for field groups, i.e. top-level fields which get encrypted together into a
+ * single carrier field.
+ */
+public class CipherFieldSmtFieldGroupFunctionalTest {
+
+  static final Schema CUSTOMER_SCHEMA = SchemaBuilder.struct().name("customer")
+      .field("id", Schema.STRING_SCHEMA)
+      .field("ssn", Schema.STRING_SCHEMA)
+      .field("email", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("age", Schema.INT32_SCHEMA)
+      .field("tags", SchemaBuilder.array(Schema.STRING_SCHEMA).build())
+      .build();
+
+  static final String ENCRYPT_FIELD_CONFIG =
+      "["
+          + "    {\"name\":\"tags\"},"
+          + "    {\"name\":\"pii\",\"members\":[\"ssn\",\"email\",\"age\"]}"
+          + "]";
+
+  static final String DECRYPT_FIELD_CONFIG =
+      "["
+          + "    {\"name\":\"tags\",\"schema\": {\"type\": \"ARRAY\",\"valueSchema\": {\"type\": \"STRING\"}}},"
+          + "    {\"name\":\"pii\",\"members\":[\"ssn\",\"email\",\"age\"],\"schema\": {\"type\": \"STRUCT\",\"fields\": ["
+          + "        {\"name\": \"ssn\",\"schema\": {\"type\": \"STRING\"}},"
+          + "        {\"name\": \"email\",\"schema\": {\"type\": \"STRING\",\"optional\": true}},"
+          + "        {\"name\": \"age\",\"schema\": {\"type\": \"INT32\"}}]}}"
+          + "]";
+
+  static Map<String, Object> transformProps(String cipherMode, String fieldConfig, CipherEncoding encoding) {
+    var props = new HashMap<String, Object>();
+    props.put(KryptoniteSettings.CIPHER_MODE, cipherMode);
+    props.put(KryptoniteSettings.FIELD_CONFIG, fieldConfig);
+    props.put(KryptoniteSettings.CIPHER_DATA_KEYS, PlaintextKeysets.CIPHER_DATA_KEYS_CONFIG);
+    props.put(KryptoniteSettings.CIPHER_DATA_KEY_IDENTIFIER, "keyA");
+    props.put(KryptoniteSettings.CIPHER_TEXT_ENCODING, encoding.name());
+    return props;
+  }
+
+  static Struct customer(String email) {
+    return new Struct(CUSTOMER_SCHEMA)
+        .put("id", "1234")
+        .put("ssn", "078-05-1120")
+        .put("email", email)
+        .put("age", 42)
+        .put("tags", List.of("a", "b"));
+  }
+
+  @ParameterizedTest
+  @EnumSource(CipherEncoding.class)
+  @DisplayName("apply SMT decrypt(encrypt(plaintext)) = plaintext for schemaful record with field group")
+  void encryptDecryptSchemafulRecordWithFieldGroupTest(CipherEncoding encoding) {
+    var encryptTransform = new CipherField.Value<SourceRecord>();
+    encryptTransform.configure(transformProps("ENCRYPT", ENCRYPT_FIELD_CONFIG, encoding));
+    var decryptTransform = new CipherField.Value<SinkRecord>();
+    decryptTransform.configure(transformProps("DECRYPT", DECRYPT_FIELD_CONFIG, encoding));
+
+    for (var expected : List.of(customer("jane@example.com"), customer(null))) {
+      var encryptedRecord = encryptTransform.apply(
+          new SourceRecord(null, null, "some-kafka-topic", 0, CUSTOMER_SCHEMA, expected));
+      var encrypted = (Struct) encryptedRecord.value();
+
+      var carrierSchema = encoding == CipherEncoding.RAW_BYTES ? Schema.BYTES_SCHEMA : Schema.STRING_SCHEMA;
+      assertAll(
+          () -> assertEquals(List.of("id", "pii", "tags"),
+              encryptedRecord.valueSchema().fields().stream().map(Field::name).toList()),
+          () -> assertEquals(carrierSchema, encryptedRecord.valueSchema().field("pii").schema()),
+          () -> assertEquals("1234", encrypted.get("id"))
+      );
+
+      var decryptedRecord = decryptTransform.apply(
+          new SinkRecord("some-kafka-topic", 0, null, null, encryptedRecord.valueSchema(), encrypted, 0));
+      var decrypted = (Struct) decryptedRecord.value();
+      assertAll(
+          () -> assertEquals(List.of("id", "ssn", "email", "age", "tags"),
+              decryptedRecord.valueSchema().fields().stream().map(Field::name).toList()),
+          () -> assertEquals(expected.get("id"), decrypted.get("id")),
+          () -> assertEquals(expected.get("ssn"), decrypted.get("ssn")),
+          () -> assertEquals(expected.get("email"), decrypted.get("email")),
+          () -> assertEquals(expected.get("age"), decrypted.get("age")),
+          () -> assertEquals(expected.get("tags"), decrypted.get("tags"))
+      );
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(CipherEncoding.class)
+  @DisplayName("apply SMT decrypt(encrypt(plaintext)) = plaintext for schemaless record with field group")
+  @SuppressWarnings("unchecked")
+  void encryptDecryptSchemalessRecordWithFieldGroupTest(CipherEncoding encoding) {
+    var record = new LinkedHashMap<String, Object>();
+    record.put("id", "1234");
+    record.put("ssn", "078-05-1120");
+    record.put("email", null);
+    record.put("age", 42);
+    record.put("tags", List.of("a", "b"));
+
+    var encryptTransform = new CipherField.Value<SourceRecord>();
+    encryptTransform.configure(transformProps("ENCRYPT", ENCRYPT_FIELD_CONFIG, encoding));
+    var encrypted = (Map<String, Object>) encryptTransform.apply(
+        new SourceRecord(null, null, "some-kafka-topic", 0, null, record)).value();
+
+    var carrierType = encoding == CipherEncoding.RAW_BYTES ? byte[].class : String.class;
+    assertAll(
+        () -> assertEquals(List.of("id", "tags", "pii"), List.copyOf(encrypted.keySet())),
+        () -> assertTrue(carrierType.isInstance(encrypted.get("pii"))),
+        () -> assertEquals("1234", encrypted.get("id"))
+    );
+
+    var decryptTransform = new CipherField.Value<SinkRecord>();
+    decryptTransform.configure(transformProps("DECRYPT", ENCRYPT_FIELD_CONFIG, encoding));
+    var decrypted = (Map<String, Object>) decryptTransform.apply(
+        new SinkRecord("some-kafka-topic", 0, null, null, null, encrypted, 0)).value();
+
+    assertAll(
+        () -> assertEquals(record, decrypted),
+        () -> assertFalse(decrypted.containsKey("pii")),
+        () -> assertTrue(decrypted.containsKey("email")),
+        () -> assertNull(decrypted.get("email"))
+    );
+  }
+
+  @Test
+  @DisplayName("apply SMT field group envelope is smaller than envelopes of its separately encrypted members")
+  @SuppressWarnings("unchecked")
+  void fieldGroupEnvelopeSmallerThanSeparateEnvelopesTest() {
+    var record = new LinkedHashMap<String, Object>();
+    record.put("ssn", "078-05-1120");
+    record.put("email", "jane@example.com");
+    record.put("age", 42);
+
+    var groupTransform = new CipherField.Value<SourceRecord>();
+    groupTransform.configure(transformProps("ENCRYPT", ENCRYPT_FIELD_CONFIG, CipherEncoding.RAW_BYTES));
+    var grouped = (Map<String, Object>) groupTransform.apply(
+        new SourceRecord(null, null, "some-kafka-topic", 0, null, record)).value();
+
+    var fieldsTransform = new CipherField.Value<SourceRecord>();
+    fieldsTransform.configure(transformProps("ENCRYPT",
+        "[{\"name\":\"ssn\"},{\"name\":\"email\"},{\"name\":\"age\"}]", CipherEncoding.RAW_BYTES));
+    var separate = (Map<String, Object>) fieldsTransform.apply(
+        new SourceRecord(null, null, "some-kafka-topic", 0, null, record)).value();
+
+    var separateBytes = separate.values().stream().mapToInt(v -> ((byte[]) v).length).sum();
+    assertTrue(((byte[]) grouped.get("pii")).length < separateBytes);
+  }
+
+  @Test
+  @DisplayName("apply SMT rejects invalid field group configs")
+  void rejectInvalidFieldGroupConfigsTest() {
+    var invalidFieldConfigs = List.of(
+        "[{\"name\":\"pii\",\"members\":[]}]",
+        "[{\"name\":\"pii\",\"members\":[\"ssn\"]},{\"name\":\"ssn\"}]",
+        "[{\"name\":\"pii\",\"members\":[\"ssn\"]},{\"name\":\"other\",\"members\":[\"ssn\"]}]",
+        "[{\"name\":\"pii\",\"members\":[\"address.street\"]}]",
+        "[{\"name\":\"pii\",\"members\":[\"ssn\"],\"algorithm\":\"" + MystoFpeFF31.CIPHER_ALGORITHM + "\"}]"
+    );
+    for (var fieldConfig : invalidFieldConfigs) {
+      var transform = new CipherField.Value<SourceRecord>();
+      assertThrows(ConfigException.class,
+          () -> transform.configure(transformProps("ENCRYPT", fieldConfig, CipherEncoding.BASE64)), fieldConfig);
+    }
+  }
+
+}
@@ -18,6 +18,8 @@ package com.github.hpgrahsl.kafka.connect.transforms.kryptonite;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.HashMap;
 import java.util.List;
@@ -60,6 +62,56 @@ public class CipherFieldSmtFpeFunctionalTest {
         
       performSchemafulRecordTest(cipherDataKeys, cipherSpec, keyId1, keyId2, tweak);
     }
+
+    @ParameterizedTest
+    @MethodSource("com.github.hpgrahsl.kafka.connect.transforms.kryptonite.CipherFieldSmtFpeFunctionalTest#generateValidParamsWithoutCloudKms")
+    @DisplayName("apply SMT in FPE mode decrypt(encrypt(plaintext)) = plaintext for schemaless record with global CUSTOM alphabet")
+    void encryptDecryptSchemalessRecordWithGlobalCustomAlphabetTest(String cipherDataKeys, CipherSpec cipherSpec, String keyId1, String keyId2, String tweak) {
+
+      performSchemalessRecordWithGlobalCustomAlphabetTest(cipherDataKeys, cipherSpec, keyId1, tweak);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  void performSchemalessRecordWithGlobalCustomAlphabetTest(String cipherDataKeys, CipherSpec cipherSpec, String keyId, String tweak) {
+
+      var encProps = new HashMap<String, Object>();
+      encProps.put(KryptoniteSettings.CIPHER_MODE, "ENCRYPT");
+      encProps.put(KryptoniteSettings.FIELD_CONFIG,
+              "["
+              + "    {\"name\":\"myCCN\",\"fpeAlphabetType\": \"DIGITS\"},"
+              + "    {\"name\":\"myText1\",\"fpeAlphabetType\": \"UPPERCASE\",\"fpeTweak\":\""+tweak+"\"},"
+              + "    {\"name\":\"myText6\"}"
+              + "]"
+      );
+      encProps.put(KryptoniteSettings.CIPHER_ALGORITHM,cipherSpec.getName());
+      encProps.put(KryptoniteSettings.CIPHER_FPE_ALPHABET_TYPE,"CUSTOM");
+      encProps.put(KryptoniteSettings.CIPHER_FPE_ALPHABET_CUSTOM,"01");
+      encProps.put(KryptoniteSettings.CIPHER_DATA_KEYS,cipherDataKeys);
+      encProps.put(KryptoniteSettings.CIPHER_DATA_KEY_IDENTIFIER,keyId);
+
+      var encryptTransform = new CipherField.Value<SourceRecord>();
+      encryptTransform.configure(encProps);
+      var encryptedRecord = (Map<String,Object>)encryptTransform.apply(
+          new SourceRecord(null,null,"some-kafka-topic",0,null,TestFixtures.TEST_OBJ_MAP_1_FPE)
+      ).value();
+
+      var encryptedText6 = (String)encryptedRecord.get("myText6");
+      assertAll(
+          () -> assertNotEquals(TestFixtures.TEST_OBJ_MAP_1_FPE.get("myText6"),encryptedText6),
+          () -> assertTrue(encryptedText6.chars().allMatch(c -> c == '0' || c == '1'))
+      );
+
+      var decProps = new HashMap<String, Object>(encProps);
+      decProps.put(KryptoniteSettings.CIPHER_MODE, "DECRYPT");
+
+      var decryptTransform = new CipherField.Value<SinkRecord>();
+      decryptTransform.configure(decProps);
+      var decryptedRecord = (Map<String,Object>)decryptTransform.apply(
+          new SinkRecord("some-kafka-topic",0,null,null,null,encryptedRecord,0)
+      ).value();
+
+      assertAllResultingFieldsSchemalessRecord(TestFixtures.TEST_OBJ_MAP_1_FPE,decryptedRecord);
   }
 
   @SuppressWarnings("unchecked")
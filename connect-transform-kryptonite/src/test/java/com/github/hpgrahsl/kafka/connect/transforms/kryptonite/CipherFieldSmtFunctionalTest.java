@@ -21,6 +21,7 @@ import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.github.hpgrahsl.kafka.connect.transforms.kryptonite.CipherField.CipherEncoding;
 import com.github.hpgrahsl.kafka.connect.transforms.kryptonite.CipherField.FieldMode;
 import com.github.hpgrahsl.kryptonite.Kryptonite.CipherSpec;
 import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings;
@@ -29,25 +30,31 @@ import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.KeySource;
 import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.KmsType;
 import com.github.hpgrahsl.kryptonite.crypto.tink.TinkAesGcm;
 import com.github.hpgrahsl.kryptonite.crypto.tink.TinkAesGcmSiv;
+import com.github.hpgrahsl.kryptonite.metrics.JmxKryptoniteMetrics;
 import com.github.hpgrahsl.kryptonite.tink.test.EncryptedKeysetsWithAzureKek;
 import com.github.hpgrahsl.kryptonite.tink.test.PlaintextKeysets;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
+import javax.management.ObjectName;
 import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.connect.sink.SinkRecord;
 import org.apache.kafka.connect.source.SourceRecord;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 import org.junit.jupiter.api.function.Executable;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -72,6 +79,149 @@ public class CipherFieldSmtFunctionalTest {
         
       performSchemafulRecordTest(cipherDataKeys, fieldMode, cipherSpec, keyId1, keyId2, keySource, kmsType, kmsConfig, kekType, kekConfig, kekUri);
     }
+
+    @ParameterizedTest
+    @EnumSource(FieldMode.class)
+    @DisplayName("apply SMT decrypt(encrypt(plaintext)) = plaintext for schemaful record with RAW_BYTES ciphertext encoding")
+    void encryptDecryptSchemafulRecordRawBytesTest(FieldMode fieldMode) {
+      performSchemafulRawBytesRecordTest(fieldMode);
+    }
+
+    @Test
+    @DisplayName("apply SMT decrypt(encrypt(plaintext)) = plaintext for schemaless record with compressed OBJECT-mode field")
+    @SuppressWarnings("unchecked")
+    void encryptDecryptSchemalessRecordCompressedTest() {
+      var largeText = "some highly redundant text ".repeat(200);
+      var record = new HashMap<String, Object>(TestFixtures.TEST_OBJ_MAP_1);
+      record.put("myLargeText", largeText);
+
+      var encProps = new HashMap<String, Object>();
+      encProps.put(KryptoniteSettings.CIPHER_MODE, "ENCRYPT");
+      encProps.put(KryptoniteSettings.FIELD_CONFIG,
+          "["
+              + "    {\"name\":\"myString\",\"compressionThreshold\":1024},"
+              + "    {\"name\":\"myLargeText\",\"compressionThreshold\":1024}"
+              + "]"
+      );
+      encProps.put(KryptoniteSettings.CIPHER_DATA_KEYS,PlaintextKeysets.CIPHER_DATA_KEYS_CONFIG);
+      encProps.put(KryptoniteSettings.CIPHER_DATA_KEY_IDENTIFIER,"keyA");
+      encProps.put(KryptoniteSettings.FIELD_MODE,FieldMode.OBJECT.name());
+
+      var encryptTransform = new CipherField.Value<SourceRecord>();
+      encryptTransform.configure(encProps);
+      var encryptedRecord = (Map<String,Object>)encryptTransform.apply(
+          new SourceRecord(null,null,"some-kafka-topic",0,null,record)
+      ).value();
+      assertTrue(((String)encryptedRecord.get("myLargeText")).length() < largeText.length() / 4);
+
+      var decProps = new HashMap<String, Object>();
+      decProps.put(KryptoniteSettings.CIPHER_MODE, "DECRYPT");
+      decProps.put(KryptoniteSettings.FIELD_CONFIG, "[{\"name\":\"myString\"},{\"name\":\"myLargeText\"}]");
+      decProps.put(KryptoniteSettings.CIPHER_DATA_KEYS,PlaintextKeysets.CIPHER_DATA_KEYS_CONFIG);
+      decProps.put(KryptoniteSettings.FIELD_MODE,FieldMode.OBJECT.name());
+
+      var decryptTransform = new CipherField.Value<SinkRecord>();
+      decryptTransform.configure(decProps);
+      var decryptedRecord = (Map<String,Object>)decryptTransform.apply(
+          new SinkRecord("some-kafka-topic",0,null,null,null,encryptedRecord,0)
+      ).value();
+
+      assertAllResultingFieldsSchemalessRecord(record,decryptedRecord);
+    }
+
+    @Test
+    @DisplayName("apply SMT decrypt(encrypt(plaintext)) = plaintext for schemaful records with dynamic key ids")
+    void encryptDecryptSchemafulRecordDynamicKeyIdTest() {
+      var schema = SchemaBuilder.struct().name("tenantRecord")
+          .field("tenant", Schema.STRING_SCHEMA)
+          .field("secret", Schema.STRING_SCHEMA)
+          .field("secretNumber", Schema.INT32_SCHEMA)
+          .build();
+      var encProps = new HashMap<String, Object>();
+      encProps.put(KryptoniteSettings.CIPHER_MODE, "ENCRYPT");
+      encProps.put(KryptoniteSettings.FIELD_CONFIG,
+          "[{\"name\":\"secret\",\"keyId\":\"__#tenant\"},{\"name\":\"secretNumber\"}]");
+      encProps.put(KryptoniteSettings.CIPHER_DATA_KEYS,PlaintextKeysets.CIPHER_DATA_KEYS_CONFIG);
+      encProps.put(KryptoniteSettings.CIPHER_DATA_KEY_IDENTIFIER,"keyA");
+      var encryptTransform = new CipherField.Value<SourceRecord>();
+      encryptTransform.configure(encProps);
+
+      var decProps = new HashMap<String, Object>();
+      decProps.put(KryptoniteSettings.CIPHER_MODE, "DECRYPT");
+      decProps.put(KryptoniteSettings.FIELD_CONFIG,
+          "[{\"name\":\"secret\",\"schema\":{\"type\":\"STRING\"}},{\"name\":\"secretNumber\",\"schema\":{\"type\":\"INT32\"}}]");
+      decProps.put(KryptoniteSettings.CIPHER_DATA_KEYS,PlaintextKeysets.CIPHER_DATA_KEYS_CONFIG);
+      var decryptTransform = new CipherField.Value<SinkRecord>();
+      decryptTransform.configure(decProps);
+
+      for (var tenant : List.of("keyA", "keyB", "keyA")) {
+        var record = new Struct(schema).put("tenant", tenant).put("secret", "secret of " + tenant).put("secretNumber", 42);
+        var encryptedRecord = (Struct)encryptTransform.apply(
+            new SourceRecord(null,null,"some-kafka-topic",0,schema,record)).value();
+        var decryptedRecord = (Struct)decryptTransform.apply(
+            new SinkRecord("some-kafka-topic",0,null,null,encryptedRecord.schema(),encryptedRecord,0)).value();
+        assertEquals(record, decryptedRecord);
+      }
+    }
+
+    @Test
+    @DisplayName("apply SMT to schemaful records reuses cached schemas and evicts beyond schema_cache_size")
+    void schemaCacheReusesAndEvictsSchemasTest() {
+      var props = new HashMap<String, Object>();
+      props.put(KryptoniteSettings.CIPHER_MODE, "ENCRYPT");
+      props.put(KryptoniteSettings.FIELD_CONFIG, "[{\"name\":\"myString\"}]");
+      props.put(KryptoniteSettings.CIPHER_DATA_KEYS,PlaintextKeysets.CIPHER_DATA_KEYS_CONFIG);
+      props.put(KryptoniteSettings.CIPHER_DATA_KEY_IDENTIFIER,"keyA");
+      props.put(KryptoniteSettings.SCHEMA_CACHE_SIZE,2);
+
+      var encryptTransform = new CipherField.Value<SourceRecord>();
+      encryptTransform.configure(props);
+      for (int i = 0; i < 3; i++) {
+        encryptTransform.apply(
+            new SourceRecord(null,null,"some-kafka-topic",0,TestFixtures.TEST_OBJ_SCHEMA_1,TestFixtures.TEST_OBJ_STRUCT_1));
+      }
+      var stats = encryptTransform.schemaCacheStats();
+      assertAll(
+          () -> assertEquals(1, stats.missCount()),
+          () -> assertEquals(2, stats.hitCount())
+      );
+
+      for (int version = 1; version <= 4; version++) {
+        var schema = SchemaBuilder.struct().name("versioned").version(version)
+            .field("myString", Schema.STRING_SCHEMA).build();
+        encryptTransform.apply(
+            new SourceRecord(null,null,"some-kafka-topic",0,schema,new Struct(schema).put("myString","v" + version)));
+      }
+      encryptTransform.cleanUpSchemaCache();
+      var evicted = encryptTransform.schemaCacheStats();
+      assertAll(
+          () -> assertEquals(5, evicted.missCount()),
+          () -> assertEquals(3, evicted.evictionCount()),
+          () -> assertEquals(2, evicted.estimatedSize())
+      );
+    }
+
+    @Test
+    @DisplayName("close SMT unregisters the JMX metrics of its Kryptonite instance")
+    void closeUnregistersJmxMetricsTest() throws Exception {
+      var props = new HashMap<String, Object>();
+      props.put(KryptoniteSettings.CIPHER_MODE, "ENCRYPT");
+      props.put(KryptoniteSettings.FIELD_CONFIG, "[{\"name\":\"myString\"}]");
+      props.put(KryptoniteSettings.CIPHER_DATA_KEYS,PlaintextKeysets.CIPHER_DATA_KEYS_CONFIG);
+      props.put(KryptoniteSettings.CIPHER_DATA_KEY_IDENTIFIER,"keyA");
+      props.put(KryptoniteSettings.METRICS_TYPE,"JMX");
+      var mBeanServer = ManagementFactory.getPlatformMBeanServer();
+      var schemaCacheBeans = new ObjectName(JmxKryptoniteMetrics.DOMAIN + ":type=Cache,name=schemaCache,*");
+      var before = mBeanServer.queryNames(schemaCacheBeans, null).size();
+
+      var encryptTransform = new CipherField.Value<SourceRecord>();
+      encryptTransform.configure(props);
+      assertEquals(before + 1, mBeanServer.queryNames(schemaCacheBeans, null).size());
+
+      encryptTransform.close();
+      assertEquals(before, mBeanServer.queryNames(schemaCacheBeans, null).size());
+      encryptTransform.close();
+    }
   }
 
   @Nested
@@ -284,6 +434,72 @@ public class CipherFieldSmtFunctionalTest {
   }
   
 
+  void performSchemafulRawBytesRecordTest(FieldMode fieldMode) {
+      var encProps = new HashMap<String, Object>();
+      encProps.put(KryptoniteSettings.CIPHER_MODE, "ENCRYPT");
+      encProps.put(KryptoniteSettings.FIELD_CONFIG,
+          "["
+              + "    {\"name\":\"myString\"},"
+              + "    {\"name\":\"myInt32\",\"encoding\":\"BASE64\"},"
+              + "    {\"name\":\"myArray1\"},"
+              + "    {\"name\":\"mySubDoc2\"}"
+              + "]"
+      );
+      encProps.put(KryptoniteSettings.CIPHER_ALGORITHM,TinkAesGcm.CIPHER_ALGORITHM);
+      encProps.put(KryptoniteSettings.CIPHER_DATA_KEYS,PlaintextKeysets.CIPHER_DATA_KEYS_CONFIG);
+      encProps.put(KryptoniteSettings.CIPHER_DATA_KEY_IDENTIFIER,"keyA");
+      encProps.put(KryptoniteSettings.CIPHER_TEXT_ENCODING,CipherEncoding.RAW_BYTES.name());
+      encProps.put(KryptoniteSettings.FIELD_MODE,fieldMode.name());
+
+      var encryptTransform = new CipherField.Value<SourceRecord>();
+      encryptTransform.configure(encProps);
+      var encryptedRecord = (Struct)encryptTransform.apply(
+          new SourceRecord(null,null,"some-kafka-topic",0,TestFixtures.TEST_OBJ_SCHEMA_1,TestFixtures.TEST_OBJ_STRUCT_1)
+      ).value();
+
+      var encryptedSchema = encryptedRecord.schema();
+      assertAll(
+          () -> assertEquals(Schema.Type.BYTES, encryptedSchema.field("myString").schema().type()),
+          () -> assertTrue(encryptedRecord.get("myString") instanceof byte[]),
+          () -> assertEquals(Schema.Type.STRING, encryptedSchema.field("myInt32").schema().type()),
+          () -> assertTrue(encryptedRecord.get("myInt32") instanceof String)
+      );
+      if (fieldMode == FieldMode.OBJECT) {
+        assertAll(
+            () -> assertEquals(Schema.Type.BYTES, encryptedSchema.field("myArray1").schema().type()),
+            () -> assertEquals(Schema.Type.BYTES, encryptedSchema.field("mySubDoc2").schema().type())
+        );
+      } else {
+        assertAll(
+            () -> assertEquals(Schema.Type.BYTES, encryptedSchema.field("myArray1").schema().valueSchema().type()),
+            () -> assertEquals(Schema.Type.STRING, encryptedSchema.field("mySubDoc2").schema().keySchema().type()),
+            () -> assertEquals(Schema.Type.BYTES, encryptedSchema.field("mySubDoc2").schema().valueSchema().type())
+        );
+      }
+
+      var decProps = new HashMap<String, Object>();
+      decProps.put(KryptoniteSettings.CIPHER_MODE, "DECRYPT");
+      decProps.put(KryptoniteSettings.FIELD_CONFIG,
+          "["
+              + "    {\"name\":\"myString\",\"schema\": {\"type\": \"STRING\"}},"
+              + "    {\"name\":\"myInt32\",\"schema\": {\"type\": \"INT32\"}},"
+              + "    {\"name\":\"myArray1\",\"schema\": {\"type\": \"ARRAY\",\"valueSchema\": {\"type\": \"STRING\"}}},"
+              + "    {\"name\":\"mySubDoc2\",\"schema\": { \"type\": \"MAP\", \"keySchema\": { \"type\": \"STRING\" }, \"valueSchema\": { \"type\": \"INT32\"}}}"
+              + "]"
+      );
+      decProps.put(KryptoniteSettings.CIPHER_ALGORITHM,encProps.get(KryptoniteSettings.CIPHER_ALGORITHM));
+      decProps.put(KryptoniteSettings.CIPHER_DATA_KEYS,encProps.get(KryptoniteSettings.CIPHER_DATA_KEYS));
+      decProps.put(KryptoniteSettings.FIELD_MODE,fieldMode.name());
+
+      var decryptTransform = new CipherField.Value<SinkRecord>();
+      decryptTransform.configure(decProps);
+      var decryptedRecord = (Struct)decryptTransform.apply(
+          new SinkRecord("some-kafka-topic",0,null,null,encryptedRecord.schema(),encryptedRecord,0)
+      ).value();
+
+      assertAllResultingFieldsSchemafulRecord(TestFixtures.TEST_OBJ_STRUCT_1,decryptedRecord);
+  }
+
   void assertAllResultingFieldsSchemalessRecord(Map<String,Object> expected, Map<String,Object> actual) {
     assertAll(
             expected.entrySet().stream().map(
@@ -244,6 +244,24 @@ class DynamicKeyIdResolverTest {
                     () -> DynamicKeyIdResolver.resolve(fc, cfg, structRoot("de", "eu", "hello json")));
             assertEquals("Dynamic key identifier '__#' has no field path after prefix '__#'", exception.getMessage());
         }
+
+        @Test
+        @DisplayName("compiled accessor resolves records of changing schemas")
+        void compiledAccessorResolvesRecordsOfChangingSchemas() {
+            var cfg = config(Map.of());
+            var accessor = DynamicKeyIdResolver.compile("__#mySubDoc1.myString", cfg);
+            var reordered = SchemaBuilder.struct()
+                    .field("myString", org.apache.kafka.connect.data.Schema.STRING_SCHEMA)
+                    .build();
+            var otherSchema = SchemaBuilder.struct()
+                    .field("mySubDoc1", reordered)
+                    .build();
+
+            assertEquals("keyA", accessor.resolve(structRoot("de", "eu", "keyA")));
+            assertEquals("keyB", accessor.resolve(new Struct(otherSchema).put("mySubDoc1", new Struct(reordered).put("myString", "keyB"))));
+            assertEquals("keyC", accessor.resolve(mapRoot("de", "eu", "keyC")));
+            assertEquals("keyD", accessor.resolve(structRoot("de", "eu", "keyD")));
+        }
     }
 
     private static Map<String, Object> mapRoot(String country, String region, String nestedString) {
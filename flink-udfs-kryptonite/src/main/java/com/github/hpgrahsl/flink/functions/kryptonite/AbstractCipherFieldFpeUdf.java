@@ -50,6 +50,19 @@ public abstract class AbstractCipherFieldFpeUdf extends ScalarFunction {
         }
     }
 
+    /**
+     * Closes the {@link Kryptonite} instance created in {@link #open(FunctionContext)}, which also
+     * unregisters its metrics, so that restarted tasks don't leak MBeans and key material.
+     */
+    @Override
+    public void close() throws Exception {
+        if (kryptonite != null) {
+            kryptonite.close();
+            kryptonite = null;
+        }
+        super.close();
+    }
+
     String encryptData(String data, FieldMetaData fieldMetaData) {
         try {
             // NOTE: null is by definition not encryptable with FPE ciphers
@@ -49,6 +49,19 @@ public abstract class AbstractCipherFieldUdf extends ScalarFunction {
         }
     }
 
+    /**
+     * Closes the {@link Kryptonite} instance created in {@link #open(FunctionContext)}, which also
+     * unregisters its metrics, so that restarted tasks don't leak MBeans and key material.
+     */
+    @Override
+    public void close() throws Exception {
+        if (kryptonite != null) {
+            kryptonite.close();
+            kryptonite = null;
+        }
+        super.close();
+    }
+
     String encryptData(Object data, FieldMetaData fieldMetaData) {
         try {
             var metadata = PayloadMetaData.from(fieldMetaData);
@@ -59,6 +72,20 @@ public abstract class AbstractCipherFieldUdf extends ScalarFunction {
         }
     }
 
+    /**
+     * Same as {@link #encryptData(Object, FieldMetaData)} but returns the raw binary envelope
+     * instead of its Base64 encoding, for functions declaring a {@code BYTES} result.
+     */
+    byte[] encryptDataRaw(Object data, FieldMetaData fieldMetaData) {
+        try {
+            var metadata = PayloadMetaData.from(fieldMetaData);
+            return FieldHandler.encryptFieldRaw(data, metadata, kryptonite,
+                    udfConfiguration.getOrDefault(KryptoniteSettings.SERDE_TYPE, KryptoniteSettings.SERDE_TYPE_DEFAULT));
+        } catch (Exception exc) {
+            throw new KryptoniteException("failed to encrypt data", exc);
+        }
+    }
+
     Object decryptData(String data) {
         if (data == null) {
             return null;
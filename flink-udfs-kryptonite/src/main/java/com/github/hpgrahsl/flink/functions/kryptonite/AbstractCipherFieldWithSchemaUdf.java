@@ -51,7 +51,10 @@ public abstract class AbstractCipherFieldWithSchemaUdf extends AbstractCipherFie
                 });
     }
 
-    protected Object decryptData(String data, final DataType type) {
+    /**
+     * @param data the encrypted field, either as Base64 {@link String} or as raw envelope {@code byte[]}
+     */
+    protected Object decryptData(Object data, final DataType type) {
         if (data == null) {
             return null;
         }
@@ -76,10 +79,17 @@ public abstract class AbstractCipherFieldWithSchemaUdf extends AbstractCipherFie
     }
 
     protected String encryptData(Object data, DataType dataType, FieldMetaData fieldMetaData) {
+        return encryptData(toCanonical(data, dataType), fieldMetaData);
+    }
+
+    protected byte[] encryptDataRaw(Object data, DataType dataType, FieldMetaData fieldMetaData) {
+        return encryptDataRaw(toCanonical(data, dataType), fieldMetaData);
+    }
+
+    private Object toCanonical(Object data, DataType dataType) {
         var serdeName = Optional.ofNullable(getConfigurationSetting(KryptoniteSettings.SERDE_TYPE))
                                 .orElse(KryptoniteSettings.SERDE_TYPE_DEFAULT);
-        var canonical = fieldConverter.toCanonical(data, dataType, serdeName);
-        return encryptData(canonical, fieldMetaData);
+        return fieldConverter.toCanonical(data, dataType, serdeName);
     }
 
 }
@@ -29,7 +29,10 @@ import com.github.hpgrahsl.flink.functions.kryptonite.schema.SchemaParser;
 
 public class DecryptWithSchemaUdf extends AbstractCipherFieldWithSchemaUdf {
 
-    public @Nullable Object eval(@Nullable final String data, final String schemaString) {
+    /**
+     * @param data the encrypted field, either a Base64 {@code STRING} or raw envelope {@code BYTES}
+     */
+    public @Nullable Object eval(@Nullable final Object data, final String schemaString) {
         if(data == null) {
             return null;
         }
@@ -39,9 +42,13 @@ public class DecryptWithSchemaUdf extends AbstractCipherFieldWithSchemaUdf {
     @Override
     public TypeInference getTypeInference(DataTypeFactory typeFactory) {
         return TypeInference.newBuilder()
-                .inputTypeStrategy(InputTypeStrategies.sequence(
-                        InputTypeStrategies.explicit(DataTypes.STRING()),
-                        InputTypeStrategies.explicit(DataTypes.STRING())))
+                .inputTypeStrategy(InputTypeStrategies.or(
+                        InputTypeStrategies.sequence(
+                                InputTypeStrategies.explicit(DataTypes.STRING()),
+                                InputTypeStrategies.explicit(DataTypes.STRING())),
+                        InputTypeStrategies.sequence(
+                                InputTypeStrategies.explicit(DataTypes.BYTES()),
+                                InputTypeStrategies.explicit(DataTypes.STRING()))))
                 .outputTypeStrategy(callContext -> {
                     if (!callContext.isArgumentLiteral(1) || callContext.isArgumentNull(1)) {
                         throw new IllegalArgumentException(
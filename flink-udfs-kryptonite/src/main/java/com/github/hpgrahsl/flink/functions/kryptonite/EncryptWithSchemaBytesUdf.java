@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2025. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.hpgrahsl.flink.functions.kryptonite;
+
+import javax.annotation.Nullable;
+
+import org.apache.flink.table.annotation.DataTypeHint;
+import org.apache.flink.table.annotation.InputGroup;
+import org.apache.flink.table.api.DataTypes;
+import org.apache.flink.table.catalog.DataTypeFactory;
+import org.apache.flink.table.functions.FunctionContext;
+import org.apache.flink.table.types.inference.TypeInference;
+
+import com.github.hpgrahsl.kryptonite.KryptoniteException;
+import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings;
+
+/**
+ * Variant of {@link EncryptWithSchemaUdf} which returns the raw binary envelope as {@code BYTES}
+ * instead of its Base64 encoding as {@code STRING}. The result is decrypted with
+ * {@link DecryptWithSchemaUdf}.
+ */
+public class EncryptWithSchemaBytesUdf extends AbstractCipherFieldWithSchemaUdf {
+
+    private transient String defaultCipherDataKeyIdentifier;
+
+    @Override
+    public void open(FunctionContext context) throws Exception {
+        super.open(context);
+        var cipherDataKeyIdentifier = getConfigurationSetting(KryptoniteSettings.CIPHER_DATA_KEY_IDENTIFIER);
+        if (cipherDataKeyIdentifier == null || KryptoniteSettings.CIPHER_DATA_KEY_IDENTIFIER_DEFAULT.equals(cipherDataKeyIdentifier)) {
+            throw new KryptoniteException("missing required setting for " + KryptoniteSettings.CIPHER_DATA_KEY_IDENTIFIER
+                    + " which is neither defined by environment variables nor by job parameters");
+        }
+        defaultCipherDataKeyIdentifier = cipherDataKeyIdentifier;
+    }
+
+    public byte[] eval(
+            @Nullable @DataTypeHint(inputGroup = InputGroup.ANY) final Object data,
+            final String schemaString) {
+        var dataType = getCachedSchema(schemaString);
+        var fmd = createFieldMetaData(KryptoniteSettings.CIPHER_ALGORITHM_DEFAULT, data, defaultCipherDataKeyIdentifier);
+        return encryptDataRaw(data, dataType, fmd);
+    }
+
+    public byte[] eval(
+            @Nullable @DataTypeHint(inputGroup = InputGroup.ANY) final Object data,
+            final String schemaString,
+            final String cipherDataKeyIdentifier,
+            final String cipherAlgorithm) {
+        if (cipherDataKeyIdentifier == null || cipherAlgorithm == null) {
+            throw new IllegalArgumentException("cipher data key identifier and/or cipher algorithm must not be null");
+        }
+        var dataType = getCachedSchema(schemaString);
+        var fmd = createFieldMetaData(cipherAlgorithm, data, cipherDataKeyIdentifier);
+        return encryptDataRaw(data, dataType, fmd);
+    }
+
+    @Override
+    public TypeInference getTypeInference(DataTypeFactory typeFactory) {
+        return EncryptWithSchemaUdf.typeInference(DataTypes.BYTES());
+    }
+
+}
@@ -25,6 +25,7 @@ import org.apache.flink.table.annotation.InputGroup;
 import org.apache.flink.table.api.DataTypes;
 import org.apache.flink.table.catalog.DataTypeFactory;
 import org.apache.flink.table.functions.FunctionContext;
+import org.apache.flink.table.types.DataType;
 import org.apache.flink.table.types.inference.InputTypeStrategies;
 import org.apache.flink.table.types.inference.TypeInference;
 
@@ -70,6 +71,14 @@ public class EncryptWithSchemaUdf extends AbstractCipherFieldWithSchemaUdf {
 
     @Override
     public TypeInference getTypeInference(DataTypeFactory typeFactory) {
+        return typeInference(DataTypes.STRING());
+    }
+
+    /**
+     * Type inference shared by the schema-aware encrypt functions, which only differ in their
+     * result type: {@code STRING} for Base64 envelopes and {@code BYTES} for raw ones.
+     */
+    static TypeInference typeInference(DataType outputType) {
         return TypeInference.newBuilder()
                 .inputTypeStrategy(
                         InputTypeStrategies.or(
@@ -97,7 +106,7 @@ public class EncryptWithSchemaUdf extends AbstractCipherFieldWithSchemaUdf {
                         throw new IllegalArgumentException(
                                 "1st argument type " + actualLogical + " does not match schema type " + expectedLogical);
                     }
-                    return Optional.of(DataTypes.STRING());
+                    return Optional.of(outputType);
                 })
                 .build();
     }
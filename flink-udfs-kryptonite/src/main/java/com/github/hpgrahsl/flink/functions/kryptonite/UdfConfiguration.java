@@ -136,6 +136,11 @@ public class UdfConfiguration {
             String.valueOf(KryptoniteSettings.DEK_TTL_MINUTES_DEFAULT));
         configuration.putIfAbsent(KryptoniteSettings.DEK_TTL_MINUTES, dekTtlMinutes);
 
+        var dekRotationWatermark = context.getJobParameter(
+            KryptoniteSettings.DEK_ROTATION_WATERMARK,
+            String.valueOf(KryptoniteSettings.DEK_ROTATION_WATERMARK_DEFAULT));
+        configuration.putIfAbsent(KryptoniteSettings.DEK_ROTATION_WATERMARK, dekRotationWatermark);
+
         var dekCacheSize = context.getJobParameter(
             KryptoniteSettings.DEK_CACHE_SIZE,
             String.valueOf(KryptoniteSettings.DEK_CACHE_SIZE_DEFAULT));
@@ -146,6 +151,11 @@ public class UdfConfiguration {
             KryptoniteSettings.EDEK_STORE_CONFIG_DEFAULT);
         configuration.putIfAbsent(KryptoniteSettings.EDEK_STORE_CONFIG, edekStoreConfig);
 
+        var metricsType = context.getJobParameter(
+            KryptoniteSettings.METRICS_TYPE,
+            KryptoniteSettings.METRICS_TYPE_DEFAULT);
+        configuration.putIfAbsent(KryptoniteSettings.METRICS_TYPE, metricsType);
+
         return configuration;
     }
 
@@ -254,6 +264,11 @@ public class UdfConfiguration {
             configuration.put(KryptoniteSettings.DEK_TTL_MINUTES, dekTtlMinutes);
         }
 
+        var dekRotationWatermark = System.getenv(KryptoniteSettings.DEK_ROTATION_WATERMARK);
+        if (dekRotationWatermark != null) {
+            configuration.put(KryptoniteSettings.DEK_ROTATION_WATERMARK, dekRotationWatermark);
+        }
+
         var dekCacheSize = System.getenv(KryptoniteSettings.DEK_CACHE_SIZE);
         if (dekCacheSize != null) {
             configuration.put(KryptoniteSettings.DEK_CACHE_SIZE, dekCacheSize);
@@ -264,6 +279,11 @@ public class UdfConfiguration {
             configuration.put(KryptoniteSettings.EDEK_STORE_CONFIG, edekStoreConfig);
         }
 
+        var metricsType = System.getenv(KryptoniteSettings.METRICS_TYPE);
+        if (metricsType != null) {
+            configuration.put(KryptoniteSettings.METRICS_TYPE, metricsType);
+        }
+
         return configuration;
     }
 
@@ -30,6 +30,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.Base64;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -114,6 +115,39 @@ public class EncryptWithSchemaDecryptWithSchemaUdfTest {
             assertEquals(plaintext, decryptWithSchemaUdf.eval(encrypted, "STRING"));
         }
 
+        @Test
+        @DisplayName("Should decrypt STRING given as raw envelope bytes")
+        void testDecryptStringFromRawBytes() {
+            String plaintext = TestFixtures.TEST_STRING;
+            String encrypted = encryptWithSchemaUdf.eval(plaintext, "STRING");
+            byte[] raw = Base64.getDecoder().decode(encrypted);
+            assertEquals(plaintext, decryptWithSchemaUdf.eval(raw, "STRING"));
+        }
+
+        @Test
+        @DisplayName("Should encrypt STRING into raw envelope bytes and decrypt them")
+        void testEncryptWithSchemaBytesDecryptString() throws Exception {
+            var encryptWithSchemaBytesUdf = new EncryptWithSchemaBytesUdf();
+            encryptWithSchemaBytesUdf.open(createMockFunctionContext(null));
+            String plaintext = TestFixtures.TEST_STRING;
+            byte[] raw = encryptWithSchemaBytesUdf.eval(plaintext, "STRING");
+            assertNotNull(raw);
+            assertEquals(plaintext, decryptWithSchemaUdf.eval(raw, "STRING"));
+            assertEquals(plaintext, decryptWithSchemaUdf.eval(Base64.getEncoder().encodeToString(raw), "STRING"));
+        }
+
+        @Test
+        @DisplayName("Should encrypt INTEGER into raw envelope bytes with custom key and algorithm")
+        void testEncryptBytesDecryptInteger_CustomParams() throws Exception {
+            var encryptBytesUdf = new EncryptBytesUdf();
+            encryptBytesUdf.open(createMockFunctionContext(null));
+            Integer plaintext = TestFixtures.TEST_INT;
+            String algorithm = Kryptonite.CipherSpec.fromName(TinkAesGcm.CIPHER_ALGORITHM).getName();
+            byte[] raw = encryptBytesUdf.eval(plaintext, "keyB", algorithm);
+            assertNotNull(raw);
+            assertEquals(plaintext, decryptWithSchemaUdf.eval(raw, "INT"));
+        }
+
         @Test
         @DisplayName("Should encrypt and decrypt INTEGER")
         void testEncryptDecryptInteger() {
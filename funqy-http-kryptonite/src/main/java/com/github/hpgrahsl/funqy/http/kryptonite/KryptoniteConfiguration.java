@@ -28,6 +28,7 @@ import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.AlphabetTypeFPE;
 import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.KekType;
 import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.KeySource;
 import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.KmsType;
+import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.MetricsType;
 import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.SerdeType;
 
 @Singleton
@@ -104,12 +105,18 @@ public class KryptoniteConfiguration {
     @ConfigProperty(name="dek_ttl_minutes", defaultValue = "720")
     public long dekTtlMinutes;
 
+    @ConfigProperty(name="dek_rotation_watermark", defaultValue = "1.0")
+    public Optional<Double> dekRotationWatermark;
+
     @ConfigProperty(name="dek_cache_size", defaultValue = "1024")
     public int dekCacheSize;
 
     @ConfigProperty(name="edek_store_config", defaultValue = "{}")
     public String edekStoreConfig;
 
+    @ConfigProperty(name="metrics_type", defaultValue = "NONE")
+    public MetricsType metricsType;
+
     public static KryptoniteConfiguration fromSettings(String cipherDataKeys, String cipherDataKeyIdentifier,
             String cipherTextEncoding, String cipherFpeTweak, AlphabetTypeFPE cipherFpeAlphabetType, String cipherFpeAlphabetCustom,
             KeySource keySource, KmsType kmsType, String kmsConfig, KekType kekType, String kekConfig,
@@ -167,8 +174,12 @@ public class KryptoniteConfiguration {
             Map.entry(KryptoniteSettings.DEK_KEY_BITS,String.valueOf(dekKeyBits)),
             Map.entry(KryptoniteSettings.DEK_MAX_ENCRYPTIONS,String.valueOf(dekMaxEncryptions)),
             Map.entry(KryptoniteSettings.DEK_TTL_MINUTES,String.valueOf(dekTtlMinutes)),
+            Map.entry(KryptoniteSettings.DEK_ROTATION_WATERMARK,String.valueOf(
+                dekRotationWatermark != null ? dekRotationWatermark.orElse(KryptoniteSettings.DEK_ROTATION_WATERMARK_DEFAULT)
+                    : KryptoniteSettings.DEK_ROTATION_WATERMARK_DEFAULT)),
             Map.entry(KryptoniteSettings.DEK_CACHE_SIZE,String.valueOf(dekCacheSize)),
-            Map.entry(KryptoniteSettings.EDEK_STORE_CONFIG,edekStoreConfig)
+            Map.entry(KryptoniteSettings.EDEK_STORE_CONFIG,edekStoreConfig),
+            Map.entry(KryptoniteSettings.METRICS_TYPE,metricsType != null ? metricsType.name() : KryptoniteSettings.METRICS_TYPE_DEFAULT)
         );
     }
 }
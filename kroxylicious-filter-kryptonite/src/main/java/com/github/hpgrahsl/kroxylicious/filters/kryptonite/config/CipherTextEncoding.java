@@ -0,0 +1,17 @@
+package com.github.hpgrahsl.kroxylicious.filters.kryptonite.config;
+
+/**
+ * Encoding of the ciphertext written into encrypted (non-FPE) fields.
+ */
+public enum CipherTextEncoding {
+    /**
+     * Base64 encoded envelope in a {@code string} field. Default.
+     */
+    BASE64,
+    /**
+     * Raw binary envelope in a {@code bytes} field, avoiding the Base64 size overhead.
+     * Only supported for {@link RecordFormat#AVRO}, the other formats have no binary field type.
+     * Decryption accepts both encodings regardless of this setting.
+     */
+    RAW_BYTES
+}
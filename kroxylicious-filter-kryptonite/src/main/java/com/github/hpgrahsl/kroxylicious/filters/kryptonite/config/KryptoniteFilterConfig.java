@@ -37,9 +37,13 @@ public class KryptoniteFilterConfig {
     private final int dekKeyBits;
     private final long dekMaxEncryptions;
     private final long dekTtlMinutes;
+    private final double dekRotationWatermark;
     private final int dekCacheSize;
     private final Map<String, String> edekStoreConfig;
 
+    // --- Metrics ---
+    private final String metricsType;               // NONE | JMX
+
     // --- Schema Registry ---
     private final String schemaRegistryUrl;
     private final Map<String, String> schemaRegistryConfig;
@@ -51,6 +55,7 @@ public class KryptoniteFilterConfig {
     private final SchemaMode schemaMode;
 
     private final String serdeType;
+    private final CipherTextEncoding cipherTextEncoding;
     private final String dynamicKeyIdPrefix;
 
     // --- Topic-to-field routing ---
@@ -75,13 +80,16 @@ public class KryptoniteFilterConfig {
             @JsonProperty(value = "dek_key_bits") Integer dekKeyBits,
             @JsonProperty(value = "dek_max_encryptions") Long dekMaxEncryptions,
             @JsonProperty(value = "dek_ttl_minutes") Long dekTtlMinutes,
+            @JsonProperty(value = "dek_rotation_watermark") Double dekRotationWatermark,
             @JsonProperty(value = "dek_cache_size") Integer dekCacheSize,
             @JsonProperty(value = "edek_store_config") Map<String, String> edekStoreConfig,
+            @JsonProperty(value = "metrics_type") String metricsType,
             @JsonProperty(value = "schema_registry_url") String schemaRegistryUrl,
             @JsonProperty(value = "schema_registry_config") Map<String, String> schemaRegistryConfig,
             @JsonProperty(value = "record_format") RecordFormat recordFormat,
             @JsonProperty(value = "schema_mode") SchemaMode schemaMode,
             @JsonProperty(value = "serde_type") String serdeType,
+            @JsonProperty(value = "cipher_text_encoding") CipherTextEncoding cipherTextEncoding,
             @JsonProperty(value = "dynamic_key_id_prefix") String dynamicKeyIdPrefix,
             @JsonProperty(value = "topic_field_configs") List<TopicFieldConfig> topicFieldConfigs,
             @JsonProperty(value = "blocking_pool_size") int blockingPoolSize) {
@@ -100,13 +108,16 @@ public class KryptoniteFilterConfig {
         this.dekKeyBits = dekKeyBits != null ? dekKeyBits : KryptoniteSettings.DEK_KEY_BITS_DEFAULT;
         this.dekMaxEncryptions = dekMaxEncryptions != null ? dekMaxEncryptions : KryptoniteSettings.DEK_MAX_ENCRYPTIONS_DEFAULT;
         this.dekTtlMinutes = dekTtlMinutes != null ? dekTtlMinutes : KryptoniteSettings.DEK_TTL_MINUTES_DEFAULT;
+        this.dekRotationWatermark = dekRotationWatermark != null ? dekRotationWatermark : KryptoniteSettings.DEK_ROTATION_WATERMARK_DEFAULT;
         this.dekCacheSize = dekCacheSize != null ? dekCacheSize : KryptoniteSettings.DEK_CACHE_SIZE_DEFAULT;
         this.edekStoreConfig = edekStoreConfig != null ? edekStoreConfig : Map.of();
+        this.metricsType = metricsType != null ? metricsType : KryptoniteSettings.METRICS_TYPE_DEFAULT;
         this.schemaRegistryUrl = schemaRegistryUrl;
         this.schemaRegistryConfig = schemaRegistryConfig != null ? schemaRegistryConfig : Map.of();
         this.recordFormat = recordFormat;
         this.schemaMode = schemaMode != null ? schemaMode : SchemaMode.DYNAMIC;
         this.serdeType = serdeType != null ? serdeType : KryptoniteSettings.SERDE_TYPE_DEFAULT;
+        this.cipherTextEncoding = cipherTextEncoding != null ? cipherTextEncoding : CipherTextEncoding.BASE64;
         this.dynamicKeyIdPrefix = dynamicKeyIdPrefix != null ? dynamicKeyIdPrefix : KryptoniteSettings.DYNAMIC_KEY_ID_PREFIX_DEFAULT;
         this.topicFieldConfigs = topicFieldConfigs != null ? topicFieldConfigs : List.of();
         this.blockingPoolSize = blockingPoolSize;
@@ -127,13 +138,16 @@ public class KryptoniteFilterConfig {
     public int getDekKeyBits() { return dekKeyBits; }
     public long getDekMaxEncryptions() { return dekMaxEncryptions; }
     public long getDekTtlMinutes() { return dekTtlMinutes; }
+    public double getDekRotationWatermark() { return dekRotationWatermark; }
     public int getDekCacheSize() { return dekCacheSize; }
     public Map<String, String> getEdekStoreConfig() { return edekStoreConfig; }
+    public String getMetricsType() { return metricsType; }
     public String getSchemaRegistryUrl() { return schemaRegistryUrl; }
     public Map<String, String> getSchemaRegistryConfig() { return schemaRegistryConfig; }
     public RecordFormat getRecordFormat() { return recordFormat; }
     public SchemaMode getSchemaMode() { return schemaMode; }
     public String getSerdeType() { return serdeType; }
+    public CipherTextEncoding getCipherTextEncoding() { return cipherTextEncoding; }
     public String getDynamicKeyIdPrefix() { return dynamicKeyIdPrefix; }
     public List<TopicFieldConfig> getTopicFieldConfigs() { return topicFieldConfigs; }
     public int getBlockingPoolSize() { return blockingPoolSize; }
@@ -158,6 +172,11 @@ public class KryptoniteFilterConfig {
             }
         }
 
+        // RAW_BYTES needs a binary field type in the target schema, which only Avro provides
+        if (cipherTextEncoding == CipherTextEncoding.RAW_BYTES && recordFormat != RecordFormat.AVRO) {
+            errors.add("cipher_text_encoding RAW_BYTES is only supported when record_format is AVRO");
+        }
+
         // parse key_source for cross-field checks (invalid value is itself an error)
         KeySource parsedKeySource = null;
         try {
@@ -226,7 +245,9 @@ public class KryptoniteFilterConfig {
         config.put(KryptoniteSettings.DEK_KEY_BITS, String.valueOf(dekKeyBits));
         config.put(KryptoniteSettings.DEK_MAX_ENCRYPTIONS, String.valueOf(dekMaxEncryptions));
         config.put(KryptoniteSettings.DEK_TTL_MINUTES, String.valueOf(dekTtlMinutes));
+        config.put(KryptoniteSettings.DEK_ROTATION_WATERMARK, String.valueOf(dekRotationWatermark));
         config.put(KryptoniteSettings.DEK_CACHE_SIZE, String.valueOf(dekCacheSize));
+        config.put(KryptoniteSettings.METRICS_TYPE, metricsType);
         try {
             config.put(KryptoniteSettings.CIPHER_DATA_KEYS,
                     cipherDataKeys != null ? MAPPER.writeValueAsString(cipherDataKeys) : "[]");
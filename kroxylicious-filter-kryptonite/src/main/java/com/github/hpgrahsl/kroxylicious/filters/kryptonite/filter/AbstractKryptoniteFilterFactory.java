@@ -1,6 +1,7 @@
 package com.github.hpgrahsl.kroxylicious.filters.kryptonite.filter;
 
 import com.github.hpgrahsl.kryptonite.Kryptonite;
+import com.github.hpgrahsl.kroxylicious.filters.kryptonite.config.FieldConfig;
 import com.github.hpgrahsl.kroxylicious.filters.kryptonite.config.KryptoniteFilterConfig;
 import com.github.hpgrahsl.kroxylicious.filters.kryptonite.config.SchemaMode;
 import com.github.hpgrahsl.kroxylicious.filters.kryptonite.processor.AvroSchemaRegistryRecordProcessor;
@@ -25,6 +26,7 @@ import org.slf4j.LoggerFactory;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.function.Predicate;
 
 /**
  * Shared base for {@link KryptoniteEncryptionFilterFactory} and {@link KryptoniteDecryptionFilterFactory}.
@@ -78,7 +80,8 @@ abstract class AbstractKryptoniteFilterFactory
             case JSON_SR -> new JsonSchemaRegistryRecordProcessor(kryptonite,
                     createAdapter(createSrClient(config), config.getSchemaMode()), config);
             case AVRO -> new AvroSchemaRegistryRecordProcessor(kryptonite,
-                    createAdapter(createSrClient(config), config.getSchemaMode()), config);
+                    createAdapter(createSrClient(config), config.getSchemaMode(),
+                            AvroSchemaRegistryRecordProcessor.rawBytesFields(config)), config);
             case PROTOBUF -> throw new IllegalArgumentException("PROTOBUF record format is not yet supported");
         };
     }
@@ -91,8 +94,13 @@ abstract class AbstractKryptoniteFilterFactory
     }
 
     private static SchemaRegistryAdapter createAdapter(SchemaRegistryClient srClient, SchemaMode schemaMode) {
+        return createAdapter(srClient, schemaMode, fc -> false);
+    }
+
+    private static SchemaRegistryAdapter createAdapter(SchemaRegistryClient srClient, SchemaMode schemaMode,
+                                                       Predicate<FieldConfig> rawBytesField) {
         return schemaMode == SchemaMode.STATIC
                 ? new DefaultStaticSchemaRegistryAdapter(srClient)
-                : new DefaultDynamicSchemaRegistryAdapter(srClient);
+                : new DefaultDynamicSchemaRegistryAdapter(srClient, rawBytesField);
     }
 }
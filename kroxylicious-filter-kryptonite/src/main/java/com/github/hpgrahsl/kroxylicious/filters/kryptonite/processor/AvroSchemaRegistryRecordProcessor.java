@@ -2,8 +2,10 @@ package com.github.hpgrahsl.kroxylicious.filters.kryptonite.processor;
 
 import com.github.hpgrahsl.kryptonite.FieldMetaData;
 import com.github.hpgrahsl.kryptonite.Kryptonite;
+import com.github.hpgrahsl.kryptonite.PayloadMetaData;
 import com.github.hpgrahsl.kryptonite.converters.KroxyliciousFieldConverter;
 import com.github.hpgrahsl.kryptonite.serdes.FieldHandler;
+import com.github.hpgrahsl.kroxylicious.filters.kryptonite.config.CipherTextEncoding;
 import com.github.hpgrahsl.kroxylicious.filters.kryptonite.config.FieldConfig;
 import com.github.hpgrahsl.kroxylicious.filters.kryptonite.config.KryptoniteFilterConfig;
 import com.github.hpgrahsl.kroxylicious.filters.kryptonite.processor.accessor.AvroGenericRecordAccessor;
@@ -17,11 +19,13 @@ import org.apache.avro.generic.GenericRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -37,6 +41,11 @@ import java.util.stream.Collectors;
  * {@code GenericData.Array}, {@code GenericData.EnumSymbol}, {@code GenericData.Fixed}).
  * OBJECT mode encrypts the entire field value for any of these types. ELEMENT mode encrypts
  * individual elements of array and map fields, or individual field values of record fields.
+ *
+ * <p>With {@code cipher_text_encoding: RAW_BYTES} non-FPE ciphertext is written as the raw binary
+ * envelope ({@code bytes}/{@code ByteBuffer}) instead of a Base64 {@code string}; the dynamic
+ * schema adapter derives the matching {@code bytes} field types via {@link #rawBytesFields}.
+ * Decryption accepts both encodings. FPE ciphertext always stays a {@code string}.
  */
 public class AvroSchemaRegistryRecordProcessor implements RecordValueProcessor {
 
@@ -45,6 +54,7 @@ public class AvroSchemaRegistryRecordProcessor implements RecordValueProcessor {
     private final Kryptonite kryptonite;
     private final SchemaRegistryAdapter adapter;
     private final String serdeType;
+    private final Predicate<FieldConfig> rawBytesField;
     private final KryptoniteFilterConfig config;
     private final KroxyliciousFieldConverter fieldConverter = new KroxyliciousFieldConverter();
 
@@ -54,6 +64,19 @@ public class AvroSchemaRegistryRecordProcessor implements RecordValueProcessor {
         this.adapter = adapter;
         this.config = config;
         this.serdeType = config.getSerdeType();
+        this.rawBytesField = rawBytesFields(config);
+    }
+
+    /**
+     * Matches the fields whose ciphertext this processor writes as the raw binary envelope,
+     * i.e. all non-FPE fields under {@code cipher_text_encoding: RAW_BYTES}. The derived encrypted
+     * schema must declare exactly these fields as {@code bytes}.
+     */
+    public static Predicate<FieldConfig> rawBytesFields(KryptoniteFilterConfig config) {
+        if (config.getCipherTextEncoding() != CipherTextEncoding.RAW_BYTES) {
+            return fc -> false;
+        }
+        return fc -> !FieldConfigUtils.isFpe(fc, config);
     }
 
     @Override
@@ -92,8 +115,7 @@ public class AvroSchemaRegistryRecordProcessor implements RecordValueProcessor {
                     accessor.setField(fc.getName(), new String(ciphertext, StandardCharsets.UTF_8));
                 } else {
                     Schema fieldSchema = resolveFieldSchema(schema, fc.getName());
-                    accessor.setField(fc.getName(),
-                            FieldHandler.encryptField(fieldConverter.toCanonical(fieldValue, fieldSchema, serdeType), FieldConfigUtils.buildPayloadMetaData(fc, config, resolvedKeyId), kryptonite, serdeType));
+                    accessor.setField(fc.getName(), encryptValue(fieldValue, fieldSchema, fc, resolvedKeyId));
                 }
             }
         }
@@ -139,21 +161,23 @@ public class AvroSchemaRegistryRecordProcessor implements RecordValueProcessor {
                 accessor.setField(fc.getName(), decryptMapValues(map, fc, resolvedKeyId));
             } else if (mode == FieldConfig.FieldMode.ELEMENT && fieldValue instanceof GenericRecord record) {
                 accessor.setField(fc.getName(), decryptRecordFieldValues(record, fc));
-            } else {
+            } else if (FieldConfigUtils.isFpe(fc, config)) {
                 if (!(fieldValue instanceof CharSequence cs)) {
                     LOG.warn("Decryption skipping field '{}': value is not a string (type={}) — possibly pre-existing unencrypted data",
                             fc.getName(), fieldValue.getClass().getSimpleName());
                     continue;
                 }
-                if (FieldConfigUtils.isFpe(fc, config)) {
-                    String resolvedKeyId = DynamicKeyIdResolver.resolve(fc, config, accessor);
-                    byte[] plaintext = kryptonite.decipherFieldFPE(
-                            cs.toString().getBytes(StandardCharsets.UTF_8), FieldConfigUtils.buildFieldMetaData(fc, config, resolvedKeyId));
-                    accessor.setField(fc.getName(), new String(plaintext, StandardCharsets.UTF_8));
-                } else {
-                    accessor.setField(fc.getName(),
-                            fieldConverter.fromCanonical(FieldHandler.decryptField(cs.toString(), kryptonite)));
+                String resolvedKeyId = DynamicKeyIdResolver.resolve(fc, config, accessor);
+                byte[] plaintext = kryptonite.decipherFieldFPE(
+                        cs.toString().getBytes(StandardCharsets.UTF_8), FieldConfigUtils.buildFieldMetaData(fc, config, resolvedKeyId));
+                accessor.setField(fc.getName(), new String(plaintext, StandardCharsets.UTF_8));
+            } else {
+                if (!isCipherText(fieldValue)) {
+                    LOG.warn("Decryption skipping field '{}': value is neither a string nor bytes (type={}) — possibly pre-existing unencrypted data",
+                            fc.getName(), fieldValue.getClass().getSimpleName());
+                    continue;
                 }
+                accessor.setField(fc.getName(), decryptValue(fieldValue));
             }
         }
 
@@ -184,7 +208,7 @@ public class AvroSchemaRegistryRecordProcessor implements RecordValueProcessor {
             }
         } else {
             for (Object element : source) {
-                result.add(FieldHandler.encryptField(fieldConverter.toCanonical(element, elementSchema, serdeType), FieldConfigUtils.buildPayloadMetaData(fc, config, resolvedKeyId), kryptonite, serdeType));
+                result.add(encryptValue(element, elementSchema, fc, resolvedKeyId));
             }
         }
         return result;
@@ -204,7 +228,7 @@ public class AvroSchemaRegistryRecordProcessor implements RecordValueProcessor {
             });
         } else {
             source.forEach((k, v) -> {
-                result.put(k, FieldHandler.encryptField(fieldConverter.toCanonical(v, valueSchema, serdeType), FieldConfigUtils.buildPayloadMetaData(fc, config, resolvedKeyId), kryptonite, serdeType));
+                result.put(k, encryptValue(v, valueSchema, fc, resolvedKeyId));
             });
         }
         return result;
@@ -237,8 +261,8 @@ public class AvroSchemaRegistryRecordProcessor implements RecordValueProcessor {
                     result.add(null);
                     continue;
                 }
-                if (element instanceof CharSequence cs) {
-                    result.add(fieldConverter.fromCanonical(FieldHandler.decryptField(cs.toString(), kryptonite)));
+                if (isCipherText(element)) {
+                    result.add(decryptValue(element));
                 } else {
                     LOG.warn("Decryption skipping non-string element in field '{}' (type={}) — possibly pre-existing unencrypted data",
                             fc.getName(), element.getClass().getSimpleName());
@@ -266,8 +290,8 @@ public class AvroSchemaRegistryRecordProcessor implements RecordValueProcessor {
             });
         } else {
             source.forEach((k, v) -> {
-                if (v instanceof CharSequence cs) {
-                    result.put(k, fieldConverter.fromCanonical(FieldHandler.decryptField(cs.toString(), kryptonite)));
+                if (isCipherText(v)) {
+                    result.put(k, decryptValue(v));
                 } else {
                     LOG.warn("Decryption skipping non-string value for key '{}' in field '{}' (type={}) — possibly pre-existing unencrypted data",
                             k, fc.getName(), v == null ? "null" : v.getClass().getSimpleName());
@@ -282,7 +306,7 @@ public class AvroSchemaRegistryRecordProcessor implements RecordValueProcessor {
         GenericData.Record result = new GenericData.Record(source.getSchema());
         for (Schema.Field f : source.getSchema().getFields()) {
             Object value = source.get(f.name());
-            result.put(f.name(), FieldHandler.encryptField(fieldConverter.toCanonical(value, f.schema(), serdeType), FieldConfigUtils.buildPayloadMetaData(fc, config, resolvedKeyId), kryptonite, serdeType));
+            result.put(f.name(), encryptValue(value, f.schema(), fc, resolvedKeyId));
         }
         return result;
     }
@@ -297,8 +321,8 @@ public class AvroSchemaRegistryRecordProcessor implements RecordValueProcessor {
                 result.put(f.name(), null);
                 continue;
             }
-            if (value instanceof CharSequence cs) {
-                result.put(f.name(), fieldConverter.fromCanonical(FieldHandler.decryptField(cs.toString(), kryptonite)));
+            if (isCipherText(value)) {
+                result.put(f.name(), decryptValue(value));
             } else {
                 LOG.warn("Decryption skipping non-string value for sub-field '{}' of ELEMENT-mode field '{}' (type={}) — possibly pre-existing unencrypted data",
                         f.name(), fc.getName(), value.getClass().getSimpleName());
@@ -308,6 +332,34 @@ public class AvroSchemaRegistryRecordProcessor implements RecordValueProcessor {
         return result;
     }
 
+    // ---- Non-FPE cipher helpers ----
+
+    /**
+     * Encrypts a single (non-FPE) value into a Base64 {@link String} or, for {@link #rawBytesField}
+     * matches, into a {@link ByteBuffer} wrapping the raw envelope.
+     */
+    private Object encryptValue(Object value, Schema valueSchema, FieldConfig fc, String resolvedKeyId) {
+        Object canonical = fieldConverter.toCanonical(value, valueSchema, serdeType);
+        PayloadMetaData metadata = FieldConfigUtils.buildPayloadMetaData(fc, config, resolvedKeyId);
+        if (rawBytesField.test(fc)) {
+            return ByteBuffer.wrap(FieldHandler.encryptFieldRaw(canonical, metadata, kryptonite, serdeType));
+        }
+        return FieldHandler.encryptField(canonical, metadata, kryptonite, serdeType);
+    }
+
+    private static boolean isCipherText(Object value) {
+        return value instanceof CharSequence || value instanceof ByteBuffer;
+    }
+
+    private Object decryptValue(Object cipherText) {
+        if (cipherText instanceof ByteBuffer buffer) {
+            byte[] envelope = new byte[buffer.remaining()];
+            buffer.duplicate().get(envelope);
+            return fieldConverter.fromCanonical(FieldHandler.decryptField(envelope, kryptonite));
+        }
+        return fieldConverter.fromCanonical(FieldHandler.decryptField(cipherText.toString(), kryptonite));
+    }
+
     /**
      * Resolves the Avro {@link Schema} for a (possibly dot-path) field name by traversing
      * the record schema. Unwraps nullable unions at each step.
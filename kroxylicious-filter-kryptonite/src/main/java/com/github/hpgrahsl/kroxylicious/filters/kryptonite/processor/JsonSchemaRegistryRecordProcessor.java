@@ -68,7 +68,7 @@ public class JsonSchemaRegistryRecordProcessor extends AbstractJsonRecordProcess
     public byte[] encryptFields(byte[] wireBytes, String topicName, Set<FieldConfig> fieldConfigs) {
         if (fieldConfigs.isEmpty()) return wireBytes;
         SchemaIdAndPayload stripped = adapter.stripPrefix(wireBytes);
-        byte[] encryptedPayload = KryptoniteSettings.SerdeType.AVRO.name().equals(serdeType)
+        byte[] encryptedPayload = KryptoniteSettings.SerdeType.isAvro(serdeType)
                 ? encryptWithSrSchema(stripped.payload(), fieldConfigs, topicName, stripped.schemaId())
                 : encryptJsonPayload(stripped.payload(), fieldConfigs, topicName);
         int encryptedSchemaId = adapter.resolveEncryptedSchemaId(
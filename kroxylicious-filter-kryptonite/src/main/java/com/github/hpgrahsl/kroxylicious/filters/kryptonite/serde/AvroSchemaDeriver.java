@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 
 /**
  * Derives modified Avro {@link Schema} objects for the Schema Registry produce and consume paths.
@@ -27,11 +28,26 @@ import java.util.Set;
  * <p>ELEMENT mode on record fields: each direct field of the record is replaced with
  * {@code string}; the record container and field names are preserved. The original sub-field
  * schemas are restored on decrypt.
+ *
+ * <p>Fields matching the {@code rawBytesField} predicate (non-FPE fields under
+ * {@code cipher_text_encoding: RAW_BYTES}) get {@code bytes} instead of {@code string} in all of
+ * the above, since their ciphertext is written as the raw binary envelope.
  */
 class AvroSchemaDeriver {
 
     private static final Logger LOG = LoggerFactory.getLogger(AvroSchemaDeriver.class);
     private static final Schema STRING_SCHEMA = Schema.create(Schema.Type.STRING);
+    private static final Schema BYTES_SCHEMA = Schema.create(Schema.Type.BYTES);
+
+    private final Predicate<FieldConfig> rawBytesField;
+
+    AvroSchemaDeriver() {
+        this(fc -> false);
+    }
+
+    AvroSchemaDeriver(Predicate<FieldConfig> rawBytesField) {
+        this.rawBytesField = rawBytesField;
+    }
 
     /**
      * Produce path: derives the encrypted Avro schema from the original.
@@ -51,8 +67,9 @@ class AvroSchemaDeriver {
         for (FieldConfig fc : fieldConfigs) {
             String[] pathParts = fc.getName().split("\\.");
             FieldConfig.FieldMode mode = fc.getFieldMode().orElse(FieldConfig.DEFAULT_MODE);
+            Schema cipherSchema = rawBytesField.test(fc) ? BYTES_SCHEMA : STRING_SCHEMA;
             try {
-                result = replaceFieldType(result, pathParts, 0, mode);
+                result = replaceFieldType(result, pathParts, 0, mode, cipherSchema);
                 encryptedFields.add(fc.getName());
             } catch (FieldNotFoundException e) {
                 LOG.debug("deriveEncrypted: field path '{}' not found in Avro schema — leaving unchanged", fc.getName());
@@ -97,7 +114,7 @@ class AvroSchemaDeriver {
      * immutable — affected records are rebuilt up the path).
      */
     private Schema replaceFieldType(Schema schema, String[] pathParts, int index,
-                                    FieldConfig.FieldMode mode) {
+                                    FieldConfig.FieldMode mode, Schema cipherSchema) {
         Schema unwrapped = unwrapNullableUnion(schema);
         boolean wasNullable = unwrapped != schema;
 
@@ -121,10 +138,10 @@ class AvroSchemaDeriver {
         Schema newFieldSchema;
         if (index == pathParts.length - 1) {
             // Leaf: apply the transformation
-            newFieldSchema = transformLeafFieldSchema(targetField.schema(), mode, pathParts[index]);
+            newFieldSchema = transformLeafFieldSchema(targetField.schema(), mode, pathParts[index], cipherSchema);
         } else {
             // Intermediate: recurse deeper
-            newFieldSchema = replaceFieldType(targetField.schema(), pathParts, index + 1, mode);
+            newFieldSchema = replaceFieldType(targetField.schema(), pathParts, index + 1, mode, cipherSchema);
         }
 
         Schema rebuilt = rebuildRecord(unwrapped, targetField.name(), newFieldSchema);
@@ -132,10 +149,11 @@ class AvroSchemaDeriver {
     }
 
     /**
-     * Transforms the field schema at the leaf of the path according to {@code mode}.
+     * Transforms the field schema at the leaf of the path according to {@code mode}, using
+     * {@code cipherSchema} ({@code string} or {@code bytes}) for the encrypted values.
      */
     private Schema transformLeafFieldSchema(Schema fieldSchema, FieldConfig.FieldMode mode,
-                                            String fieldName) {
+                                            String fieldName, Schema cipherSchema) {
         Schema unwrapped = unwrapNullableUnion(fieldSchema);
         boolean wasNullable = unwrapped != fieldSchema;
 
@@ -148,30 +166,30 @@ class AvroSchemaDeriver {
 
         Schema transformed;
         if (mode == FieldConfig.FieldMode.ELEMENT) {
-            transformed = transformElementMode(unwrapped, fieldName);
+            transformed = transformElementMode(unwrapped, fieldName, cipherSchema);
         } else {
-            // OBJECT mode: entire field → string (all Avro types including RECORD, ENUM, FIXED)
-            if (unwrapped.getType() == Schema.Type.STRING) {
+            // OBJECT mode: entire field → string/bytes (all Avro types including RECORD, ENUM, FIXED)
+            if (unwrapped.getType() == Schema.Type.STRING && cipherSchema == STRING_SCHEMA) {
                 transformed = unwrapped; // already string, no change
             } else {
-                transformed = STRING_SCHEMA;
+                transformed = cipherSchema;
             }
         }
 
         return wasNullable ? rewrapNullableUnion(fieldSchema, transformed) : transformed;
     }
 
-    private Schema transformElementMode(Schema fieldSchema, String fieldName) {
+    private Schema transformElementMode(Schema fieldSchema, String fieldName, Schema cipherSchema) {
         return switch (fieldSchema.getType()) {
-            case ARRAY -> Schema.createArray(STRING_SCHEMA);
-            case MAP -> Schema.createMap(STRING_SCHEMA);
+            case ARRAY -> Schema.createArray(cipherSchema);
+            case MAP -> Schema.createMap(cipherSchema);
             case RECORD -> {
-                List<Schema.Field> stringFields = fieldSchema.getFields().stream()
-                        .map(f -> new Schema.Field(f.name(), STRING_SCHEMA, f.doc(), f.defaultVal(), f.order()))
+                List<Schema.Field> cipherFields = fieldSchema.getFields().stream()
+                        .map(f -> new Schema.Field(f.name(), cipherSchema, f.doc(), f.defaultVal(), f.order()))
                         .toList();
                 Schema newRecord = Schema.createRecord(
                         fieldSchema.getName(), fieldSchema.getDoc(),
-                        fieldSchema.getNamespace(), fieldSchema.isError(), stringFields);
+                        fieldSchema.getNamespace(), fieldSchema.isError(), cipherFields);
                 fieldSchema.getAliases().forEach(newRecord::addAlias);
                 yield newRecord;
             }
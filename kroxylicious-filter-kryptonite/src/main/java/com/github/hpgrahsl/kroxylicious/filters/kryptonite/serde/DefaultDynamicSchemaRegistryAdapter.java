@@ -16,6 +16,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -53,9 +54,17 @@ public class DefaultDynamicSchemaRegistryAdapter extends AbstractSchemaRegistryA
     private final ConcurrentHashMap<MetadataCacheKey, EncryptionMetadata> encryptionMetadataCache = new ConcurrentHashMap<>();
 
     public DefaultDynamicSchemaRegistryAdapter(SchemaRegistryClient srClient) {
+        this(srClient, fc -> false);
+    }
+
+    /**
+     * @param rawBytesField matches the fields whose ciphertext is written as the raw binary envelope,
+     *                      which the derived Avro schema then declares as {@code bytes} instead of {@code string}
+     */
+    public DefaultDynamicSchemaRegistryAdapter(SchemaRegistryClient srClient, Predicate<FieldConfig> rawBytesField) {
         this.srClient = srClient;
         this.deriver = new JsonSchemaDeriver();
-        this.avroDeriver = new AvroSchemaDeriver();
+        this.avroDeriver = new AvroSchemaDeriver(rawBytesField);
     }
 
     // --- Produce path ---
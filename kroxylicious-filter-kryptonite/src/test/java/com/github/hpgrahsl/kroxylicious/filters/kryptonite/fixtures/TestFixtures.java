@@ -48,6 +48,16 @@ public final class TestFixtures {
         ), KryptoniteFilterConfig.class);
     }
 
+    public static KryptoniteFilterConfig rawBytesFilterConfig(String serdeType) {
+        return MAPPER.convertValue(Map.of(
+                "key_source", "CONFIG",
+                "cipher_algorithm", "TINK/AES_GCM",
+                "cipher_data_key_identifier", "keyA",
+                "serde_type", serdeType,
+                "cipher_text_encoding", "RAW_BYTES"
+        ), KryptoniteFilterConfig.class);
+    }
+
     public static KryptoniteFilterConfig fpeFilterConfig() {
         return MAPPER.convertValue(Map.of(
                 "key_source", "CONFIG",
@@ -764,4 +764,84 @@ class AvroSchemaRegistryRoundTripTest {
             assertThat(outRecord.get("tags")).isNull(); // still null after decrypt
         }
     }
+
+    @Nested
+    @DisplayName("RAW_BYTES cipher text encoding round-trips")
+    class RawBytesRoundTrip {
+
+        private AvroSchemaRegistryRecordProcessor rawBytesProcessor;
+
+        @BeforeEach
+        void setUpRawBytesProcessor() {
+            rawBytesProcessor = new AvroSchemaRegistryRecordProcessor(
+                    kryptonite, adapter, TestFixtures.rawBytesFilterConfig(serdeType()));
+        }
+
+        @Test
+        @DisplayName("OBJECT mode: double field is written as raw envelope bytes and restored")
+        void doubleFieldRoundTrip() throws Exception {
+            Schema flatRawEnc = SchemaBuilder
+                    .record("Flat").namespace("test").fields()
+                    .name("id").type().stringType().noDefault()
+                    .name("value").type().bytesType().noDefault()
+                    .name("label").type().stringType().noDefault()
+                    .endRecord();
+            GenericRecord record = new GenericData.Record(FLAT_ORIG);
+            record.put("id", new Utf8("x1"));
+            record.put("value", 3.14);
+            record.put("label", new Utf8("hi"));
+
+            byte[] wireBytes = toWireBytes(ORIGINAL_ID, avroSerialize(record, FLAT_ORIG));
+
+            when(adapter.fetchSchema(ORIGINAL_ID)).thenReturn(new AvroSchema(FLAT_ORIG));
+            when(adapter.fetchSchema(ENCRYPTED_ID)).thenReturn(new AvroSchema(flatRawEnc));
+
+            FieldConfig fc = FieldConfig.builder().name("value").fieldMode(FieldConfig.FieldMode.OBJECT).build();
+            Set<FieldConfig> fields = Set.of(fc);
+
+            byte[] encrypted = rawBytesProcessor.encryptFields(wireBytes, TOPIC, fields);
+            GenericRecord encRecord = deserializeResult(encrypted, flatRawEnc);
+            assertThat(encRecord.get("value")).isInstanceOf(ByteBuffer.class);
+            assertThat(((ByteBuffer) encRecord.get("value")).remaining()).isPositive();
+
+            byte[] decrypted = rawBytesProcessor.decryptFields(encrypted, TOPIC, fields);
+            GenericRecord outRecord = deserializeResult(decrypted, FLAT_ORIG);
+            assertThat((double) outRecord.get("value")).isEqualTo(3.14);
+            assertThat(outRecord.get("id").toString()).isEqualTo("x1");
+            assertThat(outRecord.get("label").toString()).isEqualTo("hi");
+        }
+
+        @Test
+        @DisplayName("ELEMENT mode: string array elements are written as raw envelope bytes and restored")
+        void stringArrayRoundTrip() throws Exception {
+            Schema arrayRawEnc = SchemaBuilder
+                    .record("WithArray").namespace("test").fields()
+                    .name("id").type().stringType().noDefault()
+                    .name("tags").type().array().items().bytesType().noDefault()
+                    .endRecord();
+            GenericRecord record = new GenericData.Record(ARRAY_ORIG);
+            record.put("id", new Utf8("r1"));
+            record.put("tags", List.of(new Utf8("a"), new Utf8("b")));
+
+            byte[] wireBytes = toWireBytes(ORIGINAL_ID, avroSerialize(record, ARRAY_ORIG));
+
+            when(adapter.fetchSchema(ORIGINAL_ID)).thenReturn(new AvroSchema(ARRAY_ORIG));
+            when(adapter.fetchSchema(ENCRYPTED_ID)).thenReturn(new AvroSchema(arrayRawEnc));
+
+            FieldConfig fc = FieldConfig.builder().name("tags").fieldMode(FieldConfig.FieldMode.ELEMENT).build();
+            Set<FieldConfig> fields = Set.of(fc);
+
+            byte[] encrypted = rawBytesProcessor.encryptFields(wireBytes, TOPIC, fields);
+            GenericRecord encRecord = deserializeResult(encrypted, arrayRawEnc);
+            @SuppressWarnings("unchecked")
+            List<Object> encTags = (List<Object>) encRecord.get("tags");
+            assertThat(encTags).hasSize(2).allSatisfy(el -> assertThat(el).isInstanceOf(ByteBuffer.class));
+
+            byte[] decrypted = rawBytesProcessor.decryptFields(encrypted, TOPIC, fields);
+            GenericRecord outRecord = deserializeResult(decrypted, ARRAY_ORIG);
+            @SuppressWarnings("unchecked")
+            List<Object> tags = (List<Object>) outRecord.get("tags");
+            assertThat(tags).extracting(Object::toString).containsExactly("a", "b");
+        }
+    }
 }
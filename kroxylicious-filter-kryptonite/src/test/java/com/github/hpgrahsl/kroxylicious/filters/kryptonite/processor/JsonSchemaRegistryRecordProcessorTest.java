@@ -1,6 +1,5 @@
 package com.github.hpgrahsl.kroxylicious.filters.kryptonite.processor;
 
-import com.esotericsoftware.kryo.io.Output;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.IntNode;
@@ -8,7 +7,6 @@ import com.fasterxml.jackson.databind.node.TextNode;
 import com.github.hpgrahsl.kryptonite.EncryptedField;
 import com.github.hpgrahsl.kryptonite.Kryptonite;
 import com.github.hpgrahsl.kryptonite.PayloadMetaData;
-import com.github.hpgrahsl.kryptonite.serdes.kryo.KryoInstance;
 import com.github.hpgrahsl.kryptonite.serdes.kryo.KryoSerdeProcessor;
 import com.github.hpgrahsl.kryptonite.serdes.SerdeProcessor;
 import com.github.hpgrahsl.kroxylicious.filters.kryptonite.config.FieldConfig;
@@ -25,7 +23,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.io.ByteArrayOutputStream;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Base64;
@@ -90,9 +87,7 @@ class JsonSchemaRegistryRecordProcessorTest {
     }
 
     private static String encodeEf(EncryptedField ef) {
-        Output out = new Output(new ByteArrayOutputStream());
-        KryoInstance.get().writeObject(out, ef);
-        return Base64.getEncoder().encodeToString(out.toBytes());
+        return Base64.getEncoder().encodeToString(new KryoSerdeProcessor().objectToBytes(ef, EncryptedField.class));
     }
 
     // ---- encryptFields ----
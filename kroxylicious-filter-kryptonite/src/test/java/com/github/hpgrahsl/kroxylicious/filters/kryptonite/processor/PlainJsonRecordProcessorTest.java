@@ -1,6 +1,5 @@
 package com.github.hpgrahsl.kroxylicious.filters.kryptonite.processor;
 
-import com.esotericsoftware.kryo.io.Output;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.IntNode;
@@ -9,7 +8,6 @@ import com.github.hpgrahsl.kryptonite.EncryptedField;
 import com.github.hpgrahsl.kryptonite.Kryptonite;
 import com.github.hpgrahsl.kryptonite.FieldMetaData;
 import com.github.hpgrahsl.kryptonite.PayloadMetaData;
-import com.github.hpgrahsl.kryptonite.serdes.kryo.KryoInstance;
 import com.github.hpgrahsl.kryptonite.serdes.kryo.KryoSerdeProcessor;
 import com.github.hpgrahsl.kryptonite.serdes.SerdeProcessor;
 import com.github.hpgrahsl.kroxylicious.filters.kryptonite.config.FieldConfig;
@@ -28,7 +26,6 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.io.ByteArrayOutputStream;
 import java.util.Base64;
 import java.util.Map;
 import java.util.Set;
@@ -69,9 +66,7 @@ class PlainJsonRecordProcessorTest {
 
     /** Encodes an EncryptedField to Base64 the same way production code does. */
     private static String encodeEf(EncryptedField ef) {
-        Output out = new Output(new ByteArrayOutputStream());
-        KryoInstance.get().writeObject(out, ef);
-        return Base64.getEncoder().encodeToString(out.toBytes());
+        return Base64.getEncoder().encodeToString(new KryoSerdeProcessor().objectToBytes(ef, EncryptedField.class));
     }
 
     private static byte[] serdeBytes(JsonNode node) {
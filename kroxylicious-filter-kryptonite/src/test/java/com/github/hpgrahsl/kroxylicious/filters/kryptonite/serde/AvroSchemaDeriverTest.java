@@ -194,6 +194,55 @@ class AvroSchemaDeriverTest {
 
     }
 
+    // ---- deriveEncrypted — RAW_BYTES ----
+
+    @Nested
+    @DisplayName("deriveEncrypted — RAW_BYTES cipher text encoding")
+    class DeriveEncryptedRawBytes {
+
+        private final AvroSchemaDeriver rawBytesDeriver = new AvroSchemaDeriver(fc -> !fc.getName().equals("name"));
+
+        @Test
+        @DisplayName("OBJECT mode: string and non-string fields become BYTES, non-matching fields stay STRING")
+        void objectModeFieldsBecomeBytes() {
+            var age = FieldConfig.builder().name("age").fieldMode(FieldConfig.FieldMode.OBJECT).build();
+            var score = FieldConfig.builder().name("score").fieldMode(FieldConfig.FieldMode.OBJECT).build();
+            var name = FieldConfig.builder().name("name").fieldMode(FieldConfig.FieldMode.OBJECT).build();
+            var result = rawBytesDeriver.deriveEncrypted(FLAT, Set.of(age, score, name));
+
+            assertThat(result.schema().getField("age").schema().getType()).isEqualTo(Schema.Type.BYTES);
+            assertThat(result.schema().getField("score").schema().getType()).isEqualTo(Schema.Type.BYTES);
+            assertThat(result.schema().getField("name").schema().getType()).isEqualTo(Schema.Type.STRING);
+        }
+
+        @Test
+        @DisplayName("OBJECT mode: nullable string field becomes nullable BYTES")
+        void nullableStringBecomesNullableBytes() {
+            var fc = FieldConfig.builder().name("label").fieldMode(FieldConfig.FieldMode.OBJECT).build();
+            var result = rawBytesDeriver.deriveEncrypted(NULLABLE_FIELDS, Set.of(fc));
+
+            Schema labelSchema = result.schema().getField("label").schema();
+            assertThat(labelSchema.getType()).isEqualTo(Schema.Type.UNION);
+            assertThat(labelSchema.getTypes()).extracting(Schema::getType)
+                    .containsExactly(Schema.Type.NULL, Schema.Type.BYTES);
+        }
+
+        @Test
+        @DisplayName("ELEMENT mode: array items and record sub-fields become BYTES")
+        void elementModeBecomesBytes() {
+            var tags = FieldConfig.builder().name("tags").fieldMode(FieldConfig.FieldMode.ELEMENT).build();
+            var arrayResult = rawBytesDeriver.deriveEncrypted(WITH_ARRAY, Set.of(tags));
+            assertThat(arrayResult.schema().getField("tags").schema().getElementType().getType())
+                    .isEqualTo(Schema.Type.BYTES);
+
+            var inner = FieldConfig.builder().name("inner").fieldMode(FieldConfig.FieldMode.ELEMENT).build();
+            Schema innerSchema = rawBytesDeriver.deriveEncrypted(WITH_NESTED, Set.of(inner))
+                    .schema().getField("inner").schema();
+            assertThat(innerSchema.getField("x").schema().getType()).isEqualTo(Schema.Type.BYTES);
+            assertThat(innerSchema.getField("y").schema().getType()).isEqualTo(Schema.Type.BYTES);
+        }
+    }
+
     // ---- deriveEncrypted — edge cases ----
 
     @Nested
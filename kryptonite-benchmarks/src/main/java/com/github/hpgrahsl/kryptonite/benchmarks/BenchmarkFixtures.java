@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2026. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.hpgrahsl.kryptonite.benchmarks;
+
+import static com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.DEK_CACHE_SIZE_DEFAULT;
+import static com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.DEK_KEY_BITS_DEFAULT;
+import static com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.DEK_MAX_ENCRYPTIONS_DEFAULT;
+import static com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.DEK_TTL_MINUTES_DEFAULT;
+
+import com.github.hpgrahsl.kryptonite.Kryptonite;
+import com.github.hpgrahsl.kryptonite.config.ConfigReader;
+import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.FpeEngine;
+import com.github.hpgrahsl.kryptonite.crypto.EncryptDekSessionCache;
+import com.github.hpgrahsl.kryptonite.crypto.WrappedDekCache;
+import com.github.hpgrahsl.kryptonite.crypto.custom.MystoFpeFF31;
+import com.github.hpgrahsl.kryptonite.crypto.tink.TinkAesGcm;
+import com.github.hpgrahsl.kryptonite.crypto.tink.TinkAesGcmEnvelopeKeyset;
+import com.github.hpgrahsl.kryptonite.crypto.tink.TinkAesGcmEnvelopeKms;
+import com.github.hpgrahsl.kryptonite.crypto.tink.TinkAesGcmSiv;
+import com.github.hpgrahsl.kryptonite.keys.EnvelopeKekRegistry;
+import com.github.hpgrahsl.kryptonite.keys.TinkKeyVault;
+import com.github.hpgrahsl.kryptonite.metrics.KryptoniteMetrics;
+import com.github.hpgrahsl.kryptonite.tink.test.EdekStoreFixtures;
+import com.github.hpgrahsl.kryptonite.tink.test.EnvelopeKekFixtures;
+import com.github.hpgrahsl.kryptonite.tink.test.PlaintextKeysets;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Shared setup for all benchmarks. Everything runs offline: keysets come from
+ * {@link PlaintextKeysets}, KMS envelope encryption uses an in-memory KEK and {@code EdekStore}.
+ */
+final class BenchmarkFixtures {
+
+    /** JVM options required by Kryo on JDK 17+, appended to every forked benchmark JVM. */
+    static final String ADD_OPENS_JAVA_UTIL = "--add-opens=java.base/java.util=ALL-UNNAMED";
+    static final String ADD_OPENS_JAVA_NIO = "--add-opens=java.base/java.nio=ALL-UNNAMED";
+
+    static final String ENVELOPE_KEK_ID = "kek-a";
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Creates a {@link Kryptonite} instance with all plaintext test keysets, both DEK caches
+     * using their default settings and a single in-memory envelope KEK {@value #ENVELOPE_KEK_ID}.
+     */
+    static Kryptonite kryptonite() {
+        return kryptonite(FpeEngine.MYSTO);
+    }
+
+    /**
+     * Same as {@link #kryptonite()}, running FF3-1 on the given {@code fpeEngine}.
+     */
+    static Kryptonite kryptonite(FpeEngine fpeEngine) {
+        var keyVault = new TinkKeyVault(ConfigReader.tinkKeyConfigFromJsonString(PlaintextKeysets.CIPHER_DATA_KEYS_CONFIG));
+        var kekRegistry = new EnvelopeKekRegistry(Map.of(ENVELOPE_KEK_ID, EnvelopeKekFixtures.inMemoryEnvelopeKek()));
+        return new Kryptonite(
+            keyVault,
+            new WrappedDekCache(DEK_CACHE_SIZE_DEFAULT),
+            new EncryptDekSessionCache(DEK_MAX_ENCRYPTIONS_DEFAULT, DEK_TTL_MINUTES_DEFAULT),
+            kekRegistry,
+            EdekStoreFixtures.inMemoryEdekStore(),
+            DEK_KEY_BITS_DEFAULT / 8,
+            KryptoniteMetrics.noop(),
+            null,
+            fpeEngine
+        );
+    }
+
+    /**
+     * Returns a key identifier from the test fixtures whose keyset matches {@code algorithm}.
+     */
+    static String keyIdFor(String algorithm) {
+        switch (algorithm) {
+            case TinkAesGcm.CIPHER_ALGORITHM:
+            case TinkAesGcmEnvelopeKeyset.CIPHER_ALGORITHM:
+                return "keyA";
+            case TinkAesGcmSiv.CIPHER_ALGORITHM:
+                return "key9";
+            case MystoFpeFF31.CIPHER_ALGORITHM:
+                return "keyC";
+            case TinkAesGcmEnvelopeKms.CIPHER_ALGORITHM:
+                return ENVELOPE_KEK_ID;
+            default:
+                throw new IllegalArgumentException("no benchmark key configured for algorithm '" + algorithm + "'");
+        }
+    }
+
+    /** Returns {@code size} pseudo-random bytes, seeded for reproducible runs. */
+    static byte[] randomBytes(int size) {
+        var bytes = new byte[size];
+        new SplittableRandom(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    /** Returns a pseudo-random string of {@code length} characters drawn from {@code alphabet}. */
+    static String randomString(String alphabet, int length) {
+        var random = new SplittableRandom(length);
+        var sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+
+}
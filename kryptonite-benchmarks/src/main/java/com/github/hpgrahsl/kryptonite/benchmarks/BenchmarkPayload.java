@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.hpgrahsl.kryptonite.benchmarks;
+
+import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.AlphabetTypeFPE;
+import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.SerdeType;
+import com.github.hpgrahsl.kryptonite.serdes.avro.AvroPayload;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.apache.avro.Schema;
+
+/**
+ * Field values used across the serde and field handler benchmarks, ranging from small scalars
+ * to large nested maps. Each payload is available both as a plain Java value (for {@code KRYO} and {@code PRIMITIVE})
+ * and as an {@link AvroPayload} with a matching schema (for {@code AVRO}).
+ */
+public enum BenchmarkPayload {
+
+    INT(() -> 42, "\"int\""),
+    SHORT_STRING(() -> "jane.doe@example.com", "\"string\""),
+    LONG_STRING(() -> BenchmarkFixtures.randomString(AlphabetTypeFPE.ALPHANUMERIC.getAlphabet(), 4096), "\"string\""),
+    SMALL_NESTED_MAP(() -> nestedMap(4, 4), "{\"type\":\"map\",\"values\":{\"type\":\"map\",\"values\":\"string\"}}"),
+    LARGE_NESTED_MAP(() -> nestedMap(64, 16), "{\"type\":\"map\",\"values\":{\"type\":\"map\",\"values\":\"string\"}}");
+
+    private final Supplier<Object> valueSupplier;
+    private final String schemaJson;
+
+    BenchmarkPayload(Supplier<Object> valueSupplier, String schemaJson) {
+        this.valueSupplier = valueSupplier;
+        this.schemaJson = schemaJson;
+    }
+
+    /** Plain Java representation of this payload. */
+    public Object value() {
+        return valueSupplier.get();
+    }
+
+    /** Avro representation of this payload. */
+    public AvroPayload avroPayload() {
+        return new AvroPayload(value(), new Schema.Parser().parse(schemaJson));
+    }
+
+    /** Returns the representation the given serde expects. */
+    public Object valueFor(String serdeName) {
+        return SerdeType.isAvro(serdeName) ? avroPayload() : value();
+    }
+
+    private static Map<String, Map<String, String>> nestedMap(int outerEntries, int innerEntries) {
+        var outer = new LinkedHashMap<String, Map<String, String>>();
+        for (int i = 0; i < outerEntries; i++) {
+            var inner = new LinkedHashMap<String, String>();
+            for (int j = 0; j < innerEntries; j++) {
+                inner.put("field_" + j, "value_" + i + "_" + j);
+            }
+            outer.put("entry_" + i, inner);
+        }
+        return outer;
+    }
+
+}
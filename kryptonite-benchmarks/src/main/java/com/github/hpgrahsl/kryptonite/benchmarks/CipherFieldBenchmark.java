@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2026. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.hpgrahsl.kryptonite.benchmarks;
+
+import com.github.hpgrahsl.kryptonite.Kryptonite;
+import com.github.hpgrahsl.kryptonite.Kryptonite.CipherSpec;
+import com.github.hpgrahsl.kryptonite.PayloadMetaData;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Raw field encryption and decryption through {@link Kryptonite} for all AEAD based cipher specs.
+ *
+ * <p>A single {@link Kryptonite} instance is shared by all benchmark threads, so the
+ * {@code *Contended} variants measure contention on the key vault and the DEK caches.
+ * Format-preserving encryption is covered separately by {@link FpeCipherFieldBenchmark}
+ * because its plaintexts are bound to an alphabet and a maximum length.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {BenchmarkFixtures.ADD_OPENS_JAVA_UTIL, BenchmarkFixtures.ADD_OPENS_JAVA_NIO})
+public class CipherFieldBenchmark {
+
+    @Param({"TINK/AES_GCM", "TINK/AES_GCM_SIV", "TINK/AES_GCM_ENVELOPE_KEYSET", "TINK/AES_GCM_ENVELOPE_KMS"})
+    String algorithm;
+
+    @Param({"16", "1024", "65536"})
+    int payloadBytes;
+
+    private Kryptonite kryptonite;
+    private PayloadMetaData metadata;
+    private byte[] plaintext;
+    private byte[] ciphertext;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        kryptonite = BenchmarkFixtures.kryptonite();
+        metadata = new PayloadMetaData(Kryptonite.KRYPTONITE_VERSION,
+            Kryptonite.CIPHERSPEC_ID_LUT.get(CipherSpec.fromName(algorithm)),
+            BenchmarkFixtures.keyIdFor(algorithm));
+        plaintext = BenchmarkFixtures.randomBytes(payloadBytes);
+        ciphertext = kryptonite.cipherFieldRaw(plaintext, metadata);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        kryptonite.close();
+    }
+
+    @Benchmark
+    public byte[] cipherField() {
+        return kryptonite.cipherFieldRaw(plaintext, metadata);
+    }
+
+    @Benchmark
+    public byte[] decipherField() {
+        return kryptonite.decipherFieldRaw(ciphertext, metadata);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public byte[] cipherFieldContended() {
+        return kryptonite.cipherFieldRaw(plaintext, metadata);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public byte[] decipherFieldContended() {
+        return kryptonite.decipherFieldRaw(ciphertext, metadata);
+    }
+
+}
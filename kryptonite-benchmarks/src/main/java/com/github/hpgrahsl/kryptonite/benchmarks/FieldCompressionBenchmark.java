@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2026. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.hpgrahsl.kryptonite.benchmarks;
+
+import com.github.hpgrahsl.kryptonite.FieldMetaData;
+import com.github.hpgrahsl.kryptonite.Kryptonite;
+import com.github.hpgrahsl.kryptonite.PreparedCipher;
+import com.github.hpgrahsl.kryptonite.serdes.FieldHandler;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the {@link FieldHandler} pipeline with and without compression before encryption for
+ * OBJECT-mode sized values of increasing size.
+ *
+ * <p>{@code compressionThreshold = -1} never compresses, {@code 0} always tries to. The
+ * {@code envelopeChars} counter reports the resulting Base64 envelope length, so the break-even
+ * size is where the throughput cost of compressing is outweighed by the bytes saved downstream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {BenchmarkFixtures.ADD_OPENS_JAVA_UTIL, BenchmarkFixtures.ADD_OPENS_JAVA_NIO})
+public class FieldCompressionBenchmark {
+
+    private static final String ALGORITHM = "TINK/AES_GCM";
+    private static final String SERDE_NAME = "KRYO";
+
+    /** Outer entries of a nested map with 4 inner entries each, i.e. ~60 bytes to ~15 KiB serialized. */
+    @Param({"1", "4", "16", "64", "256"})
+    int entries;
+
+    @Param({"-1", "0"})
+    int compressionThreshold;
+
+    private Kryptonite kryptonite;
+    private PreparedCipher preparedCipher;
+    private Object value;
+    private String encoded;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EnvelopeSize {
+        public long envelopeChars;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        kryptonite = BenchmarkFixtures.kryptonite();
+        preparedCipher = kryptonite.prepare(FieldMetaData.builder()
+            .algorithm(ALGORITHM)
+            .keyId(BenchmarkFixtures.keyIdFor(ALGORITHM))
+            .build());
+        value = nestedMap(entries);
+        encoded = FieldHandler.encryptField(value, preparedCipher, SERDE_NAME, compressionThreshold);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        kryptonite.close();
+    }
+
+    @Benchmark
+    public String encryptField(EnvelopeSize size) {
+        var result = FieldHandler.encryptField(value, preparedCipher, SERDE_NAME, compressionThreshold);
+        size.envelopeChars = result.length();
+        return result;
+    }
+
+    @Benchmark
+    public Object decryptField() {
+        return FieldHandler.decryptField(encoded, kryptonite);
+    }
+
+    private static Map<String, Map<String, String>> nestedMap(int entries) {
+        var outer = new LinkedHashMap<String, Map<String, String>>();
+        for (int i = 0; i < entries; i++) {
+            var inner = new LinkedHashMap<String, String>();
+            inner.put("customerId", "C-" + (100000 + i));
+            inner.put("status", i % 3 == 0 ? "ACTIVE" : "INACTIVE");
+            inner.put("country", "AT");
+            inner.put("note", "no remarks recorded for this entry");
+            outer.put("entry_" + i, inner);
+        }
+        return outer;
+    }
+
+}
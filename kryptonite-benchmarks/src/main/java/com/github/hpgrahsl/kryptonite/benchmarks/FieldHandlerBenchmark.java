@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2026. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.hpgrahsl.kryptonite.benchmarks;
+
+import com.github.hpgrahsl.kryptonite.FieldMetaData;
+import com.github.hpgrahsl.kryptonite.Kryptonite;
+import com.github.hpgrahsl.kryptonite.PreparedCipher;
+import com.github.hpgrahsl.kryptonite.serdes.FieldHandler;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end field pipeline through {@link FieldHandler}: serde, cipher, k2 envelope and
+ * Base64 encoding on the way in and the reverse on the way out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {BenchmarkFixtures.ADD_OPENS_JAVA_UTIL, BenchmarkFixtures.ADD_OPENS_JAVA_NIO})
+public class FieldHandlerBenchmark {
+
+    @Param({"TINK/AES_GCM", "TINK/AES_GCM_SIV", "TINK/AES_GCM_ENVELOPE_KMS"})
+    String algorithm;
+
+    @Param({"KRYO", "AVRO", "PRIMITIVE"})
+    String serdeName;
+
+    @Param({"INT", "SHORT_STRING", "LONG_STRING", "SMALL_NESTED_MAP", "LARGE_NESTED_MAP"})
+    BenchmarkPayload payload;
+
+    private Kryptonite kryptonite;
+    private PreparedCipher preparedCipher;
+    private Object value;
+    private String encoded;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        kryptonite = BenchmarkFixtures.kryptonite();
+        preparedCipher = kryptonite.prepare(FieldMetaData.builder()
+            .algorithm(algorithm)
+            .keyId(BenchmarkFixtures.keyIdFor(algorithm))
+            .build());
+        value = payload.valueFor(serdeName);
+        encoded = FieldHandler.encryptField(value, preparedCipher, serdeName);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        kryptonite.close();
+    }
+
+    @Benchmark
+    public String encryptField() {
+        return FieldHandler.encryptField(value, preparedCipher, serdeName);
+    }
+
+    @Benchmark
+    public Object decryptField() {
+        return FieldHandler.decryptField(encoded, kryptonite);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String encryptFieldContended() {
+        return FieldHandler.encryptField(value, preparedCipher, serdeName);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object decryptFieldContended() {
+        return FieldHandler.decryptField(encoded, kryptonite);
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2026. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.hpgrahsl.kryptonite.benchmarks;
+
+import com.github.hpgrahsl.kryptonite.FieldMetaData;
+import com.github.hpgrahsl.kryptonite.Kryptonite;
+import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.AlphabetTypeFPE;
+import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.FpeEngine;
+import com.github.hpgrahsl.kryptonite.crypto.custom.MystoFpeFF31;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Format-preserving encryption ({@code CUSTOM/MYSTO_FPE_FF3_1}) through {@link Kryptonite}.
+ *
+ * <p>FF3-1 limits plaintexts to the configured alphabet and to a radix dependent length
+ * range, hence the payloads here are strings of a given length drawn from that alphabet
+ * rather than arbitrary byte arrays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {BenchmarkFixtures.ADD_OPENS_JAVA_UTIL, BenchmarkFixtures.ADD_OPENS_JAVA_NIO})
+public class FpeCipherFieldBenchmark {
+
+    @Param({"DIGITS", "UPPERCASE", "ALPHANUMERIC"})
+    AlphabetTypeFPE alphabetType;
+
+    @Param({"8", "28"})
+    int payloadLength;
+
+    @Param({"MYSTO", "NATIVE"})
+    FpeEngine fpeEngine;
+
+    private Kryptonite kryptonite;
+    private FieldMetaData fieldMetaData;
+    private byte[] plaintext;
+    private byte[] ciphertext;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        kryptonite = BenchmarkFixtures.kryptonite(fpeEngine);
+        fieldMetaData = FieldMetaData.builder()
+            .algorithm(MystoFpeFF31.CIPHER_ALGORITHM)
+            .keyId(BenchmarkFixtures.keyIdFor(MystoFpeFF31.CIPHER_ALGORITHM))
+            .fpeAlphabet(alphabetType.getAlphabet())
+            .fpeTweak("0000000")
+            .build();
+        plaintext = BenchmarkFixtures.randomString(alphabetType.getAlphabet(), payloadLength)
+            .getBytes(StandardCharsets.UTF_8);
+        ciphertext = kryptonite.cipherFieldFPE(plaintext, fieldMetaData);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        kryptonite.close();
+    }
+
+    @Benchmark
+    public byte[] cipherField() {
+        return kryptonite.cipherFieldFPE(plaintext, fieldMetaData);
+    }
+
+    @Benchmark
+    public byte[] decipherField() {
+        return kryptonite.decipherFieldFPE(ciphertext, fieldMetaData);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public byte[] cipherFieldContended() {
+        return kryptonite.cipherFieldFPE(plaintext, fieldMetaData);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public byte[] decipherFieldContended() {
+        return kryptonite.decipherFieldFPE(ciphertext, fieldMetaData);
+    }
+
+}
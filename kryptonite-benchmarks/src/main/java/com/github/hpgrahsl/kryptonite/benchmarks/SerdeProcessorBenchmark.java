@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2026. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.hpgrahsl.kryptonite.benchmarks;
+
+import com.github.hpgrahsl.kryptonite.serdes.SerdeProcessor;
+import com.github.hpgrahsl.kryptonite.serdes.SerdeRegistry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Value (de)serialization of the {@code KRYO}, {@code AVRO} and {@code PRIMITIVE} {@link SerdeProcessor}
+ * implementations, i.e. the step before encryption and after decryption of a field.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {BenchmarkFixtures.ADD_OPENS_JAVA_UTIL, BenchmarkFixtures.ADD_OPENS_JAVA_NIO})
+public class SerdeProcessorBenchmark {
+
+    @Param({"KRYO", "AVRO", "PRIMITIVE"})
+    String serdeName;
+
+    @Param({"INT", "SHORT_STRING", "LONG_STRING", "SMALL_NESTED_MAP", "LARGE_NESTED_MAP"})
+    BenchmarkPayload payload;
+
+    private SerdeProcessor serde;
+    private Object value;
+    private byte[] serialized;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        serde = SerdeRegistry.getProcessorByName(serdeName);
+        value = payload.valueFor(serdeName);
+        serialized = serde.objectToBytes(value);
+    }
+
+    @Benchmark
+    public byte[] objectToBytes() {
+        return serde.objectToBytes(value);
+    }
+
+    @Benchmark
+    public Object bytesToObject() {
+        return serde.bytesToObject(serialized);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public byte[] objectToBytesContended() {
+        return serde.objectToBytes(value);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object bytesToObjectContended() {
+        return serde.bytesToObject(serialized);
+    }
+
+}
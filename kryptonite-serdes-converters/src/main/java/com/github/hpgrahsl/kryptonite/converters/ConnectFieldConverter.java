@@ -61,7 +61,7 @@ public class ConnectFieldConverter {
      *         {@link com.github.hpgrahsl.kryptonite.serdes.FieldHandler#encryptField}
      */
     public Object toCanonical(Object value, Schema connectSchema, String fieldPath, String serdeName) {
-        if (KryptoniteSettings.SerdeType.AVRO.name().equals(serdeName)) {
+        if (KryptoniteSettings.SerdeType.isAvro(serdeName)) {
             return avroConverter.toAvroGeneric(value, connectSchema, fieldPath);
         }
         return value;
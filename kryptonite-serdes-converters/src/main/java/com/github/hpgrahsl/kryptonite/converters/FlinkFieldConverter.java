@@ -63,7 +63,7 @@ public class FlinkFieldConverter {
      *         {@link com.github.hpgrahsl.kryptonite.serdes.FieldHandler#encryptField}
      */
     public Object toCanonical(Object value, DataType dataType, String serdeName) {
-        if (KryptoniteSettings.SerdeType.AVRO.name().equals(serdeName)) {
+        if (KryptoniteSettings.SerdeType.isAvro(serdeName)) {
             return avroConverter.toAvroGeneric(value, dataType);
         }
         return value;
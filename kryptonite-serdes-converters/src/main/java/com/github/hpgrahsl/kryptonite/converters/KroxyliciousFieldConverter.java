@@ -61,7 +61,7 @@ public class KroxyliciousFieldConverter {
      *         {@link com.github.hpgrahsl.kryptonite.serdes.FieldHandler#encryptField}
      */
     public Object toCanonical(Object value, Schema schema, String serdeName) {
-        if (KryptoniteSettings.SerdeType.AVRO.name().equals(serdeName)) {
+        if (KryptoniteSettings.SerdeType.isAvro(serdeName)) {
             return new AvroPayload(value, schema);
         }
         return value;
@@ -70,7 +70,7 @@ public class MapFieldConverter {
      * @return value ready to pass to {@link com.github.hpgrahsl.kryptonite.serdes.FieldHandler#encryptField}
      */
     public Object toCanonical(Object value, String fieldPath, String serdeName) {
-        if (KryptoniteSettings.SerdeType.AVRO.name().equals(serdeName)) {
+        if (KryptoniteSettings.SerdeType.isAvro(serdeName)) {
             var node = MAPPER.<JsonNode>valueToTree(value);
             var recordName = fieldPath != null ? fieldPath : node.getNodeType().name();
             return avroConverter.toAvroGeneric(node, recordName);
@@ -99,7 +99,7 @@ public class MapFieldConverter {
      * @return value ready to pass to {@link com.github.hpgrahsl.kryptonite.serdes.FieldHandler#encryptField}
      */
     public Object toCanonical(Object value, String fieldPath, String serdeName, String schemaCacheKey) {
-        if (KryptoniteSettings.SerdeType.AVRO.name().equals(serdeName)) {
+        if (KryptoniteSettings.SerdeType.isAvro(serdeName)) {
             var node = MAPPER.<JsonNode>valueToTree(value);
             var recordName = fieldPath != null ? fieldPath : node.getNodeType().name();
             return avroConverter.toAvroGeneric(node, recordName, schemaCacheKey);
@@ -119,7 +119,7 @@ public class MapFieldConverter {
      * Java Object.
      */
     public Object toCanonical(JsonNode node, String fieldPath, String serdeName) {
-        if (KryptoniteSettings.SerdeType.AVRO.name().equals(serdeName)) {
+        if (KryptoniteSettings.SerdeType.isAvro(serdeName)) {
             var recordName = fieldPath != null ? fieldPath : node.getNodeType().name();
             return avroConverter.toAvroGeneric(node, recordName);
         }
@@ -139,7 +139,7 @@ public class MapFieldConverter {
      * {@link #toCanonical(Object, String, String, String)}.
      */
     public Object toCanonical(JsonNode node, String fieldPath, String serdeName, String schemaCacheKey) {
-        if (KryptoniteSettings.SerdeType.AVRO.name().equals(serdeName)) {
+        if (KryptoniteSettings.SerdeType.isAvro(serdeName)) {
             var recordName = fieldPath != null ? fieldPath : node.getNodeType().name();
             return avroConverter.toAvroGeneric(node, recordName, schemaCacheKey);
         }
@@ -166,7 +166,7 @@ public class MapFieldConverter {
      * @param schema    the Avro schema to use directly; ignored for non-AVRO serdes
      */
     public Object toCanonical(JsonNode node, String fieldPath, String serdeName, Schema schema) {
-        if (KryptoniteSettings.SerdeType.AVRO.name().equals(serdeName)) {
+        if (KryptoniteSettings.SerdeType.isAvro(serdeName)) {
             return avroConverter.toAvroGeneric(node, schema);
         }
         try {
@@ -16,6 +16,8 @@
 
 package com.github.hpgrahsl.kryptonite.converters.avro;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.hpgrahsl.kryptonite.KryptoniteException;
 import com.github.hpgrahsl.kryptonite.serdes.avro.AvroPayload;
 import org.apache.avro.LogicalTypes;
@@ -82,6 +84,14 @@ public class ConnectAvroConverter {
     private final ConcurrentHashMap<SchemaCacheKey, org.apache.avro.Schema> schemaCache =
             new ConcurrentHashMap<>();
 
+    /**
+     * Identity-keyed tier in front of {@link #schemaCache}: Connect's schema hashing traverses the
+     * whole schema on each call, whereas converters typically hand out the same schema instance
+     * for consecutive records. Entries go away together with their schema instances.
+     */
+    private final Cache<Schema, Map<String, org.apache.avro.Schema>> schemaInstanceCache =
+            Caffeine.newBuilder().weakKeys().build();
+
     // --- public API ---
 
     /**
@@ -93,10 +103,7 @@ public class ConnectAvroConverter {
      * @return an {@link AvroPayload} wrapping the Avro generic value and its derived schema
      */
     public AvroPayload toAvroGeneric(Object value, Schema connectSchema, String namePath) {
-        var sanitized = sanitize(namePath);
-        var avroSchema = schemaCache.computeIfAbsent(
-                new SchemaCacheKey(connectSchema, sanitized),
-                k -> schemaToAvro(k.connectSchema(), k.namePath()));
+        var avroSchema = avroSchema(connectSchema, namePath);
         var avroValue = valueToAvro(value, avroSchema, connectSchema);
         return new AvroPayload(avroValue, avroSchema);
     }
@@ -114,6 +121,19 @@ public class ConnectAvroConverter {
 
     // --- schema mapping: Connect Schema → Avro Schema ---
 
+    private org.apache.avro.Schema avroSchema(Schema connectSchema, String namePath) {
+        var byNamePath = schemaInstanceCache.get(connectSchema, s -> new ConcurrentHashMap<>());
+        var pathKey = namePath != null ? namePath : "";
+        var avroSchema = byNamePath.get(pathKey);
+        if (avroSchema == null) {
+            avroSchema = schemaCache.computeIfAbsent(
+                    new SchemaCacheKey(connectSchema, sanitize(namePath)),
+                    k -> schemaToAvro(k.connectSchema(), k.namePath()));
+            byNamePath.put(pathKey, avroSchema);
+        }
+        return avroSchema;
+    }
+
     private org.apache.avro.Schema schemaToAvro(Schema connectSchema, String namePath) {
         // logical types annotate base types — check name first
         if (Date.LOGICAL_NAME.equals(connectSchema.name())) {
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2021. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.hpgrahsl.kryptonite.serdes;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Standard (RFC 4648) Base64 which, unlike {@link java.util.Base64}, encodes from and
+ * decodes into arbitrary slices so that {@link FieldHandler} never materializes the binary k2
+ * envelope as a whole:
+ * <ul>
+ *   <li>{@link #encode(byte[], byte[])} encodes {@code head || tail} in one pass straight into
+ *       the presized result string.</li>
+ *   <li>{@link #decode(String, int, byte[])} decodes any byte range of an encoded string
+ *       directly into a caller-provided, exactly sized array.</li>
+ * </ul>
+ * The output is byte-for-byte identical to {@code Base64.getEncoder()} / {@code Base64.getDecoder()}.
+ * Encoding always pads, while decoding also accepts unpadded input just like
+ * {@code Base64.getDecoder()} does.
+ */
+final class Base64Codec {
+
+  private static final byte[] ALPHABET =
+      "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes(StandardCharsets.US_ASCII);
+  private static final byte PAD = '=';
+  private static final int[] VALUES = new int[128];
+
+  static {
+    Arrays.fill(VALUES, -1);
+    for (int i = 0; i < ALPHABET.length; i++) {
+      VALUES[ALPHABET[i]] = i;
+    }
+  }
+
+  private Base64Codec() {
+  }
+
+  /**
+   * @return Base64 encoding of the concatenation {@code head || tail}
+   */
+  static String encode(byte[] head, byte[] tail) {
+    int total = head.length + tail.length;
+    var dst = new byte[4 * ((total + 2) / 3)];
+    // complete head's last 3-byte group with the first tail bytes so both parts encode independently
+    int bridge = Math.min(tail.length, (3 - head.length % 3) % 3);
+    int dp = encodeGroups(head, 0, head.length - head.length % 3, dst, 0);
+    if (head.length % 3 != 0) {
+      var group = new byte[head.length % 3 + bridge];
+      System.arraycopy(head, head.length - head.length % 3, group, 0, head.length % 3);
+      System.arraycopy(tail, 0, group, head.length % 3, bridge);
+      dp = encodeGroups(group, 0, group.length, dst, dp);
+    }
+    encodeGroups(tail, bridge, tail.length - bridge, dst, dp);
+    return new String(dst, StandardCharsets.ISO_8859_1);
+  }
+
+  /**
+   * Encodes {@code len} bytes of {@code src} starting at {@code off}, padding a trailing
+   * incomplete group.
+   *
+   * @return position in {@code dst} after the last written character
+   */
+  private static int encodeGroups(byte[] src, int off, int len, byte[] dst, int dp) {
+    int end = off + len;
+    int fullEnd = off + len - len % 3;
+    int sp = off;
+    while (sp < fullEnd) {
+      int bits = (src[sp++] & 0xff) << 16 | (src[sp++] & 0xff) << 8 | (src[sp++] & 0xff);
+      dst[dp++] = ALPHABET[(bits >>> 18) & 0x3f];
+      dst[dp++] = ALPHABET[(bits >>> 12) & 0x3f];
+      dst[dp++] = ALPHABET[(bits >>> 6) & 0x3f];
+      dst[dp++] = ALPHABET[bits & 0x3f];
+    }
+    if (sp < end) {
+      int b0 = src[sp++] & 0xff;
+      dst[dp++] = ALPHABET[b0 >> 2];
+      if (sp == end) {
+        dst[dp++] = ALPHABET[(b0 << 4) & 0x3f];
+        dst[dp++] = PAD;
+      } else {
+        int b1 = src[sp] & 0xff;
+        dst[dp++] = ALPHABET[(b0 << 4) & 0x3f | (b1 >> 4)];
+        dst[dp++] = ALPHABET[(b1 << 2) & 0x3f];
+      }
+      dst[dp++] = PAD;
+    }
+    return dp;
+  }
+
+  /**
+   * @return number of bytes {@code encoded} decodes to
+   * @throws IllegalArgumentException if {@code encoded} is neither validly padded nor unpadded Base64
+   */
+  static int decodedLength(String encoded) {
+    int len = encoded.length();
+    if (len % 4 == 1) {
+      throw new IllegalArgumentException("Base64 input length must not be 1 more than a multiple of 4 but was " + len);
+    }
+    if (len % 4 != 0) {
+      // unpadded, the trailing 2 or 3 characters encode 1 or 2 bytes respectively
+      return len / 4 * 3 + len % 4 - 1;
+    }
+    if (len == 0) {
+      return 0;
+    }
+    int pad = 0;
+    if (encoded.charAt(len - 1) == PAD) {
+      pad = encoded.charAt(len - 2) == PAD ? 2 : 1;
+    } else if (encoded.charAt(len - 2) == PAD) {
+      throw new IllegalArgumentException("Base64 input has padding before its last character");
+    }
+    return len / 4 * 3 - pad;
+  }
+
+  /**
+   * Decodes {@code dst.length} bytes of {@code encoded} starting at decoded byte offset
+   * {@code from} into {@code dst}. Callers must not read beyond {@link #decodedLength(String)}.
+   *
+   * @throws IllegalArgumentException if a character of the decoded range is not valid Base64
+   */
+  static void decode(String encoded, int from, byte[] dst) {
+    int cp = from / 3 * 4;
+    int skip = from % 3;
+    int dp = 0;
+    while (dp < dst.length) {
+      int bits = value(encoded, cp) << 18 | value(encoded, cp + 1) << 12
+          | value(encoded, cp + 2) << 6 | value(encoded, cp + 3);
+      cp += 4;
+      for (int shift = 16 - 8 * skip; shift >= 0 && dp < dst.length; shift -= 8) {
+        dst[dp++] = (byte) (bits >> shift);
+      }
+      skip = 0;
+    }
+  }
+
+  private static int value(String encoded, int index) {
+    int len = encoded.length();
+    if (index >= len) {
+      // omitted padding of unpadded input
+      return 0;
+    }
+    char c = encoded.charAt(index);
+    if (c == PAD && index >= len - 2 && len % 4 == 0) {
+      return 0;
+    }
+    int value = c < VALUES.length ? VALUES[c] : -1;
+    if (value < 0) {
+      throw new IllegalArgumentException("Illegal base64 character " + Integer.toString(c, 16));
+    }
+    return value;
+  }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2021. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.hpgrahsl.kryptonite.serdes;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Optional Deflate compression of serialized field values before they are encrypted, used by
+ * {@link FieldHandler} for envelopes which carry the compression flag in their header.
+ *
+ * <p>Compressed plaintexts are laid out as:
+ *
+ * <pre>
+ *   [4 bytes : uncompressed length, big-endian]
+ *   [N bytes : raw Deflate stream (no zlib header/trailer)]
+ * </pre>
+ *
+ * The length prefix lets decompression allocate the exact output array and is covered by the
+ * AEAD tag like the rest of the plaintext.
+ */
+final class FieldCompression {
+
+  private static final VarHandle INT_BE =
+      MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+  private static final int LENGTH_PREFIX_SIZE = Integer.BYTES;
+
+  private FieldCompression() {
+  }
+
+  /**
+   * Compresses {@code plaintext} if compression is enabled for its size and actually saves space.
+   *
+   * @param plaintext            serialized field value
+   * @param compressionThreshold minimum size in bytes to attempt compression, negative to disable
+   * @return the compressed plaintext, or {@code null} if it should be stored as is
+   */
+  static byte[] compress(byte[] plaintext, int compressionThreshold) {
+    if (compressionThreshold < 0 || plaintext.length < compressionThreshold
+        || plaintext.length <= LENGTH_PREFIX_SIZE) {
+      return null;
+    }
+    // NOTE: only output strictly smaller than the input is worth the flag, so the deflater
+    // gets exactly that much room and anything not finishing within it is discarded
+    var compressed = new byte[plaintext.length - 1];
+    var deflater = new Deflater(Deflater.BEST_SPEED, true);
+    try {
+      deflater.setInput(plaintext);
+      deflater.finish();
+      int size = deflater.deflate(compressed, LENGTH_PREFIX_SIZE, compressed.length - LENGTH_PREFIX_SIZE);
+      if (!deflater.finished()) {
+        return null;
+      }
+      INT_BE.set(compressed, 0, plaintext.length);
+      return Arrays.copyOf(compressed, LENGTH_PREFIX_SIZE + size);
+    } finally {
+      deflater.end();
+    }
+  }
+
+  /**
+   * Restores the plaintext from the output of {@link #compress}.
+   *
+   * @throws IllegalArgumentException if {@code compressed} is malformed
+   */
+  static byte[] decompress(byte[] compressed) {
+    if (compressed.length < LENGTH_PREFIX_SIZE) {
+      throw new IllegalArgumentException("compressed field truncated: " + compressed.length + " bytes");
+    }
+    int length = (int) INT_BE.get(compressed, 0);
+    if (length < 0) {
+      throw new IllegalArgumentException("compressed field has invalid length: " + length);
+    }
+    var plaintext = new byte[length];
+    var inflater = new Inflater(true);
+    try {
+      inflater.setInput(compressed, LENGTH_PREFIX_SIZE, compressed.length - LENGTH_PREFIX_SIZE);
+      int size = inflater.inflate(plaintext);
+      if (size != length || !inflater.finished()) {
+        throw new IllegalArgumentException(
+            "compressed field inflated to " + size + " bytes but expected " + length);
+      }
+      return plaintext;
+    } catch (DataFormatException e) {
+      throw new IllegalArgumentException("compressed field is not a valid deflate stream", e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+}
@@ -25,11 +25,16 @@ import com.github.hpgrahsl.kryptonite.EncryptedField;
  *
  * <p>For k1 (legacy Kryo) envelopes the serde code is always
  * {@link KryoSerdeProcessorProvider#SERDE_CODE} ({@code "00"}).
- * For k2 envelopes it is read directly from the binary header.
+ * For k2 envelopes it is read directly from the binary header, as is whether the plaintext was
+ * compressed before encryption and whether it is a {@link FieldGroup} (never the case for k1).
  *
  * <p>Callers should use {@link FieldHandler#encryptField} and {@link FieldHandler#decryptField}
  * rather than working with this type directly.
  */
-record FieldEnvelope(EncryptedField encryptedField, String serdeCode) {
+record FieldEnvelope(EncryptedField encryptedField, String serdeCode, boolean compressed, boolean group) {
+
+  FieldEnvelope(EncryptedField encryptedField, String serdeCode) {
+    this(encryptedField, serdeCode, false, false);
+  }
 
 }
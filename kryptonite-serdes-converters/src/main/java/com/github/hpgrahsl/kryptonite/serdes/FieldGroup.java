@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2021. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.hpgrahsl.kryptonite.serdes;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Plaintext layout of a field group, i.e. several fields which {@link FieldHandler} encrypts
+ * together in a single AEAD operation under one k2 header:
+ *
+ * <pre>
+ *   [2 bytes : number of members, unsigned]
+ *   per member:
+ *   [2 bytes : name length, unsigned]
+ *   [N bytes : name UTF-8          ]
+ *   [4 bytes : value length        ]
+ *   [M bytes : serialized value    ]
+ * </pre>
+ *
+ * All member values are serialized with the same {@link SerdeProcessor}, whose code is kept in
+ * the envelope header.
+ */
+final class FieldGroup {
+
+  static final int MAX_MEMBERS = 0xFFFF;
+  private static final int MAX_NAME_BYTES = 0xFFFF;
+
+  private FieldGroup() {
+  }
+
+  /**
+   * Serializes {@code members} in iteration order into a single group plaintext.
+   */
+  static byte[] pack(Map<String, ?> members, SerdeProcessor serde) {
+    if (members.isEmpty() || members.size() > MAX_MEMBERS) {
+      throw new IllegalArgumentException(
+          "field group must have between 1 and " + MAX_MEMBERS + " members, got: " + members.size());
+    }
+    var names = new byte[members.size()][];
+    var values = new byte[members.size()][];
+    int size = 2;
+    int i = 0;
+    for (var member : members.entrySet()) {
+      names[i] = member.getKey().getBytes(StandardCharsets.UTF_8);
+      if (names[i].length > MAX_NAME_BYTES) {
+        throw new IllegalArgumentException(
+            "field group member name exceeds max " + MAX_NAME_BYTES + " bytes: " + names[i].length);
+      }
+      values[i] = serde.objectToBytes(member.getValue());
+      size += 2 + names[i].length + 4 + values[i].length;
+      i++;
+    }
+    var buffer = ByteBuffer.allocate(size).putShort((short) members.size());
+    for (i = 0; i < names.length; i++) {
+      buffer.putShort((short) names[i].length).put(names[i])
+          .putInt(values[i].length).put(values[i]);
+    }
+    return buffer.array();
+  }
+
+  /**
+   * Restores the members of a group plaintext produced by {@link #pack}, in their original order.
+   *
+   * @throws IllegalArgumentException if {@code plaintext} is malformed
+   */
+  static Map<String, Object> unpack(byte[] plaintext, SerdeProcessor serde) {
+    try {
+      var buffer = ByteBuffer.wrap(plaintext);
+      int count = Short.toUnsignedInt(buffer.getShort());
+      var members = new LinkedHashMap<String, Object>(Math.max(4, count * 4 / 3 + 1));
+      for (int i = 0; i < count; i++) {
+        var name = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(name);
+        int valueLength = buffer.getInt();
+        if (valueLength < 0 || valueLength > buffer.remaining()) {
+          throw new IllegalArgumentException("field group member has invalid length: " + valueLength);
+        }
+        var value = new byte[valueLength];
+        buffer.get(value);
+        members.put(new String(name, StandardCharsets.UTF_8), serde.bytesToObject(value));
+      }
+      if (buffer.hasRemaining()) {
+        throw new IllegalArgumentException(
+            "field group has " + buffer.remaining() + " trailing bytes after " + count + " members");
+      }
+      return members;
+    } catch (BufferUnderflowException e) {
+      throw new IllegalArgumentException("field group truncated: " + plaintext.length + " bytes", e);
+    }
+  }
+
+}
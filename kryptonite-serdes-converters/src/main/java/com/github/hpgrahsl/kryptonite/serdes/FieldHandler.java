@@ -19,12 +19,16 @@ package com.github.hpgrahsl.kryptonite.serdes;
 import com.github.hpgrahsl.kryptonite.EncryptedField;
 import com.github.hpgrahsl.kryptonite.Kryptonite;
 import com.github.hpgrahsl.kryptonite.PayloadMetaData;
+import com.github.hpgrahsl.kryptonite.PreparedCipher;
+import com.github.hpgrahsl.kryptonite.crypto.ByteBuffers;
 import com.github.hpgrahsl.kryptonite.serdes.kryo.KryoSerdeProcessor;
 import com.github.hpgrahsl.kryptonite.serdes.kryo.KryoSerdeProcessorProvider;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.Map;
 
 /**
  * Complete encrypt/decrypt pipeline facade for Kryptonite field-level encryption.
@@ -45,7 +49,9 @@ import java.util.Base64;
  *
  * <pre>
  *   [2 bytes : "k2" ASCII magic]
- *   [2 bytes : serde code      ]  e.g. "00" = KRYO, "01" = AVRO
+ *   [2 bytes : serde code      ]  e.g. "00" = KRYO, "01" = AVRO; high bit of the
+ *                                  1st byte set = plaintext is compressed,
+ *                                  2nd byte set = plaintext is a field group
  *   [2 bytes : algorithm ID    ]  e.g. "02" = AES_GCM
  *   [1 byte  : keyId length    ]  unsigned, max 255 bytes
  *   [N bytes : keyId UTF-8     ]
@@ -62,13 +68,56 @@ import java.util.Base64;
  *
  * // decrypt — version sniffing, serde dispatch, and Base64 decoding are internal:
  * Object value = FieldHandler.decryptField(encoded, kryptonite);
+ *
+ * // binary targets (e.g. Avro bytes, Connect BYTES) skip Base64 altogether:
+ * byte[] envelope = FieldHandler.encryptFieldRaw(value, metadata, kryptonite, "KRYO");
+ * Object value = FieldHandler.decryptField(envelope, kryptonite);
+ *
+ * // large, redundant values (e.g. whole nested objects) may be compressed before encryption:
+ * String encoded = FieldHandler.encryptField(value, metadata, kryptonite, "KRYO", 1024);
  * }</pre>
+ *
+ * <h2>Compression</h2>
+ *
+ * Ciphertexts are incompressible, so downstream (e.g. Kafka producer) compression can't shrink
+ * encrypted fields anymore. The encrypt methods taking a {@code compressionThreshold} therefore
+ * Deflate serialized values of at least that many bytes before encrypting them, see
+ * {@link FieldCompression}. Compression is only kept if it actually saves space and is flagged
+ * in the k2 header, so decryption transparently inflates such fields.
+ *
+ * <h2>Field groups</h2>
+ *
+ * {@link #encryptFieldGroup} serializes several fields of a record together and encrypts them in
+ * one AEAD operation under one header, see {@link FieldGroup}. Compared to encrypting each field
+ * on its own this saves one nonce, tag and header per additional member. The resulting envelope
+ * is typically written into one designated carrier field and restored with
+ * {@link #decryptFieldGroup}.
  */
 public final class FieldHandler {
 
+  /**
+   * {@code compressionThreshold} which never compresses field values.
+   */
+  public static final int COMPRESSION_DISABLED = -1;
+
   static final String WIRE_FORMAT_VERSION = Kryptonite.KRYPTONITE_VERSION;
   private static final byte[] MAGIC_BYTES_VERSION = WIRE_FORMAT_VERSION.getBytes(StandardCharsets.UTF_8);
   private static final KryoSerdeProcessor LEGACY_SERDE = new KryoSerdeProcessor();
+  /** magic, serde code, algorithm ID and keyId length */
+  private static final int FIXED_HEADER_SIZE = 2 + 2 + 2 + 1;
+  /** k2 header flag: the plaintext was compressed before encryption */
+  static final int FLAG_COMPRESSED = 1;
+  /** k2 header flag: the plaintext is a {@link FieldGroup} */
+  static final int FLAG_GROUP = 2;
+  /** marks a flag on the otherwise ASCII serde code bytes */
+  private static final int FLAG_BIT = 0x80;
+  private static final String[] DIGIT_CODES = new String[100];
+
+  static {
+    for (int i = 0; i < DIGIT_CODES.length; i++) {
+      DIGIT_CODES[i] = String.format("%02d", i);
+    }
+  }
 
   private FieldHandler() {
   }
@@ -92,11 +141,111 @@ public final class FieldHandler {
    */
   public static String encryptField(Object value, PayloadMetaData metadata,
       Kryptonite kryptonite, String serdeName) {
+    return encryptField(value, metadata, kryptonite, serdeName, COMPRESSION_DISABLED);
+  }
+
+  /**
+   * Same as {@link #encryptField(Object, PayloadMetaData, Kryptonite, String)} but compresses the
+   * serialized value before encryption if it has at least {@code compressionThreshold} bytes.
+   *
+   * @param compressionThreshold minimum serialized size in bytes to compress at, or
+   *                             {@link #COMPRESSION_DISABLED}
+   *
+   * @return Base64-encoded envelope string for Kryptonite version "k2" (new binary format)
+   */
+  public static String encryptField(Object value, PayloadMetaData metadata,
+      Kryptonite kryptonite, String serdeName, int compressionThreshold) {
     SerdeProcessor serde = SerdeRegistry.getProcessorByName(serdeName);
     byte[] valueBytes = serde.objectToBytes(value);
-    byte[] ciphertext = kryptonite.cipherFieldRaw(valueBytes, metadata);
-    byte[] envelopeBytes = serialize(new EncryptedField(metadata, ciphertext), serde.serdeCode());
-    return Base64.getEncoder().encodeToString(envelopeBytes);
+    byte[] compressed = compress(valueBytes, metadata, compressionThreshold);
+    byte[] ciphertext = kryptonite.cipherFieldRaw(compressed != null ? compressed : valueBytes, metadata);
+    return encode(metadata, ciphertext, serde.serdeCode(), compressed != null ? FLAG_COMPRESSED : 0);
+  }
+
+  /**
+   * Same as {@link #encryptField(Object, PayloadMetaData, Kryptonite, String)} but encrypts
+   * through a {@link PreparedCipher} which already resolved cipher spec and AAD bytes for a
+   * static field configuration.
+   *
+   * @param value          plaintext field value
+   * @param preparedCipher prepared cipher obtained via {@link Kryptonite#prepare}
+   * @param serdeName      supported config-facing serde name (e.g. {@code "KRYO"})
+   *
+   * @return Base64-encoded envelope string for Kryptonite version "k2" (new binary format)
+   */
+  public static String encryptField(Object value, PreparedCipher preparedCipher, String serdeName) {
+    return encryptField(value, preparedCipher, serdeName, COMPRESSION_DISABLED);
+  }
+
+  /**
+   * Same as {@link #encryptField(Object, PreparedCipher, String)} but compresses the serialized
+   * value before encryption if it has at least {@code compressionThreshold} bytes.
+   *
+   * @param compressionThreshold minimum serialized size in bytes to compress at, or
+   *                             {@link #COMPRESSION_DISABLED}
+   *
+   * @return Base64-encoded envelope string for Kryptonite version "k2" (new binary format)
+   */
+  public static String encryptField(Object value, PreparedCipher preparedCipher, String serdeName,
+      int compressionThreshold) {
+    SerdeProcessor serde = SerdeRegistry.getProcessorByName(serdeName);
+    byte[] valueBytes = serde.objectToBytes(value);
+    var metadata = preparedCipher.getPayloadMetaData();
+    byte[] compressed = compress(valueBytes, metadata, compressionThreshold);
+    byte[] ciphertext = preparedCipher.encrypt(compressed != null ? compressed : valueBytes);
+    return encode(metadata, ciphertext, serde.serdeCode(), compressed != null ? FLAG_COMPRESSED : 0);
+  }
+
+  /**
+   * Same as {@link #encryptField(Object, PayloadMetaData, Kryptonite, String)} but returns the
+   * raw binary envelope instead of its Base64 encoding, for targets which carry bytes natively.
+   *
+   * @return binary envelope for Kryptonite version "k2"
+   */
+  public static byte[] encryptFieldRaw(Object value, PayloadMetaData metadata,
+      Kryptonite kryptonite, String serdeName) {
+    return encryptFieldRaw(value, metadata, kryptonite, serdeName, COMPRESSION_DISABLED);
+  }
+
+  /**
+   * Same as {@link #encryptField(Object, PayloadMetaData, Kryptonite, String, int)} but returns
+   * the raw binary envelope instead of its Base64 encoding.
+   *
+   * @return binary envelope for Kryptonite version "k2"
+   */
+  public static byte[] encryptFieldRaw(Object value, PayloadMetaData metadata,
+      Kryptonite kryptonite, String serdeName, int compressionThreshold) {
+    SerdeProcessor serde = SerdeRegistry.getProcessorByName(serdeName);
+    byte[] valueBytes = serde.objectToBytes(value);
+    byte[] compressed = compress(valueBytes, metadata, compressionThreshold);
+    byte[] ciphertext = kryptonite.cipherFieldRaw(compressed != null ? compressed : valueBytes, metadata);
+    return encodeRaw(metadata, ciphertext, serde.serdeCode(), compressed != null ? FLAG_COMPRESSED : 0);
+  }
+
+  /**
+   * Same as {@link #encryptField(Object, PreparedCipher, String)} but returns the raw binary
+   * envelope instead of its Base64 encoding.
+   *
+   * @return binary envelope for Kryptonite version "k2"
+   */
+  public static byte[] encryptFieldRaw(Object value, PreparedCipher preparedCipher, String serdeName) {
+    return encryptFieldRaw(value, preparedCipher, serdeName, COMPRESSION_DISABLED);
+  }
+
+  /**
+   * Same as {@link #encryptField(Object, PreparedCipher, String, int)} but returns the raw binary
+   * envelope instead of its Base64 encoding.
+   *
+   * @return binary envelope for Kryptonite version "k2"
+   */
+  public static byte[] encryptFieldRaw(Object value, PreparedCipher preparedCipher, String serdeName,
+      int compressionThreshold) {
+    SerdeProcessor serde = SerdeRegistry.getProcessorByName(serdeName);
+    byte[] valueBytes = serde.objectToBytes(value);
+    var metadata = preparedCipher.getPayloadMetaData();
+    byte[] compressed = compress(valueBytes, metadata, compressionThreshold);
+    byte[] ciphertext = preparedCipher.encrypt(compressed != null ? compressed : valueBytes);
+    return encodeRaw(metadata, ciphertext, serde.serdeCode(), compressed != null ? FLAG_COMPRESSED : 0);
   }
 
   /**
@@ -109,69 +258,259 @@ public final class FieldHandler {
    * @return deserialized plaintext field value
    */
   public static Object decryptField(String encoded, Kryptonite kryptonite) {
-    FieldEnvelope fieldEnvelope = deserialize(Base64.getDecoder().decode(encoded));
+    return decrypt(decode(encoded), kryptonite);
+  }
+
+  /**
+   * Decrypt pipeline for a raw binary envelope produced by {@link #encryptFieldRaw}.
+   *
+   * @param envelope   binary envelope
+   * @param kryptonite cipher engine
+   * @return deserialized plaintext field value
+   */
+  public static Object decryptField(byte[] envelope, Kryptonite kryptonite) {
+    return decrypt(decodeRaw(envelope), kryptonite);
+  }
+
+  /**
+   * Decrypts an encrypted field in either form: a Base64 {@link String} as returned by
+   * {@link #encryptField}, or a raw envelope as returned by {@link #encryptFieldRaw} given as
+   * {@code byte[]} or {@link ByteBuffer}.
+   *
+   * @param encrypted  encrypted field value
+   * @param kryptonite cipher engine
+   * @return deserialized plaintext field value
+   * @throws IllegalArgumentException if {@code encrypted} is of any other type
+   */
+  public static Object decryptField(Object encrypted, Kryptonite kryptonite) {
+    return decrypt(decodeAny(encrypted), kryptonite);
+  }
+
+  private static FieldEnvelope decodeAny(Object encrypted) {
+    if (encrypted instanceof String encoded) {
+      return decode(encoded);
+    }
+    if (encrypted instanceof byte[] envelope) {
+      return decodeRaw(envelope);
+    }
+    if (encrypted instanceof ByteBuffer buffer) {
+      return decodeRaw(ByteBuffers.read(buffer.duplicate()));
+    }
+    throw new IllegalArgumentException("encrypted field must be either a Base64 String or raw bytes but was "
+        + (encrypted == null ? "null" : encrypted.getClass().getName()));
+  }
+
+  /**
+   * Group encrypt pipeline: serialize all {@code fields} → pack → optionally compress → cipher
+   * once → wrap a single envelope → Base64 encode.
+   *
+   * @param fields               field names mapped to their plaintext values, in the order to restore them
+   * @param metadata             payload metadata (version, algorithmId, keyId) shared by all fields
+   * @param kryptonite           cipher engine
+   * @param serdeName            supported config-facing serde name (e.g. {@code "KRYO"})
+   * @param compressionThreshold minimum packed size in bytes to compress at, or
+   *                             {@link #COMPRESSION_DISABLED}
+   *
+   * @return Base64-encoded k2 envelope string holding all fields
+   * @throws IllegalArgumentException if {@code fields} is empty or {@code metadata} isn't for k2
+   */
+  public static String encryptFieldGroup(Map<String, ?> fields, PayloadMetaData metadata,
+      Kryptonite kryptonite, String serdeName, int compressionThreshold) {
+    SerdeProcessor serde = SerdeRegistry.getProcessorByName(serdeName);
+    byte[] packed = packGroup(fields, metadata, serde);
+    byte[] compressed = FieldCompression.compress(packed, compressionThreshold);
+    byte[] ciphertext = kryptonite.cipherFieldRaw(compressed != null ? compressed : packed, metadata);
+    return encode(metadata, ciphertext, serde.serdeCode(), FLAG_GROUP | (compressed != null ? FLAG_COMPRESSED : 0));
+  }
+
+  /**
+   * Same as {@link #encryptFieldGroup} but returns the raw binary envelope instead of its Base64
+   * encoding.
+   *
+   * @return binary k2 envelope holding all fields
+   */
+  public static byte[] encryptFieldGroupRaw(Map<String, ?> fields, PayloadMetaData metadata,
+      Kryptonite kryptonite, String serdeName, int compressionThreshold) {
+    SerdeProcessor serde = SerdeRegistry.getProcessorByName(serdeName);
+    byte[] packed = packGroup(fields, metadata, serde);
+    byte[] compressed = FieldCompression.compress(packed, compressionThreshold);
+    byte[] ciphertext = kryptonite.cipherFieldRaw(compressed != null ? compressed : packed, metadata);
+    return encodeRaw(metadata, ciphertext, serde.serdeCode(), FLAG_GROUP | (compressed != null ? FLAG_COMPRESSED : 0));
+  }
+
+  /**
+   * Group decrypt pipeline for envelopes produced by {@link #encryptFieldGroup} or
+   * {@link #encryptFieldGroupRaw}, given as Base64 {@link String}, {@code byte[]} or
+   * {@link ByteBuffer}.
+   *
+   * @return field names mapped to their deserialized plaintext values, in their original order
+   * @throws IllegalArgumentException if {@code encrypted} isn't a field group envelope
+   */
+  public static Map<String, Object> decryptFieldGroup(Object encrypted, Kryptonite kryptonite) {
+    FieldEnvelope fieldEnvelope = decodeAny(encrypted);
+    if (!fieldEnvelope.group()) {
+      throw new IllegalArgumentException("envelope holds a single field, use decryptField instead");
+    }
+    return FieldGroup.unpack(decipher(fieldEnvelope, kryptonite),
+        SerdeRegistry.getProcessorByCode(fieldEnvelope.serdeCode()));
+  }
+
+  private static byte[] packGroup(Map<String, ?> fields, PayloadMetaData metadata, SerdeProcessor serde) {
+    if (!WIRE_FORMAT_VERSION.equals(metadata.getVersion())) {
+      throw new IllegalArgumentException("field groups require " + WIRE_FORMAT_VERSION
+          + " envelopes, got: " + metadata.getVersion());
+    }
+    return FieldGroup.pack(fields, serde);
+  }
+
+  private static Object decrypt(FieldEnvelope fieldEnvelope, Kryptonite kryptonite) {
+    if (fieldEnvelope.group()) {
+      throw new IllegalArgumentException("envelope holds a field group, use decryptFieldGroup instead");
+    }
+    return SerdeRegistry.getProcessorByCode(fieldEnvelope.serdeCode())
+        .bytesToObject(decipher(fieldEnvelope, kryptonite));
+  }
+
+  private static byte[] decipher(FieldEnvelope fieldEnvelope, Kryptonite kryptonite) {
     byte[] plaintext = kryptonite.decipherFieldRaw(
         fieldEnvelope.encryptedField().ciphertext(), fieldEnvelope.encryptedField().getMetaData());
-    return SerdeRegistry.getProcessorByCode(fieldEnvelope.serdeCode()).bytesToObject(plaintext);
+    return fieldEnvelope.compressed() ? FieldCompression.decompress(plaintext) : plaintext;
+  }
+
+  /**
+   * Compresses {@code valueBytes} for k2 envelopes only, legacy k1 envelopes can't flag it.
+   *
+   * @return the compressed value bytes, or {@code null} if they are encrypted uncompressed
+   */
+  private static byte[] compress(byte[] valueBytes, PayloadMetaData metadata, int compressionThreshold) {
+    if (!WIRE_FORMAT_VERSION.equals(metadata.getVersion())) {
+      return null;
+    }
+    return FieldCompression.compress(valueBytes, compressionThreshold);
   }
 
-  // --- private helpers ---
+  // --- envelope codec ---
 
   /**
-   * Serializes an {@link EncryptedField} to bytes.
+   * Wraps {@code ciphertext} into an envelope and Base64 encodes it.
    *
    * <p>
-   * If {@code ef.getMetaData().getVersion()} equals {@code "k2"} the result uses
-   * the k2 binary
-   * format with {@code serdeCode} embedded in the header. Otherwise the legacy k1
-   * Kryo format is
-   * written and {@code serdeCode} is ignored.
+   * If {@code metadata.getVersion()} equals {@code "k2"} the k2 header is built and Base64
+   * encoded together with {@code ciphertext} in a single pass, i.e. the binary envelope is never
+   * materialized. Otherwise the legacy k1 Kryo format is written and {@code serdeCode} is ignored.
    *
-   * @param encryptedField the encrypted field to serialize
-   * @param serdeCode      2-character wire code for k2 envelopes (ignored for k1)
-   * @return serialized envelope bytes
+   * @param metadata   payload metadata (version, algorithmId, keyId)
+   * @param ciphertext raw ciphertext
+   * @param serdeCode  2-character wire code for k2 envelopes (ignored for k1)
+   * @return Base64-encoded envelope
+   */
+  static String encode(PayloadMetaData metadata, byte[] ciphertext, String serdeCode) {
+    return encode(metadata, ciphertext, serdeCode, 0);
+  }
+
+  /**
+   * Same as {@link #encode(PayloadMetaData, byte[], String)} but sets the given k2 header
+   * {@code flags}, a combination of {@link #FLAG_COMPRESSED} and {@link #FLAG_GROUP}.
    */
-  private static byte[] serialize(EncryptedField encryptedField, String serdeCode) {
-    if (WIRE_FORMAT_VERSION.equals(encryptedField.getMetaData().getVersion())) {
-      return serializeNew(encryptedField, serdeCode);
+  static String encode(PayloadMetaData metadata, byte[] ciphertext, String serdeCode, int flags) {
+    if (WIRE_FORMAT_VERSION.equals(metadata.getVersion())) {
+      return Base64Codec.encode(header(metadata, serdeCode, flags), ciphertext);
     }
     // legacy format implicitly KRYO only
-    return LEGACY_SERDE.objectToBytes(encryptedField, EncryptedField.class);
+    return Base64.getEncoder().encodeToString(
+        LEGACY_SERDE.objectToBytes(new EncryptedField(metadata, ciphertext), EncryptedField.class));
   }
 
   /**
-   * Deserializes an envelope byte array produced by {@link #serialize}.
+   * Decodes a Base64-encoded envelope produced by {@link #encode}.
    *
    * <p>
-   * Version is sniffed from the first 2 bytes:
+   * Version is sniffed from the first 2 decoded bytes:
    * <ul>
-   * <li>If the bytes start with {@code "k2"} → parse k2 binary format.</li>
+   * <li>If the bytes are {@code "k2"} → the header is decoded and parsed in place and the
+   * ciphertext is Base64 decoded straight into an exactly sized array.</li>
    * <li>Otherwise → assume k1 Kryo; delegate to {@link KryoSerdeProcessor} as
    * permanent
    * fallback. The serde code in the returned {@link FieldEnvelope} is implicitly
    * {@link KryoSerdeProcessorProvider#SERDE_CODE} ({@code "00"}).</li>
    * </ul>
    *
-   * @param bytes raw envelope bytes
+   * @param encoded Base64-encoded envelope
    * @return {@link FieldEnvelope} with the decoded {@link EncryptedField} and
    *         serde code
    */
-  private static FieldEnvelope deserialize(byte[] bytes) {
-    if (bytes.length >= 2 && bytes[0] == MAGIC_BYTES_VERSION[0] && bytes[1] == MAGIC_BYTES_VERSION[1]) {
-      return deserializeNew(bytes);
+  static FieldEnvelope decode(String encoded) {
+    int length = Base64Codec.decodedLength(encoded);
+    var header = new byte[Math.min(length, FIXED_HEADER_SIZE)];
+    Base64Codec.decode(encoded, 0, header);
+    if (header.length >= 2 && header[0] == MAGIC_BYTES_VERSION[0] && header[1] == MAGIC_BYTES_VERSION[1]) {
+      return decodeNew(encoded, length, header);
+    }
+    // legacy format implicitly KRYO only
+    return new FieldEnvelope(
+        (EncryptedField) LEGACY_SERDE.bytesToObject(Base64.getDecoder().decode(encoded), EncryptedField.class),
+        KryoSerdeProcessorProvider.SERDE_CODE);
+  }
+
+  /**
+   * Raw counterpart of {@link #encode}: header and {@code ciphertext} are written into one
+   * exactly sized array.
+   */
+  static byte[] encodeRaw(PayloadMetaData metadata, byte[] ciphertext, String serdeCode) {
+    return encodeRaw(metadata, ciphertext, serdeCode, 0);
+  }
+
+  /**
+   * Same as {@link #encodeRaw(PayloadMetaData, byte[], String)} but sets the given k2 header
+   * {@code flags}, a combination of {@link #FLAG_COMPRESSED} and {@link #FLAG_GROUP}.
+   */
+  static byte[] encodeRaw(PayloadMetaData metadata, byte[] ciphertext, String serdeCode, int flags) {
+    if (WIRE_FORMAT_VERSION.equals(metadata.getVersion())) {
+      byte[] keyIdBytes = validatedKeyIdBytes(metadata, serdeCode);
+      var envelope = new byte[FIXED_HEADER_SIZE + keyIdBytes.length + ciphertext.length];
+      int headerSize = writeHeader(metadata, serdeCode, flags, keyIdBytes, envelope);
+      System.arraycopy(ciphertext, 0, envelope, headerSize, ciphertext.length);
+      return envelope;
+    }
+    // legacy format implicitly KRYO only
+    return LEGACY_SERDE.objectToBytes(new EncryptedField(metadata, ciphertext), EncryptedField.class);
+  }
+
+  /**
+   * Raw counterpart of {@link #decode}: the header is parsed in place and only the ciphertext
+   * is copied out of {@code envelope}.
+   */
+  static FieldEnvelope decodeRaw(byte[] envelope) {
+    if (envelope.length >= 2 && envelope[0] == MAGIC_BYTES_VERSION[0] && envelope[1] == MAGIC_BYTES_VERSION[1]) {
+      if (envelope.length < FIXED_HEADER_SIZE || envelope.length < FIXED_HEADER_SIZE + (envelope[6] & 0xFF)) {
+        throw new IllegalArgumentException("k2 envelope truncated: " + envelope.length + " bytes");
+      }
+      int keyIdLength = envelope[6] & 0xFF; // unsigned byte
+      int ciphertextOffset = FIXED_HEADER_SIZE + keyIdLength;
+      var metaData = new PayloadMetaData(WIRE_FORMAT_VERSION, code(envelope, 4),
+          new String(envelope, FIXED_HEADER_SIZE, keyIdLength, StandardCharsets.UTF_8));
+      return new FieldEnvelope(
+          new EncryptedField(metaData, Arrays.copyOfRange(envelope, ciphertextOffset, envelope.length)),
+          serdeCode(envelope), isCompressed(envelope), isGroup(envelope));
     }
     // legacy format implicitly KRYO only
     return new FieldEnvelope(
-        (EncryptedField) LEGACY_SERDE.bytesToObject(bytes, EncryptedField.class),
+        (EncryptedField) LEGACY_SERDE.bytesToObject(envelope, EncryptedField.class),
         KryoSerdeProcessorProvider.SERDE_CODE);
   }
 
-  private static byte[] serializeNew(EncryptedField encryptedField, String serdeCode) {
-    if (serdeCode == null || serdeCode.length() != 2) {
+  private static byte[] header(PayloadMetaData metaData, String serdeCode, int flags) {
+    byte[] keyIdBytes = validatedKeyIdBytes(metaData, serdeCode);
+    var header = new byte[FIXED_HEADER_SIZE + keyIdBytes.length];
+    writeHeader(metaData, serdeCode, flags, keyIdBytes, header);
+    return header;
+  }
+
+  private static byte[] validatedKeyIdBytes(PayloadMetaData metaData, String serdeCode) {
+    if (serdeCode == null || serdeCode.length() != 2 || serdeCode.charAt(0) >= FLAG_BIT || serdeCode.charAt(1) >= FLAG_BIT) {
       throw new IllegalArgumentException(
-          "serdeCode must be exactly 2 characters for k2 envelopes, got: " + serdeCode);
+          "serdeCode must be exactly 2 ASCII characters for k2 envelopes, got: " + serdeCode);
     }
-    var metaData = encryptedField.getMetaData();
     if (metaData.getAlgorithmId() == null || metaData.getAlgorithmId().length() != 2) {
       throw new IllegalArgumentException(
           "algorithmId must be exactly 2 characters for k2 envelopes, got: " + metaData.getAlgorithmId());
@@ -181,36 +520,74 @@ public final class FieldHandler {
       throw new IllegalArgumentException(
           "keyId UTF-8 encoding exceeds max 255 bytes for k2 envelopes: " + keyIdBytes.length);
     }
-    byte[] serdeCodeBytes = serdeCode.getBytes(StandardCharsets.UTF_8);
-    byte[] algorithmIdBytes = metaData.getAlgorithmId().getBytes(StandardCharsets.UTF_8);
-    byte[] ciphertextBytes = encryptedField.ciphertext();
-    ByteBuffer buffer = ByteBuffer.allocate(2 + 2 + 2 + 1 + keyIdBytes.length + ciphertextBytes.length);
-    buffer.put(MAGIC_BYTES_VERSION);
-    buffer.put(serdeCodeBytes);
-    buffer.put(algorithmIdBytes);
-    buffer.put((byte) keyIdBytes.length);
-    buffer.put(keyIdBytes);
-    buffer.put(ciphertextBytes);
-    return buffer.array();
-  }
-
-  private static FieldEnvelope deserializeNew(byte[] bytes) {
-    ByteBuffer buffer = ByteBuffer.wrap(bytes);
-    buffer.position(2); // skip K2 magic
-    byte[] serdeCodeBytes = new byte[2];
-    buffer.get(serdeCodeBytes);
-    String serdeCode = new String(serdeCodeBytes, StandardCharsets.UTF_8);
-    byte[] algorithmIdBytes = new byte[2];
-    buffer.get(algorithmIdBytes);
-    String algorithmId = new String(algorithmIdBytes, StandardCharsets.UTF_8);
-    int keyIdLength = buffer.get() & 0xFF; // unsigned byte
+    return keyIdBytes;
+  }
+
+  /**
+   * Writes the k2 header to the start of {@code dst}.
+   *
+   * @return header size in bytes
+   */
+  private static int writeHeader(PayloadMetaData metaData, String serdeCode, int flags,
+      byte[] keyIdBytes, byte[] header) {
+    header[0] = MAGIC_BYTES_VERSION[0];
+    header[1] = MAGIC_BYTES_VERSION[1];
+    header[2] = (byte) (serdeCode.charAt(0) | ((flags & FLAG_COMPRESSED) != 0 ? FLAG_BIT : 0));
+    header[3] = (byte) (serdeCode.charAt(1) | ((flags & FLAG_GROUP) != 0 ? FLAG_BIT : 0));
+    header[4] = (byte) metaData.getAlgorithmId().charAt(0);
+    header[5] = (byte) metaData.getAlgorithmId().charAt(1);
+    header[6] = (byte) keyIdBytes.length;
+    System.arraycopy(keyIdBytes, 0, header, FIXED_HEADER_SIZE, keyIdBytes.length);
+    return FIXED_HEADER_SIZE + keyIdBytes.length;
+  }
+
+  private static FieldEnvelope decodeNew(String encoded, int length, byte[] header) {
+    if (header.length < FIXED_HEADER_SIZE) {
+      throw new IllegalArgumentException("k2 envelope truncated: " + length + " bytes");
+    }
+    int keyIdLength = header[6] & 0xFF; // unsigned byte
+    if (length < FIXED_HEADER_SIZE + keyIdLength) {
+      throw new IllegalArgumentException("k2 envelope truncated: " + length + " bytes for keyId of "
+          + keyIdLength + " bytes");
+    }
     byte[] keyIdBytes = new byte[keyIdLength];
-    buffer.get(keyIdBytes);
-    String keyId = new String(keyIdBytes, StandardCharsets.UTF_8);
-    byte[] ciphertextBytes = new byte[buffer.remaining()];
-    buffer.get(ciphertextBytes);
-    var metaData = new PayloadMetaData(WIRE_FORMAT_VERSION, algorithmId, keyId);
-    return new FieldEnvelope(new EncryptedField(metaData, ciphertextBytes), serdeCode);
+    Base64Codec.decode(encoded, FIXED_HEADER_SIZE, keyIdBytes);
+    byte[] ciphertextBytes = new byte[length - FIXED_HEADER_SIZE - keyIdLength];
+    Base64Codec.decode(encoded, FIXED_HEADER_SIZE + keyIdLength, ciphertextBytes);
+    var metaData = new PayloadMetaData(WIRE_FORMAT_VERSION, code(header, 4),
+        new String(keyIdBytes, StandardCharsets.UTF_8));
+    return new FieldEnvelope(new EncryptedField(metaData, ciphertextBytes), serdeCode(header),
+        isCompressed(header), isGroup(header));
+  }
+
+  private static boolean isCompressed(byte[] header) {
+    return (header[2] & FLAG_BIT) != 0;
+  }
+
+  private static boolean isGroup(byte[] header) {
+    return (header[3] & FLAG_BIT) != 0;
+  }
+
+  /**
+   * Reads the serde code of a k2 header, without any flags.
+   */
+  private static String serdeCode(byte[] header) {
+    if (((header[2] | header[3]) & FLAG_BIT) == 0) {
+      return code(header, 2);
+    }
+    return code(new byte[] {(byte) (header[2] & ~FLAG_BIT), (byte) (header[3] & ~FLAG_BIT)}, 0);
+  }
+
+  /**
+   * Reads a 2-character header code, returning shared instances for the common all-digit codes.
+   */
+  private static String code(byte[] header, int offset) {
+    int d0 = header[offset] - '0';
+    int d1 = header[offset + 1] - '0';
+    if (d0 >= 0 && d0 <= 9 && d1 >= 0 && d1 <= 9) {
+      return DIGIT_CODES[10 * d0 + d1];
+    }
+    return new String(header, offset, 2, StandardCharsets.UTF_8);
   }
 
 }
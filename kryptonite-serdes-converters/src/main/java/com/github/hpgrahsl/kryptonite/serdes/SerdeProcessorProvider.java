@@ -26,7 +26,10 @@ package com.github.hpgrahsl.kryptonite.serdes;
  * <p>Codes are assigned statically per implementation:
  * <ul>
  *   <li>{@code "00"} → KRYO ({@link KryoSerdeProcessorProvider}) - legacy (backwards compatibility)</li>
- *   <li>{@code "01"} → reserved for next implementation (-> AVRO)</li>
+ *   <li>{@code "01"} → AVRO ({@link AvroSerdeProcessorProvider}) - embeds the writer schema JSON</li>
+ *   <li>{@code "02"}, {@code "03"} → reserved</li>
+ *   <li>{@code "04"} → PRIMITIVE ({@link PrimitiveSerdeProcessorProvider}) - 1-byte type tag plus raw
+ *       scalar value, falling back to KRYO for complex values</li>
  * </ul>
  */
 public interface SerdeProcessorProvider {
@@ -47,9 +50,9 @@ public interface SerdeProcessorProvider {
    *
    * <p><b>Thread-safety contract:</b> the returned instance will be cached by
    * {@link SerdeRegistry} and shared across all callers for the lifetime of the JVM. Implementations
-   * must therefore be fully thread-safe. Stateless implementations (e.g. those that rely on
-   * {@link ThreadLocal} storage internally, as {@link KryoSerdeProcessor} does via
-   * {@code KryoInstance}) satisfy this automatically.
+   * must therefore be fully thread-safe. Implementations which keep no per-call state in
+   * instance fields (e.g. those that borrow their working state from a pool, as
+   * {@link KryoSerdeProcessor} does via {@code KryoInstance}) satisfy this automatically.
    */
   SerdeProcessor create();
 
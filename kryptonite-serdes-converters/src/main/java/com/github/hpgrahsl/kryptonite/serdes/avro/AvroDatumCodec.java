@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2021. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.hpgrahsl.kryptonite.serdes.avro;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Avro binary encoding shared by the Avro based serdes.
+ *
+ * <p>{@link GenericDatumWriter}s and {@link GenericDatumReader}s are created once per schema and
+ * shared across threads; both are thread-safe and precompute their field access state on first use.
+ * They are cached for up to {@link #MAX_CACHED_SCHEMAS} schemas each, so that an unbounded number of
+ * distinct schemas can't pin their writers and readers forever.
+ *
+ * <p>The output buffer together with its {@link BinaryEncoder} and the {@link BinaryDecoder} are
+ * thread-confined and reused via the {@link EncoderFactory}/{@link DecoderFactory} reuse parameters,
+ * so encoding a value only allocates the returned array. Buffers which grew beyond
+ * {@link #MAX_RETAINED_BUFFER_SIZE} for a single large value are not kept, and the decoder is
+ * detached from the payload after each call so that it doesn't pin the last decoded bytes.
+ */
+final class AvroDatumCodec {
+
+    static final int MAX_CACHED_SCHEMAS = 1_000;
+    static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+    private static final int INITIAL_BUFFER_SIZE = 256;
+    private static final byte[] EMPTY = new byte[0];
+
+    private final Cache<Schema, DatumWriter<Object>> writers =
+        Caffeine.newBuilder().maximumSize(MAX_CACHED_SCHEMAS).build();
+    private final Cache<Schema, DatumReader<Object>> readers =
+        Caffeine.newBuilder().maximumSize(MAX_CACHED_SCHEMAS).build();
+    private final ThreadLocal<CodecBuffers> buffers = ThreadLocal.withInitial(CodecBuffers::new);
+
+    /**
+     * Encodes {@code value} with {@code schema} and returns {@code prefix} followed by the Avro binary.
+     */
+    byte[] encode(byte[] prefix, Object value, Schema schema) throws IOException {
+        var writer = writers.get(schema, GenericDatumWriter::new);
+        var codecBuffers = buffers.get();
+        var out = codecBuffers.output();
+        try {
+            out.write(prefix);
+            codecBuffers.encoder = EncoderFactory.get().binaryEncoder(out, codecBuffers.encoder);
+            writer.write(value, codecBuffers.encoder);
+            codecBuffers.encoder.flush();
+            return out.toByteArray();
+        } finally {
+            codecBuffers.release(out);
+        }
+    }
+
+    /**
+     * Decodes the Avro binary starting at {@code offset} up to the end of {@code bytes}.
+     */
+    Object decode(byte[] bytes, int offset, Schema schema) throws IOException {
+        var reader = readers.get(schema, GenericDatumReader::new);
+        var codecBuffers = buffers.get();
+        codecBuffers.decoder = DecoderFactory.get().binaryDecoder(bytes, offset, bytes.length - offset, codecBuffers.decoder);
+        try {
+            return reader.read(null, codecBuffers.decoder);
+        } finally {
+            codecBuffers.decoder = DecoderFactory.get().binaryDecoder(EMPTY, codecBuffers.decoder);
+        }
+    }
+
+    /**
+     * Number of schemas with a cached writer after performing pending evictions. Intended for testing only.
+     */
+    long cachedWriters() {
+        writers.cleanUp();
+        return writers.estimatedSize();
+    }
+
+    /**
+     * The encoder retained for the calling thread, if it encoded before. Intended for testing only.
+     */
+    BinaryEncoder currentEncoder() {
+        return buffers.get().encoder;
+    }
+
+    /**
+     * The decoder retained for the calling thread, if it decoded before. Intended for testing only.
+     */
+    BinaryDecoder currentDecoder() {
+        return buffers.get().decoder;
+    }
+
+    private static final class CodecBuffers {
+
+        private ByteArrayOutputStream output = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        private BinaryEncoder encoder;
+        private BinaryDecoder decoder;
+
+        ByteArrayOutputStream output() {
+            output.reset();
+            return output;
+        }
+
+        void release(ByteArrayOutputStream used) {
+            if (used.size() > MAX_RETAINED_BUFFER_SIZE) {
+                output = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+            } else {
+                used.reset();
+            }
+        }
+
+    }
+
+}
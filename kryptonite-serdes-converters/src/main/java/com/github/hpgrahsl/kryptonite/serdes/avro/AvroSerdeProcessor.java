@@ -20,14 +20,12 @@ import com.github.hpgrahsl.kryptonite.serdes.SerdeProcessor;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.generic.GenericDatumWriter;
-import org.apache.avro.io.DecoderFactory;
-import org.apache.avro.io.EncoderFactory;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -42,7 +40,8 @@ import java.util.concurrent.ConcurrentHashMap;
  * It operates purely on Avro generic values ({@link AvroPayload}) and bytes.
  * All actual encoding/decoding delegates to standard Avro library facilities:
  * {@link GenericDatumWriter} with a binary encoder for serialization,
- * {@link GenericDatumReader} with a binary decoder for deserialization.
+ * {@link GenericDatumReader} with a binary decoder for deserialization. Writers and readers are
+ * cached per schema in bounded caches, see {@link AvroDatumCodec}.
  *
  * <p>The two-param overloads ({@code objectToBytes(Object, Class<?>)} and
  * {@code bytesToObject(byte[], Class<?>)}) are used only for the k1 legacy envelope path and
@@ -50,7 +49,9 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class AvroSerdeProcessor implements SerdeProcessor {
 
-    private final ConcurrentHashMap<String, Schema> schemaCache = new ConcurrentHashMap<>();
+    private final AvroDatumCodec codec = new AvroDatumCodec();
+    private final ConcurrentHashMap<Schema, byte[]> framePrefixes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<ByteBuffer, Schema> schemaCache = new ConcurrentHashMap<>();
 
     @Override
     public String serdeCode() {
@@ -102,59 +103,48 @@ public class AvroSerdeProcessor implements SerdeProcessor {
     /**
      * Serializes an Avro generic value to the framed wire format.
      *
+     * <p>The frame prefix (schema length and schema JSON) is rendered once per schema.
+     *
      * @param payload the Avro value and its schema
      * @return framed bytes: [4B schema len][schema JSON UTF-8][Avro binary]
      */
     public byte[] toBytes(AvroPayload payload) throws IOException {
-        var schemaBytes = payload.schema().toString().getBytes(StandardCharsets.UTF_8);
-        var valueBytes = avroValueToBytes(payload.value(), payload.schema());
-
-        var out = new ByteArrayOutputStream(4 + schemaBytes.length + valueBytes.length);
-        out.write(ByteBuffer.allocate(4).putInt(schemaBytes.length).array());
-        out.write(schemaBytes);
-        out.write(valueBytes);
-        return out.toByteArray();
+        var prefix = framePrefixes.computeIfAbsent(payload.schema(), AvroSerdeProcessor::framePrefix);
+        return codec.encode(prefix, payload.value(), payload.schema());
     }
 
     /**
      * Deserializes framed wire bytes back to an {@link AvroPayload}.
      *
-     * <p>The parsed {@link Schema} is cached by schema JSON string so that
+     * <p>The parsed {@link Schema} is cached by its schema JSON bytes so that
      * {@code Schema.Parser.parse()} is only invoked once per distinct schema.
      * Subsequent decryptions of fields with the same schema pay only a map
-     * lookup. The cache is unbounded but in practice holds only as many entries
-     * as there are distinct field schemas in the deployed topology.
+     * lookup on a view of the embedded schema bytes. The cache is unbounded but in
+     * practice holds only as many entries as there are distinct field schemas in the
+     * deployed topology.
      *
      * @param bytes framed bytes produced by {@link #toBytes(AvroPayload)}
      * @return the decoded Avro value and its schema
      */
     public AvroPayload fromBytes(byte[] bytes) throws IOException {
-        var buf = ByteBuffer.wrap(bytes);
-
-        var schemaLen = buf.getInt();
-        var schemaBytes = new byte[schemaLen];
-        buf.get(schemaBytes);
-        var schemaJson = new String(schemaBytes, StandardCharsets.UTF_8);
-        var schema = schemaCache.computeIfAbsent(schemaJson, new Schema.Parser()::parse);
-
-        var remaining = new byte[buf.remaining()];
-        buf.get(remaining);
-        var value = bytesToAvroValue(remaining, schema);
-
+        var schemaLen = ByteBuffer.wrap(bytes).getInt();
+        var schemaJson = ByteBuffer.wrap(bytes, 4, schemaLen);
+        var schema = schemaCache.get(schemaJson);
+        if (schema == null) {
+            var schemaBytes = Arrays.copyOfRange(bytes, 4, 4 + schemaLen);
+            schema = schemaCache.computeIfAbsent(ByteBuffer.wrap(schemaBytes).asReadOnlyBuffer(),
+                k -> new Schema.Parser().parse(new String(schemaBytes, StandardCharsets.UTF_8)));
+        }
+        var value = codec.decode(bytes, 4 + schemaLen, schema);
         return new AvroPayload(value, schema);
     }
 
-    private static byte[] avroValueToBytes(Object value, Schema schema) throws IOException {
-        var out = new ByteArrayOutputStream();
-        var encoder = EncoderFactory.get().binaryEncoder(out, null);
-        new GenericDatumWriter<>(schema).write(value, encoder);
-        encoder.flush();
-        return out.toByteArray();
-    }
-
-    private static Object bytesToAvroValue(byte[] bytes, Schema schema) throws IOException {
-        var decoder = DecoderFactory.get().binaryDecoder(bytes, null);
-        return new GenericDatumReader<>(schema).read(null, decoder);
+    private static byte[] framePrefix(Schema schema) {
+        var schemaBytes = schema.toString().getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(4 + schemaBytes.length)
+            .putInt(schemaBytes.length)
+            .put(schemaBytes)
+            .array();
     }
 
 }
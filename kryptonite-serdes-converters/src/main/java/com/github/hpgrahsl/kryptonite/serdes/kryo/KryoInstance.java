@@ -17,6 +17,9 @@
 package com.github.hpgrahsl.kryptonite.serdes.kryo;
 
 import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.util.Pool;
 import com.esotericsoftware.kryo.util.DefaultInstantiatorStrategy;
 import com.github.hpgrahsl.kryptonite.EncryptedField;
 import com.github.hpgrahsl.kryptonite.FieldMetaData;
@@ -38,90 +41,183 @@ import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.*;
 
-public class KryoInstance {
-
-  private static final ThreadLocal<Kryo> KRYOS = new ThreadLocal<Kryo>() {
-    protected Kryo initialValue() {
-      Kryo kryo = new Kryo();
-      try {
-        kryo.setWarnUnregisteredClasses(true);
-        // NOTE: this is a breaking change
-        kryo.setRegistrationRequired(true);
-        kryo.setInstantiatorStrategy(new DefaultInstantiatorStrategy(new StdInstantiatorStrategy()));
-        // NOTE: pre-register kryptonite for kafka specific classes and if applicable
-        // the necessary custom serializers
-        kryo.register(FieldMetaData.class);
-        kryo.register(PayloadMetaData.class);
-        kryo.register(EncryptedField.class);
-        kryo.register(Struct.class).setSerializer(new KryoSerdeProcessor.StructSerializer());
-        kryo.register(Schema.class).setSerializer(new KryoSerdeProcessor.SchemaSerializer());
-        kryo.register(Schema.Type.class);
-        // NOTE: pre-registering commonly found classes
-        // in the context of kafka connect and ksqlDB
-        kryo.register(Object.class);
-        kryo.register(byte[].class);
-        kryo.register(BigDecimal.class);
-        kryo.register(List.class);
-        kryo.register(ArrayList.class);
-        kryo.register(LinkedList.class);
-        kryo.register(Map.class);
-        kryo.register(HashMap.class);
-        kryo.register(LinkedHashMap.class);
-        kryo.register(Set.class);
-        kryo.register(HashSet.class);
-        kryo.register(LinkedHashSet.class);
-        kryo.register(Date.class);
-        kryo.register(Time.class);
-        kryo.register(Timestamp.class);
-        kryo.register(Class.forName("java.util.Arrays$ArrayList"));
-        kryo.register(Class.forName("java.util.ImmutableCollections$ListN"));
-        kryo.register(Class.forName("java.util.ImmutableCollections$List12"));
-        kryo.register(Class.forName("java.util.ImmutableCollections$SetN"));
-        kryo.register(Class.forName("java.util.ImmutableCollections$Map1"));
-        kryo.register(Class.forName("java.util.ImmutableCollections$MapN"));
-        // NOTE: kryo community serializers for other specific collection types
-        UnmodifiableCollectionsSerializer.registerSerializers(kryo);
-        SynchronizedCollectionsSerializer.registerSerializers(kryo);
-        // NOTE: pre-registering commonly found classes
-        // in the context of Flink
-        kryo.register(Row.class);
-        kryo.register(RowKind.class);
-        kryo.register(Row[].class);
-        // NOTE: pre-registering various array types for primitives and wrappers
-        kryo.register(Object[].class);
-        kryo.register(String[].class);
-        kryo.register(Integer[].class);
-        kryo.register(int[].class);
-        kryo.register(Long[].class);
-        kryo.register(long[].class);
-        kryo.register(Double[].class);
-        kryo.register(double[].class);
-        kryo.register(Float[].class);
-        kryo.register(float[].class);
-        kryo.register(Short[].class);
-        kryo.register(short[].class);
-        kryo.register(Byte[].class); // byte[] already registered
-        kryo.register(Boolean[].class);
-        kryo.register(boolean[].class);
-        kryo.register(Character.class);
-        kryo.register(char[].class);
-        // NOTE: Avro type serializers — required for cross-module compat when Avro-encrypted
-        // fields are processed by Connect SMT, ksqlDB, Flink, or Funqy modules
-        kryo.register(GenericData.Record.class).setSerializer(new KryoSerdeProcessor.GenericRecordSerializer());
-        kryo.register(GenericData.Array.class).setSerializer(new KryoSerdeProcessor.GenericArraySerializer());
-        kryo.register(GenericData.EnumSymbol.class).setSerializer(new KryoSerdeProcessor.GenericEnumSymbolSerializer());
-        kryo.register(GenericData.Fixed.class).setSerializer(new KryoSerdeProcessor.GenericFixedSerializer());
-        kryo.register(Utf8.class).setSerializer(new KryoSerdeProcessor.Utf8Serializer());
-        kryo.register(Class.forName("java.nio.HeapByteBuffer")).setSerializer(new KryoSerdeProcessor.ByteBufferSerializer());
-        return kryo;
-      } catch (ClassNotFoundException e) {
-        throw new RuntimeException(e);
-      }
-    };
+/**
+ * A fully registered {@link Kryo} together with a reusable {@link Output} and {@link Input}.
+ *
+ * <p>Instances are handed out from a bounded, thread-safe {@link Pool} via {@link #obtain()} and
+ * must be given back via {@link #release()} after each use. The number of retained instances is
+ * therefore bounded by {@link #POOL_CAPACITY} independently of how many (platform or virtual)
+ * threads serialize fields. Under contention additional instances are created on demand and
+ * simply dropped on release once the pool is full.
+ *
+ * <p>Output buffers which grew beyond {@link #MAX_RETAINED_BUFFER_SIZE} for a single large value
+ * are replaced on release so that pooled instances don't pin large arrays.
+ */
+public final class KryoInstance implements Pool.Poolable {
+
+  static final int POOL_CAPACITY = Math.max(8, 2 * Runtime.getRuntime().availableProcessors());
+  static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+  private static final int INITIAL_BUFFER_SIZE = 256;
+  private static final byte[] EMPTY = new byte[0];
+
+  private static final Pool<KryoInstance> POOL = new Pool<>(true, false, POOL_CAPACITY) {
+    @Override
+    protected KryoInstance create() {
+      return new KryoInstance();
+    }
   };
 
+  // backs the deprecated get() until it's removed, so legacy callers don't build a Kryo per call
+  private static final ThreadLocal<Kryo> THREAD_LOCAL_KRYO = ThreadLocal.withInitial(KryoInstance::create);
+
+  private final Kryo kryo = create();
+  private final Input input = new Input();
+  private Output output = newOutput();
+
+  private KryoInstance() {
+  }
+
+  /**
+   * Takes an instance from the pool, creating a new one if none is available.
+   */
+  public static KryoInstance obtain() {
+    return POOL.obtain();
+  }
+
+  /**
+   * Returns this instance to the pool. It must not be used afterwards.
+   */
+  public void release() {
+    POOL.free(this);
+  }
+
+  public Kryo kryo() {
+    return kryo;
+  }
+
+  /**
+   * @return the reusable output, positioned at the start of its buffer
+   */
+  public Output output() {
+    output.reset();
+    return output;
+  }
+
+  /**
+   * @return the reusable input, reading from {@code bytes}
+   */
+  public Input input(byte[] bytes) {
+    input.setBuffer(bytes);
+    return input;
+  }
+
+  @Override
+  public void reset() {
+    input.setBuffer(EMPTY);
+    if (output.getBuffer().length > MAX_RETAINED_BUFFER_SIZE) {
+      output = newOutput();
+    } else {
+      output.reset();
+    }
+  }
+
+  /**
+   * Returns the fully registered {@link Kryo} of the calling thread, creating it via
+   * {@link #create()} on first use per thread. Repeated calls from the same thread return the same
+   * instance, which must therefore not be shared with other threads. It isn't routed through the
+   * pool since the instance is never given back.
+   *
+   * @deprecated obtain a pooled instance via {@link #obtain()} and {@link #release()} it after
+   *             use instead
+   */
+  @Deprecated
   public static Kryo get() {
-    return KRYOS.get();
+    return THREAD_LOCAL_KRYO.get();
+  }
+
+  private static Output newOutput() {
+    return new Output(INITIAL_BUFFER_SIZE, -1);
+  }
+
+  /**
+   * Creates a new {@link Kryo} with all classes and serializers used by kryptonite registered.
+   */
+  public static Kryo create() {
+    Kryo kryo = new Kryo();
+    try {
+      kryo.setWarnUnregisteredClasses(true);
+      // NOTE: this is a breaking change
+      kryo.setRegistrationRequired(true);
+      kryo.setInstantiatorStrategy(new DefaultInstantiatorStrategy(new StdInstantiatorStrategy()));
+      // NOTE: pre-register kryptonite for kafka specific classes and if applicable
+      // the necessary custom serializers
+      kryo.register(FieldMetaData.class);
+      kryo.register(PayloadMetaData.class);
+      kryo.register(EncryptedField.class);
+      kryo.register(Struct.class).setSerializer(new KryoSerdeProcessor.StructSerializer());
+      kryo.register(Schema.class).setSerializer(new KryoSerdeProcessor.SchemaSerializer());
+      kryo.register(Schema.Type.class);
+      // NOTE: pre-registering commonly found classes
+      // in the context of kafka connect and ksqlDB
+      kryo.register(Object.class);
+      kryo.register(byte[].class);
+      kryo.register(BigDecimal.class);
+      kryo.register(List.class);
+      kryo.register(ArrayList.class);
+      kryo.register(LinkedList.class);
+      kryo.register(Map.class);
+      kryo.register(HashMap.class);
+      kryo.register(LinkedHashMap.class);
+      kryo.register(Set.class);
+      kryo.register(HashSet.class);
+      kryo.register(LinkedHashSet.class);
+      kryo.register(Date.class);
+      kryo.register(Time.class);
+      kryo.register(Timestamp.class);
+      kryo.register(Class.forName("java.util.Arrays$ArrayList"));
+      kryo.register(Class.forName("java.util.ImmutableCollections$ListN"));
+      kryo.register(Class.forName("java.util.ImmutableCollections$List12"));
+      kryo.register(Class.forName("java.util.ImmutableCollections$SetN"));
+      kryo.register(Class.forName("java.util.ImmutableCollections$Map1"));
+      kryo.register(Class.forName("java.util.ImmutableCollections$MapN"));
+      // NOTE: kryo community serializers for other specific collection types
+      UnmodifiableCollectionsSerializer.registerSerializers(kryo);
+      SynchronizedCollectionsSerializer.registerSerializers(kryo);
+      // NOTE: pre-registering commonly found classes
+      // in the context of Flink
+      kryo.register(Row.class);
+      kryo.register(RowKind.class);
+      kryo.register(Row[].class);
+      // NOTE: pre-registering various array types for primitives and wrappers
+      kryo.register(Object[].class);
+      kryo.register(String[].class);
+      kryo.register(Integer[].class);
+      kryo.register(int[].class);
+      kryo.register(Long[].class);
+      kryo.register(long[].class);
+      kryo.register(Double[].class);
+      kryo.register(double[].class);
+      kryo.register(Float[].class);
+      kryo.register(float[].class);
+      kryo.register(Short[].class);
+      kryo.register(short[].class);
+      kryo.register(Byte[].class); // byte[] already registered
+      kryo.register(Boolean[].class);
+      kryo.register(boolean[].class);
+      kryo.register(Character.class);
+      kryo.register(char[].class);
+      // NOTE: Avro type serializers — required for cross-module compat when Avro-encrypted
+      // fields are processed by Connect SMT, ksqlDB, Flink, or Funqy modules
+      kryo.register(GenericData.Record.class).setSerializer(new KryoSerdeProcessor.GenericRecordSerializer());
+      kryo.register(GenericData.Array.class).setSerializer(new KryoSerdeProcessor.GenericArraySerializer());
+      kryo.register(GenericData.EnumSymbol.class).setSerializer(new KryoSerdeProcessor.GenericEnumSymbolSerializer());
+      kryo.register(GenericData.Fixed.class).setSerializer(new KryoSerdeProcessor.GenericFixedSerializer());
+      kryo.register(Utf8.class).setSerializer(new KryoSerdeProcessor.Utf8Serializer());
+      kryo.register(Class.forName("java.nio.HeapByteBuffer")).setSerializer(new KryoSerdeProcessor.ByteBufferSerializer());
+      return kryo;
+    } catch (ClassNotFoundException e) {
+      throw new RuntimeException(e);
+    }
   }
 
 }
@@ -52,25 +52,44 @@ public class KryoSerdeProcessor implements SerdeProcessor {
   }
 
   public byte[] objectToBytes(Object object, Class<?> clazz) {
-    var output = new Output(new ByteArrayOutputStream());
-    KryoInstance.get().writeObject(output, object);
-    return output.toBytes();
+    var instance = KryoInstance.obtain();
+    try {
+      var output = instance.output();
+      instance.kryo().writeObject(output, object);
+      return output.toBytes();
+    } finally {
+      instance.release();
+    }
   }
 
   public byte[] objectToBytes(Object object) {
-    var output = new Output(new ByteArrayOutputStream());
-    KryoInstance.get().writeClassAndObject(output,object);
-    return output.toBytes();
+    var instance = KryoInstance.obtain();
+    try {
+      var output = instance.output();
+      instance.kryo().writeClassAndObject(output, object);
+      return output.toBytes();
+    } finally {
+      instance.release();
+    }
   }
 
   @SuppressWarnings("unchecked")
   public Object bytesToObject(byte[] bytes, Class<?> clazz) {
-    return KryoInstance.get().readObject(new Input(bytes), (Class<Object>) clazz);
+    var instance = KryoInstance.obtain();
+    try {
+      return instance.kryo().readObject(instance.input(bytes), (Class<Object>) clazz);
+    } finally {
+      instance.release();
+    }
   }
 
   public Object bytesToObject(byte[] bytes) {
-    var input = new Input(bytes);
-    return KryoInstance.get().readClassAndObject(input);
+    var instance = KryoInstance.obtain();
+    try {
+      return instance.kryo().readClassAndObject(instance.input(bytes));
+    } finally {
+      instance.release();
+    }
   }
 
   public static class StructSerializer extends Serializer<Struct> {
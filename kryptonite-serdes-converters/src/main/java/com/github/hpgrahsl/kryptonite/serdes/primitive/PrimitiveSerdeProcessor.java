@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2021. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.hpgrahsl.kryptonite.serdes.primitive;
+
+import com.github.hpgrahsl.kryptonite.serdes.SerdeProcessor;
+import com.github.hpgrahsl.kryptonite.serdes.SerdeRegistry;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Serde for scalar field values which writes a 1-byte type tag followed by the value:
+ *
+ * <pre>
+ *   [1 byte : type tag]
+ *   [N bytes: value   ]  fixed width big-endian for numbers, UTF-8 / raw bytes for
+ *                        strings / byte arrays, no length prefix since the value
+ *                        always extends to the end of the plaintext
+ * </pre>
+ *
+ * <p>Supported are {@code null}, {@link Boolean}, {@link Byte}, {@link Short}, {@link Integer},
+ * {@link Long}, {@link Float}, {@link Double}, {@link String} and {@code byte[]}, which are read
+ * back as exactly these types. Any other value is serialized by the configured fallback serde
+ * and written as {@code [TAG_FALLBACK][2 bytes : fallback serde code][fallback bytes]}, so the
+ * payload stays self-describing regardless of how the writer was configured.
+ */
+public class PrimitiveSerdeProcessor implements SerdeProcessor {
+
+  static final byte TAG_NULL = 0;
+  static final byte TAG_BOOLEAN = 1;
+  static final byte TAG_BYTE = 2;
+  static final byte TAG_SHORT = 3;
+  static final byte TAG_INT = 4;
+  static final byte TAG_LONG = 5;
+  static final byte TAG_FLOAT = 6;
+  static final byte TAG_DOUBLE = 7;
+  static final byte TAG_STRING = 8;
+  static final byte TAG_BYTES = 9;
+  static final byte TAG_FALLBACK = (byte) 0xFF;
+
+  private static final int SERDE_CODE_SIZE_BYTES = 2;
+  private static final VarHandle SHORT = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.BIG_ENDIAN);
+  private static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+  private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+  private final String fallbackSerdeName;
+  private volatile SerdeProcessor fallback;
+
+  /**
+   * @param fallbackSerdeName config-facing name of the serde used for non-scalar values, resolved
+   *                          lazily from {@link SerdeRegistry} on first use
+   */
+  public PrimitiveSerdeProcessor(String fallbackSerdeName) {
+    this.fallbackSerdeName = Objects.requireNonNull(fallbackSerdeName, "fallbackSerdeName must not be null");
+    if (PrimitiveSerdeProcessorProvider.SERDE_NAME.equals(fallbackSerdeName)) {
+      throw new IllegalArgumentException("fallback serde must not be " + fallbackSerdeName + " itself");
+    }
+  }
+
+  @Override
+  public String serdeCode() {
+    return PrimitiveSerdeProcessorProvider.SERDE_CODE;
+  }
+
+  @Override
+  public byte[] objectToBytes(Object object) {
+    if (object == null) {
+      return new byte[] {TAG_NULL};
+    }
+    if (object instanceof String s) {
+      return tagged(TAG_STRING, s.getBytes(StandardCharsets.UTF_8));
+    }
+    if (object instanceof Long l) {
+      var bytes = new byte[1 + Long.BYTES];
+      bytes[0] = TAG_LONG;
+      LONG.set(bytes, 1, l.longValue());
+      return bytes;
+    }
+    if (object instanceof Integer i) {
+      var bytes = new byte[1 + Integer.BYTES];
+      bytes[0] = TAG_INT;
+      INT.set(bytes, 1, i.intValue());
+      return bytes;
+    }
+    if (object instanceof byte[] b) {
+      return tagged(TAG_BYTES, b);
+    }
+    if (object instanceof Boolean b) {
+      return new byte[] {TAG_BOOLEAN, (byte) (b ? 1 : 0)};
+    }
+    if (object instanceof Double d) {
+      var bytes = new byte[1 + Long.BYTES];
+      bytes[0] = TAG_DOUBLE;
+      LONG.set(bytes, 1, Double.doubleToRawLongBits(d));
+      return bytes;
+    }
+    if (object instanceof Float f) {
+      var bytes = new byte[1 + Integer.BYTES];
+      bytes[0] = TAG_FLOAT;
+      INT.set(bytes, 1, Float.floatToRawIntBits(f));
+      return bytes;
+    }
+    if (object instanceof Short s) {
+      var bytes = new byte[1 + Short.BYTES];
+      bytes[0] = TAG_SHORT;
+      SHORT.set(bytes, 1, s.shortValue());
+      return bytes;
+    }
+    if (object instanceof Byte b) {
+      return new byte[] {TAG_BYTE, b};
+    }
+    return fallbackToBytes(object);
+  }
+
+  @Override
+  public Object bytesToObject(byte[] bytes) {
+    if (bytes.length == 0) {
+      throw new IllegalArgumentException("primitive serde payload must not be empty");
+    }
+    switch (bytes[0]) {
+      case TAG_NULL:
+        requireValueLength(bytes, 0);
+        return null;
+      case TAG_BOOLEAN:
+        requireValueLength(bytes, 1);
+        return bytes[1] != 0;
+      case TAG_BYTE:
+        requireValueLength(bytes, Byte.BYTES);
+        return bytes[1];
+      case TAG_SHORT:
+        requireValueLength(bytes, Short.BYTES);
+        return (short) SHORT.get(bytes, 1);
+      case TAG_INT:
+        requireValueLength(bytes, Integer.BYTES);
+        return (int) INT.get(bytes, 1);
+      case TAG_LONG:
+        requireValueLength(bytes, Long.BYTES);
+        return (long) LONG.get(bytes, 1);
+      case TAG_FLOAT:
+        requireValueLength(bytes, Float.BYTES);
+        return Float.intBitsToFloat((int) INT.get(bytes, 1));
+      case TAG_DOUBLE:
+        requireValueLength(bytes, Double.BYTES);
+        return Double.longBitsToDouble((long) LONG.get(bytes, 1));
+      case TAG_STRING:
+        return new String(bytes, 1, bytes.length - 1, StandardCharsets.UTF_8);
+      case TAG_BYTES:
+        return Arrays.copyOfRange(bytes, 1, bytes.length);
+      case TAG_FALLBACK:
+        return fallbackToObject(bytes);
+      default:
+        throw new IllegalArgumentException("unknown primitive serde type tag " + bytes[0]);
+    }
+  }
+
+  /** Not used for the primitive serde — k1 legacy envelope path only. */
+  @Override
+  public byte[] objectToBytes(Object object, Class<?> clazz) {
+    throw new UnsupportedOperationException(
+        "PrimitiveSerdeProcessor does not support the two-param overload (k1 legacy path only)");
+  }
+
+  /** Not used for the primitive serde — k1 legacy envelope path only. */
+  @Override
+  public Object bytesToObject(byte[] bytes, Class<?> clazz) {
+    throw new UnsupportedOperationException(
+        "PrimitiveSerdeProcessor does not support the two-param overload (k1 legacy path only)");
+  }
+
+  /**
+   * Ensures a fixed width payload consists of exactly its type tag and {@code valueBytes} bytes, so
+   * truncated or padded input is rejected instead of being misread.
+   */
+  private static void requireValueLength(byte[] bytes, int valueBytes) {
+    if (bytes.length != 1 + valueBytes) {
+      throw new IllegalArgumentException("primitive serde payload with type tag " + bytes[0]
+          + " must be " + (1 + valueBytes) + " bytes but was " + bytes.length);
+    }
+  }
+
+  private static byte[] tagged(byte tag, byte[] value) {
+    var bytes = new byte[1 + value.length];
+    bytes[0] = tag;
+    System.arraycopy(value, 0, bytes, 1, value.length);
+    return bytes;
+  }
+
+  private byte[] fallbackToBytes(Object object) {
+    var serde = fallback();
+    var code = serde.serdeCode().getBytes(StandardCharsets.US_ASCII);
+    var value = serde.objectToBytes(object);
+    var bytes = new byte[1 + SERDE_CODE_SIZE_BYTES + value.length];
+    bytes[0] = TAG_FALLBACK;
+    System.arraycopy(code, 0, bytes, 1, SERDE_CODE_SIZE_BYTES);
+    System.arraycopy(value, 0, bytes, 1 + SERDE_CODE_SIZE_BYTES, value.length);
+    return bytes;
+  }
+
+  private Object fallbackToObject(byte[] bytes) {
+    if (bytes.length < 1 + SERDE_CODE_SIZE_BYTES) {
+      throw new IllegalArgumentException("primitive serde fallback payload must be at least "
+          + (1 + SERDE_CODE_SIZE_BYTES) + " bytes but was " + bytes.length);
+    }
+    var code = new String(bytes, 1, SERDE_CODE_SIZE_BYTES, StandardCharsets.US_ASCII);
+    if (PrimitiveSerdeProcessorProvider.SERDE_CODE.equals(code)) {
+      throw new IllegalArgumentException("primitive serde payload must not fall back to itself");
+    }
+    return SerdeRegistry.getProcessorByCode(code)
+        .bytesToObject(Arrays.copyOfRange(bytes, 1 + SERDE_CODE_SIZE_BYTES, bytes.length));
+  }
+
+  private SerdeProcessor fallback() {
+    var serde = fallback;
+    if (serde == null) {
+      serde = SerdeRegistry.getProcessorByName(fallbackSerdeName);
+      fallback = serde;
+    }
+    return serde;
+  }
+
+}
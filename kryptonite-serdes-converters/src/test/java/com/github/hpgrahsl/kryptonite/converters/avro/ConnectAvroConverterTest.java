@@ -357,6 +357,17 @@ class ConnectAvroConverterTest {
 
     // --- schema-mapping verification ---
 
+    @Test
+    void equalSchemaInstancesShareAvroSchema() {
+        var first = SchemaBuilder.struct().name("r").field("x", Schema.INT32_SCHEMA).build();
+        var second = SchemaBuilder.struct().name("r").field("x", Schema.INT32_SCHEMA).build();
+        var fromFirst = converter.toAvroGeneric(new Struct(first).put("x", 1), first, "a.b").schema();
+        assertSame(fromFirst, converter.toAvroGeneric(new Struct(first).put("x", 2), first, "a.b").schema());
+        assertSame(fromFirst, converter.toAvroGeneric(new Struct(second).put("x", 3), second, "a.b").schema());
+        assertSame(fromFirst, converter.toAvroGeneric(new Struct(first).put("x", 4), first, "a_b").schema());
+        assertNotSame(fromFirst, converter.toAvroGeneric(new Struct(first).put("x", 5), first, "c").schema());
+    }
+
     @Test
     void int8MapsToAvroInt() {
         var payload = converter.toAvroGeneric((byte) 1, Schema.INT8_SCHEMA, "f");
@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2021. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.hpgrahsl.kryptonite.serdes;
+
+import com.github.hpgrahsl.kryptonite.EncryptedField;
+import com.github.hpgrahsl.kryptonite.Kryptonite;
+import com.github.hpgrahsl.kryptonite.Kryptonite.CipherSpec;
+import com.github.hpgrahsl.kryptonite.PayloadMetaData;
+import com.github.hpgrahsl.kryptonite.crypto.tink.TinkAesGcm;
+import com.github.hpgrahsl.kryptonite.keys.AbstractKeyVault;
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.aead.AeadConfig;
+import com.google.crypto.tink.aead.PredefinedAeadParameters;
+import com.github.hpgrahsl.kryptonite.serdes.kryo.KryoSerdeProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the k2 envelope codec of {@link FieldHandler} and its {@link Base64Codec}, plus
+ * field group round trips through a {@link Kryptonite} with a generated key.
+ */
+class FieldHandlerTest {
+
+    private static final Random RANDOM = new Random(42);
+    private static final PayloadMetaData GROUP_METADATA = new PayloadMetaData(Kryptonite.KRYPTONITE_VERSION,
+        Kryptonite.CIPHERSPEC_ID_LUT.get(CipherSpec.fromName(TinkAesGcm.CIPHER_ALGORITHM)), "keyA");
+
+    private static Kryptonite kryptonite() {
+        try {
+            AeadConfig.register();
+            var keysetHandles = new ConcurrentHashMap<String, KeysetHandle>();
+            keysetHandles.put("keyA", KeysetHandle.generateNew(PredefinedAeadParameters.AES256_GCM));
+            return new Kryptonite(new AbstractKeyVault(keysetHandles) {
+                @Override
+                protected void fetchIntoKeyCache(String identifier) {
+                    throw new UnsupportedOperationException();
+                }
+            });
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] randomBytes(int length) {
+        var bytes = new byte[length];
+        RANDOM.nextBytes(bytes);
+        return bytes;
+    }
+
+    @Test
+    void base64EncodingOfSplitInputMatchesJdk() {
+        for (int headLength = 0; headLength < 12; headLength++) {
+            for (int tailLength = 0; tailLength < 12; tailLength++) {
+                var head = randomBytes(headLength);
+                var tail = randomBytes(tailLength);
+                var joined = Arrays.copyOf(head, headLength + tailLength);
+                System.arraycopy(tail, 0, joined, headLength, tailLength);
+                assertEquals(Base64.getEncoder().encodeToString(joined), Base64Codec.encode(head, tail),
+                    "head=" + headLength + " tail=" + tailLength);
+            }
+        }
+    }
+
+    @Test
+    void base64DecodingOfAnyRangeMatchesJdk() {
+        for (int length = 0; length < 20; length++) {
+            var bytes = randomBytes(length);
+            var encoded = Base64.getEncoder().encodeToString(bytes);
+            assertEquals(length, Base64Codec.decodedLength(encoded));
+            for (int from = 0; from <= length; from++) {
+                for (int to = from; to <= length; to++) {
+                    var range = new byte[to - from];
+                    Base64Codec.decode(encoded, from, range);
+                    assertArrayEquals(Arrays.copyOfRange(bytes, from, to), range);
+                }
+            }
+        }
+    }
+
+    @Test
+    void base64DecodingOfUnpaddedInputMatchesJdk() {
+        for (int length = 0; length < 20; length++) {
+            var bytes = randomBytes(length);
+            var encoded = Base64.getEncoder().withoutPadding().encodeToString(bytes);
+            assertArrayEquals(Base64.getDecoder().decode(encoded), bytes);
+            assertEquals(length, Base64Codec.decodedLength(encoded));
+            for (int from = 0; from <= length; from++) {
+                for (int to = from; to <= length; to++) {
+                    var range = new byte[to - from];
+                    Base64Codec.decode(encoded, from, range);
+                    assertArrayEquals(Arrays.copyOfRange(bytes, from, to), range);
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"a", "abcde", "ab=", "abc=d", "ab=c", "a===", "ab*d", "abcdäbcd"})
+    void base64DecodingRejectsMalformedInput(String encoded) {
+        assertThrows(IllegalArgumentException.class, () -> {
+            var bytes = new byte[Base64Codec.decodedLength(encoded)];
+            Base64Codec.decode(encoded, 0, bytes);
+        });
+    }
+
+    @Test
+    void k2EnvelopeLayoutIsUnchanged() {
+        var metaData = new PayloadMetaData("k2", "02", "keyA");
+        for (int length : new int[] {0, 1, 2, 3, 28, 1000}) {
+            var ciphertext = randomBytes(length);
+            var encoded = FieldHandler.encode(metaData, ciphertext, "01");
+            var expected = ByteBuffer.allocate(7 + 4 + length)
+                .put("k2".getBytes(StandardCharsets.UTF_8))
+                .put("01".getBytes(StandardCharsets.UTF_8))
+                .put("02".getBytes(StandardCharsets.UTF_8))
+                .put((byte) 4)
+                .put("keyA".getBytes(StandardCharsets.UTF_8))
+                .put(ciphertext)
+                .array();
+            assertEquals(Base64.getEncoder().encodeToString(expected), encoded);
+
+            for (var variant : List.of(encoded, encoded.replace("=", ""))) {
+                var envelope = FieldHandler.decode(variant);
+                assertEquals("01", envelope.serdeCode());
+                assertEquals(metaData, envelope.encryptedField().getMetaData());
+                assertArrayEquals(ciphertext, envelope.encryptedField().ciphertext());
+            }
+        }
+    }
+
+    @Test
+    void rawK2EnvelopeIsTheBase64DecodedEnvelope() {
+        var metaData = new PayloadMetaData("k2", "02", "keyA");
+        for (int length : new int[] {0, 1, 28, 1000}) {
+            var ciphertext = randomBytes(length);
+            var raw = FieldHandler.encodeRaw(metaData, ciphertext, "04");
+            assertArrayEquals(Base64.getDecoder().decode(FieldHandler.encode(metaData, ciphertext, "04")), raw);
+
+            var envelope = FieldHandler.decodeRaw(raw);
+            assertEquals("04", envelope.serdeCode());
+            assertEquals(metaData, envelope.encryptedField().getMetaData());
+            assertArrayEquals(ciphertext, envelope.encryptedField().ciphertext());
+        }
+        assertThrows(IllegalArgumentException.class,
+            () -> FieldHandler.decodeRaw(new byte[] {'k', '2', '0', '1', '0', '2', 9, 'k', 'e'}));
+    }
+
+    @Test
+    void headerFlagsRoundTripWithoutAlteringSerdeCode() {
+        var metaData = new PayloadMetaData("k2", "02", "keyA");
+        var ciphertext = randomBytes(50);
+        for (int flags = 0; flags <= (FieldHandler.FLAG_COMPRESSED | FieldHandler.FLAG_GROUP); flags++) {
+            var envelope = FieldHandler.decode(FieldHandler.encode(metaData, ciphertext, "04", flags));
+            assertEquals("04", envelope.serdeCode());
+            assertEquals((flags & FieldHandler.FLAG_COMPRESSED) != 0, envelope.compressed());
+            assertEquals((flags & FieldHandler.FLAG_GROUP) != 0, envelope.group());
+            assertArrayEquals(ciphertext, envelope.encryptedField().ciphertext());
+
+            var rawEnvelope = FieldHandler.decodeRaw(FieldHandler.encodeRaw(metaData, ciphertext, "04", flags));
+            assertEquals("04", rawEnvelope.serdeCode());
+            assertEquals((flags & FieldHandler.FLAG_COMPRESSED) != 0, rawEnvelope.compressed());
+            assertEquals((flags & FieldHandler.FLAG_GROUP) != 0, rawEnvelope.group());
+        }
+        assertArrayEquals(Base64.getDecoder().decode(FieldHandler.encode(metaData, ciphertext, "04")),
+            FieldHandler.encodeRaw(metaData, ciphertext, "04", 0));
+    }
+
+    @Test
+    void compressesOnlyAboveThresholdAndWhenItSavesSpace() {
+        var compressible = "lorem ipsum dolor sit amet ".repeat(100).getBytes(StandardCharsets.UTF_8);
+        var compressed = FieldCompression.compress(compressible, 1024);
+        assertNotNull(compressed);
+        assertTrue(compressed.length < compressible.length);
+        assertArrayEquals(compressible, FieldCompression.decompress(compressed));
+
+        assertNull(FieldCompression.compress(compressible, compressible.length + 1));
+        assertNull(FieldCompression.compress(compressible, FieldHandler.COMPRESSION_DISABLED));
+        assertNull(FieldCompression.compress(randomBytes(4096), 0));
+    }
+
+    @Test
+    void rejectsMalformedCompressedFields() {
+        var compressed = FieldCompression.compress(new byte[2048], 0);
+        assertThrows(IllegalArgumentException.class, () -> FieldCompression.decompress(new byte[] {0, 0}));
+        assertThrows(IllegalArgumentException.class,
+            () -> FieldCompression.decompress(Arrays.copyOf(compressed, compressed.length - 2)));
+        var wrongLength = compressed.clone();
+        wrongLength[3]++;
+        assertThrows(IllegalArgumentException.class, () -> FieldCompression.decompress(wrongLength));
+    }
+
+    @Test
+    void fieldGroupRoundTripsInOneEnvelope() {
+        var fields = new LinkedHashMap<String, Object>();
+        fields.put("ssn", "230564998");
+        fields.put("age", 42);
+        fields.put("address", Map.of("street", "Main St", "zip", "1010"));
+        fields.put("note", null);
+        try (var kryptonite = kryptonite()) {
+            for (var serdeName : new String[] {"KRYO", "PRIMITIVE"}) {
+                var encoded = FieldHandler.encryptFieldGroup(fields, GROUP_METADATA, kryptonite, serdeName,
+                    FieldHandler.COMPRESSION_DISABLED);
+                var decrypted = FieldHandler.decryptFieldGroup(encoded, kryptonite);
+                assertEquals(fields, decrypted);
+                assertEquals(List.copyOf(fields.keySet()), List.copyOf(decrypted.keySet()));
+
+                var raw = FieldHandler.encryptFieldGroupRaw(fields, GROUP_METADATA, kryptonite, serdeName, 0);
+                assertEquals(fields, FieldHandler.decryptFieldGroup(ByteBuffer.wrap(raw), kryptonite));
+            }
+        }
+    }
+
+    @Test
+    void fieldGroupIsSmallerThanItsMembersEncryptedOneByOne() {
+        var fields = new LinkedHashMap<String, Object>();
+        for (int i = 0; i < 8; i++) {
+            fields.put("field" + i, "value-" + i);
+        }
+        try (var kryptonite = kryptonite()) {
+            int separateLength = fields.values().stream()
+                .mapToInt(v -> FieldHandler.encryptField(v, GROUP_METADATA, kryptonite, "KRYO").length())
+                .sum();
+            var encoded = FieldHandler.encryptFieldGroup(fields, GROUP_METADATA, kryptonite, "KRYO",
+                FieldHandler.COMPRESSION_DISABLED);
+            assertTrue(encoded.length() < separateLength / 2);
+        }
+    }
+
+    @Test
+    void singleFieldAndGroupEnvelopesAreNotInterchangeable() {
+        try (var kryptonite = kryptonite()) {
+            var single = FieldHandler.encryptField("value", GROUP_METADATA, kryptonite, "KRYO");
+            assertThrows(IllegalArgumentException.class, () -> FieldHandler.decryptFieldGroup(single, kryptonite));
+            var group = FieldHandler.encryptFieldGroup(Map.of("field", "value"), GROUP_METADATA, kryptonite, "KRYO",
+                FieldHandler.COMPRESSION_DISABLED);
+            assertThrows(IllegalArgumentException.class, () -> FieldHandler.decryptField(group, kryptonite));
+            assertThrows(IllegalArgumentException.class, () -> FieldHandler.encryptFieldGroup(Map.of(), GROUP_METADATA,
+                kryptonite, "KRYO", FieldHandler.COMPRESSION_DISABLED));
+        }
+    }
+
+    @Test
+    void k2EnvelopeRoundTripsNonAsciiKeyIds() {
+        var metaData = new PayloadMetaData("k2", "03", "schlüssel-" + "x".repeat(200));
+        var ciphertext = randomBytes(77);
+        var envelope = FieldHandler.decode(FieldHandler.encode(metaData, ciphertext, "AB"));
+        assertEquals("AB", envelope.serdeCode());
+        assertEquals(metaData, envelope.encryptedField().getMetaData());
+        assertArrayEquals(ciphertext, envelope.encryptedField().ciphertext());
+    }
+
+    @Test
+    void k1EnvelopesAreStillDecoded() {
+        var encryptedField = new EncryptedField(new PayloadMetaData("k1", "02", "keyA"), randomBytes(40));
+        var encoded = Base64.getEncoder().encodeToString(
+            new KryoSerdeProcessor().objectToBytes(encryptedField, EncryptedField.class));
+        assertEquals(encoded, FieldHandler.encode(encryptedField.getMetaData(), encryptedField.ciphertext(), "00"));
+        var envelope = FieldHandler.decode(encoded);
+        assertEquals("00", envelope.serdeCode());
+        assertEquals(encryptedField.getMetaData(), envelope.encryptedField().getMetaData());
+        assertArrayEquals(encryptedField.ciphertext(), envelope.encryptedField().ciphertext());
+    }
+
+    @Test
+    void rejectsTruncatedK2Envelopes() {
+        var truncatedHeader = Base64.getEncoder().encodeToString("k201".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalArgumentException.class, () -> FieldHandler.decode(truncatedHeader));
+        var truncatedKeyId = Base64.getEncoder().encodeToString(
+            new byte[] {'k', '2', '0', '1', '0', '2', 9, 'k', 'e'});
+        assertThrows(IllegalArgumentException.class, () -> FieldHandler.decode(truncatedKeyId));
+    }
+
+}
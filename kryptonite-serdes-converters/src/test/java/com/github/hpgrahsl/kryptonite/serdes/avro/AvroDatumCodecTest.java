@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2021. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.hpgrahsl.kryptonite.serdes.avro;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link AvroDatumCodec}.
+ */
+class AvroDatumCodecTest {
+
+    @Test
+    void encodeWritesPrefixFollowedByDecodableBinary() throws Exception {
+        var codec = new AvroDatumCodec();
+        var schema = Schema.create(Schema.Type.LONG);
+        var prefix = new byte[] {1, 2, 3};
+
+        var bytes = codec.encode(prefix, 42L, schema);
+
+        assertArrayEquals(prefix, Arrays.copyOf(bytes, prefix.length));
+        assertEquals(42L, codec.decode(bytes, prefix.length, schema));
+    }
+
+    @Test
+    void cachedWritersAreBoundedAcrossDistinctSchemas() throws Exception {
+        var codec = new AvroDatumCodec();
+        for (int i = 0; i < AvroDatumCodec.MAX_CACHED_SCHEMAS * 2; i++) {
+            var schema = Schema.createRecord("Rec" + i, null, null, false, List.of(
+                new Schema.Field("x", Schema.create(Schema.Type.INT))
+            ));
+            var record = new GenericData.Record(schema);
+            record.put("x", i);
+            var bytes = codec.encode(new byte[0], record, schema);
+            assertEquals(i, ((GenericData.Record) codec.decode(bytes, 0, schema)).get("x"));
+        }
+
+        assertTrue(codec.cachedWriters() <= AvroDatumCodec.MAX_CACHED_SCHEMAS,
+            "cached writers: " + codec.cachedWriters());
+    }
+
+    @Test
+    void encoderAndDecoderAreReusedPerThread() throws Exception {
+        var codec = new AvroDatumCodec();
+        var schema = Schema.create(Schema.Type.STRING);
+
+        var first = codec.encode(new byte[0], "first", schema);
+        var encoder = codec.currentEncoder();
+        var second = codec.encode(new byte[0], "second", schema);
+        assertNotNull(encoder);
+        assertSame(encoder, codec.currentEncoder());
+
+        assertEquals("first", codec.decode(first, 0, schema).toString());
+        var decoder = codec.currentDecoder();
+        assertEquals("second", codec.decode(second, 0, schema).toString());
+        assertNotNull(decoder);
+        assertSame(decoder, codec.currentDecoder());
+
+        var otherThreadEncoder = CompletableFuture.supplyAsync(() -> {
+            try {
+                codec.encode(new byte[0], "other", schema);
+                return codec.currentEncoder();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }).get();
+        assertNotSame(encoder, otherThreadEncoder);
+    }
+
+    @Test
+    void reusedBuffersDontLeakIntoLaterValues() throws Exception {
+        var codec = new AvroDatumCodec();
+        var schema = Schema.create(Schema.Type.STRING);
+        var large = "x".repeat(AvroDatumCodec.MAX_RETAINED_BUFFER_SIZE + 1);
+
+        var largeBytes = codec.encode(new byte[] {9}, large, schema);
+        var smallBytes = codec.encode(new byte[] {9}, "y", schema);
+
+        assertEquals(large, codec.decode(largeBytes, 1, schema).toString());
+        assertEquals("y", codec.decode(smallBytes, 1, schema).toString());
+        assertEquals(3, smallBytes.length);
+    }
+
+}
@@ -126,6 +126,41 @@ class AvroSerdeProcessorTest {
         assertEquals("test", restoredRecord.get("y").toString());
     }
 
+    @Test
+    void repeatedRoundTripsDoNotLeakPreviousValues() throws Exception {
+        var schema = Schema.create(Schema.Type.STRING);
+        var large = "x".repeat(64 * 1024 + 1);
+        for (var value : List.of("first", large, "second", "")) {
+            var restored = serde.fromBytes(serde.toBytes(new AvroPayload(new Utf8(value), schema)));
+            assertEquals(value, restored.value().toString());
+        }
+    }
+
+    @Test
+    void concurrentRoundTripsAcrossThreads() throws Exception {
+        var schema = Schema.createRecord("Rec", null, null, false, List.of(
+            new Schema.Field("x", Schema.create(Schema.Type.LONG))
+        ));
+        var executor = java.util.concurrent.Executors.newFixedThreadPool(4);
+        try {
+            var futures = new java.util.ArrayList<java.util.concurrent.Future<Long>>();
+            for (long i = 0; i < 200; i++) {
+                var value = i;
+                futures.add(executor.submit(() -> {
+                    var record = new GenericData.Record(schema);
+                    record.put("x", value);
+                    var restored = serde.fromBytes(serde.toBytes(new AvroPayload(record, schema)));
+                    return (Long) ((GenericData.Record) restored.value()).get("x");
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals(i, futures.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     // --- wire format structure ---
 
     @Test
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2021. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.hpgrahsl.kryptonite.serdes.kryo;
+
+import com.github.hpgrahsl.kryptonite.EncryptedField;
+import com.github.hpgrahsl.kryptonite.PayloadMetaData;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link KryoSerdeProcessor} backed by pooled {@link KryoInstance}s.
+ */
+class KryoSerdeProcessorTest {
+
+    private final KryoSerdeProcessor serde = new KryoSerdeProcessor();
+
+    @Test
+    void serdeCodeIs00() {
+        assertEquals("00", serde.serdeCode());
+    }
+
+    @Test
+    void roundTripsReusePooledBuffersWithoutLeakingPreviousValues() {
+        var large = "x".repeat(KryoInstance.MAX_RETAINED_BUFFER_SIZE + 1);
+        for (Object value : List.of("first", large, 42L, Map.of("k", List.of(1, 2, 3)), "")) {
+            assertEquals(value, serde.bytesToObject(serde.objectToBytes(value)));
+        }
+    }
+
+    @Test
+    void roundTripWithClassParam() {
+        var encryptedField = new EncryptedField(new PayloadMetaData("k1", "02", "keyA"), new byte[]{1, 2, 3});
+        var restored = (EncryptedField) serde.bytesToObject(serde.objectToBytes(encryptedField, EncryptedField.class), EncryptedField.class);
+        assertEquals(encryptedField.getMetaData(), restored.getMetaData());
+        assertArrayEquals(encryptedField.ciphertext(), restored.ciphertext());
+    }
+
+    @Test
+    void releasedInstanceHandsOutEmptyOutput() {
+        var instance = KryoInstance.obtain();
+        instance.output().writeString("leftover");
+        instance.release();
+        var next = KryoInstance.obtain();
+        try {
+            assertEquals(0, next.output().position());
+        } finally {
+            next.release();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void deprecatedGetReusesKryoPerThread() throws Exception {
+        var kryo = KryoInstance.get();
+        assertSame(kryo, KryoInstance.get());
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            assertNotSame(kryo, executor.submit(KryoInstance::get).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentRoundTripsWithMoreThreadsThanPoolCapacity() throws Exception {
+        var executor = Executors.newFixedThreadPool(KryoInstance.POOL_CAPACITY * 2);
+        try {
+            var futures = new ArrayList<Future<Object>>();
+            for (int i = 0; i < 500; i++) {
+                var value = "value-" + i;
+                futures.add(executor.submit(() -> serde.bytesToObject(serde.objectToBytes(value))));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals("value-" + i, futures.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
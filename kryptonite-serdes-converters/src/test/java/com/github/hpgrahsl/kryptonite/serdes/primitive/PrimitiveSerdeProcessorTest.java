@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2021. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.hpgrahsl.kryptonite.serdes.primitive;
+
+import com.github.hpgrahsl.kryptonite.serdes.SerdeRegistry;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PrimitiveSerdeProcessor}.
+ */
+class PrimitiveSerdeProcessorTest {
+
+    private final PrimitiveSerdeProcessor serde = new PrimitiveSerdeProcessor("KRYO");
+
+    static Stream<Arguments> scalars() {
+        return Stream.of(
+            Arguments.of(true, PrimitiveSerdeProcessor.TAG_BOOLEAN, 2),
+            Arguments.of((byte) -7, PrimitiveSerdeProcessor.TAG_BYTE, 2),
+            Arguments.of((short) -1234, PrimitiveSerdeProcessor.TAG_SHORT, 3),
+            Arguments.of(Integer.MIN_VALUE, PrimitiveSerdeProcessor.TAG_INT, 5),
+            Arguments.of(Long.MAX_VALUE, PrimitiveSerdeProcessor.TAG_LONG, 9),
+            Arguments.of(3.5f, PrimitiveSerdeProcessor.TAG_FLOAT, 5),
+            Arguments.of(Double.NaN, PrimitiveSerdeProcessor.TAG_DOUBLE, 9),
+            Arguments.of("jane.doe@example.com", PrimitiveSerdeProcessor.TAG_STRING, 21),
+            Arguments.of("", PrimitiveSerdeProcessor.TAG_STRING, 1),
+            Arguments.of("ünïcödé", PrimitiveSerdeProcessor.TAG_STRING,
+                1 + "ünïcödé".getBytes(StandardCharsets.UTF_8).length)
+        );
+    }
+
+    @Test
+    void serdeCodeIs04AndRegisteredByName() {
+        assertEquals("04", serde.serdeCode());
+        assertInstanceOf(PrimitiveSerdeProcessor.class, SerdeRegistry.getProcessorByName("PRIMITIVE"));
+        assertInstanceOf(PrimitiveSerdeProcessor.class, SerdeRegistry.getProcessorByCode("04"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("scalars")
+    void scalarsRoundTripWithTagAndExactSize(Object value, byte tag, int size) {
+        var bytes = serde.objectToBytes(value);
+        assertEquals(tag, bytes[0]);
+        assertEquals(size, bytes.length);
+        var restored = serde.bytesToObject(bytes);
+        assertEquals(value.getClass(), restored.getClass());
+        assertEquals(value, restored);
+    }
+
+    @Test
+    void nullAndByteArraysRoundTrip() {
+        assertArrayEquals(new byte[] {PrimitiveSerdeProcessor.TAG_NULL}, serde.objectToBytes(null));
+        assertNull(serde.bytesToObject(serde.objectToBytes(null)));
+        var bytes = new byte[] {1, 2, 3};
+        assertArrayEquals(bytes, (byte[]) serde.bytesToObject(serde.objectToBytes(bytes)));
+    }
+
+    @Test
+    void complexValuesFallBackToConfiguredSerde() {
+        var value = Map.of("k", List.of(1, 2, 3));
+        var bytes = serde.objectToBytes(value);
+        assertEquals(PrimitiveSerdeProcessor.TAG_FALLBACK, bytes[0]);
+        assertEquals("00", new String(bytes, 1, 2, StandardCharsets.US_ASCII));
+        assertEquals(value, serde.bytesToObject(bytes));
+        assertEquals(value, new PrimitiveSerdeProcessor("AVRO").bytesToObject(bytes));
+    }
+
+    @ParameterizedTest
+    @MethodSource("scalars")
+    void rejectsTruncatedAndPaddedFixedWidthPayloads(Object value, byte tag, int size) {
+        if (tag == PrimitiveSerdeProcessor.TAG_STRING) {
+            return; // variable width, any length is valid
+        }
+        var bytes = serde.objectToBytes(value);
+        for (int length = 1; length < size; length++) {
+            var truncated = Arrays.copyOf(bytes, length);
+            assertThrows(IllegalArgumentException.class, () -> serde.bytesToObject(truncated));
+        }
+        assertThrows(IllegalArgumentException.class, () -> serde.bytesToObject(Arrays.copyOf(bytes, size + 1)));
+    }
+
+    @Test
+    void rejectsTruncatedNullAndFallbackPayloads() {
+        assertThrows(IllegalArgumentException.class,
+            () -> serde.bytesToObject(new byte[] {PrimitiveSerdeProcessor.TAG_NULL, 0}));
+        assertThrows(IllegalArgumentException.class,
+            () -> serde.bytesToObject(new byte[] {PrimitiveSerdeProcessor.TAG_FALLBACK, '0'}));
+    }
+
+    @Test
+    void rejectsUnknownTagAndSelfFallback() {
+        assertThrows(IllegalArgumentException.class, () -> serde.bytesToObject(new byte[] {42}));
+        assertThrows(IllegalArgumentException.class, () -> serde.bytesToObject(new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> new PrimitiveSerdeProcessor("PRIMITIVE"));
+    }
+
+}
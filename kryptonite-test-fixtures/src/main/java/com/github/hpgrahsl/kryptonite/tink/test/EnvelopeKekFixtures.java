@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2026. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.hpgrahsl.kryptonite.tink.test;
+
+import com.github.hpgrahsl.kryptonite.kms.EnvelopeKekEncryption;
+import com.google.crypto.tink.Aead;
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.RegistryConfiguration;
+import com.google.crypto.tink.aead.AeadConfig;
+import com.google.crypto.tink.aead.PredefinedAeadParameters;
+import java.security.GeneralSecurityException;
+
+public class EnvelopeKekFixtures {
+
+    /**
+     * Returns a local in-memory {@link EnvelopeKekEncryption} backed by a freshly generated
+     * Tink AES-128-GCM key, suitable for tests and benchmarks that need KMS envelope encryption
+     * without any cloud KMS network calls.
+     */
+    public static EnvelopeKekEncryption inMemoryEnvelopeKek() {
+        try {
+            AeadConfig.register();
+            Aead aead = KeysetHandle.generateNew(PredefinedAeadParameters.AES128_GCM)
+                .getPrimitive(RegistryConfiguration.get(), Aead.class);
+            return new EnvelopeKekEncryption() {
+                @Override
+                public byte[] wrapDek(byte[] rawDek, byte[] wrapAad) throws Exception {
+                    return aead.encrypt(rawDek, wrapAad);
+                }
+
+                @Override
+                public byte[] unwrapDek(byte[] wrappedDek, byte[] wrapAad) throws Exception {
+                    return aead.decrypt(wrappedDek, wrapAad);
+                }
+            };
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("failed to create in-memory envelope KEK", e);
+        }
+    }
+
+}
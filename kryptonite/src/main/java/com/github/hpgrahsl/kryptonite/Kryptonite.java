@@ -24,9 +24,14 @@ import com.github.hpgrahsl.kryptonite.config.ConfigurationException;
 import com.github.hpgrahsl.kryptonite.config.DataKeyConfig;
 import com.github.hpgrahsl.kryptonite.config.DataKeyConfigEncrypted;
 import com.github.hpgrahsl.kryptonite.config.EnvelopeKekConfig;
+import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.FpeEngine;
 import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.KeySource;
+import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.MetricsType;
 import com.github.hpgrahsl.kryptonite.crypto.AeadAlgorithm;
 import com.github.hpgrahsl.kryptonite.crypto.AeadEnvelopeAlgorithm;
+import com.github.hpgrahsl.kryptonite.crypto.ByteBuffers;
+import com.github.hpgrahsl.kryptonite.crypto.EncryptDekSession;
+import com.github.hpgrahsl.kryptonite.crypto.DeterministicCipherCache;
 import com.github.hpgrahsl.kryptonite.crypto.EncryptDekSessionCache;
 import com.github.hpgrahsl.kryptonite.crypto.FpeAlgorithm;
 import com.github.hpgrahsl.kryptonite.crypto.WrappedDekCache;
@@ -44,21 +49,32 @@ import com.github.hpgrahsl.kryptonite.keys.TinkKeyVaultEncrypted;
 import com.github.hpgrahsl.kryptonite.kms.KmsKeyEncryption;
 import com.github.hpgrahsl.kryptonite.kms.KmsKeyEncryptionProvider;
 import com.github.hpgrahsl.kryptonite.kms.KmsKeyVaultProvider;
+import com.github.hpgrahsl.kryptonite.metrics.JmxKryptoniteMetrics;
+import com.github.hpgrahsl.kryptonite.metrics.KryptoniteMetrics;
+import com.github.hpgrahsl.kryptonite.metrics.KryptoniteMetrics.Operation;
+import com.github.hpgrahsl.kryptonite.metrics.MeteredEdekStore;
 import com.google.crypto.tink.Aead;
 import com.google.crypto.tink.KeysetHandle;
 import com.google.crypto.tink.aead.AeadConfig;
 import com.google.crypto.tink.daead.DeterministicAeadConfig;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
 import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.*;
@@ -110,6 +126,14 @@ public class Kryptonite implements AutoCloseable {
       return this instanceof FpeCipherSpec;
     }
 
+    /**
+     * @return {@code true} if the same plaintext, key and associated data always result in the
+     *         same ciphertext which is the case for AES-GCM-SIV and all FPE ciphers
+     */
+    public boolean isDeterministic() {
+      return isCipherFPE() || TinkAesGcmSiv.CIPHER_ALGORITHM.equals(name);
+    }
+
     @Override
     public boolean equals(Object o) {
       if (this == o) return true;
@@ -212,6 +236,9 @@ public class Kryptonite implements AutoCloseable {
       "06", CipherSpec.fromName(TinkAesGcmEnvelopeKms.CIPHER_ALGORITHM)
   );
 
+  private static final Map<String,CipherSpec> NAME_CIPHERSPEC_LUT = ID_CIPHERSPEC_LUT.values().stream()
+      .collect(Collectors.toUnmodifiableMap(CipherSpec::getName, Function.identity()));
+
   private static final System.Logger LOG = System.getLogger(Kryptonite.class.getName());
 
   private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
@@ -222,17 +249,28 @@ public class Kryptonite implements AutoCloseable {
   private final EnvelopeKekRegistry envelopeKekRegistry;
   private final EdekStore edekStore;
   private final int dekSizeBytes;
+  private final KryptoniteMetrics metrics;
+  private final DeterministicCipherCache deterministicCipherCache;
+  private final MystoFpeFF31 mystoFpeFF31;
 
   public AbstractKeyVault getKeyVault() {
     return keyVault;
   }
 
+  public KryptoniteMetrics getMetrics() {
+    return metrics;
+  }
+
   @Override
   public void close() {
     keyVault.close();
+    if (encryptDekSessionCache != null) {
+      encryptDekSessionCache.close();
+    }
     if (edekStore != null) {
       edekStore.close();
     }
+    metrics.close();
   }
 
   public Kryptonite(AbstractKeyVault keyVault) {
@@ -244,12 +282,55 @@ public class Kryptonite implements AutoCloseable {
   }
 
   public Kryptonite(AbstractKeyVault keyVault, WrappedDekCache wrappedDekCache, EncryptDekSessionCache encryptDekSessionCache, EnvelopeKekRegistry envelopeKekRegistry, EdekStore edekStore, int dekSizeBytes) {
+    this(keyVault, wrappedDekCache, encryptDekSessionCache, envelopeKekRegistry, edekStore, dekSizeBytes, KryptoniteMetrics.noop());
+  }
+
+  /**
+   * Creates an instance which reports cipher operations, DEK session lifecycle events, DEK
+   * unwraps, key vault refreshes, EdekStore latencies and cache statistics to {@code metrics}.
+   * The metrics instance is closed together with this instance.
+   */
+  public Kryptonite(AbstractKeyVault keyVault, WrappedDekCache wrappedDekCache, EncryptDekSessionCache encryptDekSessionCache, EnvelopeKekRegistry envelopeKekRegistry, EdekStore edekStore, int dekSizeBytes, KryptoniteMetrics metrics) {
+    this(keyVault, wrappedDekCache, encryptDekSessionCache, envelopeKekRegistry, edekStore, dekSizeBytes, metrics, null);
+  }
+
+  /**
+   * Creates an instance which additionally memoizes single value operations of deterministic
+   * cipher specs in {@code deterministicCipherCache}, if not {@code null}.
+   *
+   * @see CipherSpec#isDeterministic()
+   */
+  public Kryptonite(AbstractKeyVault keyVault, WrappedDekCache wrappedDekCache, EncryptDekSessionCache encryptDekSessionCache, EnvelopeKekRegistry envelopeKekRegistry, EdekStore edekStore, int dekSizeBytes, KryptoniteMetrics metrics, DeterministicCipherCache deterministicCipherCache) {
+    this(keyVault, wrappedDekCache, encryptDekSessionCache, envelopeKekRegistry, edekStore, dekSizeBytes, metrics, deterministicCipherCache, FpeEngine.MYSTO);
+  }
+
+  /**
+   * Creates an instance which runs {@link MystoFpeFF31#CIPHER_ALGORITHM} on the given FF3-1
+   * {@code fpeEngine}. Both engines produce identical ciphertexts.
+   */
+  public Kryptonite(AbstractKeyVault keyVault, WrappedDekCache wrappedDekCache, EncryptDekSessionCache encryptDekSessionCache, EnvelopeKekRegistry envelopeKekRegistry, EdekStore edekStore, int dekSizeBytes, KryptoniteMetrics metrics, DeterministicCipherCache deterministicCipherCache, FpeEngine fpeEngine) {
+    this.metrics = Objects.requireNonNull(metrics, "metrics must not be null");
     this.keyVault = keyVault;
     this.wrappedDekCache = wrappedDekCache;
     this.encryptDekSessionCache = encryptDekSessionCache;
     this.envelopeKekRegistry = envelopeKekRegistry;
-    this.edekStore = edekStore;
+    this.edekStore = edekStore != null ? new MeteredEdekStore(edekStore, metrics) : null;
     this.dekSizeBytes = dekSizeBytes;
+    this.deterministicCipherCache = deterministicCipherCache;
+    this.mystoFpeFF31 = new MystoFpeFF31(Objects.requireNonNull(fpeEngine, "fpeEngine must not be null"));
+    if (keyVault != null) {
+      keyVault.setMetrics(metrics);
+    }
+    if (wrappedDekCache != null) {
+      metrics.registerCache("wrappedDekCache", wrappedDekCache::stats);
+    }
+    if (encryptDekSessionCache != null) {
+      encryptDekSessionCache.setMetrics(metrics);
+      metrics.registerCache("encryptDekSessionCache", encryptDekSessionCache::stats);
+    }
+    if (deterministicCipherCache != null) {
+      metrics.registerCache("deterministicCipherCache", deterministicCipherCache::stats);
+    }
     try {
       AeadConfig.register();
       DeterministicAeadConfig.register();
@@ -269,24 +350,49 @@ public class Kryptonite implements AutoCloseable {
   }
 
   public byte[] cipherFieldRaw(byte[] plaintext, PayloadMetaData metadata) {
+    var keyIdBytes = metadata.getKeyId().getBytes(StandardCharsets.UTF_8);
+    return cipherFieldRaw(plaintext, metadata, ID_CIPHERSPEC_LUT.get(metadata.getAlgorithmId()), metadata.asBytes(), keyIdBytes);
+  }
+
+  /**
+   * Encrypts with an already resolved {@code cipherSpec} and precomputed AAD bytes.
+   * {@code encryptAad} must equal {@code metadata.asBytes()} and {@code wrapAad} must equal
+   * the UTF-8 encoded key identifier.
+   */
+  byte[] cipherFieldRaw(byte[] plaintext, PayloadMetaData metadata, CipherSpec cipherSpec, byte[] encryptAad, byte[] wrapAad) {
+    long start = System.nanoTime();
+    boolean success = false;
+    try {
+      var ciphertext = doCipherFieldRaw(plaintext, metadata, cipherSpec, encryptAad, wrapAad);
+      success = true;
+      return ciphertext;
+    } finally {
+      recordCipherOperation(Operation.ENCRYPT, cipherSpec, metadata.getKeyId(), 1, start, success);
+    }
+  }
+
+  private byte[] doCipherFieldRaw(byte[] plaintext, PayloadMetaData metadata, CipherSpec cipherSpec, byte[] encryptAad, byte[] wrapAad) {
     try {
       LOG.log(DEBUG, "cipherFieldRaw: keyId=''{0}'' algorithmId=''{1}'' plaintext={2}B",
           metadata.getKeyId(), metadata.getAlgorithmId(), plaintext.length);
-      var cipherSpec = ID_CIPHERSPEC_LUT.get(metadata.getAlgorithmId());
       if (cipherSpec instanceof KmsEnvelopeCipherSpec kms) {
-        return cipherEnvelopeKms(plaintext, metadata, kms.getAlgorithm());
+        return cipherEnvelopeKms(plaintext, metadata.getKeyId(), kms.getAlgorithm(), encryptAad, wrapAad);
       }
       if (cipherSpec instanceof KeysetEnvelopeCipherSpec ks) {
         var keysetHandle = keyVault.readKeysetHandle(metadata.getKeyId());
-        var wrapAad = metadata.getKeyId().getBytes(StandardCharsets.UTF_8);
-        return cipherEnvelopeKeyset(plaintext, metadata, ks.getAlgorithm(), keysetHandle, wrapAad);
+        return cipherEnvelopeKeyset(plaintext, metadata.getKeyId(), ks.getAlgorithm(), keysetHandle, encryptAad, wrapAad);
       }
       if (!(cipherSpec instanceof AeadCipherSpec aead)) {
         throw new KryptoniteException("algorithm ID '" + metadata.getAlgorithmId() + "' is not an AEAD algorithm");
       }
       LOG.log(DEBUG, "cipherFieldRaw: direct encryption without envelope");
-      var keysetHandle = keyVault.readKeysetHandle(metadata.getKeyId());
-      return aead.getAlgorithm().cipher(plaintext, keysetHandle, metadata.asBytes());
+      var keyId = metadata.getKeyId();
+      if (deterministicCipherCache != null && aead.isDeterministic()) {
+        var keysetHandle = keyVault.readKeysetHandle(keyId);
+        return deterministicCipherCache.cipher(keyId, keysetHandle, aead.getName(), encryptAad,
+            plaintext, p -> aead.getAlgorithm().cipher(p, keyVault, keyId, keysetHandle, encryptAad));
+      }
+      return aead.getAlgorithm().cipher(plaintext, keyVault, keyId, encryptAad);
     } catch (KryptoniteException e) {
       throw e;
     } catch (Exception e) {
@@ -294,68 +400,281 @@ public class Kryptonite implements AutoCloseable {
     }
   }
 
-  private byte[] cipherEnvelopeKms(byte[] plaintext, PayloadMetaData metadata,
-      AeadEnvelopeAlgorithm<EnvelopeKekEncryption> algorithm) throws Exception {
-    LOG.log(DEBUG, "cipherFieldRaw: KMS KEK envelope encryption");
-    if (envelopeKekRegistry == null) {
-      throw new KryptoniteException(
-          "KMS KEK envelope encryption requested but envelope_kek_configs is not configured");
+  /**
+   * Encrypts the readable bytes of {@code plaintext} and writes the raw ciphertext into
+   * {@code out}, e.g. to encrypt a slice of a larger record buffer into a reusable output buffer.
+   *
+   * <p>On success the position of {@code plaintext} is advanced to its limit and the position of
+   * {@code out} by the number of bytes written. If {@code out} is too small a {@link KryptoniteException}
+   * is thrown and neither buffer is modified.
+   *
+   * @return number of ciphertext bytes written into {@code out}
+   */
+  public int cipherFieldRaw(ByteBuffer plaintext, PayloadMetaData metadata, ByteBuffer out) {
+    var keyIdBytes = metadata.getKeyId().getBytes(StandardCharsets.UTF_8);
+    return cipherFieldRaw(plaintext, metadata, ID_CIPHERSPEC_LUT.get(metadata.getAlgorithmId()), metadata.asBytes(), keyIdBytes, out);
+  }
+
+  int cipherFieldRaw(ByteBuffer plaintext, PayloadMetaData metadata, CipherSpec cipherSpec, byte[] encryptAad, byte[] wrapAad, ByteBuffer out) {
+    long start = System.nanoTime();
+    boolean success = false;
+    try {
+      var written = doCipherFieldRaw(plaintext.duplicate(), metadata, cipherSpec, encryptAad, wrapAad, out);
+      plaintext.position(plaintext.limit());
+      success = true;
+      return written;
+    } finally {
+      recordCipherOperation(Operation.ENCRYPT, cipherSpec, metadata.getKeyId(), 1, start, success);
     }
-    if (edekStore == null) {
-      throw new KryptoniteException(
-          "KMS KEK envelope encryption requested but no EdekStore is configured");
+  }
+
+  private int doCipherFieldRaw(ByteBuffer plaintext, PayloadMetaData metadata, CipherSpec cipherSpec, byte[] encryptAad, byte[] wrapAad, ByteBuffer out) {
+    try {
+      LOG.log(DEBUG, "cipherFieldRaw: keyId=''{0}'' algorithmId=''{1}'' plaintext={2}B (into buffer)",
+          metadata.getKeyId(), metadata.getAlgorithmId(), plaintext.remaining());
+      if (cipherSpec instanceof KmsEnvelopeCipherSpec kms) {
+        var session = kmsSession(metadata.getKeyId(), kms.getAlgorithm(), wrapAad);
+        return kms.getAlgorithm().cipherWithDek(plaintext, session.dekAead(), session.fingerprint(), encryptAad, out);
+      }
+      if (cipherSpec instanceof KeysetEnvelopeCipherSpec ks) {
+        var keysetHandle = keyVault.readKeysetHandle(metadata.getKeyId());
+        var session = keysetSession(metadata.getKeyId(), ks.getAlgorithm(), keysetHandle, wrapAad);
+        return ks.getAlgorithm().cipherWithDek(plaintext, session.dekAead(), session.wrappedDek(), encryptAad, out);
+      }
+      if (!(cipherSpec instanceof AeadCipherSpec aead)) {
+        throw new KryptoniteException("algorithm ID '" + metadata.getAlgorithmId() + "' is not an AEAD algorithm");
+      }
+      LOG.log(DEBUG, "cipherFieldRaw: direct encryption without envelope");
+      return aead.getAlgorithm().cipher(plaintext, keyVault, metadata.getKeyId(), encryptAad, out);
+    } catch (KryptoniteException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new KryptoniteException(e.getMessage(), e);
     }
-    var envelopeKekEncryption = envelopeKekRegistry.get(metadata.getKeyId());
-    var wrapAad = metadata.getKeyId().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private byte[] cipherEnvelopeKms(byte[] plaintext, String keyId,
+      AeadEnvelopeAlgorithm<EnvelopeKekEncryption> algorithm, byte[] encryptAad, byte[] wrapAad) throws Exception {
+    var session = kmsSession(keyId, algorithm, wrapAad);
+    return algorithm.cipherWithDek(plaintext, session.dekAead(), session.fingerprint(), encryptAad);
+  }
+
+  private EncryptDekSession kmsSession(String keyId,
+      AeadEnvelopeAlgorithm<EnvelopeKekEncryption> algorithm, byte[] wrapAad) {
+    LOG.log(DEBUG, "cipherFieldRaw: KMS KEK envelope encryption");
+    return encryptDekSessionCache.getOrCreate(keyId, kmsSessionFactory(keyId, algorithm, wrapAad));
+  }
+
+  private Supplier<EncryptDekSession> kmsSessionFactory(String keyId,
+      AeadEnvelopeAlgorithm<EnvelopeKekEncryption> algorithm, byte[] wrapAad) {
+    requireKmsEnvelopeSupport("encryption");
+    var envelopeKekEncryption = envelopeKekRegistry.get(keyId);
     var sessionCache = Objects.requireNonNull(encryptDekSessionCache,
         "DEK session cache is required for envelope encryption with KMS");
-    
+
     // Session factory: creates DEK + publishes fingerprint to EdekStore atomically before caching.
     // A session is only placed in the cache after a successful publish, so any cached session
     // is guaranteed to have its fingerprint resolvable on the decrypt path.
-    var session = sessionCache.getOrCreate(metadata.getKeyId(), () -> {
+    return () -> {
       try {
         var newSession = algorithm.createSession(envelopeKekEncryption, wrapAad, dekSizeBytes, sessionCache.getClock());
-        byte[] fingerprint = EdekStore.fingerprint(newSession.wrappedDek());
+        byte[] fingerprint = newSession.fingerprint();
         edekStore.put(fingerprint, newSession.wrappedDek());
-        LOG.log(DEBUG, "cipherFieldRaw: new DEK session created and published to EdekStore (fingerprint={0}B keyId=''{1}'')", fingerprint.length, metadata.getKeyId());
+        LOG.log(DEBUG, "cipherFieldRaw: new DEK session created and published to EdekStore (fingerprint={0}B keyId=''{1}'')", fingerprint.length, keyId);
         return newSession;
       } catch (Exception e) {
-        throw new KryptoniteException("failed to create DEK session for KMS KEK envelope encryption for keyId='" + metadata.getKeyId() + "'", e);
+        throw new KryptoniteException("failed to create DEK session for KMS KEK envelope encryption for keyId='" + keyId + "'", e);
       }
-    });
+    };
+  }
 
-    byte[] fingerprint = EdekStore.fingerprint(session.wrappedDek());
-    return algorithm.cipherWithDek(plaintext, session.dekAead(), fingerprint, metadata.asBytes());
+  private byte[] cipherEnvelopeKeyset(byte[] plaintext, String keyId,
+      AeadEnvelopeAlgorithm<KeysetHandle> algorithm, KeysetHandle keysetHandle, byte[] encryptAad, byte[] wrapAad) throws Exception {
+    var session = keysetSession(keyId, algorithm, keysetHandle, wrapAad);
+    return algorithm.cipherWithDek(plaintext, session.dekAead(), session.wrappedDek(), encryptAad);
   }
 
-  private byte[] cipherEnvelopeKeyset(byte[] plaintext, PayloadMetaData metadata,
+  private EncryptDekSession keysetSession(String keyId,
       AeadEnvelopeAlgorithm<KeysetHandle> algorithm, KeysetHandle keysetHandle, byte[] wrapAad) throws Exception {
     if (encryptDekSessionCache != null) {
       LOG.log(DEBUG, "cipherFieldRaw: Keyset KEK envelope encryption with enabled DEK session cache");
-      var session = encryptDekSessionCache.getOrCreate(metadata.getKeyId(), () -> {
-        try {
-          return algorithm.createSession(keysetHandle, wrapAad, dekSizeBytes, encryptDekSessionCache.getClock());
-        } catch (Exception e) {
-          throw new KryptoniteException("failed to create DEK session for Keyset KEK envelope encryption and keyId='" + metadata.getKeyId() + "'", e);
-        }
-      });
-      return algorithm.cipherWithDek(plaintext, session.dekAead(), session.wrappedDek(), metadata.asBytes());
+      return encryptDekSessionCache.getOrCreate(keyId, keysetSessionFactory(keyId, algorithm, keysetHandle, wrapAad));
     }
     LOG.log(DEBUG, "cipherFieldRaw: Keyset KEK envelope encryption without session cache (fresh DEK per call)");
-    var session = algorithm.createSession(keysetHandle, wrapAad, dekSizeBytes, Clock.systemUTC());
-    return algorithm.cipherWithDek(plaintext, session.dekAead(), session.wrappedDek(), metadata.asBytes());
+    return algorithm.createSession(keysetHandle, wrapAad, dekSizeBytes, Clock.systemUTC());
+  }
+
+  private Supplier<EncryptDekSession> keysetSessionFactory(String keyId,
+      AeadEnvelopeAlgorithm<KeysetHandle> algorithm, KeysetHandle keysetHandle, byte[] wrapAad) {
+    return () -> {
+      try {
+        return algorithm.createSession(keysetHandle, wrapAad, dekSizeBytes, encryptDekSessionCache.getClock());
+      } catch (Exception e) {
+        throw new KryptoniteException("failed to create DEK session for Keyset KEK envelope encryption and keyId='" + keyId + "'", e);
+      }
+    };
+  }
+
+  /**
+   * Encrypts all {@code plaintexts} with the same field configuration and returns the raw
+   * ciphertexts in input order, as {@link #cipherFieldRaw(byte[], PayloadMetaData)} or
+   * {@link #cipherFieldFPE(byte[], FieldMetaData)} would for each value.
+   *
+   * <p>Key material is resolved once for the whole batch. For envelope encryption the
+   * required number of DEK session slots is reserved in one atomic step per session, so
+   * a batch only touches the DEK session cache again when a session is exhausted mid-batch.
+   *
+   * @param plaintexts values to encrypt
+   * @param fieldMetaData static field configuration shared by all values
+   * @return ciphertexts in the same order as {@code plaintexts}
+   */
+  public List<byte[]> cipherFields(List<byte[]> plaintexts, FieldMetaData fieldMetaData) {
+    Objects.requireNonNull(plaintexts, "plaintexts must not be null");
+    return prepare(fieldMetaData).encrypt(plaintexts);
+  }
+
+  /**
+   * Batch variant of {@link #cipherFieldRaw(byte[], PayloadMetaData, CipherSpec, byte[], byte[])}.
+   */
+  List<byte[]> cipherFieldsRaw(List<byte[]> plaintexts, PayloadMetaData metadata, CipherSpec cipherSpec, byte[] encryptAad, byte[] wrapAad) {
+    if (plaintexts.isEmpty()) {
+      return List.of();
+    }
+    long start = System.nanoTime();
+    boolean success = false;
+    try {
+      var ciphertexts = doCipherFieldsRaw(plaintexts, metadata, cipherSpec, encryptAad, wrapAad);
+      success = true;
+      return ciphertexts;
+    } finally {
+      recordCipherOperation(Operation.ENCRYPT, cipherSpec, metadata.getKeyId(), plaintexts.size(), start, success);
+    }
+  }
+
+  private List<byte[]> doCipherFieldsRaw(List<byte[]> plaintexts, PayloadMetaData metadata, CipherSpec cipherSpec, byte[] encryptAad, byte[] wrapAad) {
+    try {
+      var keyId = metadata.getKeyId();
+      LOG.log(DEBUG, "cipherFieldsRaw: keyId=''{0}'' algorithmId=''{1}'' batchSize={2}",
+          keyId, metadata.getAlgorithmId(), plaintexts.size());
+      if (cipherSpec instanceof KmsEnvelopeCipherSpec kms) {
+        var factory = kmsSessionFactory(keyId, kms.getAlgorithm(), wrapAad);
+        return cipherWithReservedSessions(plaintexts, keyId, kms.getAlgorithm(), factory, EncryptDekSession::fingerprint, encryptAad);
+      }
+      if (cipherSpec instanceof KeysetEnvelopeCipherSpec ks) {
+        var keysetHandle = keyVault.readKeysetHandle(keyId);
+        if (encryptDekSessionCache == null) {
+          var ciphertexts = new ArrayList<byte[]>(plaintexts.size());
+          for (byte[] plaintext : plaintexts) {
+            ciphertexts.add(cipherEnvelopeKeyset(plaintext, keyId, ks.getAlgorithm(), keysetHandle, encryptAad, wrapAad));
+          }
+          return ciphertexts;
+        }
+        var factory = keysetSessionFactory(keyId, ks.getAlgorithm(), keysetHandle, wrapAad);
+        return cipherWithReservedSessions(plaintexts, keyId, ks.getAlgorithm(), factory, EncryptDekSession::wrappedDek, encryptAad);
+      }
+      if (!(cipherSpec instanceof AeadCipherSpec aead)) {
+        throw new KryptoniteException("algorithm ID '" + metadata.getAlgorithmId() + "' is not an AEAD algorithm");
+      }
+      return aead.getAlgorithm().cipher(plaintexts, keyVault, keyId, encryptAad);
+    } catch (KryptoniteException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new KryptoniteException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Encrypts {@code plaintexts} with DEK sessions obtained via
+   * {@link EncryptDekSessionCache#reserve}. Each reservation covers as many of the remaining
+   * values as the current session can still serve; {@code dekReference} selects what is bundled
+   * with each ciphertext (wrapped DEK or its fingerprint).
+   */
+  private List<byte[]> cipherWithReservedSessions(List<byte[]> plaintexts, String keyId, AeadEnvelopeAlgorithm<?> algorithm,
+      Supplier<EncryptDekSession> factory, Function<EncryptDekSession, byte[]> dekReference, byte[] encryptAad) throws Exception {
+    var ciphertexts = new ArrayList<byte[]>(plaintexts.size());
+    int next = 0;
+    while (next < plaintexts.size()) {
+      var reservation = encryptDekSessionCache.reserve(keyId, plaintexts.size() - next, factory);
+      var session = reservation.session();
+      var reference = dekReference.apply(session);
+      LOG.log(DEBUG, "cipherFieldsRaw: reserved {0} DEK session slot(s) for keyId=''{1}''", reservation.count(), keyId);
+      for (long i = 0; i < reservation.count(); i++) {
+        ciphertexts.add(algorithm.cipherWithDek(plaintexts.get(next++), session.dekAead(), reference, encryptAad));
+      }
+    }
+    return ciphertexts;
   }
 
   public byte[] cipherFieldFPE(byte[] plaintext, FieldMetaData fieldMetaData) {
     try {
-      var cipherSpec = CipherSpec.fromName(fieldMetaData.getAlgorithm().toUpperCase());
+      var cipherSpec = lookupCipherSpec(fieldMetaData.getAlgorithm());
       if (!(cipherSpec instanceof FpeCipherSpec fpe)) {
         throw new KryptoniteException("algorithm '" + fieldMetaData.getAlgorithm() + "' is not an FPE algorithm");
       }
-      var keysetHandle = keyVault.readKeysetHandle(fieldMetaData.getKeyId());
       var tweakBytes = fieldMetaData.getFpeTweak() != null ? fieldMetaData.getFpeTweak().getBytes() : null;
-      return fpe.getAlgorithm().cipherFPE(plaintext, keysetHandle, fieldMetaData.getFpeAlphabet(), tweakBytes);
+      return cipherFieldFPE(plaintext, fieldMetaData.getKeyId(), fpe, fieldMetaData.getFpeAlphabet(), tweakBytes);
+    } catch (KryptoniteException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new KryptoniteException(e.getMessage(), e);
+    }
+  }
+
+  byte[] cipherFieldFPE(byte[] plaintext, String keyId, FpeCipherSpec fpe, String alphabet, byte[] tweakBytes) {
+    long start = System.nanoTime();
+    boolean success = false;
+    try {
+      var ciphertext = doCipherFieldFPE(plaintext, keyId, fpe, alphabet, tweakBytes);
+      success = true;
+      return ciphertext;
+    } finally {
+      recordCipherOperation(Operation.ENCRYPT, fpe, keyId, 1, start, success);
+    }
+  }
+
+  private FpeAlgorithm fpeAlgorithm(FpeCipherSpec fpe) {
+    return fpe.getAlgorithm() instanceof MystoFpeFF31 ? mystoFpeFF31 : fpe.getAlgorithm();
+  }
+
+  private byte[] doCipherFieldFPE(byte[] plaintext, String keyId, FpeCipherSpec fpe, String alphabet, byte[] tweakBytes) {
+    try {
+      var keysetHandle = keyVault.readKeysetHandle(keyId);
+      if (deterministicCipherCache != null) {
+        return deterministicCipherCache.cipher(keyId, keysetHandle, fpe.getName(), fpeContext(alphabet, tweakBytes),
+            plaintext, p -> fpeAlgorithm(fpe).cipherFPE(p, keysetHandle, alphabet, tweakBytes));
+      }
+      return fpeAlgorithm(fpe).cipherFPE(plaintext, keysetHandle, alphabet, tweakBytes);
+    } catch (KryptoniteException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new KryptoniteException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Batch variant of {@link #cipherFieldFPE(byte[], String, FpeCipherSpec, String, byte[])}
+   * which reads the keyset handle once for all values.
+   */
+  List<byte[]> cipherFieldsFPE(List<byte[]> plaintexts, String keyId, FpeCipherSpec fpe, String alphabet, byte[] tweakBytes) {
+    long start = System.nanoTime();
+    boolean success = false;
+    try {
+      var ciphertexts = doCipherFieldsFPE(plaintexts, keyId, fpe, alphabet, tweakBytes);
+      success = true;
+      return ciphertexts;
+    } finally {
+      recordCipherOperation(Operation.ENCRYPT, fpe, keyId, plaintexts.size(), start, success);
+    }
+  }
+
+  private List<byte[]> doCipherFieldsFPE(List<byte[]> plaintexts, String keyId, FpeCipherSpec fpe, String alphabet, byte[] tweakBytes) {
+    try {
+      var keysetHandle = keyVault.readKeysetHandle(keyId);
+      var ciphertexts = new ArrayList<byte[]>(plaintexts.size());
+      for (byte[] plaintext : plaintexts) {
+        ciphertexts.add(fpeAlgorithm(fpe).cipherFPE(plaintext, keysetHandle, alphabet, tweakBytes));
+      }
+      return ciphertexts;
     } catch (KryptoniteException e) {
       throw e;
     } catch (Exception e) {
@@ -373,24 +692,49 @@ public class Kryptonite implements AutoCloseable {
   }
 
   public byte[] decipherFieldRaw(byte[] ciphertext, PayloadMetaData metadata) {
+    var keyIdBytes = metadata.getKeyId().getBytes(StandardCharsets.UTF_8);
+    return decipherFieldRaw(ciphertext, metadata, ID_CIPHERSPEC_LUT.get(metadata.getAlgorithmId()), metadata.asBytes(), keyIdBytes);
+  }
+
+  /**
+   * Decrypts with an already resolved {@code cipherSpec} and precomputed AAD bytes.
+   *
+   * @see #cipherFieldRaw(byte[], PayloadMetaData, CipherSpec, byte[], byte[])
+   */
+  byte[] decipherFieldRaw(byte[] ciphertext, PayloadMetaData metadata, CipherSpec cipherSpec, byte[] encryptAad, byte[] wrapAad) {
+    long start = System.nanoTime();
+    boolean success = false;
+    try {
+      var plaintext = doDecipherFieldRaw(ciphertext, metadata, cipherSpec, encryptAad, wrapAad);
+      success = true;
+      return plaintext;
+    } finally {
+      recordCipherOperation(Operation.DECRYPT, cipherSpec, metadata.getKeyId(), 1, start, success);
+    }
+  }
+
+  private byte[] doDecipherFieldRaw(byte[] ciphertext, PayloadMetaData metadata, CipherSpec cipherSpec, byte[] encryptAad, byte[] wrapAad) {
     try {
       LOG.log(DEBUG, "decipherFieldRaw: keyId=''{0}'' algorithmId=''{1}'' ciphertext={2}B",
           metadata.getKeyId(), metadata.getAlgorithmId(), ciphertext.length);
-      var cipherSpec = ID_CIPHERSPEC_LUT.get(metadata.getAlgorithmId());
       if (cipherSpec instanceof KmsEnvelopeCipherSpec kms) {
-        return decipherEnvelopeKms(ciphertext, metadata, kms.getAlgorithm());
+        return decipherEnvelopeKms(ciphertext, metadata.getKeyId(), kms.getAlgorithm(), encryptAad, wrapAad);
       }
       if (cipherSpec instanceof KeysetEnvelopeCipherSpec ks) {
         var keysetHandle = keyVault.readKeysetHandle(metadata.getKeyId());
-        var wrapAad = metadata.getKeyId().getBytes(StandardCharsets.UTF_8);
-        return decipherEnvelopeKeyset(ciphertext, metadata, ks.getAlgorithm(), keysetHandle, wrapAad);
+        return decipherEnvelopeKeyset(ciphertext, metadata.getKeyId(), ks.getAlgorithm(), keysetHandle, encryptAad, wrapAad);
       }
       if (!(cipherSpec instanceof AeadCipherSpec aead)) {
         throw new KryptoniteException("algorithm ID '" + metadata.getAlgorithmId() + "' is not an AEAD algorithm");
       }
       LOG.log(DEBUG, "decipherFieldRaw: direct decryption without envelope\"");
-      var keysetHandle = keyVault.readKeysetHandle(metadata.getKeyId());
-      return aead.getAlgorithm().decipher(ciphertext, keysetHandle, metadata.asBytes());
+      var keyId = metadata.getKeyId();
+      if (deterministicCipherCache != null && aead.isDeterministic()) {
+        var keysetHandle = keyVault.readKeysetHandle(keyId);
+        return deterministicCipherCache.decipher(keyId, keysetHandle, aead.getName(), encryptAad,
+            ciphertext, c -> aead.getAlgorithm().decipher(c, keyVault, keyId, keysetHandle, encryptAad));
+      }
+      return aead.getAlgorithm().decipher(ciphertext, keyVault, keyId, encryptAad);
     } catch (KryptoniteException e) {
       throw e;
     } catch (Exception e) {
@@ -398,72 +742,301 @@ public class Kryptonite implements AutoCloseable {
     }
   }
 
-  private byte[] decipherEnvelopeKms(byte[] ciphertext, PayloadMetaData metadata,
-      AeadEnvelopeAlgorithm<EnvelopeKekEncryption> algorithm) throws Exception {
-    LOG.log(DEBUG, "decipherFieldRaw: KMS KEK envelope decryption");
-    if (envelopeKekRegistry == null) {
-      throw new KryptoniteException(
-          "KMS KEK envelope decryption requested but envelope_kek_configs is not configured");
+  /**
+   * Decrypts the readable bytes of {@code ciphertext} and writes the plaintext into {@code out}.
+   * Buffer positions are updated as for {@link #cipherFieldRaw(ByteBuffer, PayloadMetaData, ByteBuffer)}.
+   *
+   * @return number of plaintext bytes written into {@code out}
+   */
+  public int decipherFieldRaw(ByteBuffer ciphertext, PayloadMetaData metadata, ByteBuffer out) {
+    var keyIdBytes = metadata.getKeyId().getBytes(StandardCharsets.UTF_8);
+    return decipherFieldRaw(ciphertext, metadata, ID_CIPHERSPEC_LUT.get(metadata.getAlgorithmId()), metadata.asBytes(), keyIdBytes, out);
+  }
+
+  int decipherFieldRaw(ByteBuffer ciphertext, PayloadMetaData metadata, CipherSpec cipherSpec, byte[] encryptAad, byte[] wrapAad, ByteBuffer out) {
+    long start = System.nanoTime();
+    boolean success = false;
+    try {
+      var written = doDecipherFieldRaw(ciphertext.duplicate(), metadata, cipherSpec, encryptAad, wrapAad, out);
+      ciphertext.position(ciphertext.limit());
+      success = true;
+      return written;
+    } finally {
+      recordCipherOperation(Operation.DECRYPT, cipherSpec, metadata.getKeyId(), 1, start, success);
     }
-    if (edekStore == null) {
-      throw new KryptoniteException(
-          "KMS KEK envelope decryption requested but no EdekStore is configured");
+  }
+
+  private int doDecipherFieldRaw(ByteBuffer ciphertext, PayloadMetaData metadata, CipherSpec cipherSpec, byte[] encryptAad, byte[] wrapAad, ByteBuffer out) {
+    try {
+      LOG.log(DEBUG, "decipherFieldRaw: keyId=''{0}'' algorithmId=''{1}'' ciphertext={2}B (into buffer)",
+          metadata.getKeyId(), metadata.getAlgorithmId(), ciphertext.remaining());
+      if (cipherSpec instanceof KmsEnvelopeCipherSpec kms) {
+        LOG.log(DEBUG, "decipherFieldRaw: KMS KEK envelope decryption");
+        requireKmsEnvelopeSupport("decryption");
+        var algorithm = kms.getAlgorithm();
+        var dekAead = resolveKmsDek(algorithm.extractWrappedDek(ciphertext), metadata.getKeyId(), algorithm,
+            envelopeKekRegistry.get(metadata.getKeyId()), wrapAad);
+        return ByteBuffers.write(algorithm.decipherWithDek(ciphertext, dekAead, encryptAad), out);
+      }
+      if (cipherSpec instanceof KeysetEnvelopeCipherSpec ks) {
+        var algorithm = ks.getAlgorithm();
+        var keysetHandle = keyVault.readKeysetHandle(metadata.getKeyId());
+        var dekAead = resolveKeysetDek(algorithm.extractWrappedDek(ciphertext), metadata.getKeyId(), algorithm,
+            keysetHandle, wrapAad);
+        return ByteBuffers.write(algorithm.decipherWithDek(ciphertext, dekAead, encryptAad), out);
+      }
+      if (!(cipherSpec instanceof AeadCipherSpec aead)) {
+        throw new KryptoniteException("algorithm ID '" + metadata.getAlgorithmId() + "' is not an AEAD algorithm");
+      }
+      LOG.log(DEBUG, "decipherFieldRaw: direct decryption without envelope");
+      return aead.getAlgorithm().decipher(ciphertext, keyVault, metadata.getKeyId(), encryptAad, out);
+    } catch (KryptoniteException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new KryptoniteException(e.getMessage(), e);
     }
+  }
+
+  private byte[] decipherEnvelopeKms(byte[] ciphertext, String keyId,
+      AeadEnvelopeAlgorithm<EnvelopeKekEncryption> algorithm, byte[] encryptAad, byte[] wrapAad) throws Exception {
+    LOG.log(DEBUG, "decipherFieldRaw: KMS KEK envelope decryption");
+    requireKmsEnvelopeSupport("decryption");
     // extractWrappedDek returns the 16-byte fingerprint for KMS-backed envelope encryption
     byte[] fingerprint = algorithm.extractWrappedDek(ciphertext);
-    var wrapAad = metadata.getKeyId().getBytes(StandardCharsets.UTF_8);
-    var envelopeKekEncryption = envelopeKekRegistry.get(metadata.getKeyId());
-    Aead dekAead;
+    var dekAead = resolveKmsDek(fingerprint, keyId, algorithm, envelopeKekRegistry.get(keyId), wrapAad);
+    return algorithm.decipherWithDek(ciphertext, dekAead, encryptAad);
+  }
+
+  private Aead resolveKmsDek(byte[] fingerprint, String keyId, AeadEnvelopeAlgorithm<EnvelopeKekEncryption> algorithm,
+      EnvelopeKekEncryption envelopeKekEncryption, byte[] wrapAad) throws Exception {
     if (wrappedDekCache != null) {
       LOG.log(DEBUG, "decipherFieldRaw: fingerprint-keyed DEK cache enabled (fingerprint={0}B)", fingerprint.length);
-      dekAead = wrappedDekCache.get(fingerprint, fp -> {
+      return wrappedDekCache.get(fingerprint, fp -> {
         byte[] wrappedDek = edekStore.get(fp)
             .orElseThrow(() -> new KryptoniteException(
-                "EDEK not found for fingerprint — the wrapped DEK may not yet have been replicated to this instance's EdekStore, or the EDEK topic may have been corrupted; keyId='" + metadata.getKeyId() + "'"));
+                "EDEK not found for fingerprint — the wrapped DEK may not yet have been replicated to this instance's EdekStore, or the EDEK topic may have been corrupted; keyId='" + keyId + "'"));
         try {
-          return algorithm.unwrapDek(wrappedDek, envelopeKekEncryption, wrapAad);
+          return unwrapDek(algorithm, wrappedDek, envelopeKekEncryption, keyId, wrapAad);
         } catch (Exception e) {
-          throw new KryptoniteException("failed to unwrap DEK; keyId='" + metadata.getKeyId() + "'", e);
+          throw new KryptoniteException("failed to unwrap DEK; keyId='" + keyId + "'", e);
         }
       });
-    } else {
-      LOG.log(DEBUG, "decipherFieldRaw: no DEK cache, looking up wrappedDek from EdekStore (fingerprint={0}B)", fingerprint.length);
-      byte[] wrappedDek = edekStore.get(fingerprint)
-          .orElseThrow(() -> new KryptoniteException(
-              "EDEK not found for fingerprint — the wrapped DEK may not yet have been replicated to this instance's EdekStore, or the EDEK topic may have been corrupted; keyId='" + metadata.getKeyId() + "'"));
-      dekAead = algorithm.unwrapDek(wrappedDek, envelopeKekEncryption, wrapAad);
     }
-    return algorithm.decipherWithDek(ciphertext, dekAead, metadata.asBytes());
+    LOG.log(DEBUG, "decipherFieldRaw: no DEK cache, looking up wrappedDek from EdekStore (fingerprint={0}B)", fingerprint.length);
+    byte[] wrappedDek = edekStore.get(fingerprint)
+        .orElseThrow(() -> new KryptoniteException(
+            "EDEK not found for fingerprint — the wrapped DEK may not yet have been replicated to this instance's EdekStore, or the EDEK topic may have been corrupted; keyId='" + keyId + "'"));
+    return unwrapDek(algorithm, wrappedDek, envelopeKekEncryption, keyId, wrapAad);
   }
 
-  private byte[] decipherEnvelopeKeyset(byte[] ciphertext, PayloadMetaData metadata,
-      AeadEnvelopeAlgorithm<KeysetHandle> algorithm, KeysetHandle keysetHandle, byte[] wrapAad) throws Exception {
+  private byte[] decipherEnvelopeKeyset(byte[] ciphertext, String keyId,
+      AeadEnvelopeAlgorithm<KeysetHandle> algorithm, KeysetHandle keysetHandle, byte[] encryptAad, byte[] wrapAad) throws Exception {
     byte[] wrappedDek = algorithm.extractWrappedDek(ciphertext);
-    Aead dekAead;
+    var dekAead = resolveKeysetDek(wrappedDek, keyId, algorithm, keysetHandle, wrapAad);
+    return algorithm.decipherWithDek(ciphertext, dekAead, encryptAad);
+  }
+
+  private Aead resolveKeysetDek(byte[] wrappedDek, String keyId, AeadEnvelopeAlgorithm<KeysetHandle> algorithm,
+      KeysetHandle keysetHandle, byte[] wrapAad) throws Exception {
     if (wrappedDekCache != null) {
       LOG.log(DEBUG, "decipherFieldRaw: Keyset KEK envelope decryption with enabled DEK cache, wrappedDek={0}B)", wrappedDek.length);
-      dekAead = wrappedDekCache.get(wrappedDek, wdk -> {
+      return wrappedDekCache.get(wrappedDek, wdk -> {
         try {
-          return algorithm.unwrapDek(wdk, keysetHandle, wrapAad);
+          return unwrapDek(algorithm, wdk, keysetHandle, keyId, wrapAad);
         } catch (Exception e) {
-          throw new KryptoniteException("failed to unwrap DEK; keyId='" + metadata.getKeyId() + "'", e);
+          throw new KryptoniteException("failed to unwrap DEK; keyId='" + keyId + "'", e);
         }
       });
-    } else {
-      LOG.log(DEBUG, "decipherFieldRaw: Keyset KEK envelope decryption without DEK cache, wrappedDek={0}B)", wrappedDek.length);
-      dekAead = algorithm.unwrapDek(wrappedDek, keysetHandle, wrapAad);
     }
-    return algorithm.decipherWithDek(ciphertext, dekAead, metadata.asBytes());
+    LOG.log(DEBUG, "decipherFieldRaw: Keyset KEK envelope decryption without DEK cache, wrappedDek={0}B)", wrappedDek.length);
+    return unwrapDek(algorithm, wrappedDek, keysetHandle, keyId, wrapAad);
+  }
+
+  private <K> Aead unwrapDek(AeadEnvelopeAlgorithm<K> algorithm, byte[] wrappedDek, K keyMaterial,
+      String keyId, byte[] wrapAad) throws Exception {
+    long start = System.nanoTime();
+    var dekAead = algorithm.unwrapDek(wrappedDek, keyMaterial, wrapAad);
+    metrics.recordDekUnwrap(keyId, System.nanoTime() - start);
+    return dekAead;
+  }
+
+  private void recordCipherOperation(Operation operation, CipherSpec cipherSpec, String keyId, int count,
+      long startNanos, boolean success) {
+    metrics.recordCipherOperation(operation, cipherSpec != null ? cipherSpec.getName() : "UNKNOWN", keyId,
+        count, System.nanoTime() - startNanos, success);
+  }
+
+  private void requireKmsEnvelopeSupport(String operation) {
+    if (envelopeKekRegistry == null) {
+      throw new KryptoniteException(
+          "KMS KEK envelope " + operation + " requested but envelope_kek_configs is not configured");
+    }
+    if (edekStore == null) {
+      throw new KryptoniteException(
+          "KMS KEK envelope " + operation + " requested but no EdekStore is configured");
+    }
+  }
+
+  /**
+   * Decrypts all {@code encryptedFields} and returns the plaintexts in input order, as
+   * {@link #decipherFieldRaw(byte[], PayloadMetaData)} would for each field.
+   *
+   * <p>Fields are grouped by their payload metadata so that cipher spec, AAD bytes and key
+   * material are resolved once per group. For envelope encryption, fields that share the same
+   * wrapped DEK (or EDEK fingerprint) resolve the DEK only once per batch, i.e. the
+   * {@link WrappedDekCache} is consulted once per distinct DEK instead of once per field.
+   *
+   * @param encryptedFields fields to decrypt, possibly written with different keys or algorithms
+   * @return plaintexts in the same order as {@code encryptedFields}
+   */
+  public List<byte[]> decipherFields(List<EncryptedField> encryptedFields) {
+    Objects.requireNonNull(encryptedFields, "encryptedFields must not be null");
+    var plaintexts = new byte[encryptedFields.size()][];
+    var groups = new LinkedHashMap<PayloadMetaData, List<Integer>>();
+    for (int i = 0; i < encryptedFields.size(); i++) {
+      groups.computeIfAbsent(encryptedFields.get(i).getMetaData(), m -> new ArrayList<>()).add(i);
+    }
+    LOG.log(DEBUG, "decipherFields: batchSize={0} groups={1}", encryptedFields.size(), groups.size());
+    try {
+      for (var group : groups.entrySet()) {
+        var metadata = group.getKey();
+        var indices = group.getValue();
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+          decipherGroup(encryptedFields, indices, metadata, plaintexts);
+          success = true;
+        } finally {
+          recordCipherOperation(Operation.DECRYPT, ID_CIPHERSPEC_LUT.get(metadata.getAlgorithmId()),
+              metadata.getKeyId(), indices.size(), start, success);
+        }
+      }
+    } catch (KryptoniteException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new KryptoniteException(e.getMessage(), e);
+    }
+    return Arrays.asList(plaintexts);
+  }
+
+  private void decipherGroup(List<EncryptedField> encryptedFields, List<Integer> indices,
+      PayloadMetaData metadata, byte[][] plaintexts) throws Exception {
+    var keyId = metadata.getKeyId();
+    var cipherSpec = ID_CIPHERSPEC_LUT.get(metadata.getAlgorithmId());
+    var encryptAad = metadata.asBytes();
+    var wrapAad = keyId.getBytes(StandardCharsets.UTF_8);
+    if (cipherSpec instanceof KmsEnvelopeCipherSpec kms) {
+      requireKmsEnvelopeSupport("decryption");
+      var algorithm = kms.getAlgorithm();
+      var envelopeKekEncryption = envelopeKekRegistry.get(keyId);
+      var deks = new HashMap<ByteBuffer, Aead>();
+      for (int i : indices) {
+        var ciphertext = encryptedFields.get(i).ciphertext();
+        var fingerprint = algorithm.extractWrappedDek(ciphertext);
+        var dekAead = deks.get(ByteBuffer.wrap(fingerprint));
+        if (dekAead == null) {
+          dekAead = resolveKmsDek(fingerprint, keyId, algorithm, envelopeKekEncryption, wrapAad);
+          deks.put(ByteBuffer.wrap(fingerprint), dekAead);
+        }
+        plaintexts[i] = algorithm.decipherWithDek(ciphertext, dekAead, encryptAad);
+      }
+      return;
+    }
+    if (cipherSpec instanceof KeysetEnvelopeCipherSpec ks) {
+      var algorithm = ks.getAlgorithm();
+      var keysetHandle = keyVault.readKeysetHandle(keyId);
+      var deks = new HashMap<ByteBuffer, Aead>();
+      for (int i : indices) {
+        var ciphertext = encryptedFields.get(i).ciphertext();
+        var wrappedDek = algorithm.extractWrappedDek(ciphertext);
+        var dekAead = deks.get(ByteBuffer.wrap(wrappedDek));
+        if (dekAead == null) {
+          dekAead = resolveKeysetDek(wrappedDek, keyId, algorithm, keysetHandle, wrapAad);
+          deks.put(ByteBuffer.wrap(wrappedDek), dekAead);
+        }
+        plaintexts[i] = algorithm.decipherWithDek(ciphertext, dekAead, encryptAad);
+      }
+      return;
+    }
+    if (!(cipherSpec instanceof AeadCipherSpec aead)) {
+      throw new KryptoniteException("algorithm ID '" + metadata.getAlgorithmId() + "' is not an AEAD algorithm");
+    }
+    var ciphertexts = new ArrayList<byte[]>(indices.size());
+    for (int i : indices) {
+      ciphertexts.add(encryptedFields.get(i).ciphertext());
+    }
+    var decrypted = aead.getAlgorithm().decipher(ciphertexts, keyVault, keyId, encryptAad);
+    for (int j = 0; j < indices.size(); j++) {
+      plaintexts[indices.get(j)] = decrypted.get(j);
+    }
   }
 
   public byte[] decipherFieldFPE(byte[] ciphertext, FieldMetaData fieldMetaData) {
     try {
-      var cipherSpec = CipherSpec.fromName(fieldMetaData.getAlgorithm().toUpperCase());
+      var cipherSpec = lookupCipherSpec(fieldMetaData.getAlgorithm());
       if (!(cipherSpec instanceof FpeCipherSpec fpe)) {
         throw new KryptoniteException("algorithm '" + fieldMetaData.getAlgorithm() + "' is not an FPE algorithm");
       }
       var tweakBytes = fieldMetaData.getFpeTweak() != null ? fieldMetaData.getFpeTweak().getBytes() : null;
-      return fpe.getAlgorithm().decipherFPE(ciphertext, keyVault.readKeysetHandle(fieldMetaData.getKeyId()), fieldMetaData.getFpeAlphabet(), tweakBytes);
+      return decipherFieldFPE(ciphertext, fieldMetaData.getKeyId(), fpe, fieldMetaData.getFpeAlphabet(), tweakBytes);
+    } catch (KryptoniteException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new KryptoniteException(e.getMessage(), e);
+    }
+  }
+
+  byte[] decipherFieldFPE(byte[] ciphertext, String keyId, FpeCipherSpec fpe, String alphabet, byte[] tweakBytes) {
+    long start = System.nanoTime();
+    boolean success = false;
+    try {
+      var plaintext = doDecipherFieldFPE(ciphertext, keyId, fpe, alphabet, tweakBytes);
+      success = true;
+      return plaintext;
+    } finally {
+      recordCipherOperation(Operation.DECRYPT, fpe, keyId, 1, start, success);
+    }
+  }
+
+  private byte[] doDecipherFieldFPE(byte[] ciphertext, String keyId, FpeCipherSpec fpe, String alphabet, byte[] tweakBytes) {
+    try {
+      var keysetHandle = keyVault.readKeysetHandle(keyId);
+      if (deterministicCipherCache != null) {
+        return deterministicCipherCache.decipher(keyId, keysetHandle, fpe.getName(), fpeContext(alphabet, tweakBytes),
+            ciphertext, c -> fpeAlgorithm(fpe).decipherFPE(c, keysetHandle, alphabet, tweakBytes));
+      }
+      return fpeAlgorithm(fpe).decipherFPE(ciphertext, keysetHandle, alphabet, tweakBytes);
+    } catch (KryptoniteException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new KryptoniteException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Batch variant of {@link #decipherFieldFPE(byte[], String, FpeCipherSpec, String, byte[])}
+   * which reads the keyset handle once for all values.
+   */
+  List<byte[]> decipherFieldsFPE(List<byte[]> ciphertexts, String keyId, FpeCipherSpec fpe, String alphabet, byte[] tweakBytes) {
+    long start = System.nanoTime();
+    boolean success = false;
+    try {
+      var plaintexts = doDecipherFieldsFPE(ciphertexts, keyId, fpe, alphabet, tweakBytes);
+      success = true;
+      return plaintexts;
+    } finally {
+      recordCipherOperation(Operation.DECRYPT, fpe, keyId, ciphertexts.size(), start, success);
+    }
+  }
+
+  private List<byte[]> doDecipherFieldsFPE(List<byte[]> ciphertexts, String keyId, FpeCipherSpec fpe, String alphabet, byte[] tweakBytes) {
+    try {
+      var keysetHandle = keyVault.readKeysetHandle(keyId);
+      var plaintexts = new ArrayList<byte[]>(ciphertexts.size());
+      for (byte[] ciphertext : ciphertexts) {
+        plaintexts.add(fpeAlgorithm(fpe).decipherFPE(ciphertext, keysetHandle, alphabet, tweakBytes));
+      }
+      return plaintexts;
     } catch (KryptoniteException e) {
       throw e;
     } catch (Exception e) {
@@ -471,6 +1044,68 @@ public class Kryptonite implements AutoCloseable {
     }
   }
 
+  /**
+   * Resolves everything that only depends on the given field configuration — the cipher spec,
+   * the payload metadata and its serialized AAD bytes as well as the FPE settings — and returns
+   * an immutable {@link PreparedCipher} that can be used for any number of field values.
+   *
+   * <p>Key material is checked for availability right away but is still read through the key
+   * vault's primitive cache on each operation, so prepared handles honour key refreshes.
+   *
+   * @param fieldMetaData static field configuration (algorithm, keyId, FPE settings)
+   * @return thread-safe handle to encrypt and decrypt values for this configuration
+   */
+  public PreparedCipher prepare(FieldMetaData fieldMetaData) {
+    Objects.requireNonNull(fieldMetaData, "fieldMetaData must not be null");
+    try {
+      var cipherSpec = lookupCipherSpec(fieldMetaData.getAlgorithm());
+      var keyId = fieldMetaData.getKeyId();
+      if (cipherSpec instanceof KmsEnvelopeCipherSpec) {
+        if (envelopeKekRegistry == null) {
+          throw new KryptoniteException(
+              "KMS KEK envelope encryption requested but envelope_kek_configs is not configured");
+        }
+        envelopeKekRegistry.get(keyId);
+      } else {
+        keyVault.readKeysetHandle(keyId);
+      }
+      return new PreparedCipher(this, fieldMetaData, cipherSpec,
+          new PayloadMetaData(KRYPTONITE_VERSION, CIPHERSPEC_ID_LUT.get(cipherSpec), keyId));
+    } catch (KryptoniteException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new KryptoniteException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Resolves the shared {@link CipherSpec} instance for the given algorithm name without
+   * creating new algorithm instances on every call as {@link CipherSpec#fromName} does.
+   */
+  private static CipherSpec lookupCipherSpec(String algorithm) {
+    var cipherSpec = NAME_CIPHERSPEC_LUT.get(algorithm);
+    if (cipherSpec != null) {
+      return cipherSpec;
+    }
+    var upperCased = algorithm.toUpperCase();
+    cipherSpec = NAME_CIPHERSPEC_LUT.get(upperCased);
+    return cipherSpec != null ? cipherSpec : CipherSpec.fromName(upperCased);
+  }
+
+  /**
+   * Serializes the FPE settings an FPE result depends on besides key and input as
+   * [4B alphabet length][alphabet][tweak] so that they can be part of a memoization key.
+   */
+  private static byte[] fpeContext(String alphabet, byte[] tweakBytes) {
+    var alphabetBytes = alphabet != null ? alphabet.getBytes(StandardCharsets.UTF_8) : new byte[0];
+    var tweak = tweakBytes != null ? tweakBytes : new byte[0];
+    return ByteBuffer.allocate(4 + alphabetBytes.length + tweak.length)
+        .putInt(alphabet != null ? alphabetBytes.length : -1)
+        .put(alphabetBytes)
+        .put(tweak)
+        .array();
+  }
+
   public static Kryptonite createFromConfig(Map<String,String> config) {
     try {
       validateDynamicKeyIdPrefix(config);
@@ -516,7 +1151,7 @@ public class Kryptonite implements AutoCloseable {
               + "envelope_kek_configs must be a non-empty list of KEK entries");
     }
     validateEnvelopeKmsConfig(registry, edekStore);
-    return new Kryptonite(new TinkKeyVault(Map.of()), wrappedDekCache(config), sessionCache, registry, edekStore, dekSizeBytes);
+    return new Kryptonite(new TinkKeyVault(Map.of()), wrappedDekCache(config), sessionCache, registry, edekStore, dekSizeBytes, metrics(config), deterministicCipherCache(config), fpeEngine(config));
   }
 
   private static Kryptonite withTinkKeyVault(Map<String,String> config)
@@ -535,7 +1170,7 @@ public class Kryptonite implements AutoCloseable {
     var edekStore = buildEdekStore(config);
     var registry = buildEnvelopeKekRegistry(config, sessionCache, dekSizeBytes, edekStore);
     validateEnvelopeKmsConfig(registry, edekStore);
-    return new Kryptonite(new TinkKeyVault(keyConfigs), wrappedDekCache(config), sessionCache, registry, edekStore, dekSizeBytes);
+    return new Kryptonite(new TinkKeyVault(keyConfigs), wrappedDekCache(config), sessionCache, registry, edekStore, dekSizeBytes, metrics(config), deterministicCipherCache(config), fpeEngine(config));
   }
 
   private static Kryptonite withTinkKeyVaultEncrypted(Map<String,String> config)
@@ -555,7 +1190,7 @@ public class Kryptonite implements AutoCloseable {
     var edekStore = buildEdekStore(config);
     var registry = buildEnvelopeKekRegistry(config, sessionCache, dekSizeBytes, edekStore);
     validateEnvelopeKmsConfig(registry, edekStore);
-    return new Kryptonite(new TinkKeyVaultEncrypted(keyConfigs, configureKmsKeyEncryption(config)), wrappedDekCache(config), sessionCache, registry, edekStore, dekSizeBytes);
+    return new Kryptonite(new TinkKeyVaultEncrypted(keyConfigs, configureKmsKeyEncryption(config)), wrappedDekCache(config), sessionCache, registry, edekStore, dekSizeBytes, metrics(config), deterministicCipherCache(config), fpeEngine(config));
   }
 
   private static Kryptonite withKmsKeyVault(Map<String,String> config) {
@@ -574,7 +1209,7 @@ public class Kryptonite implements AutoCloseable {
     var edekStore = buildEdekStore(config);
     var registry = buildEnvelopeKekRegistry(config, sessionCache, dekSizeBytes, edekStore);
     validateEnvelopeKmsConfig(registry, edekStore);
-    return new Kryptonite(vault, wrappedDekCache(config), sessionCache, registry, edekStore, dekSizeBytes);
+    return new Kryptonite(vault, wrappedDekCache(config), sessionCache, registry, edekStore, dekSizeBytes, metrics(config), deterministicCipherCache(config), fpeEngine(config));
   }
 
   private static Kryptonite withKmsKeyVaultEncrypted(Map<String,String> config) {
@@ -595,7 +1230,7 @@ public class Kryptonite implements AutoCloseable {
     var edekStore = buildEdekStore(config);
     var registry = buildEnvelopeKekRegistry(config, sessionCache, dekSizeBytes, edekStore);
     validateEnvelopeKmsConfig(registry, edekStore);
-    return new Kryptonite(vault, wrappedDekCache(config), sessionCache, registry, edekStore, dekSizeBytes);
+    return new Kryptonite(vault, wrappedDekCache(config), sessionCache, registry, edekStore, dekSizeBytes, metrics(config), deterministicCipherCache(config), fpeEngine(config));
   }
 
   private static int dekSizeBytes(Map<String,String> config) {
@@ -622,6 +1257,15 @@ public class Kryptonite implements AutoCloseable {
     }
   }
 
+  private static KryptoniteMetrics metrics(Map<String,String> config) {
+    var metricsType = MetricsType.valueOf(config.getOrDefault(METRICS_TYPE, METRICS_TYPE_DEFAULT).toUpperCase());
+    LOG.log(DEBUG, "metrics: type={0}", metricsType);
+    return switch (metricsType) {
+      case NONE -> KryptoniteMetrics.noop();
+      case JMX -> new JmxKryptoniteMetrics();
+    };
+  }
+
   private static WrappedDekCache wrappedDekCache(Map<String,String> config) {
     try {
       int size = Integer.parseInt(config.getOrDefault(
@@ -634,14 +1278,54 @@ public class Kryptonite implements AutoCloseable {
     }
   }
 
+  private static DeterministicCipherCache deterministicCipherCache(Map<String,String> config) {
+    long size;
+    int maxEntryBytes;
+    try {
+      size = Long.parseLong(config.getOrDefault(
+          DETERMINISTIC_CACHE_SIZE, String.valueOf(DETERMINISTIC_CACHE_SIZE_DEFAULT)));
+      maxEntryBytes = Integer.parseInt(config.getOrDefault(
+          DETERMINISTIC_CACHE_MAX_ENTRY_BYTES, String.valueOf(DETERMINISTIC_CACHE_MAX_ENTRY_BYTES_DEFAULT)));
+    } catch (NumberFormatException e) {
+      throw new ConfigurationException("deterministic_cache_size and deterministic_cache_max_entry_bytes must be numeric", e);
+    }
+    if (size <= 0) {
+      LOG.log(DEBUG, "deterministic cipher cache: disabled");
+      return null;
+    }
+    if (maxEntryBytes <= 0) {
+      throw new ConfigurationException("deterministic_cache_max_entry_bytes must be > 0, got: " + maxEntryBytes);
+    }
+    LOG.log(DEBUG, "deterministic cipher cache: size={0} maxEntryBytes={1}", size, maxEntryBytes);
+    return new DeterministicCipherCache(size, maxEntryBytes);
+  }
+
+  private static FpeEngine fpeEngine(Map<String,String> config) {
+    var value = config.getOrDefault(CIPHER_FPE_ENGINE, CIPHER_FPE_ENGINE_DEFAULT);
+    try {
+      var engine = FpeEngine.valueOf(value.toUpperCase());
+      LOG.log(DEBUG, "FPE engine: {0}", engine);
+      return engine;
+    } catch (IllegalArgumentException e) {
+      throw new ConfigurationException("cipher_fpe_engine must be one of "
+          + Arrays.toString(FpeEngine.values()) + ", got: " + value, e);
+    }
+  }
+
   private static EncryptDekSessionCache encryptDekSessionCache(Map<String,String> config) {
     try {
       long maxEncryptions = Long.parseLong(config.getOrDefault(
           DEK_MAX_ENCRYPTIONS, String.valueOf(DEK_MAX_ENCRYPTIONS_DEFAULT)));
       long ttlMinutes = Long.parseLong(config.getOrDefault(
           DEK_TTL_MINUTES, String.valueOf(DEK_TTL_MINUTES_DEFAULT)));
-      LOG.log(DEBUG, "DEK session cache: maxEncryptions={0} ttlMinutes={1}", maxEncryptions, ttlMinutes);
-      return new EncryptDekSessionCache(maxEncryptions, ttlMinutes);
+      double rotationWatermark = Double.parseDouble(config.getOrDefault(
+          DEK_ROTATION_WATERMARK, String.valueOf(DEK_ROTATION_WATERMARK_DEFAULT)));
+      if (!(rotationWatermark > 0.0 && rotationWatermark <= 1.0)) {
+        throw new ConfigurationException("dek_rotation_watermark must be > 0.0 and <= 1.0 but was " + rotationWatermark);
+      }
+      LOG.log(DEBUG, "DEK session cache: maxEncryptions={0} ttlMinutes={1} rotationWatermark={2}",
+          maxEncryptions, ttlMinutes, rotationWatermark);
+      return new EncryptDekSessionCache(maxEncryptions, ttlMinutes, rotationWatermark);
     } catch (NumberFormatException e) {
       LOG.log(DEBUG, "DEK session cache: invalid config, using defaults maxEncryptions={0} ttlMinutes={1}",
           DEK_MAX_ENCRYPTIONS_DEFAULT, DEK_TTL_MINUTES_DEFAULT);
@@ -674,8 +1358,7 @@ public class Kryptonite implements AutoCloseable {
           try {
             var session = kmsAlgorithm.createSession(kek, wrapAad, dekSizeBytes, sessionCache.getClock());
             if (edekStore != null) {
-              byte[] fp = EdekStore.fingerprint(session.wrappedDek());
-              edekStore.put(fp, session.wrappedDek());
+              edekStore.put(session.fingerprint(), session.wrappedDek());
               LOG.log(DEBUG, "envelope KEK registry: published DEK fingerprint to EdekStore for KEK id=''{0}''", id);
             }
             return session;
@@ -64,6 +64,21 @@ public class PayloadMetaData {
     return baos.toByteArray();
   }
 
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof PayloadMetaData)) return false;
+    PayloadMetaData that = (PayloadMetaData) o;
+    return Objects.equals(version, that.version)
+        && Objects.equals(algorithmId, that.algorithmId)
+        && Objects.equals(keyId, that.keyId);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(version, algorithmId, keyId);
+  }
+
   @Override
   public String toString() {
     return "PayloadMetaData{" +
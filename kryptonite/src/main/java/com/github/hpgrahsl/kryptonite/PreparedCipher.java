@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2021. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.hpgrahsl.kryptonite;
+
+import com.github.hpgrahsl.kryptonite.Kryptonite.CipherSpec;
+import com.github.hpgrahsl.kryptonite.Kryptonite.FpeCipherSpec;
+import com.github.hpgrahsl.kryptonite.crypto.ByteBuffers;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable, thread-safe handle for encrypting and decrypting many field values which share the
+ * same static configuration. Obtained via {@link Kryptonite#prepare(FieldMetaData)}.
+ *
+ * <p>Everything that only depends on the field configuration is resolved once at construction:
+ * the {@link CipherSpec}, the {@link PayloadMetaData} together with its serialized AAD bytes,
+ * the UTF-8 encoded key identifier used as DEK wrapping AAD and, for FPE, the alphabet and
+ * tweak bytes. Each operation therefore goes straight to key material lookup and the cipher.
+ *
+ * <pre>{@code
+ * PreparedCipher cipher = kryptonite.prepare(fieldMetaData);
+ * byte[] ciphertext = cipher.encrypt(plaintext);
+ * byte[] plaintext = cipher.decrypt(ciphertext);
+ * }</pre>
+ */
+public final class PreparedCipher {
+
+  private final Kryptonite kryptonite;
+  private final CipherSpec cipherSpec;
+  private final PayloadMetaData payloadMetaData;
+  private final byte[] encryptAad;
+  private final byte[] wrapAad;
+  private final String fpeAlphabet;
+  private final byte[] fpeTweak;
+
+  PreparedCipher(Kryptonite kryptonite, FieldMetaData fieldMetaData, CipherSpec cipherSpec, PayloadMetaData payloadMetaData) {
+    this.kryptonite = Objects.requireNonNull(kryptonite, "kryptonite must not be null");
+    this.cipherSpec = Objects.requireNonNull(cipherSpec, "cipherSpec must not be null");
+    this.payloadMetaData = Objects.requireNonNull(payloadMetaData, "payloadMetaData must not be null");
+    this.encryptAad = payloadMetaData.asBytes();
+    this.wrapAad = payloadMetaData.getKeyId().getBytes(StandardCharsets.UTF_8);
+    this.fpeAlphabet = fieldMetaData.getFpeAlphabet();
+    this.fpeTweak = fieldMetaData.getFpeTweak() != null ? fieldMetaData.getFpeTweak().getBytes() : null;
+  }
+
+  public CipherSpec getCipherSpec() {
+    return cipherSpec;
+  }
+
+  public PayloadMetaData getPayloadMetaData() {
+    return payloadMetaData;
+  }
+
+  public boolean isCipherFPE() {
+    return cipherSpec.isCipherFPE();
+  }
+
+  /**
+   * Encrypts {@code plaintext}, returning the raw ciphertext as {@link Kryptonite#cipherFieldRaw}
+   * or {@link Kryptonite#cipherFieldFPE} would for the same field configuration.
+   */
+  public byte[] encrypt(byte[] plaintext) {
+    if (cipherSpec instanceof FpeCipherSpec fpe) {
+      return kryptonite.cipherFieldFPE(plaintext, payloadMetaData.getKeyId(), fpe, fpeAlphabet, fpeTweak);
+    }
+    return kryptonite.cipherFieldRaw(plaintext, payloadMetaData, cipherSpec, encryptAad, wrapAad);
+  }
+
+  /**
+   * Decrypts a ciphertext produced for this field configuration.
+   */
+  public byte[] decrypt(byte[] ciphertext) {
+    if (cipherSpec instanceof FpeCipherSpec fpe) {
+      return kryptonite.decipherFieldFPE(ciphertext, payloadMetaData.getKeyId(), fpe, fpeAlphabet, fpeTweak);
+    }
+    return kryptonite.decipherFieldRaw(ciphertext, payloadMetaData, cipherSpec, encryptAad, wrapAad);
+  }
+
+  /**
+   * Encrypts the readable bytes of {@code plaintext} into {@code out}.
+   *
+   * @return number of ciphertext bytes written into {@code out}
+   * @see Kryptonite#cipherFieldRaw(ByteBuffer, PayloadMetaData, ByteBuffer)
+   */
+  public int encrypt(ByteBuffer plaintext, ByteBuffer out) {
+    if (cipherSpec instanceof FpeCipherSpec) {
+      byte[] ciphertext = encrypt(ByteBuffers.read(plaintext.duplicate()));
+      int written = writeOrThrow(ciphertext, out);
+      plaintext.position(plaintext.limit());
+      return written;
+    }
+    return kryptonite.cipherFieldRaw(plaintext, payloadMetaData, cipherSpec, encryptAad, wrapAad, out);
+  }
+
+  /**
+   * Decrypts the readable bytes of {@code ciphertext} into {@code out}.
+   *
+   * @return number of plaintext bytes written into {@code out}
+   * @see Kryptonite#decipherFieldRaw(ByteBuffer, PayloadMetaData, ByteBuffer)
+   */
+  public int decrypt(ByteBuffer ciphertext, ByteBuffer out) {
+    if (cipherSpec instanceof FpeCipherSpec) {
+      byte[] plaintext = decrypt(ByteBuffers.read(ciphertext.duplicate()));
+      int written = writeOrThrow(plaintext, out);
+      ciphertext.position(ciphertext.limit());
+      return written;
+    }
+    return kryptonite.decipherFieldRaw(ciphertext, payloadMetaData, cipherSpec, encryptAad, wrapAad, out);
+  }
+
+  /**
+   * Encrypts all {@code plaintexts}, resolving key material once and reserving DEK session
+   * slots in bulk for envelope encryption. Ciphertexts are returned in input order.
+   *
+   * @see Kryptonite#cipherFields(List, FieldMetaData)
+   */
+  public List<byte[]> encrypt(List<byte[]> plaintexts) {
+    if (cipherSpec instanceof FpeCipherSpec fpe) {
+      return kryptonite.cipherFieldsFPE(plaintexts, payloadMetaData.getKeyId(), fpe, fpeAlphabet, fpeTweak);
+    }
+    return kryptonite.cipherFieldsRaw(plaintexts, payloadMetaData, cipherSpec, encryptAad, wrapAad);
+  }
+
+  /**
+   * Decrypts all {@code ciphertexts} produced for this field configuration, returned in input order.
+   */
+  public List<byte[]> decrypt(List<byte[]> ciphertexts) {
+    if (cipherSpec instanceof FpeCipherSpec fpe) {
+      return kryptonite.decipherFieldsFPE(ciphertexts, payloadMetaData.getKeyId(), fpe, fpeAlphabet, fpeTweak);
+    }
+    var encryptedFields = ciphertexts.stream()
+        .map(ciphertext -> new EncryptedField(payloadMetaData, ciphertext))
+        .toList();
+    return kryptonite.decipherFields(encryptedFields);
+  }
+
+  /**
+   * Decrypts an {@link EncryptedField}. Fields carrying the metadata this handle was prepared for
+   * take the precomputed path; any other field (e.g. written with a different key identifier)
+   * is transparently delegated to {@link Kryptonite#decipherFieldRaw(byte[], PayloadMetaData)}.
+   */
+  public byte[] decrypt(EncryptedField encryptedField) {
+    var metaData = encryptedField.getMetaData();
+    if (matches(metaData)) {
+      return decrypt(encryptedField.ciphertext());
+    }
+    return kryptonite.decipherFieldRaw(encryptedField.ciphertext(), metaData);
+  }
+
+  private static int writeOrThrow(byte[] bytes, ByteBuffer out) {
+    try {
+      return ByteBuffers.write(bytes, out);
+    } catch (IllegalArgumentException e) {
+      throw new KryptoniteException(e.getMessage(), e);
+    }
+  }
+
+  private boolean matches(PayloadMetaData metaData) {
+    return metaData == payloadMetaData
+        || (payloadMetaData.getVersion().equals(metaData.getVersion())
+            && payloadMetaData.getAlgorithmId().equals(metaData.getAlgorithmId())
+            && payloadMetaData.getKeyId().equals(metaData.getKeyId()));
+  }
+
+  @Override
+  public String toString() {
+    return "PreparedCipher{" +
+        "cipherSpec=" + cipherSpec +
+        ", payloadMetaData=" + payloadMetaData +
+        '}';
+  }
+
+}
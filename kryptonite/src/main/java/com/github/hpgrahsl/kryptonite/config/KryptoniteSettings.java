@@ -26,7 +26,25 @@ public class KryptoniteSettings {
 
   public enum SerdeType {
     KRYO,
-    AVRO
+    AVRO,
+    PRIMITIVE;
+
+    /**
+     * @return {@code true} if {@code serdeName} selects a serde which expects Avro generic values
+     */
+    public static boolean isAvro(String serdeName) {
+      return AVRO.name().equals(serdeName);
+    }
+  }
+
+  public enum MetricsType {
+    NONE,
+    JMX
+  }
+
+  public enum FpeEngine {
+    MYSTO,
+    NATIVE
   }
 
   public enum AlphabetTypeFPE {
@@ -62,6 +80,7 @@ public class KryptoniteSettings {
   public static final String CIPHER_FPE_TWEAK = "cipher_fpe_tweak";
   public static final String CIPHER_FPE_ALPHABET_TYPE = "cipher_fpe_alphabet_type";
   public static final String CIPHER_FPE_ALPHABET_CUSTOM = "cipher_fpe_alphabet_custom";
+  public static final String CIPHER_FPE_ENGINE = "cipher_fpe_engine";
   public static final String CIPHER_MODE = "cipher_mode";
   public static final String KEY_SOURCE = "key_source";
   public static final String KMS_TYPE = "kms_type";
@@ -70,6 +89,10 @@ public class KryptoniteSettings {
   public static final String DEK_CACHE_SIZE = "dek_cache_size";
   public static final String DEK_MAX_ENCRYPTIONS = "dek_max_encryptions";
   public static final String DEK_TTL_MINUTES = "dek_ttl_minutes";
+  public static final String DEK_ROTATION_WATERMARK = "dek_rotation_watermark";
+  public static final String DETERMINISTIC_CACHE_SIZE = "deterministic_cache_size";
+  public static final String DETERMINISTIC_CACHE_MAX_ENTRY_BYTES = "deterministic_cache_max_entry_bytes";
+  public static final String SCHEMA_CACHE_SIZE = "schema_cache_size";
 
   public static final String KEK_TYPE = "kek_type";
   public static final String KEK_CONFIG = "kek_config";
@@ -89,6 +112,7 @@ public class KryptoniteSettings {
   public static final String CIPHER_FPE_TWEAK_DEFAULT = "0000000";
   public static final String CIPHER_FPE_ALPHABET_TYPE_DEFAULT = "ALPHANUMERIC";
   public static final String CIPHER_FPE_ALPHABET_CUSTOM_DEFAULT = "";
+  public static final String CIPHER_FPE_ENGINE_DEFAULT = "MYSTO";
   public static final String KEY_SOURCE_DEFAULT = "CONFIG";
   public static final String KMS_TYPE_DEFAULT = "NONE";
   public static final String KMS_CONFIG_DEFAULT = "{}";
@@ -96,6 +120,10 @@ public class KryptoniteSettings {
   public static final int DEK_CACHE_SIZE_DEFAULT = 1024;
   public static final long DEK_MAX_ENCRYPTIONS_DEFAULT = 100_000L;
   public static final long DEK_TTL_MINUTES_DEFAULT = 720L;
+  public static final double DEK_ROTATION_WATERMARK_DEFAULT = 1.0;
+  public static final long DETERMINISTIC_CACHE_SIZE_DEFAULT = 0L;
+  public static final int DETERMINISTIC_CACHE_MAX_ENTRY_BYTES_DEFAULT = 256;
+  public static final int SCHEMA_CACHE_SIZE_DEFAULT = 256;
   public static final String KEK_TYPE_DEFAULT = "NONE";
   public static final String KEK_CONFIG_DEFAULT = "{}";
   public static final String KEK_URI_DEFAULT = "xyz-kms://";
@@ -109,4 +137,7 @@ public class KryptoniteSettings {
   public static final String EDEK_STORE_CONFIG = "edek_store_config";
   public static final String EDEK_STORE_CONFIG_DEFAULT = "{}";
 
+  public static final String METRICS_TYPE = "metrics_type";
+  public static final String METRICS_TYPE_DEFAULT = "NONE";
+
 }
@@ -16,7 +16,11 @@
 
 package com.github.hpgrahsl.kryptonite.crypto;
 
+import com.github.hpgrahsl.kryptonite.keys.KeyVault;
 import com.google.crypto.tink.KeysetHandle;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 public interface AeadAlgorithm {
 
@@ -32,4 +36,93 @@ public interface AeadAlgorithm {
 
   byte[] decipher(byte[] ciphertext, KeysetHandle keysetHandle, byte[] encryptAad) throws Exception;
 
+  /**
+   * Encrypts with the keyset {@code identifier} resolved from {@code keyVault}. Implementations
+   * should override this to use {@link KeyVault#readPrimitive} so that the primitive is not
+   * re-materialized from the keyset handle on every call.
+   */
+  default byte[] cipher(byte[] plaintext, KeyVault keyVault, String identifier, byte[] encryptAad) throws Exception {
+    return cipher(plaintext, keyVault.readKeysetHandle(identifier), encryptAad);
+  }
+
+  /**
+   * Decrypts with the keyset {@code identifier} resolved from {@code keyVault}.
+   *
+   * @see #cipher(byte[], KeyVault, String, byte[])
+   */
+  default byte[] decipher(byte[] ciphertext, KeyVault keyVault, String identifier, byte[] encryptAad) throws Exception {
+    return decipher(ciphertext, keyVault.readKeysetHandle(identifier), encryptAad);
+  }
+
+  /**
+   * Encrypts with the {@code keysetHandle} the caller already read for {@code identifier} from
+   * {@code keyVault}, e.g. to tie the result to exactly that handle. Implementations should
+   * override this to use {@link KeyVault#readPrimitive(String, KeysetHandle, Class)}.
+   *
+   * @see #cipher(byte[], KeyVault, String, byte[])
+   */
+  default byte[] cipher(byte[] plaintext, KeyVault keyVault, String identifier, KeysetHandle keysetHandle,
+      byte[] encryptAad) throws Exception {
+    return cipher(plaintext, keysetHandle, encryptAad);
+  }
+
+  /**
+   * Decrypts with the {@code keysetHandle} the caller already read for {@code identifier}.
+   *
+   * @see #cipher(byte[], KeyVault, String, KeysetHandle, byte[])
+   */
+  default byte[] decipher(byte[] ciphertext, KeyVault keyVault, String identifier, KeysetHandle keysetHandle,
+      byte[] encryptAad) throws Exception {
+    return decipher(ciphertext, keysetHandle, encryptAad);
+  }
+
+  /**
+   * Encrypts the readable bytes of {@code plaintext} with the keyset {@code identifier} and writes
+   * the ciphertext into {@code out}. The position of {@code plaintext} is advanced to its limit.
+   *
+   * @return number of ciphertext bytes written into {@code out}
+   * @see #cipher(byte[], KeyVault, String, byte[])
+   */
+  default int cipher(ByteBuffer plaintext, KeyVault keyVault, String identifier, byte[] encryptAad, ByteBuffer out) throws Exception {
+    return ByteBuffers.write(cipher(ByteBuffers.read(plaintext), keyVault, identifier, encryptAad), out);
+  }
+
+  /**
+   * Decrypts the readable bytes of {@code ciphertext} with the keyset {@code identifier} and
+   * writes the plaintext into {@code out}. The position of {@code ciphertext} is advanced to its limit.
+   *
+   * @return number of plaintext bytes written into {@code out}
+   * @see #cipher(ByteBuffer, KeyVault, String, byte[], ByteBuffer)
+   */
+  default int decipher(ByteBuffer ciphertext, KeyVault keyVault, String identifier, byte[] encryptAad, ByteBuffer out) throws Exception {
+    return ByteBuffers.write(decipher(ByteBuffers.read(ciphertext), keyVault, identifier, encryptAad), out);
+  }
+
+  /**
+   * Encrypts all {@code plaintexts} with the keyset {@code identifier}. Implementations should
+   * override this to resolve the primitive once for the whole batch.
+   *
+   * @see #cipher(byte[], KeyVault, String, byte[])
+   */
+  default List<byte[]> cipher(List<byte[]> plaintexts, KeyVault keyVault, String identifier, byte[] encryptAad) throws Exception {
+    var ciphertexts = new ArrayList<byte[]>(plaintexts.size());
+    for (byte[] plaintext : plaintexts) {
+      ciphertexts.add(cipher(plaintext, keyVault, identifier, encryptAad));
+    }
+    return ciphertexts;
+  }
+
+  /**
+   * Decrypts all {@code ciphertexts} with the keyset {@code identifier}.
+   *
+   * @see #cipher(List, KeyVault, String, byte[])
+   */
+  default List<byte[]> decipher(List<byte[]> ciphertexts, KeyVault keyVault, String identifier, byte[] encryptAad) throws Exception {
+    var plaintexts = new ArrayList<byte[]>(ciphertexts.size());
+    for (byte[] ciphertext : ciphertexts) {
+      plaintexts.add(decipher(ciphertext, keyVault, identifier, encryptAad));
+    }
+    return plaintexts;
+  }
+
 }
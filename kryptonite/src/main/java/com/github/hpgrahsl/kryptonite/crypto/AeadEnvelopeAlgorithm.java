@@ -17,6 +17,7 @@
 package com.github.hpgrahsl.kryptonite.crypto;
 
 import com.google.crypto.tink.Aead;
+import java.nio.ByteBuffer;
 import java.time.Clock;
 
 /**
@@ -51,12 +52,33 @@ public interface AeadEnvelopeAlgorithm<K> {
    */
   byte[] cipherWithDek(byte[] plaintext, Aead dekAead, byte[] wrappedDek, byte[] encryptAad) throws Exception;
 
+  /**
+   * Encrypts the readable bytes of {@code plaintext} with an already-resolved DEK {@link Aead} and
+   * writes the bundle straight into {@code out}. The position of {@code plaintext} is advanced to
+   * its limit. Implementations should override this to avoid assembling an intermediate bundle array.
+   *
+   * @return number of bundle bytes written into {@code out}
+   * @see #cipherWithDek(byte[], Aead, byte[], byte[])
+   */
+  default int cipherWithDek(ByteBuffer plaintext, Aead dekAead, byte[] wrappedDek, byte[] encryptAad, ByteBuffer out) throws Exception {
+    return ByteBuffers.write(cipherWithDek(ByteBuffers.read(plaintext), dekAead, wrappedDek, encryptAad), out);
+  }
+
   /**
    * Decrypts the DEK-ciphertext portion of {@code ciphertext} using an already-resolved
    * DEK {@link Aead}. The bundle is split internally via {@link #extractWrappedDek}.
    */
   byte[] decipherWithDek(byte[] ciphertext, Aead dekAead, byte[] encryptAad) throws Exception;
 
+  /**
+   * Decrypts the readable bytes of {@code ciphertext}, a bundle produced by {@link #cipherWithDek},
+   * and advances its position to the limit. Implementations should override this to only copy
+   * the DEK-ciphertext portion out of the buffer.
+   */
+  default byte[] decipherWithDek(ByteBuffer ciphertext, Aead dekAead, byte[] encryptAad) throws Exception {
+    return decipherWithDek(ByteBuffers.read(ciphertext), dekAead, encryptAad);
+  }
+
   /**
    * Extracts the wrapped DEK bytes from a bundle produced by {@link #cipherWithDek}.
    * Used on the decrypt path to look up or unwrap the DEK before calling
@@ -64,4 +86,14 @@ public interface AeadEnvelopeAlgorithm<K> {
    */
   byte[] extractWrappedDek(byte[] bundle);
 
+  /**
+   * Extracts the wrapped DEK bytes from the bundle held in the readable bytes of {@code bundle}
+   * without changing its position.
+   *
+   * @see #extractWrappedDek(byte[])
+   */
+  default byte[] extractWrappedDek(ByteBuffer bundle) {
+    return extractWrappedDek(ByteBuffers.read(bundle.duplicate()));
+  }
+
 }
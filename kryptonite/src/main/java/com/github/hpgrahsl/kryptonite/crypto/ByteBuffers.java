@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2021. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.hpgrahsl.kryptonite.crypto;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Helpers for the {@link ByteBuffer} based cipher overloads.
+ *
+ * <p>Tink primitives only accept whole {@code byte[]} inputs. Reading a buffer therefore
+ * hands out its backing array as-is whenever the readable region covers that array exactly
+ * and only copies for partial slices, direct or read-only buffers.
+ */
+public final class ByteBuffers {
+
+  private ByteBuffers() {
+  }
+
+  /**
+   * Returns the readable bytes of {@code buffer} and advances its position to the limit.
+   * The returned array may be the buffer's backing array and must not be modified.
+   */
+  public static byte[] read(ByteBuffer buffer) {
+    Objects.requireNonNull(buffer, "buffer must not be null");
+    if (buffer.hasArray() && buffer.arrayOffset() + buffer.position() == 0
+        && buffer.remaining() == buffer.array().length) {
+      buffer.position(buffer.limit());
+      return buffer.array();
+    }
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  /**
+   * Writes {@code bytes} into {@code out} and returns the number of bytes written.
+   *
+   * @throws IllegalArgumentException if {@code out} has fewer than {@code bytes.length} bytes remaining,
+   *                                  in which case {@code out} is left untouched
+   */
+  public static int write(byte[] bytes, ByteBuffer out) {
+    requireRemaining(out, bytes.length);
+    out.put(bytes);
+    return bytes.length;
+  }
+
+  /**
+   * @throws IllegalArgumentException if {@code out} has fewer than {@code required} bytes remaining
+   */
+  public static void requireRemaining(ByteBuffer out, int required) {
+    Objects.requireNonNull(out, "output buffer must not be null");
+    if (out.remaining() < required) {
+      throw new IllegalArgumentException("output buffer too small: " + required
+          + " bytes required but only " + out.remaining() + " remaining");
+    }
+  }
+
+}
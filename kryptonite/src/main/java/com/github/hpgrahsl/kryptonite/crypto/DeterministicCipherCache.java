@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2021. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.hpgrahsl.kryptonite.crypto;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.hpgrahsl.kryptonite.metrics.CacheMetrics;
+import com.google.crypto.tink.KeysetHandle;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Bounded LRU cache memoizing the results of deterministic cipher operations, i.e. those of
+ * {@code TINK/AES_GCM_SIV} and {@code CUSTOM/MYSTO_FPE_FF3_1} which always produce the same
+ * ciphertext for the same plaintext, key and associated data.
+ *
+ * <p>Every computed result is stored in both directions, so encrypting a value also serves later
+ * decryptions of its ciphertext and vice versa. Values larger than {@code maxEntryBytes} are
+ * never cached and always go straight to the cipher.
+ *
+ * <p>Entries are bound to the exact {@link KeysetHandle} instance they were computed with, by
+ * means of a generation token which is weakly keyed by handle identity. Once a key refresh swaps
+ * in a new handle for a key identifier, lookups with it never match entries of the previous handle
+ * again. Those stale entries simply age out of the LRU and don't keep the replaced handle alive.
+ *
+ * <p>Backed by Caffeine for correct, concurrent, bounded LRU eviction.
+ */
+public class DeterministicCipherCache {
+
+  /**
+   * A cipher operation on a single value which is only invoked on a cache miss.
+   */
+  @FunctionalInterface
+  public interface CipherOperation {
+    byte[] apply(byte[] input) throws Exception;
+  }
+
+  private enum Direction {
+    ENCRYPT,
+    DECRYPT
+  }
+
+  private record EntryKey(Direction direction, Object generation, String keyId,
+      String algorithm, byte[] context, byte[] input) {
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof EntryKey other)) return false;
+      return direction == other.direction
+          && generation == other.generation
+          && keyId.equals(other.keyId)
+          && algorithm.equals(other.algorithm)
+          && Arrays.equals(context, other.context)
+          && Arrays.equals(input, other.input);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = Objects.hash(direction, System.identityHashCode(generation), keyId, algorithm);
+      result = 31 * result + Arrays.hashCode(context);
+      return 31 * result + Arrays.hashCode(input);
+    }
+  }
+
+  private final Cache<EntryKey, byte[]> cache;
+  private final Cache<KeysetHandle, Object> generations = Caffeine.newBuilder().weakKeys().build();
+  private final int maxEntryBytes;
+
+  public DeterministicCipherCache(long maxSize, int maxEntryBytes) {
+    if (maxSize <= 0) throw new IllegalArgumentException("maxSize must be > 0");
+    if (maxEntryBytes <= 0) throw new IllegalArgumentException("maxEntryBytes must be > 0");
+    this.maxEntryBytes = maxEntryBytes;
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .recordStats()
+        .build();
+  }
+
+  public int getMaxEntryBytes() {
+    return maxEntryBytes;
+  }
+
+  /**
+   * Returns the memoized ciphertext of {@code plaintext} or computes it with {@code cipher}.
+   *
+   * @param keyId        key identifier the operation is performed with
+   * @param keysetHandle keyset handle currently resolved for {@code keyId}
+   * @param algorithm    cipher spec name
+   * @param context      any further input the result depends on, e.g. associated data
+   * @param plaintext    value to encrypt
+   * @param cipher       performs the actual encryption on a cache miss
+   */
+  public byte[] cipher(String keyId, KeysetHandle keysetHandle, String algorithm, byte[] context,
+      byte[] plaintext, CipherOperation cipher) throws Exception {
+    return lookup(Direction.ENCRYPT, keyId, keysetHandle, algorithm, context, plaintext, cipher);
+  }
+
+  /**
+   * Returns the memoized plaintext of {@code ciphertext} or computes it with {@code decipher}.
+   *
+   * @see #cipher(String, KeysetHandle, String, byte[], byte[], CipherOperation)
+   */
+  public byte[] decipher(String keyId, KeysetHandle keysetHandle, String algorithm, byte[] context,
+      byte[] ciphertext, CipherOperation decipher) throws Exception {
+    return lookup(Direction.DECRYPT, keyId, keysetHandle, algorithm, context, ciphertext, decipher);
+  }
+
+  private byte[] lookup(Direction direction, String keyId, KeysetHandle keysetHandle, String algorithm,
+      byte[] context, byte[] input, CipherOperation operation) throws Exception {
+    if (input.length > maxEntryBytes) {
+      return operation.apply(input);
+    }
+    var generation = generations.get(keysetHandle, h -> new Object());
+    var cached = cache.getIfPresent(new EntryKey(direction, generation, keyId, algorithm, context, input));
+    if (cached != null) {
+      return cached.clone();
+    }
+    var output = operation.apply(input);
+    if (output.length <= maxEntryBytes) {
+      var inputCopy = input.clone();
+      var outputCopy = output.clone();
+      var contextCopy = context != null ? context.clone() : null;
+      var reverse = direction == Direction.ENCRYPT ? Direction.DECRYPT : Direction.ENCRYPT;
+      cache.put(new EntryKey(direction, generation, keyId, algorithm, contextCopy, inputCopy), outputCopy);
+      cache.put(new EntryKey(reverse, generation, keyId, algorithm, contextCopy, outputCopy), inputCopy);
+    }
+    return output;
+  }
+
+  /**
+   * Drops all cached entries.
+   */
+  public void invalidateAll() {
+    cache.invalidateAll();
+    generations.invalidateAll();
+  }
+
+  /**
+   * Returns a snapshot of the hit, miss and eviction counts of this cache.
+   */
+  public CacheMetrics stats() {
+    var stats = cache.stats();
+    return new CacheMetrics(stats.hitCount(), stats.missCount(), stats.evictionCount(), cache.estimatedSize());
+  }
+
+  /**
+   * Performs any pending maintenance operations, including eviction of entries that exceed
+   * {@code maxSize}. Intended for testing only.
+   */
+  public void cleanUp() {
+    cache.cleanUp();
+    generations.cleanUp();
+  }
+
+}
@@ -16,8 +16,11 @@
 
 package com.github.hpgrahsl.kryptonite.crypto;
 
+import com.github.hpgrahsl.kryptonite.keys.EdekStore;
 import com.google.crypto.tink.Aead;
 import java.time.Clock;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import static java.lang.System.Logger.Level.TRACE;
 
@@ -39,17 +42,30 @@ public class EncryptDekSession {
 
   private final byte[] wrappedDek;
   private final Aead dekAead;
+  private volatile byte[] fingerprint;
   private final long createdAtMs;
   private final Clock clock;
   private final AtomicLong useCount = new AtomicLong(0);
+  private final AtomicBoolean replacementRequested = new AtomicBoolean(false);
+  private final AtomicInteger failedReplacements = new AtomicInteger(0);
+  private volatile long replacementRetryAtMs;
 
   public EncryptDekSession(byte[] wrappedDek, Aead dekAead) {
     this(wrappedDek, dekAead, Clock.systemUTC());
   }
 
   public EncryptDekSession(byte[] wrappedDek, Aead dekAead, Clock clock) {
+    this(wrappedDek, dekAead, null, clock);
+  }
+
+  /**
+   * Creates a session with a precomputed {@code fingerprint} of {@code wrappedDek} as used for
+   * KMS-backed envelope encryption, so the encrypt path never has to hash the wrapped DEK again.
+   */
+  public EncryptDekSession(byte[] wrappedDek, Aead dekAead, byte[] fingerprint, Clock clock) {
     this.wrappedDek = wrappedDek;
     this.dekAead = dekAead;
+    this.fingerprint = fingerprint;
     this.clock = clock;
     this.createdAtMs = clock.millis();
   }
@@ -62,6 +78,78 @@ public class EncryptDekSession {
     return dekAead;
   }
 
+  /**
+   * Returns the 16-byte {@link EdekStore#fingerprint(byte[])} of the wrapped DEK. Sessions created
+   * for KMS-backed envelope encryption carry it from the start; for any other session it is
+   * computed on first access and remembered for the rest of the session's lifetime.
+   */
+  public byte[] fingerprint() {
+    byte[] fp = fingerprint;
+    if (fp == null) {
+      fp = EdekStore.fingerprint(wrappedDek);
+      fingerprint = fp;
+    }
+    return fp;
+  }
+
+  /**
+   * Returns the age of this session in milliseconds according to its clock.
+   */
+  public long ageMs() {
+    return clock.millis() - createdAtMs;
+  }
+
+  /**
+   * Returns the number of use-count slots claimed so far. May exceed {@code maxEncryptions}
+   * since failed claims on an exhausted session are counted as well.
+   */
+  public long useCount() {
+    return useCount.get();
+  }
+
+  /**
+   * Marks this session as having a replacement requested. Returns {@code true} for exactly one
+   * caller, so that at most one replacement is created ahead of time per session.
+   */
+  public boolean requestReplacement() {
+    if (clock.millis() < replacementRetryAtMs || !replacementRequested.compareAndSet(false, true)) {
+      return false;
+    }
+    // re-check since a concurrent replacementFailed may have set a new retry time before clearing the request
+    if (clock.millis() < replacementRetryAtMs) {
+      replacementRequested.set(false);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Clears a replacement request, e.g. after creating the replacement failed, so that a later
+   * caller may try again.
+   */
+  public void clearReplacementRequest() {
+    replacementRequested.set(false);
+  }
+
+  /**
+   * Clears a replacement request after creating the replacement failed, so that a later caller
+   * may try again once {@code backoffMs} have passed.
+   *
+   * @return the number of consecutive failed replacements including this one
+   */
+  public int replacementFailed(long backoffMs) {
+    replacementRetryAtMs = clock.millis() + backoffMs;
+    replacementRequested.set(false);
+    return failedReplacements.incrementAndGet();
+  }
+
+  /**
+   * Returns the number of failed attempts to create a replacement for this session.
+   */
+  public int failedReplacements() {
+    return failedReplacements.get();
+  }
+
   /**
    * Tries to claim a use-count slot for this session.
    *
@@ -92,4 +180,29 @@ public class EncryptDekSession {
     return false;
   }
 
+  /**
+   * Tries to claim up to {@code count} use-count slots for this session in a single atomic step.
+   *
+   * <p>Same semantics as {@link #tryAcquire(long, long)}, except that a contiguous range of slots
+   * is claimed via one {@code getAndAdd}. If fewer than {@code count} slots are left, the
+   * remaining ones are granted and the caller is expected to obtain the rest from a fresh session.
+   *
+   * @return the number of slots granted, between {@code 0} and {@code count}
+   */
+  public long tryAcquire(long count, long maxEncryptions, long ttlMs) {
+    if (count <= 0) {
+      return 0;
+    }
+    long ageMs = clock.millis() - createdAtMs;
+    if (ageMs >= ttlMs) {
+      LOG.log(TRACE, "tryAcquire: session expired by TTL (age={0}ms >= ttl={1}ms)", ageMs, ttlMs);
+      return 0;
+    }
+    long firstSlot = useCount.getAndAdd(count);
+    long granted = Math.max(0, Math.min(count, maxEncryptions - firstSlot));
+    LOG.log(TRACE, "tryAcquire: {0} of {1} slot(s) acquired (firstSlot={2} maxEncryptions={3})",
+        granted, count, firstSlot, maxEncryptions);
+    return granted;
+  }
+
 }
@@ -18,10 +18,17 @@ package com.github.hpgrahsl.kryptonite.crypto;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.hpgrahsl.kryptonite.metrics.CacheMetrics;
+import com.github.hpgrahsl.kryptonite.metrics.KryptoniteMetrics;
+import com.github.hpgrahsl.kryptonite.metrics.KryptoniteMetrics.RotationCause;
 import java.time.Clock;
 import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Supplier;
 import static java.lang.System.Logger.Level.DEBUG;
+import static java.lang.System.Logger.Level.WARNING;
 
 /**
  * Manages per-key encrypt-side DEK sessions.
@@ -36,30 +43,76 @@ import static java.lang.System.Logger.Level.DEBUG;
  *
  * <p>Use-count increments are soft limits. A session may be used slightly beyond either
  * threshold under concurrent access, which is acceptable for a performance optimization.
+ *
+ * <p>Creating a session means generating, wrapping and possibly publishing a DEK, which for
+ * KMS-backed envelope encryption involves remote calls. With a {@code rotationWatermark} below
+ * {@code 1.0}, a session whose use-count or age crosses that fraction of {@code maxEncryptions}
+ * or {@code ttlMinutes} gets its replacement created on a background thread. The replacement is
+ * swapped in atomically once ready, so encrypt calls only create sessions synchronously if the
+ * current one runs out before its replacement is available. If creating a replacement fails,
+ * e.g. because the KMS is unavailable, the next attempt for that session is backed off
+ * exponentially, starting at one second and capped at one minute.
  */
-public class EncryptDekSessionCache {
+public class EncryptDekSessionCache implements AutoCloseable {
 
   private static final System.Logger LOG = System.getLogger(EncryptDekSessionCache.class.getName());
 
   private static final int MAX_KEY_IDS = 256;
+  private static final long ROTATE_AHEAD_BACKOFF_INITIAL_MS = 1_000L;
+  private static final long ROTATE_AHEAD_BACKOFF_MAX_MS = 60_000L;
+
+  /**
+   * A number of encryptions reserved in one step from a single {@link EncryptDekSession}.
+   */
+  public record Reservation(EncryptDekSession session, long count) {}
 
   private final long maxEncryptions;
   private final long ttlMs;
+  private final boolean rotateAhead;
+  private final long maxEncryptionsWatermark;
+  private final long ttlWatermarkMs;
   private final Clock clock;
   private final Cache<String, EncryptDekSession> sessions;
+  private volatile KryptoniteMetrics metrics = KryptoniteMetrics.noop();
+  private volatile Executor rotationExecutor;
+  private ExecutorService ownedRotationExecutor;
 
   public EncryptDekSessionCache(long maxEncryptions, long ttlMinutes) {
     this(maxEncryptions, ttlMinutes, Clock.systemUTC());
   }
 
   public EncryptDekSessionCache(long maxEncryptions, long ttlMinutes, Clock clock) {
+    this(maxEncryptions, ttlMinutes, 1.0, clock, null);
+  }
+
+  public EncryptDekSessionCache(long maxEncryptions, long ttlMinutes, double rotationWatermark) {
+    this(maxEncryptions, ttlMinutes, rotationWatermark, Clock.systemUTC(), null);
+  }
+
+  /**
+   * @param rotationWatermark fraction in {@code (0.0, 1.0]} of {@code maxEncryptions} and
+   *                          {@code ttlMinutes} after which a session is replaced in the
+   *                          background; {@code 1.0} disables proactive rotation
+   * @param rotationExecutor  executor to create replacement sessions on, or {@code null} to use
+   *                          a dedicated daemon thread which is started on first use
+   */
+  public EncryptDekSessionCache(long maxEncryptions, long ttlMinutes, double rotationWatermark,
+      Clock clock, Executor rotationExecutor) {
     if (maxEncryptions <= 0) throw new IllegalArgumentException("maxEncryptions must be > 0");
     if (ttlMinutes <= 0) throw new IllegalArgumentException("ttlMinutes must be > 0");
+    if (!(rotationWatermark > 0.0 && rotationWatermark <= 1.0)) {
+      throw new IllegalArgumentException("rotationWatermark must be > 0.0 and <= 1.0");
+    }
     this.maxEncryptions = maxEncryptions;
     this.ttlMs = ttlMinutes * 60_000L;
+    this.rotateAhead = rotationWatermark < 1.0;
+    this.maxEncryptionsWatermark = Math.max(1L, (long) Math.ceil(maxEncryptions * rotationWatermark));
+    this.ttlWatermarkMs = (long) (ttlMs * rotationWatermark);
     this.clock = clock;
+    this.rotationExecutor = rotationExecutor;
     this.sessions = Caffeine.newBuilder()
         .maximumSize(MAX_KEY_IDS)
+        .recordStats()
         .build();
   }
 
@@ -67,6 +120,21 @@ public class EncryptDekSessionCache {
     return clock;
   }
 
+  /**
+   * Sets the {@link KryptoniteMetrics} which session creations and rotations are reported to.
+   */
+  public void setMetrics(KryptoniteMetrics metrics) {
+    this.metrics = Objects.requireNonNull(metrics, "metrics must not be null");
+  }
+
+  /**
+   * Returns a snapshot of the hit, miss and eviction counts of this cache.
+   */
+  public CacheMetrics stats() {
+    var stats = sessions.stats();
+    return new CacheMetrics(stats.hitCount(), stats.missCount(), stats.evictionCount(), sessions.estimatedSize());
+  }
+
   /**
    * Returns the current valid {@link EncryptDekSession} for {@code keyId}, creating or
    * rotating it via {@code factory} if the current session is expired or absent.
@@ -75,6 +143,7 @@ public class EncryptDekSessionCache {
     EncryptDekSession current = sessions.getIfPresent(keyId);
     if (current != null && current.tryAcquire(maxEncryptions, ttlMs)) {
       LOG.log(DEBUG, "getOrCreate: DEK session cache hit for keyId=''{0}''", keyId);
+      rotateAheadIfDue(keyId, current, factory);
       return current;
     }
     // session absent or invalid — compute atomically to avoid duplicate session creation
@@ -85,10 +154,144 @@ public class EncryptDekSessionCache {
         return existing;
       }
       LOG.log(DEBUG, "getOrCreate: creating fresh DEK session for keyId=''{0}''", k);
-      return Objects.requireNonNull(factory.get(), "factory must not return null");
+      return createSession(k, existing, factory);
     });
     result.tryAcquire(maxEncryptions, ttlMs);
+    rotateAheadIfDue(keyId, result, factory);
     return result;
   }
 
+  /**
+   * Reserves up to {@code count} encryptions for {@code keyId} in a single atomic step, creating
+   * or rotating the session via {@code factory} if the current one is expired or exhausted.
+   *
+   * <p>The returned {@link Reservation} may cover fewer than {@code count} encryptions when the
+   * session reaches its use-count limit; callers reserve the remainder with another call, which
+   * then rotates to a fresh session.
+   */
+  public Reservation reserve(String keyId, long count, Supplier<EncryptDekSession> factory) {
+    if (count <= 0) throw new IllegalArgumentException("count must be > 0");
+    EncryptDekSession current = sessions.getIfPresent(keyId);
+    if (current != null) {
+      long granted = current.tryAcquire(count, maxEncryptions, ttlMs);
+      if (granted > 0) {
+        LOG.log(DEBUG, "reserve: DEK session cache hit for keyId=''{0}'' ({1} of {2} slot(s))", keyId, granted, count);
+        rotateAheadIfDue(keyId, current, factory);
+        return new Reservation(current, granted);
+      }
+    }
+    LOG.log(DEBUG, "reserve: DEK session absent or expired for keyId=''{0}'', creating new session", keyId);
+    long[] granted = new long[1];
+    EncryptDekSession result = sessions.asMap().compute(keyId, (k, existing) -> {
+      if (existing != null) {
+        granted[0] = existing.tryAcquire(count, maxEncryptions, ttlMs);
+        if (granted[0] > 0) {
+          LOG.log(DEBUG, "reserve: concurrent session reuse for keyId=''{0}''", k);
+          return existing;
+        }
+      }
+      LOG.log(DEBUG, "reserve: creating fresh DEK session for keyId=''{0}''", k);
+      var created = createSession(k, existing, factory);
+      granted[0] = created.tryAcquire(count, maxEncryptions, ttlMs);
+      return created;
+    });
+    rotateAheadIfDue(keyId, result, factory);
+    return new Reservation(result, granted[0]);
+  }
+
+  private EncryptDekSession createSession(String keyId, EncryptDekSession previous, Supplier<EncryptDekSession> factory) {
+    if (previous != null) {
+      metrics.recordDekSessionRotated(keyId,
+          previous.ageMs() >= ttlMs ? RotationCause.TTL : RotationCause.MAX_ENCRYPTIONS);
+    }
+    return createSession(keyId, factory);
+  }
+
+  private EncryptDekSession createSession(String keyId, Supplier<EncryptDekSession> factory) {
+    var metrics = this.metrics;
+    long start = System.nanoTime();
+    var created = Objects.requireNonNull(factory.get(), "factory must not return null");
+    metrics.recordDekSessionCreated(keyId, System.nanoTime() - start);
+    return created;
+  }
+
+  /**
+   * Requests a replacement for {@code session} on the rotation executor once its use-count or
+   * age crossed the watermark. The replacement only takes over if {@code session} is still the
+   * current one by the time it is ready; otherwise it lost the race against a synchronous
+   * rotation and is dropped.
+   */
+  private void rotateAheadIfDue(String keyId, EncryptDekSession session, Supplier<EncryptDekSession> factory) {
+    if (!rotateAhead) {
+      return;
+    }
+    long ageMs = session.ageMs();
+    boolean ttlDue = ageMs >= ttlWatermarkMs;
+    if (!ttlDue && session.useCount() < maxEncryptionsWatermark) {
+      return;
+    }
+    if (!session.requestReplacement()) {
+      return;
+    }
+    LOG.log(DEBUG, "rotateAhead: watermark crossed for keyId=''{0}'' (useCount={1} age={2}ms), creating replacement session",
+        keyId, session.useCount(), ageMs);
+    try {
+      rotationExecutor().execute(() -> {
+        try {
+          var replacement = createSession(keyId, factory);
+          if (sessions.asMap().replace(keyId, session, replacement)) {
+            metrics.recordDekSessionRotated(keyId, ttlDue ? RotationCause.TTL : RotationCause.MAX_ENCRYPTIONS);
+            LOG.log(DEBUG, "rotateAhead: replacement session swapped in for keyId=''{0}''", keyId);
+          } else {
+            LOG.log(DEBUG, "rotateAhead: session for keyId=''{0}'' already rotated, dropping replacement", keyId);
+          }
+        } catch (RuntimeException e) {
+          long backoffMs = rotateAheadBackoffMs(session.failedReplacements());
+          int failures = session.replacementFailed(backoffMs);
+          LOG.log(WARNING, "rotateAhead: failed to create replacement session for keyId=''{0}'' ({1} attempt(s)), "
+              + "retrying in {2}ms, falling back to synchronous rotation meanwhile. Cause: {3}",
+              keyId, failures, backoffMs, e.getMessage());
+        }
+      });
+    } catch (RuntimeException e) {
+      // e.g. RejectedExecutionException after close(), the synchronous path takes over
+      session.clearReplacementRequest();
+      LOG.log(DEBUG, "rotateAhead: could not schedule replacement for keyId=''{0}'': {1}", keyId, e.getMessage());
+    }
+  }
+
+  private static long rotateAheadBackoffMs(int previousFailures) {
+    return Math.min(ROTATE_AHEAD_BACKOFF_MAX_MS,
+        ROTATE_AHEAD_BACKOFF_INITIAL_MS << Math.min(previousFailures, 16));
+  }
+
+  private Executor rotationExecutor() {
+    var executor = rotationExecutor;
+    if (executor != null) {
+      return executor;
+    }
+    synchronized (this) {
+      if (rotationExecutor == null) {
+        ownedRotationExecutor = Executors.newSingleThreadExecutor(r -> {
+          Thread t = new Thread(r, "k4k-dek-rotation");
+          t.setDaemon(true);
+          return t;
+        });
+        rotationExecutor = ownedRotationExecutor;
+      }
+      return rotationExecutor;
+    }
+  }
+
+  /**
+   * Stops the background rotation thread if one was started by this cache. Sessions remain
+   * usable and are rotated synchronously from then on.
+   */
+  @Override
+  public synchronized void close() {
+    if (ownedRotationExecutor != null) {
+      ownedRotationExecutor.shutdown();
+    }
+  }
+
 }
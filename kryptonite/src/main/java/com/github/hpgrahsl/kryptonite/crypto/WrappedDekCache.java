@@ -18,11 +18,11 @@ package com.github.hpgrahsl.kryptonite.crypto;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.hpgrahsl.kryptonite.metrics.CacheMetrics;
 import com.google.crypto.tink.Aead;
 import java.util.Arrays;
 import java.util.function.Function;
 import static java.lang.System.Logger.Level.DEBUG;
-import static java.lang.System.Logger.Level.TRACE;
 
 /**
  * Bounded LRU cache mapping wrapped DEK bytes to their unwrapped {@link Aead} primitive.
@@ -59,6 +59,7 @@ public class WrappedDekCache {
     if (maxSize <= 0) throw new IllegalArgumentException("maxSize must be > 0");
     this.cache = Caffeine.newBuilder()
         .maximumSize(maxSize)
+        .recordStats()
         .build();
   }
 
@@ -67,14 +68,19 @@ public class WrappedDekCache {
    * it using the provided loader function on a cache miss.
    */
   public Aead get(byte[] wrappedDek, Function<byte[], Aead> loader) {
-    var key = new WrappedDekKey(wrappedDek);
-    Aead cached = cache.getIfPresent(key);
-    if (cached != null) {
-      LOG.log(TRACE, "get: wrapped DEK cache hit (wrappedDek={0}B)", wrappedDek.length);
-      return cached;
-    }
-    LOG.log(DEBUG, "get: wrapped DEK cache miss, unwrapping DEK (wrappedDek={0}B)", wrappedDek.length);
-    return cache.get(key, k -> loader.apply(k.bytes()));
+    // single lookup so that hits and misses are each counted exactly once by the cache statistics
+    return cache.get(new WrappedDekKey(wrappedDek), k -> {
+      LOG.log(DEBUG, "get: wrapped DEK cache miss, unwrapping DEK (wrappedDek={0}B)", wrappedDek.length);
+      return loader.apply(k.bytes());
+    });
+  }
+
+  /**
+   * Returns a snapshot of the hit, miss and eviction counts of this cache.
+   */
+  public CacheMetrics stats() {
+    var stats = cache.stats();
+    return new CacheMetrics(stats.hitCount(), stats.missCount(), stats.evictionCount(), cache.estimatedSize());
   }
 
   /**
@@ -0,0 +1,392 @@
+/*
+ * Copyright (c) 2021. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.hpgrahsl.kryptonite.crypto.custom;
+
+import com.github.hpgrahsl.kryptonite.KryptoniteException;
+import com.github.hpgrahsl.kryptonite.crypto.custom.mysto.fpe.Fpe;
+import com.github.hpgrahsl.kryptonite.crypto.custom.mysto.fpe.FpeKey;
+import com.github.hpgrahsl.kryptonite.crypto.custom.mysto.fpe.FpeParameters;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Objects;
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * FF3-1 format-preserving encryption (NIST SP 800-38G Rev. 1) producing the exact same
+ * ciphertexts as Mysto's {@code FF3Cipher}, including its support for 64-bit FF3 tweaks.
+ *
+ * <p>Numeral strings are kept as arrays of alphabet indices which are resolved through a lookup
+ * table, so input validation needs no per-character set lookups. Whenever radix<sup>u</sup> of
+ * the larger half is small enough, all Feistel arithmetic is done with {@code long}s, which
+ * covers e.g. up to 32 digits or 18 alphanumeric characters. Longer inputs fall back to
+ * {@link BigInteger}. The AES key is set up once per instance.
+ *
+ * <p>Instances are safe to share between threads. Each thread lazily gets its own AES cipher
+ * for this instance, so concurrent calls never contend on a shared cipher.
+ */
+public final class FpeFF31Engine implements Fpe {
+
+  private static final int NUM_ROUNDS = 8;
+  private static final int BLOCK_SIZE = 16;
+  private static final int DOMAIN_MIN = 1_000_000;
+  private static final int MAX_RADIX = 256;
+  // largest modulus for which (r * 256 + 255) cannot overflow while reducing the AES output
+  private static final long MAX_LONG_MODULUS = Long.MAX_VALUE >>> 8;
+
+  private final String alphabet;
+  private final int radix;
+  private final int minLen;
+  private final int maxLen;
+  private final int[] charToIndex;
+  private final byte[] asciiAlphabet;
+  private final byte[] defaultTweak64;
+  private final SecretKeySpec aesKey;
+  private final ThreadLocal<Cipher> aes = ThreadLocal.withInitial(this::newAesCipher);
+
+  public FpeFF31Engine(FpeKey fpeKey, FpeParameters parameters) {
+    try {
+      Objects.requireNonNull(parameters, () -> "FpeParameters must not be null");
+      Objects.requireNonNull(fpeKey, () -> "FpeKey must not be null");
+      alphabet = parameters.getAlphabet();
+      radix = alphabet.length();
+      if (radix < 2 || radix > MAX_RADIX) {
+        throw new IllegalArgumentException("radix must be between 2 and " + MAX_RADIX + ", inclusive");
+      }
+      minLen = (int) Math.ceil(Math.log(DOMAIN_MIN) / Math.log(radix));
+      maxLen = (int) (2 * Math.floor(Math.log(Math.pow(2, 96)) / Math.log(radix)));
+      if (minLen < 2 || maxLen < minLen) {
+        throw new IllegalArgumentException("minLen or maxLen invalid, adjust your radix");
+      }
+      charToIndex = charToIndex(alphabet);
+      asciiAlphabet = charToIndex.length <= 0x80 ? alphabet.getBytes(StandardCharsets.US_ASCII) : null;
+      defaultTweak64 = tweak64(parameters.getTweak());
+      var key = fpeKey.getKeyMaterial().clone();
+      reverse(key);
+      aesKey = new SecretKeySpec(key, "AES");
+      // fail fast on an unusable key instead of on the first encryption
+      aes.get();
+    } catch (Exception e) {
+      throw new KryptoniteException("failed to initialize FPE cipher FF3", e);
+    }
+  }
+
+  @Override
+  public byte[] encrypt(byte[] plaintext, byte[] tweak) throws Exception {
+    try {
+      var digits = toDigits(plaintext);
+      var tweak64 = tweak != null ? tweak64(tweak) : defaultTweak64;
+      return fromDigits(feistel(digits, tweak64, true));
+    } catch (Exception e) {
+      throw new KryptoniteException("FPE encryption using FF3 failed", e);
+    }
+  }
+
+  @Override
+  public byte[] decrypt(byte[] ciphertext, byte[] tweak) throws Exception {
+    try {
+      var digits = toDigits(ciphertext);
+      var tweak64 = tweak != null ? tweak64(tweak) : defaultTweak64;
+      return fromDigits(feistel(digits, tweak64, false));
+    } catch (Exception e) {
+      throw new KryptoniteException("FPE decryption using FF3 failed", e);
+    }
+  }
+
+  private int[] feistel(int[] digits, byte[] tweak64, boolean encrypt) throws Exception {
+    int n = digits.length;
+    if (n < minLen || n > maxLen) {
+      throw new IllegalArgumentException(String.format(
+          "message length %d is not within min %d and max %d bounds", n, minLen, maxLen));
+    }
+    int u = (n + 1) / 2;
+    int v = n - u;
+    var a = Arrays.copyOfRange(digits, 0, u);
+    var b = Arrays.copyOfRange(digits, u, n);
+    var cipher = aes.get();
+    var block = new byte[BLOCK_SIZE];
+    var s = new byte[BLOCK_SIZE];
+    long modU = longPow(radix, u);
+    if (modU > 0) {
+      long modV = longPow(radix, v);
+      for (int r = 0; r < NUM_ROUNDS; r++) {
+        int i = encrypt ? r : NUM_ROUNDS - 1 - r;
+        boolean even = i % 2 == 0;
+        int m = even ? u : v;
+        long mod = even ? modU : modV;
+        // encryption feeds B into the round function and updates A, decryption the other way round
+        var in = encrypt ? b : a;
+        var out = encrypt ? a : b;
+        prepareBlock(block, tweak64, even, i);
+        putLong(block, decodeLong(in));
+        long y = reduce(encryptBlock(cipher, block, s), mod);
+        long x = decodeLong(out);
+        long c = encrypt ? (x + y) % mod : Math.floorMod(x - y, mod);
+        var result = encodeLong(c, m);
+        if (encrypt) {
+          a = b;
+          b = result;
+        } else {
+          b = a;
+          a = result;
+        }
+      }
+    } else {
+      var modUBig = BigInteger.valueOf(radix).pow(u);
+      var modVBig = BigInteger.valueOf(radix).pow(v);
+      for (int r = 0; r < NUM_ROUNDS; r++) {
+        int i = encrypt ? r : NUM_ROUNDS - 1 - r;
+        boolean even = i % 2 == 0;
+        int m = even ? u : v;
+        var mod = even ? modUBig : modVBig;
+        var in = encrypt ? b : a;
+        var out = encrypt ? a : b;
+        prepareBlock(block, tweak64, even, i);
+        putBigInteger(block, decodeBig(in));
+        var y = new BigInteger(1, reversed(encryptBlock(cipher, block, s)));
+        var x = decodeBig(out);
+        var c = (encrypt ? x.add(y) : x.subtract(y)).mod(mod);
+        var result = encodeBig(c, m);
+        if (encrypt) {
+          a = b;
+          b = result;
+        } else {
+          b = a;
+          a = result;
+        }
+      }
+    }
+    var result = new int[n];
+    System.arraycopy(a, 0, result, 0, a.length);
+    System.arraycopy(b, 0, result, a.length, b.length);
+    return result;
+  }
+
+  /**
+   * Writes W xor i, with W being the right tweak half in even and the left half in odd rounds,
+   * into the first four bytes of the round block P and clears the numeral part.
+   */
+  private static void prepareBlock(byte[] block, byte[] tweak64, boolean even, int round) {
+    int offset = even ? 4 : 0;
+    block[0] = tweak64[offset];
+    block[1] = tweak64[offset + 1];
+    block[2] = tweak64[offset + 2];
+    block[3] = (byte) (tweak64[offset + 3] ^ round);
+    Arrays.fill(block, 4, BLOCK_SIZE, (byte) 0);
+  }
+
+  /**
+   * Computes AES(REVB(P)) into {@code s}, reversing {@code block} in place. The result is
+   * REVB(S) of the FF3-1 round function.
+   */
+  private static byte[] encryptBlock(Cipher cipher, byte[] block, byte[] s) throws Exception {
+    reverse(block);
+    cipher.doFinal(block, 0, BLOCK_SIZE, s, 0);
+    return s;
+  }
+
+  private Cipher newAesCipher() {
+    try {
+      var cipher = Cipher.getInstance("AES/ECB/NoPadding");
+      cipher.init(Cipher.ENCRYPT_MODE, aesKey);
+      return cipher;
+    } catch (GeneralSecurityException e) {
+      throw new KryptoniteException("failed to initialize AES cipher for FF3", e);
+    }
+  }
+
+  /**
+   * Reduces the big-endian value S = REVB(s) modulo {@code mod}, reading {@code s} back to front.
+   */
+  private static long reduce(byte[] s, long mod) {
+    long r = 0;
+    for (int j = BLOCK_SIZE - 1; j >= 0; j--) {
+      r = (r * 256 + (s[j] & 0xFF)) % mod;
+    }
+    return r;
+  }
+
+  private static void putLong(byte[] block, long value) {
+    for (int j = BLOCK_SIZE - 1; j >= BLOCK_SIZE - Long.BYTES; j--) {
+      block[j] = (byte) value;
+      value >>>= 8;
+    }
+  }
+
+  private static void putBigInteger(byte[] block, BigInteger value) {
+    var bytes = value.toByteArray();
+    int len = Math.min(bytes.length, BLOCK_SIZE - 4);
+    System.arraycopy(bytes, bytes.length - len, block, BLOCK_SIZE - len, len);
+  }
+
+  /**
+   * NUM_radix(REV(digits)), i.e. the first digit is the least significant one.
+   */
+  private long decodeLong(int[] digits) {
+    long value = 0;
+    for (int j = digits.length - 1; j >= 0; j--) {
+      value = value * radix + digits[j];
+    }
+    return value;
+  }
+
+  private int[] encodeLong(long value, int m) {
+    var digits = new int[m];
+    for (int j = 0; j < m; j++) {
+      digits[j] = (int) (value % radix);
+      value /= radix;
+    }
+    return digits;
+  }
+
+  private BigInteger decodeBig(int[] digits) {
+    var bigRadix = BigInteger.valueOf(radix);
+    var value = BigInteger.ZERO;
+    for (int j = digits.length - 1; j >= 0; j--) {
+      value = value.multiply(bigRadix).add(BigInteger.valueOf(digits[j]));
+    }
+    return value;
+  }
+
+  private int[] encodeBig(BigInteger value, int m) {
+    var bigRadix = BigInteger.valueOf(radix);
+    var digits = new int[m];
+    for (int j = 0; j < m && value.signum() > 0; j++) {
+      var qr = value.divideAndRemainder(bigRadix);
+      digits[j] = qr[1].intValue();
+      value = qr[0];
+    }
+    return digits;
+  }
+
+  /**
+   * @return radix^exponent, or {@code -1} if it exceeds {@link #MAX_LONG_MODULUS}
+   */
+  private static long longPow(int radix, int exponent) {
+    long result = 1;
+    for (int j = 0; j < exponent; j++) {
+      if (result > MAX_LONG_MODULUS / radix) {
+        return -1;
+      }
+      result *= radix;
+    }
+    return result;
+  }
+
+  private int[] toDigits(byte[] input) {
+    var digits = new int[input.length];
+    for (int j = 0; j < input.length; j++) {
+      int b = input[j];
+      if (b < 0) {
+        // non-ASCII input, take the slow path via decoded characters
+        return toDigits(new String(input, StandardCharsets.UTF_8));
+      }
+      int index = b < charToIndex.length ? charToIndex[b] : -1;
+      if (index < 0) {
+        throw invalidCharacter((char) b, j);
+      }
+      digits[j] = index;
+    }
+    return digits;
+  }
+
+  private int[] toDigits(String input) {
+    var digits = new int[input.length()];
+    for (int j = 0; j < digits.length; j++) {
+      char c = input.charAt(j);
+      int index = c < charToIndex.length ? charToIndex[c] : -1;
+      if (index < 0) {
+        throw invalidCharacter(c, j);
+      }
+      digits[j] = index;
+    }
+    return digits;
+  }
+
+  private byte[] fromDigits(int[] digits) {
+    if (asciiAlphabet != null) {
+      var bytes = new byte[digits.length];
+      for (int j = 0; j < digits.length; j++) {
+        bytes[j] = asciiAlphabet[digits[j]];
+      }
+      return bytes;
+    }
+    var chars = new char[digits.length];
+    for (int j = 0; j < digits.length; j++) {
+      chars[j] = alphabet.charAt(digits[j]);
+    }
+    return new String(chars).getBytes(StandardCharsets.UTF_8);
+  }
+
+  private KryptoniteException invalidCharacter(char c, int position) {
+    return new KryptoniteException(String.format(
+        "error: Invalid character '%c' at position %d. Character not in alphabet: %s", c, position, alphabet));
+  }
+
+  private static int[] charToIndex(String alphabet) {
+    int maxChar = 0;
+    for (int j = 0; j < alphabet.length(); j++) {
+      maxChar = Math.max(maxChar, alphabet.charAt(j));
+    }
+    var table = new int[maxChar + 1];
+    Arrays.fill(table, -1);
+    for (int j = 0; j < alphabet.length(); j++) {
+      char c = alphabet.charAt(j);
+      if (table[c] >= 0) {
+        throw new IllegalArgumentException(String.format("error: alphabet contains duplicate character '%c'. "
+            + "Each character must appear exactly once in the alphabet.", c));
+      }
+      table[c] = j;
+    }
+    return table;
+  }
+
+  /**
+   * Expands a 56-bit FF3-1 tweak to the 64-bit tweak T<sub>L</sub> || T<sub>R</sub> and
+   * passes 64-bit FF3 tweaks through unchanged.
+   */
+  private static byte[] tweak64(byte[] tweak) {
+    if (tweak.length == 8) {
+      return tweak;
+    }
+    if (tweak.length != 7) {
+      throw new IllegalArgumentException(String.format(
+          "tweak length %d is invalid: tweak must be 56 or 64 bits", tweak.length));
+    }
+    return new byte[] {
+        tweak[0], tweak[1], tweak[2], (byte) (tweak[3] & 0xF0),
+        tweak[4], tweak[5], tweak[6], (byte) ((tweak[3] & 0x0F) << 4)
+    };
+  }
+
+  private static byte[] reversed(byte[] bytes) {
+    var copy = bytes.clone();
+    reverse(copy);
+    return copy;
+  }
+
+  private static void reverse(byte[] bytes) {
+    for (int j = 0, k = bytes.length - 1; j < k; j++, k--) {
+      byte tmp = bytes[j];
+      bytes[j] = bytes[k];
+      bytes[k] = tmp;
+    }
+  }
+
+}
@@ -16,23 +16,49 @@
 
 package com.github.hpgrahsl.kryptonite.crypto.custom;
 
+import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.FpeEngine;
 import com.github.hpgrahsl.kryptonite.crypto.FpeAlgorithm;
-import com.github.hpgrahsl.kryptonite.crypto.custom.mysto.fpe.FpeKeysetHandle;
-import com.github.hpgrahsl.kryptonite.crypto.custom.mysto.fpe.FpeParameters;
+import com.github.hpgrahsl.kryptonite.crypto.custom.mysto.fpe.FpePrimitiveCache;
 import com.google.crypto.tink.KeysetHandle;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
 
 public class MystoFpeFF31 implements FpeAlgorithm {
 
   public static final String CIPHER_ALGORITHM = "CUSTOM/MYSTO_FPE_FF3_1";
 
+  // shared across instances since the cache key is the identity of the weakly held keyset handle
+  private static final Map<FpeEngine, FpePrimitiveCache> PRIMITIVE_CACHES = new EnumMap<>(FpeEngine.class);
+
+  static {
+    for (FpeEngine engine : FpeEngine.values()) {
+      PRIMITIVE_CACHES.put(engine, new FpePrimitiveCache(FpePrimitiveCache.DEFAULT_MAX_SIZE, engine));
+    }
+  }
+
+  private final FpePrimitiveCache primitiveCache;
+
+  public MystoFpeFF31() {
+    this(FpeEngine.MYSTO);
+  }
+
+  /**
+   * Creates an instance which runs FF3-1 on the given engine. Both engines produce identical
+   * ciphertexts, so the engine can be switched without affecting existing data.
+   */
+  public MystoFpeFF31(FpeEngine engine) {
+    this.primitiveCache = PRIMITIVE_CACHES.get(Objects.requireNonNull(engine, "engine must not be null"));
+  }
+
   @Override
   public byte[] cipherFPE(byte[] plaintext, KeysetHandle keysetHandle, String alphabet, byte[] tweak) throws Exception {
-    return FpeKeysetHandle.getPrimitive(keysetHandle, FpeParameters.create(alphabet)).encrypt(plaintext, tweak);
+    return primitiveCache.get(keysetHandle, alphabet).encrypt(plaintext, tweak);
   }
 
   @Override
   public byte[] decipherFPE(byte[] ciphertext, KeysetHandle keysetHandle, String alphabet, byte[] tweak) throws Exception {
-    return FpeKeysetHandle.getPrimitive(keysetHandle, FpeParameters.create(alphabet)).decrypt(ciphertext, tweak);
+    return primitiveCache.get(keysetHandle, alphabet).decrypt(ciphertext, tweak);
   }
 
 }
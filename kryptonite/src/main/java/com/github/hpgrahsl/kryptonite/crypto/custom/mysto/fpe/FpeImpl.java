@@ -24,6 +24,10 @@ import java.util.Objects;
 
 /**
  * Implementation of the FPE primitive using FF3-1 algorithm based on Mysto's FPE library.
+ *
+ * Instances are safe to share between threads. Mysto's {@link FF3Cipher} keeps a single
+ * {@code javax.crypto.Cipher} internally, which is why the actual FF3-1 rounds are serialized
+ * per instance, while input validation and charset conversions happen outside of the lock.
  */
 public class FpeImpl implements Fpe {
 
@@ -56,7 +60,10 @@ public class FpeImpl implements Fpe {
         try {
             String plaintextStr = new String(plaintext,StandardCharsets.UTF_8);
             validator.validateCharactersInAlphabet(plaintextStr);
-            String ciphertext = ff3.encrypt(plaintextStr, tweak != null ? tweak : this.tweak);
+            String ciphertext;
+            synchronized (ff3) {
+                ciphertext = ff3.encrypt(plaintextStr, tweak != null ? tweak : this.tweak);
+            }
             return ciphertext.getBytes(StandardCharsets.UTF_8);
         } catch (Exception e) {
             throw new KryptoniteException("FPE encryption using FF3 failed", e);
@@ -68,7 +75,10 @@ public class FpeImpl implements Fpe {
         try {
             String ciphertextStr = new String(ciphertext,StandardCharsets.UTF_8);
             validator.validateCharactersInAlphabet(ciphertext);
-            String plaintext = ff3.decrypt(ciphertextStr, tweak != null ? tweak : this.tweak);
+            String plaintext;
+            synchronized (ff3) {
+                plaintext = ff3.decrypt(ciphertextStr, tweak != null ? tweak : this.tweak);
+            }
             return plaintext.getBytes(StandardCharsets.UTF_8);
         } catch (Exception e) {
             throw new KryptoniteException("FPE decryption using FF3 failed", e);
@@ -17,6 +17,8 @@
 package com.github.hpgrahsl.kryptonite.crypto.custom.mysto.fpe;
 
 import com.github.hpgrahsl.kryptonite.KryptoniteException;
+import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.FpeEngine;
+import com.github.hpgrahsl.kryptonite.crypto.custom.FpeFF31Engine;
 import com.google.crypto.tink.InsecureSecretKeyAccess;
 import com.google.crypto.tink.KeysetHandle;
 import com.google.crypto.tink.TinkProtoKeysetFormat;
@@ -49,11 +51,28 @@ public final class FpeKeysetHandle {
      *
      * @param keysetHandle the KeysetHandle containing the FPE key
      * @param parameters the FPE parameters (alphabet, etc.)
-     * @return an FPE primitive instance
+     * @return an FPE primitive instance backed by Mysto's FF3-1 implementation
      */
     public static Fpe getPrimitive(KeysetHandle keysetHandle, FpeParameters parameters)
             throws Exception {
+        return getPrimitive(keysetHandle, parameters, FpeEngine.MYSTO);
+    }
+
+    /**
+     * Extracts an FPE primitive from a KeysetHandle with specified parameters,
+     * backed by the given FF3-1 engine.
+     *
+     * @param keysetHandle the KeysetHandle containing the FPE key
+     * @param parameters the FPE parameters (alphabet, etc.)
+     * @param engine the FF3-1 implementation to use
+     * @return an FPE primitive instance
+     */
+    public static Fpe getPrimitive(KeysetHandle keysetHandle, FpeParameters parameters, FpeEngine engine)
+            throws Exception {
         try {
+            if (engine == null) {
+                throw new IllegalArgumentException("FpeEngine must not be null");
+            }
             if (parameters == null) {
                 throw new IllegalArgumentException("FpeParameters must not be null");
             }
@@ -74,7 +93,11 @@ public final class FpeKeysetHandle {
                 throw new GeneralSecurityException(
                     "expected FPE key (type url: "+ TYPE_URL +"), got: " + keyData.getTypeUrl());
             }
-            return new FpeImpl(new FpeKey(keyData.getValue().toByteArray()), parameters);
+            var fpeKey = new FpeKey(keyData.getValue().toByteArray());
+            return switch (engine) {
+                case MYSTO -> new FpeImpl(fpeKey, parameters);
+                case NATIVE -> new FpeFF31Engine(fpeKey, parameters);
+            };
         } catch (Exception e) {
             throw new KryptoniteException("Failed to extract FPE primitive", e);
         }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2025. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.hpgrahsl.kryptonite.crypto.custom.mysto.fpe;
+
+import static java.lang.System.Logger.Level.DEBUG;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.hpgrahsl.kryptonite.KryptoniteException;
+import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.FpeEngine;
+import com.google.crypto.tink.KeysetHandle;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded, thread-safe cache of prepared {@link Fpe} primitives.
+ *
+ * Building an FPE primitive means serializing the keyset, re-parsing its proto and setting up
+ * the FF3-1 cipher including the AES key schedule. This cache does that work once per
+ * (keyset handle, alphabet) combination instead of once per value.
+ *
+ * Entries are keyed by the <b>identity</b> of the {@link KeysetHandle}, which is only
+ * <b>weakly</b> referenced. Whenever a key vault refresh installs a new handle for a key
+ * identifier, lookups with that new handle miss and build a fresh primitive, while all
+ * primitives of the superseded handle are evicted as soon as that handle is no longer
+ * reachable, so rotated or revoked key material is not retained by this cache.
+ */
+public final class FpePrimitiveCache {
+
+    private static final System.Logger LOG = System.getLogger(FpePrimitiveCache.class.getName());
+
+    /** maximum number of distinct keyset handles for which primitives are cached */
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    private final Cache<KeysetHandle, ConcurrentHashMap<String, Fpe>> cache;
+    private final FpeEngine engine;
+
+    public FpePrimitiveCache(int maxSize) {
+        this(maxSize, FpeEngine.MYSTO);
+    }
+
+    /**
+     * Creates a cache whose primitives are backed by the given FF3-1 engine.
+     */
+    public FpePrimitiveCache(int maxSize, FpeEngine engine) {
+        if (maxSize <= 0) throw new IllegalArgumentException("maxSize must be > 0");
+        this.engine = Objects.requireNonNull(engine, "engine must not be null");
+        this.cache = Caffeine.newBuilder()
+            .weakKeys()
+            .maximumSize(maxSize)
+            .build();
+    }
+
+    /**
+     * Returns the cached {@link Fpe} primitive for the given keyset handle and alphabet,
+     * creating it via {@link FpeKeysetHandle#getPrimitive} on a cache miss.
+     */
+    public Fpe get(KeysetHandle keysetHandle, String alphabet) {
+        Objects.requireNonNull(keysetHandle, "keysetHandle must not be null");
+        if (alphabet == null) {
+            return prepare(keysetHandle, null);
+        }
+        return cache.get(keysetHandle, h -> new ConcurrentHashMap<>())
+            .computeIfAbsent(alphabet, a -> prepare(keysetHandle, a));
+    }
+
+    private Fpe prepare(KeysetHandle keysetHandle, String alphabet) {
+        LOG.log(DEBUG, "get: FPE primitive cache miss, preparing {0} FF3-1 cipher for alphabet of length {1}",
+            engine, alphabet != null ? alphabet.length() : 0);
+        try {
+            return FpeKeysetHandle.getPrimitive(keysetHandle, FpeParameters.create(alphabet), engine);
+        } catch (KryptoniteException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new KryptoniteException("failed to prepare FPE primitive", e);
+        }
+    }
+
+    /**
+     * Removes all cached primitives of the given keyset handle.
+     */
+    public void invalidate(KeysetHandle keysetHandle) {
+        cache.invalidate(keysetHandle);
+    }
+
+    /**
+     * Removes all cached primitives.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Performs any pending maintenance operations such as size-based eviction or the removal of
+     * entries whose keyset handle has been garbage collected. Intended for testing only.
+     */
+    public void cleanUp() {
+        cache.cleanUp();
+    }
+
+    /**
+     * Returns the approximate number of keyset handles with cached primitives.
+     */
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+}
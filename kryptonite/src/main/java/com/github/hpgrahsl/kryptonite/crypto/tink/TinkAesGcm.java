@@ -17,9 +17,12 @@
 package com.github.hpgrahsl.kryptonite.crypto.tink;
 
 import com.github.hpgrahsl.kryptonite.crypto.AeadAlgorithm;
+import com.github.hpgrahsl.kryptonite.keys.KeyVault;
 import com.google.crypto.tink.Aead;
 import com.google.crypto.tink.KeysetHandle;
 import com.google.crypto.tink.RegistryConfiguration;
+import java.util.ArrayList;
+import java.util.List;
 
 public class TinkAesGcm implements AeadAlgorithm {
 
@@ -37,4 +40,46 @@ public class TinkAesGcm implements AeadAlgorithm {
     return aead.decrypt(ciphertext, associatedData);
   }
 
+  @Override
+  public byte[] cipher(byte[] plaintext, KeyVault keyVault, String identifier, byte[] associatedData) throws Exception {
+    return keyVault.readPrimitive(identifier, Aead.class).encrypt(plaintext, associatedData);
+  }
+
+  @Override
+  public byte[] decipher(byte[] ciphertext, KeyVault keyVault, String identifier, byte[] associatedData) throws Exception {
+    return keyVault.readPrimitive(identifier, Aead.class).decrypt(ciphertext, associatedData);
+  }
+
+  @Override
+  public byte[] cipher(byte[] plaintext, KeyVault keyVault, String identifier, KeysetHandle keysetHandle,
+      byte[] associatedData) throws Exception {
+    return keyVault.readPrimitive(identifier, keysetHandle, Aead.class).encrypt(plaintext, associatedData);
+  }
+
+  @Override
+  public byte[] decipher(byte[] ciphertext, KeyVault keyVault, String identifier, KeysetHandle keysetHandle,
+      byte[] associatedData) throws Exception {
+    return keyVault.readPrimitive(identifier, keysetHandle, Aead.class).decrypt(ciphertext, associatedData);
+  }
+
+  @Override
+  public List<byte[]> cipher(List<byte[]> plaintexts, KeyVault keyVault, String identifier, byte[] associatedData) throws Exception {
+    Aead aead = keyVault.readPrimitive(identifier, Aead.class);
+    var ciphertexts = new ArrayList<byte[]>(plaintexts.size());
+    for (byte[] plaintext : plaintexts) {
+      ciphertexts.add(aead.encrypt(plaintext, associatedData));
+    }
+    return ciphertexts;
+  }
+
+  @Override
+  public List<byte[]> decipher(List<byte[]> ciphertexts, KeyVault keyVault, String identifier, byte[] associatedData) throws Exception {
+    Aead aead = keyVault.readPrimitive(identifier, Aead.class);
+    var plaintexts = new ArrayList<byte[]>(ciphertexts.size());
+    for (byte[] ciphertext : ciphertexts) {
+      plaintexts.add(aead.decrypt(ciphertext, associatedData));
+    }
+    return plaintexts;
+  }
+
 }
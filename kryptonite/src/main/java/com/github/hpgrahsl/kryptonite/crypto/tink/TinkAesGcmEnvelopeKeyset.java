@@ -17,6 +17,7 @@
 package com.github.hpgrahsl.kryptonite.crypto.tink;
 
 import com.github.hpgrahsl.kryptonite.crypto.AeadEnvelopeAlgorithm;
+import com.github.hpgrahsl.kryptonite.crypto.ByteBuffers;
 import com.github.hpgrahsl.kryptonite.crypto.EncryptDekSession;
 import com.google.crypto.tink.Aead;
 import com.google.crypto.tink.InsecureSecretKeyAccess;
@@ -25,7 +26,6 @@ import com.google.crypto.tink.RegistryConfiguration;
 import com.google.crypto.tink.aead.AesGcmKey;
 import com.google.crypto.tink.aead.AesGcmParameters;
 import com.google.crypto.tink.util.SecretBytes;
-import java.io.ByteArrayOutputStream;
 import java.nio.ByteBuffer;
 import java.time.Clock;
 import static java.lang.System.Logger.Level.DEBUG;
@@ -66,6 +66,7 @@ public class TinkAesGcmEnvelopeKeyset implements AeadEnvelopeAlgorithm<KeysetHan
   private static final int DEK_SIZE_BYTES_DEFAULT = 16;
   private static final int AES_GCM_IV_SIZE_BYTES = 12;
   private static final int AES_GCM_TAG_SIZE_BYTES = 16;
+  private static final int WRAPPED_DEK_LENGTH_SIZE_BYTES = 4;
 
   @Override
   public EncryptDekSession createSession(KeysetHandle keyMaterial, byte[] wrapAad, int dekSizeBytes, Clock clock) throws Exception {
@@ -104,18 +105,43 @@ public class TinkAesGcmEnvelopeKeyset implements AeadEnvelopeAlgorithm<KeysetHan
     return bundle;
   }
 
+  @Override
+  public int cipherWithDek(ByteBuffer plaintext, Aead dekAead, byte[] wrappedDek, byte[] encryptAad, ByteBuffer out) throws Exception {
+    LOG.log(TRACE, "cipherWithDek: reusing DEK session, plaintext={0}B wrappedDek={1}B (into buffer)", plaintext.remaining(), wrappedDek.length);
+    byte[] dekCiphertext = dekAead.encrypt(ByteBuffers.read(plaintext), encryptAad);
+    int bundleLength = WRAPPED_DEK_LENGTH_SIZE_BYTES + wrappedDek.length + dekCiphertext.length;
+    ByteBuffers.requireRemaining(out, bundleLength);
+    out.putInt(wrappedDek.length).put(wrappedDek).put(dekCiphertext);
+    LOG.log(TRACE, "cipherWithDek: bundle={0}B", bundleLength);
+    return bundleLength;
+  }
+
   @Override
   public byte[] decipherWithDek(byte[] ciphertext, Aead dekAead, byte[] encryptAad) throws Exception {
-    LOG.log(TRACE, "decipherWithDek: ciphertext={0}B (reusing cached DEK Aead)", ciphertext.length);
-    byte[][] parts = unbundle(ciphertext);
-    byte[] plaintext = dekAead.decrypt(parts[1], encryptAad);
+    return decipherWithDek(ByteBuffer.wrap(ciphertext), dekAead, encryptAad);
+  }
+
+  @Override
+  public byte[] decipherWithDek(ByteBuffer ciphertext, Aead dekAead, byte[] encryptAad) throws Exception {
+    LOG.log(TRACE, "decipherWithDek: ciphertext={0}B (reusing cached DEK Aead)", ciphertext.remaining());
+    int wrappedDekLen = ciphertext.getInt();
+    ciphertext.position(ciphertext.position() + wrappedDekLen);
+    byte[] plaintext = dekAead.decrypt(ByteBuffers.read(ciphertext), encryptAad);
     LOG.log(TRACE, "decipherWithDek: plaintext={0}B", plaintext.length);
     return plaintext;
   }
 
   @Override
   public byte[] extractWrappedDek(byte[] bundle) {
-    return unbundle(bundle)[0];
+    return extractWrappedDek(ByteBuffer.wrap(bundle));
+  }
+
+  @Override
+  public byte[] extractWrappedDek(ByteBuffer bundle) {
+    ByteBuffer buf = bundle.duplicate();
+    byte[] wrappedDek = new byte[buf.getInt()];
+    buf.get(wrappedDek);
+    return wrappedDek;
   }
 
   private static Aead dekAeadFromRawBytes(SecretBytes rawDek) throws Exception {
@@ -136,22 +162,12 @@ public class TinkAesGcmEnvelopeKeyset implements AeadEnvelopeAlgorithm<KeysetHan
     return dekHandle.getPrimitive(RegistryConfiguration.get(), Aead.class);
   }
 
-  private static byte[] bundle(byte[] wrappedDek, byte[] dekCiphertext) throws Exception {
-    ByteArrayOutputStream out = new ByteArrayOutputStream();
-    out.write(ByteBuffer.allocate(4).putInt(wrappedDek.length).array());
-    out.write(wrappedDek);
-    out.write(dekCiphertext);
-    return out.toByteArray();
-  }
-
-  private static byte[][] unbundle(byte[] bundle) {
-    ByteBuffer buf = ByteBuffer.wrap(bundle);
-    int wrappedDekLen = buf.getInt();
-    byte[] wrappedDek = new byte[wrappedDekLen];
-    buf.get(wrappedDek);
-    byte[] dekCiphertext = new byte[buf.remaining()];
-    buf.get(dekCiphertext);
-    return new byte[][]{wrappedDek, dekCiphertext};
+  private static byte[] bundle(byte[] wrappedDek, byte[] dekCiphertext) {
+    return ByteBuffer.allocate(WRAPPED_DEK_LENGTH_SIZE_BYTES + wrappedDek.length + dekCiphertext.length)
+        .putInt(wrappedDek.length)
+        .put(wrappedDek)
+        .put(dekCiphertext)
+        .array();
   }
 
 }
@@ -17,7 +17,9 @@
 package com.github.hpgrahsl.kryptonite.crypto.tink;
 
 import com.github.hpgrahsl.kryptonite.crypto.AeadEnvelopeAlgorithm;
+import com.github.hpgrahsl.kryptonite.crypto.ByteBuffers;
 import com.github.hpgrahsl.kryptonite.crypto.EncryptDekSession;
+import com.github.hpgrahsl.kryptonite.keys.EdekStore;
 import com.github.hpgrahsl.kryptonite.kms.EnvelopeKekEncryption;
 import com.google.crypto.tink.Aead;
 import com.google.crypto.tink.InsecureSecretKeyAccess;
@@ -26,7 +28,7 @@ import com.google.crypto.tink.RegistryConfiguration;
 import com.google.crypto.tink.aead.AesGcmKey;
 import com.google.crypto.tink.aead.AesGcmParameters;
 import com.google.crypto.tink.util.SecretBytes;
-import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 import java.time.Clock;
 import java.util.Arrays;
 import static java.lang.System.Logger.Level.DEBUG;
@@ -52,9 +54,9 @@ import static java.lang.System.Logger.Level.TRACE;
  *
  * <p><strong>Note on {@link #cipherWithDek}</strong>: the {@code wrappedDek} parameter
  * in the {@link AeadEnvelopeAlgorithm} interface is repurposed here to carry the pre-computed
- * 16-byte fingerprint. The caller ({@code Kryptonite.cipherEnvelopeKms}) computes
- * {@code EdekStore.fingerprint(session.wrappedDek())} and publishes to the EdekStore before
- * invoking this method.
+ * 16-byte fingerprint. It is computed once per DEK in {@link #createSession} and carried by the
+ * {@link EncryptDekSession}; the caller ({@code Kryptonite.cipherEnvelopeKms}) publishes
+ * {@code session.fingerprint()} to the EdekStore before invoking this method.
  *
  * <p>The DEK session cache ({@code EncryptDekSessionCache}) and EdekStore are
  * <strong>load-bearing</strong> for this mode as each KMS wrap/unwrap costs
@@ -78,7 +80,7 @@ public class TinkAesGcmEnvelopeKms implements AeadEnvelopeAlgorithm<EnvelopeKekE
     byte[] wrappedDek = keyMaterial.wrapDek(rawDek.toByteArray(InsecureSecretKeyAccess.get()), wrapAad);
     LOG.log(DEBUG, "createSession: DEK session created via KMS, wrappedDek={0}B", wrappedDek.length);
     Aead dekAead = dekAeadFromRawBytes(rawDek);
-    return new EncryptDekSession(wrappedDek, dekAead, clock);
+    return new EncryptDekSession(wrappedDek, dekAead, EdekStore.fingerprint(wrappedDek), clock);
   }
 
   public EncryptDekSession createSession(EnvelopeKekEncryption keyMaterial, byte[] wrapAad) throws Exception {
@@ -115,11 +117,35 @@ public class TinkAesGcmEnvelopeKms implements AeadEnvelopeAlgorithm<EnvelopeKekE
     return bundle;
   }
 
+  /**
+   * Same as {@link #cipherWithDek(byte[], Aead, byte[], byte[])} but writes the bundle directly
+   * into {@code out} instead of assembling an intermediate array.
+   */
+  @Override
+  public int cipherWithDek(ByteBuffer plaintext, Aead dekAead, byte[] wrappedDek, byte[] encryptAad, ByteBuffer out) throws Exception {
+    LOG.log(TRACE, "cipherWithDek: reusing DEK session, plaintext={0}B fingerprint={1}B (into buffer)", plaintext.remaining(), wrappedDek.length);
+    byte[] dekCiphertext = dekAead.encrypt(ByteBuffers.read(plaintext), encryptAad);
+    int bundleLength = wrappedDek.length + dekCiphertext.length;
+    ByteBuffers.requireRemaining(out, bundleLength);
+    out.put(wrappedDek).put(dekCiphertext);
+    LOG.log(TRACE, "cipherWithDek: bundle={0}B", bundleLength);
+    return bundleLength;
+  }
+
   @Override
   public byte[] decipherWithDek(byte[] ciphertext, Aead dekAead, byte[] encryptAad) throws Exception {
     LOG.log(TRACE, "decipherWithDek: ciphertext={0}B (reusing cached DEK Aead)", ciphertext.length);
-    byte[][] parts = unbundle(ciphertext);
-    byte[] plaintext = dekAead.decrypt(parts[1], encryptAad);
+    byte[] dekCiphertext = Arrays.copyOfRange(ciphertext, FINGERPRINT_SIZE_BYTES, ciphertext.length);
+    byte[] plaintext = dekAead.decrypt(dekCiphertext, encryptAad);
+    LOG.log(TRACE, "decipherWithDek: plaintext={0}B", plaintext.length);
+    return plaintext;
+  }
+
+  @Override
+  public byte[] decipherWithDek(ByteBuffer ciphertext, Aead dekAead, byte[] encryptAad) throws Exception {
+    LOG.log(TRACE, "decipherWithDek: ciphertext={0}B (reusing cached DEK Aead)", ciphertext.remaining());
+    ciphertext.position(ciphertext.position() + FINGERPRINT_SIZE_BYTES);
+    byte[] plaintext = dekAead.decrypt(ByteBuffers.read(ciphertext), encryptAad);
     LOG.log(TRACE, "decipherWithDek: plaintext={0}B", plaintext.length);
     return plaintext;
   }
@@ -132,7 +158,14 @@ public class TinkAesGcmEnvelopeKms implements AeadEnvelopeAlgorithm<EnvelopeKekE
    */
   @Override
   public byte[] extractWrappedDek(byte[] bundle) {
-    return unbundle(bundle)[0];
+    return Arrays.copyOf(bundle, FINGERPRINT_SIZE_BYTES);
+  }
+
+  @Override
+  public byte[] extractWrappedDek(ByteBuffer bundle) {
+    byte[] fingerprint = new byte[FINGERPRINT_SIZE_BYTES];
+    bundle.duplicate().get(fingerprint);
+    return fingerprint;
   }
 
   private static Aead dekAeadFromRawBytes(SecretBytes rawDek) throws Exception {
@@ -159,17 +192,10 @@ public class TinkAesGcmEnvelopeKms implements AeadEnvelopeAlgorithm<EnvelopeKekE
    * <p>Wire format: {@code [FINGERPRINT_SIZE_BYTES bytes | dekCiphertext]}
    * No length prefix is needed since the fingerprint size is fixed.
    */
-  private static byte[] bundle(byte[] fingerprint, byte[] dekCiphertext) throws Exception {
-    ByteArrayOutputStream out = new ByteArrayOutputStream();
-    out.write(fingerprint);
-    out.write(dekCiphertext);
-    return out.toByteArray();
-  }
-
-  private static byte[][] unbundle(byte[] bundle) {
-    byte[] fingerprint = Arrays.copyOf(bundle, FINGERPRINT_SIZE_BYTES);
-    byte[] dekCiphertext = Arrays.copyOfRange(bundle, FINGERPRINT_SIZE_BYTES, bundle.length);
-    return new byte[][]{fingerprint, dekCiphertext};
+  private static byte[] bundle(byte[] fingerprint, byte[] dekCiphertext) {
+    byte[] bundle = Arrays.copyOf(fingerprint, fingerprint.length + dekCiphertext.length);
+    System.arraycopy(dekCiphertext, 0, bundle, fingerprint.length, dekCiphertext.length);
+    return bundle;
   }
 
 }
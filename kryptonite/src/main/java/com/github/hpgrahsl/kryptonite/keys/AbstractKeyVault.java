@@ -19,16 +19,20 @@ package com.github.hpgrahsl.kryptonite.keys;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.hpgrahsl.kryptonite.config.TinkKeyConfig;
 import com.github.hpgrahsl.kryptonite.config.TinkKeyConfigEncrypted;
+import com.github.hpgrahsl.kryptonite.metrics.KryptoniteMetrics;
 import com.google.crypto.tink.Aead;
 import com.google.crypto.tink.CleartextKeysetHandle;
 import com.google.crypto.tink.JsonKeysetReader;
 import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.RegistryConfiguration;
 import com.google.crypto.tink.TinkJsonProtoKeysetFormat;
 import static java.lang.System.Logger.Level.DEBUG;
 import static java.lang.System.Logger.Level.INFO;
 import static java.lang.System.Logger.Level.WARNING;
+import java.security.GeneralSecurityException;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -41,8 +45,21 @@ public abstract class AbstractKeyVault implements KeyVault, AutoCloseable {
 
   protected final ConcurrentHashMap<String, KeysetHandle> keysetHandles;
 
+  /**
+   * Materialized primitives keyed by (identifier, primitive type). Each entry remembers the
+   * exact {@link KeysetHandle} instance it was derived from, so a handle swapped in by a refresh
+   * cycle is detected on the next lookup and the entry gets replaced atomically.
+   */
+  private final ConcurrentHashMap<PrimitiveKey, MaterializedPrimitive> primitives = new ConcurrentHashMap<>();
+
+  private record PrimitiveKey(String identifier, Class<?> primitiveClass) {}
+
+  private record MaterializedPrimitive(KeysetHandle keysetHandle, Object primitive) {}
+
   private volatile ScheduledExecutorService refreshScheduler;
 
+  private volatile KryptoniteMetrics metrics = KryptoniteMetrics.noop();
+
   public AbstractKeyVault(ConcurrentHashMap<String, KeysetHandle> keysetHandles) {
     this.keysetHandles = keysetHandles;
   }
@@ -67,6 +84,55 @@ public abstract class AbstractKeyVault implements KeyVault, AutoCloseable {
     return keysetHandles.containsKey(identifier);
   }
 
+  /**
+   * Returns the cached primitive of type {@code primitiveClass} for {@code identifier},
+   * materializing it only if absent or if the underlying keyset handle has been replaced
+   * since the primitive was cached. The steady-state cost is therefore two map lookups.
+   */
+  @Override
+  public <P> P readPrimitive(String identifier, Class<P> primitiveClass) {
+    return readPrimitive(identifier, readKeysetHandle(identifier), primitiveClass);
+  }
+
+  /**
+   * Returns the cached primitive if it was derived from {@code keysetHandle}. A handle which has
+   * already been replaced by a refresh gets its primitive materialized without caching it, so
+   * that it can't displace the primitive of the current handle.
+   */
+  @Override
+  public <P> P readPrimitive(String identifier, KeysetHandle keysetHandle, Class<P> primitiveClass) {
+    var key = new PrimitiveKey(identifier, primitiveClass);
+    var cached = primitives.get(key);
+    if (cached != null && cached.keysetHandle() == keysetHandle) {
+      return primitiveClass.cast(cached.primitive());
+    }
+    if (keysetHandles.get(identifier) != keysetHandle) {
+      return KeyVault.super.readPrimitive(identifier, keysetHandle, primitiveClass);
+    }
+    var materialized = primitives.compute(key, (k, existing) -> {
+      if (existing != null && existing.keysetHandle() == keysetHandle) {
+        return existing;
+      }
+      LOG.log(DEBUG, () -> "KeyVault: materializing " + primitiveClass.getSimpleName()
+          + " primitive for key '" + identifier + "'");
+      try {
+        return new MaterializedPrimitive(keysetHandle,
+            keysetHandle.getPrimitive(RegistryConfiguration.get(), primitiveClass));
+      } catch (GeneralSecurityException exc) {
+        throw new KeyException("failed to obtain " + primitiveClass.getSimpleName()
+            + " primitive for identifier '" + identifier + "'", exc);
+      }
+    });
+    return primitiveClass.cast(materialized.primitive());
+  }
+
+  /**
+   * Sets the {@link KryptoniteMetrics} which background refresh cycles are reported to.
+   */
+  public void setMetrics(KryptoniteMetrics metrics) {
+    this.metrics = Objects.requireNonNull(metrics, "metrics must not be null");
+  }
+
   protected abstract void fetchIntoKeyCache(String identifier);
 
   public void prefetch(String identifier) {
@@ -99,7 +165,7 @@ public abstract class AbstractKeyVault implements KeyVault, AutoCloseable {
       t.setDaemon(true);
       return t;
     });
-    scheduler.scheduleAtFixedRate(this::refreshKeyCache, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+    scheduler.scheduleAtFixedRate(this::runRefreshCycle, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
     refreshScheduler = scheduler;
     LOG.log(INFO, () -> "KeyVault background refresh started (interval: " + intervalMinutes + " minute(s))");
   }
@@ -142,6 +208,17 @@ public abstract class AbstractKeyVault implements KeyVault, AutoCloseable {
     LOG.log(INFO, () -> "KeyVault refresh cycle complete: " + u + " upserted, " + f + " failed");
   }
 
+  private void runRefreshCycle() {
+    long start = System.nanoTime();
+    boolean success = false;
+    try {
+      refreshKeyCache();
+      success = true;
+    } finally {
+      metrics.recordKeyVaultRefresh(System.nanoTime() - start, success);
+    }
+  }
+
   @Override
   public void close() {
     stopBackgroundRefresh();
@@ -17,6 +17,8 @@
 package com.github.hpgrahsl.kryptonite.keys;
 
 import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.RegistryConfiguration;
+import java.security.GeneralSecurityException;
 
 public interface KeyVault {
 
@@ -26,4 +28,27 @@ public interface KeyVault {
 
   boolean containsKeysetHandle(String identifier);
 
+  /**
+   * Returns a ready-to-use Tink primitive of type {@code primitiveClass} for the keyset
+   * identified by {@code identifier}. The default implementation materializes the primitive
+   * on every call; implementations are free to cache it alongside the keyset handle.
+   */
+  default <P> P readPrimitive(String identifier, Class<P> primitiveClass) {
+    return readPrimitive(identifier, readKeysetHandle(identifier), primitiveClass);
+  }
+
+  /**
+   * Same as {@link #readPrimitive(String, Class)} but for the {@code keysetHandle} the caller
+   * already read for {@code identifier}, so that the primitive is guaranteed to belong to exactly
+   * that handle even if a refresh swaps in a new one in the meantime.
+   */
+  default <P> P readPrimitive(String identifier, KeysetHandle keysetHandle, Class<P> primitiveClass) {
+    try {
+      return keysetHandle.getPrimitive(RegistryConfiguration.get(), primitiveClass);
+    } catch (GeneralSecurityException exc) {
+      throw new KeyException("failed to obtain " + primitiveClass.getSimpleName()
+          + " primitive for identifier '" + identifier + "'", exc);
+    }
+  }
+
 }
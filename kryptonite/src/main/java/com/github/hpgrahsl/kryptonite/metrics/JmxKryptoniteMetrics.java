@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) 2021. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.hpgrahsl.kryptonite.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import static java.lang.System.Logger.Level.DEBUG;
+import static java.lang.System.Logger.Level.WARNING;
+
+/**
+ * {@link KryptoniteMetrics} which exposes all metrics as MXBeans on the platform MBean server,
+ * so they can be scraped by any JMX-based tooling (JConsole, JMX exporter agents, Kafka Connect
+ * or Flink JMX reporters, ...) without the core module depending on a metrics library.
+ *
+ * <p>All MXBeans live in the {@value #DOMAIN} domain and carry an {@code instance} key property
+ * to tell several Kryptonite instances within the same JVM apart:
+ * <ul>
+ *   <li>{@code type=CipherOperation,operation=...,cipherSpec=...,keyId=...} — {@link OperationStatsMXBean}</li>
+ *   <li>{@code type=DekSession,keyId=...} — {@link DekSessionStatsMXBean}</li>
+ *   <li>{@code type=DekUnwrap,keyId=...} — {@link OperationStatsMXBean}</li>
+ *   <li>{@code type=KeyVault,name=refresh} — {@link OperationStatsMXBean}</li>
+ *   <li>{@code type=EdekStore,name=put|get} — {@link OperationStatsMXBean}, failures of {@code get}
+ *       count lookups which did not find the EDEK</li>
+ *   <li>{@code type=Cache,name=...} — {@link CacheStatsMXBean}</li>
+ * </ul>
+ *
+ * <p>MXBeans are registered lazily on first use and unregistered on {@link #close()}.
+ */
+public class JmxKryptoniteMetrics implements KryptoniteMetrics {
+
+  public static final String DOMAIN = "com.github.hpgrahsl.kryptonite";
+
+  private static final System.Logger LOG = System.getLogger(JmxKryptoniteMetrics.class.getName());
+
+  private static final AtomicInteger INSTANCE_COUNTER = new AtomicInteger();
+
+  public interface OperationStatsMXBean {
+    long getCount();
+    long getFailures();
+    double getMeanMicros();
+    double getMaxMicros();
+    double getP50Micros();
+    double getP99Micros();
+  }
+
+  public interface DekSessionStatsMXBean {
+    long getCreated();
+    long getRotatedByMaxEncryptions();
+    long getRotatedByTtl();
+    double getMeanCreationMicros();
+    double getMaxCreationMicros();
+  }
+
+  public interface CacheStatsMXBean {
+    long getHitCount();
+    long getMissCount();
+    double getHitRate();
+    long getEvictionCount();
+    long getEstimatedSize();
+  }
+
+  static final class OperationStats implements OperationStatsMXBean {
+
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder failures = new LongAdder();
+
+    void record(long count, long durationNanos, boolean success) {
+      latencies.record(durationNanos, count);
+      if (!success) {
+        failures.add(count);
+      }
+    }
+
+    @Override
+    public long getCount() {
+      return latencies.count();
+    }
+
+    @Override
+    public long getFailures() {
+      return failures.sum();
+    }
+
+    @Override
+    public double getMeanMicros() {
+      return latencies.meanNanos() / 1_000d;
+    }
+
+    @Override
+    public double getMaxMicros() {
+      return latencies.maxNanos() / 1_000d;
+    }
+
+    @Override
+    public double getP50Micros() {
+      return latencies.percentileNanos(0.50) / 1_000d;
+    }
+
+    @Override
+    public double getP99Micros() {
+      return latencies.percentileNanos(0.99) / 1_000d;
+    }
+
+  }
+
+  static final class DekSessionStats implements DekSessionStatsMXBean {
+
+    private final LatencyHistogram creations = new LatencyHistogram();
+    private final LongAdder rotatedByMaxEncryptions = new LongAdder();
+    private final LongAdder rotatedByTtl = new LongAdder();
+
+    @Override
+    public long getCreated() {
+      return creations.count();
+    }
+
+    @Override
+    public long getRotatedByMaxEncryptions() {
+      return rotatedByMaxEncryptions.sum();
+    }
+
+    @Override
+    public long getRotatedByTtl() {
+      return rotatedByTtl.sum();
+    }
+
+    @Override
+    public double getMeanCreationMicros() {
+      return creations.meanNanos() / 1_000d;
+    }
+
+    @Override
+    public double getMaxCreationMicros() {
+      return creations.maxNanos() / 1_000d;
+    }
+
+  }
+
+  static final class CacheStats implements CacheStatsMXBean {
+
+    private final Supplier<CacheMetrics> stats;
+
+    CacheStats(Supplier<CacheMetrics> stats) {
+      this.stats = stats;
+    }
+
+    @Override
+    public long getHitCount() {
+      return stats.get().hitCount();
+    }
+
+    @Override
+    public long getMissCount() {
+      return stats.get().missCount();
+    }
+
+    @Override
+    public double getHitRate() {
+      return stats.get().hitRate();
+    }
+
+    @Override
+    public long getEvictionCount() {
+      return stats.get().evictionCount();
+    }
+
+    @Override
+    public long getEstimatedSize() {
+      return stats.get().estimatedSize();
+    }
+
+  }
+
+  private record CipherOperationKey(Operation operation, String cipherSpec, String keyId) {}
+
+  private final MBeanServer mBeanServer;
+  private final String instanceName;
+  private final Map<CipherOperationKey, OperationStats> cipherOperations = new ConcurrentHashMap<>();
+  private final Map<String, DekSessionStats> dekSessions = new ConcurrentHashMap<>();
+  private final Map<String, OperationStats> dekUnwraps = new ConcurrentHashMap<>();
+  private final Map<ObjectName, Object> registered = new ConcurrentHashMap<>();
+  private final OperationStats keyVaultRefresh;
+  private final OperationStats edekPut;
+  private final OperationStats edekGet;
+
+  public JmxKryptoniteMetrics() {
+    this("kryptonite-" + INSTANCE_COUNTER.incrementAndGet());
+  }
+
+  public JmxKryptoniteMetrics(String instanceName) {
+    this(ManagementFactory.getPlatformMBeanServer(), instanceName);
+  }
+
+  public JmxKryptoniteMetrics(MBeanServer mBeanServer, String instanceName) {
+    this.mBeanServer = mBeanServer;
+    this.instanceName = instanceName;
+    this.keyVaultRefresh = register(new OperationStats(), "type", "KeyVault", "name", "refresh");
+    this.edekPut = register(new OperationStats(), "type", "EdekStore", "name", "put");
+    this.edekGet = register(new OperationStats(), "type", "EdekStore", "name", "get");
+  }
+
+  public String getInstanceName() {
+    return instanceName;
+  }
+
+  @Override
+  public void recordCipherOperation(Operation operation, String cipherSpec, String keyId,
+      int count, long durationNanos, boolean success) {
+    cipherOperations.computeIfAbsent(new CipherOperationKey(operation, cipherSpec, keyId),
+        k -> register(new OperationStats(), "type", "CipherOperation", "operation", k.operation().name(),
+            "cipherSpec", k.cipherSpec(), "keyId", k.keyId()))
+        .record(count, durationNanos, success);
+  }
+
+  @Override
+  public void recordDekSessionCreated(String keyId, long durationNanos) {
+    dekSessionStats(keyId).creations.record(durationNanos);
+  }
+
+  @Override
+  public void recordDekSessionRotated(String keyId, RotationCause cause) {
+    var stats = dekSessionStats(keyId);
+    switch (cause) {
+      case MAX_ENCRYPTIONS -> stats.rotatedByMaxEncryptions.increment();
+      case TTL -> stats.rotatedByTtl.increment();
+    }
+  }
+
+  @Override
+  public void recordDekUnwrap(String keyId, long durationNanos) {
+    dekUnwraps.computeIfAbsent(keyId,
+        k -> register(new OperationStats(), "type", "DekUnwrap", "keyId", k))
+        .record(1, durationNanos, true);
+  }
+
+  @Override
+  public void recordKeyVaultRefresh(long durationNanos, boolean success) {
+    keyVaultRefresh.record(1, durationNanos, success);
+  }
+
+  @Override
+  public void recordEdekPut(long durationNanos) {
+    edekPut.record(1, durationNanos, true);
+  }
+
+  @Override
+  public void recordEdekGet(long durationNanos, boolean found) {
+    edekGet.record(1, durationNanos, found);
+  }
+
+  @Override
+  public void registerCache(String name, Supplier<CacheMetrics> stats) {
+    register(new CacheStats(stats), "type", "Cache", "name", name);
+  }
+
+  @Override
+  public void close() {
+    for (ObjectName objectName : registered.keySet()) {
+      try {
+        mBeanServer.unregisterMBean(objectName);
+      } catch (JMException e) {
+        LOG.log(DEBUG, "failed to unregister MXBean {0}: {1}", objectName, e.getMessage());
+      }
+    }
+    registered.clear();
+  }
+
+  private DekSessionStats dekSessionStats(String keyId) {
+    return dekSessions.computeIfAbsent(keyId,
+        k -> register(new DekSessionStats(), "type", "DekSession", "keyId", k));
+  }
+
+  /**
+   * Registers {@code mxBean} under an object name built from the given key/value pairs plus the
+   * {@code instance} key. Registration problems are logged but never fail the calling operation,
+   * the metrics are still collected and simply not exposed.
+   */
+  private <T> T register(T mxBean, String... keyValuePairs) {
+    var name = new StringBuilder(DOMAIN).append(':');
+    for (int i = 0; i < keyValuePairs.length; i += 2) {
+      name.append(keyValuePairs[i]).append('=').append(propertyValue(keyValuePairs[i + 1])).append(',');
+    }
+    name.append("instance=").append(propertyValue(instanceName));
+    try {
+      var objectName = new ObjectName(name.toString());
+      mBeanServer.registerMBean(mxBean, objectName);
+      registered.put(objectName, mxBean);
+      LOG.log(DEBUG, "registered MXBean {0}", objectName);
+    } catch (JMException e) {
+      LOG.log(WARNING, "failed to register MXBean {0}: {1}", name, e.getMessage());
+    }
+    return mxBean;
+  }
+
+  /**
+   * Returns {@code value} as is unless it contains characters which are only allowed in quoted
+   * object name property values, as may be the case for key identifiers.
+   */
+  private static String propertyValue(String value) {
+    for (int i = 0; i < value.length(); i++) {
+      if (",=:\"*?\n".indexOf(value.charAt(i)) >= 0) {
+        return ObjectName.quote(value);
+      }
+    }
+    return value.isEmpty() ? ObjectName.quote(value) : value;
+  }
+
+}
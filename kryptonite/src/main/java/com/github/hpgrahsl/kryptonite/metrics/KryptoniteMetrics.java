@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2021. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.hpgrahsl.kryptonite.metrics;
+
+import java.util.function.Supplier;
+
+/**
+ * Dependency-free metrics SPI through which {@code Kryptonite} reports what happens on its
+ * hot paths: cipher operations per cipher spec and key identifier, DEK session lifecycle events,
+ * DEK unwraps, key vault refresh cycles, EdekStore round trips and the state of its caches.
+ *
+ * <p>Every callback has a no-op default, so implementations only override what they are
+ * interested in. Callbacks are invoked synchronously on the calling thread and must therefore
+ * be cheap, non-blocking and thread-safe.
+ *
+ * <p>Two implementations ship with the core module: {@link #noop()} which is the default, and
+ * {@link JmxKryptoniteMetrics} which exposes everything as MXBeans on the platform MBean server.
+ * Both can be selected with the {@code metrics_type} configuration setting.
+ */
+public interface KryptoniteMetrics extends AutoCloseable {
+
+  enum Operation {
+    ENCRYPT,
+    DECRYPT
+  }
+
+  /**
+   * Reason why an encrypt-side DEK session was replaced by a fresh one.
+   */
+  enum RotationCause {
+    MAX_ENCRYPTIONS,
+    TTL
+  }
+
+  static KryptoniteMetrics noop() {
+    return NoopKryptoniteMetrics.INSTANCE;
+  }
+
+  /**
+   * Records one (batch) cipher operation.
+   *
+   * @param operation      encrypt or decrypt
+   * @param cipherSpec     cipher spec name, e.g. {@code TINK/AES_GCM}
+   * @param keyId          key identifier the operation was performed with
+   * @param count          number of field values processed, {@code 1} for single value calls
+   * @param durationNanos  wall clock duration of the whole operation
+   * @param success        {@code false} if the operation failed with an exception
+   */
+  default void recordCipherOperation(Operation operation, String cipherSpec, String keyId,
+      int count, long durationNanos, boolean success) {}
+
+  /**
+   * Records the creation of an encrypt-side DEK session, including DEK generation, wrapping
+   * and, for KMS-backed envelope encryption, publishing the EDEK.
+   */
+  default void recordDekSessionCreated(String keyId, long durationNanos) {}
+
+  /**
+   * Records that the DEK session for {@code keyId} was replaced because of {@code cause}.
+   */
+  default void recordDekSessionRotated(String keyId, RotationCause cause) {}
+
+  /**
+   * Records a decrypt-side DEK unwrap which was not served from the wrapped DEK cache.
+   */
+  default void recordDekUnwrap(String keyId, long durationNanos) {}
+
+  /**
+   * Records one background refresh cycle of a key vault.
+   */
+  default void recordKeyVaultRefresh(long durationNanos, boolean success) {}
+
+  default void recordEdekPut(long durationNanos) {}
+
+  default void recordEdekGet(long durationNanos, boolean found) {}
+
+  /**
+   * Registers a cache whose statistics are polled via {@code stats} whenever they are reported.
+   */
+  default void registerCache(String name, Supplier<CacheMetrics> stats) {}
+
+  @Override
+  default void close() {}
+
+}
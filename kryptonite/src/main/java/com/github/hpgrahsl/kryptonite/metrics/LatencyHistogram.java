@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2021. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.hpgrahsl.kryptonite.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with power-of-two buckets.
+ *
+ * <p>A recorded duration of {@code n} nanoseconds lands in bucket
+ * {@code 64 - Long.numberOfLeadingZeros(n)}, so recording is a couple of arithmetic
+ * instructions plus one {@link LongAdder} increment. Percentiles are reported as the upper bound
+ * of the bucket they fall into, i.e. they are accurate to within a factor of two, which is enough
+ * to spot regressions and outliers without any third-party dependency.
+ */
+public final class LatencyHistogram {
+
+  private static final int NUM_BUCKETS = 64;
+
+  private final LongAdder[] buckets = new LongAdder[NUM_BUCKETS];
+  private final LongAdder count = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+  public LatencyHistogram() {
+    for (int i = 0; i < NUM_BUCKETS; i++) {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  public void record(long durationNanos) {
+    record(durationNanos, 1);
+  }
+
+  /**
+   * Records {@code times} operations which took {@code durationNanos} in total, e.g. a batch.
+   * The per-operation average is what ends up in the bucket counts.
+   */
+  public void record(long durationNanos, long times) {
+    if (times <= 0) {
+      return;
+    }
+    long nanos = Math.max(0L, durationNanos);
+    long perOperation = nanos / times;
+    buckets[bucketOf(perOperation)].add(times);
+    count.add(times);
+    totalNanos.add(nanos);
+    maxNanos.accumulate(perOperation);
+  }
+
+  public long count() {
+    return count.sum();
+  }
+
+  public long totalNanos() {
+    return totalNanos.sum();
+  }
+
+  public long maxNanos() {
+    return maxNanos.get();
+  }
+
+  public double meanNanos() {
+    long n = count.sum();
+    return n == 0 ? 0.0 : (double) totalNanos.sum() / n;
+  }
+
+  /**
+   * Returns the approximate latency below which {@code percentile} (0.0 - 1.0) of all recorded
+   * operations fall, or {@code 0} if nothing has been recorded yet.
+   */
+  public long percentileNanos(double percentile) {
+    long[] snapshot = new long[NUM_BUCKETS];
+    long total = 0;
+    for (int i = 0; i < NUM_BUCKETS; i++) {
+      snapshot[i] = buckets[i].sum();
+      total += snapshot[i];
+    }
+    if (total == 0) {
+      return 0L;
+    }
+    long rank = (long) Math.ceil(Math.min(1.0, Math.max(0.0, percentile)) * total);
+    long seen = 0;
+    for (int i = 0; i < NUM_BUCKETS; i++) {
+      seen += snapshot[i];
+      if (seen >= rank && snapshot[i] > 0) {
+        return Math.min(upperBoundOf(i), maxNanos());
+      }
+    }
+    return maxNanos();
+  }
+
+  private static int bucketOf(long nanos) {
+    return Math.min(NUM_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+  }
+
+  private static long upperBoundOf(int bucket) {
+    return bucket >= 63 ? Long.MAX_VALUE : (1L << bucket) - 1;
+  }
+
+}
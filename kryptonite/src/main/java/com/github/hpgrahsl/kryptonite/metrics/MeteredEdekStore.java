@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2021. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.hpgrahsl.kryptonite.metrics;
+
+import com.github.hpgrahsl.kryptonite.keys.EdekStore;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * {@link EdekStore} decorator which reports put/get latencies to {@link KryptoniteMetrics}.
+ */
+public final class MeteredEdekStore implements EdekStore {
+
+  private final EdekStore delegate;
+  private final KryptoniteMetrics metrics;
+
+  public MeteredEdekStore(EdekStore delegate, KryptoniteMetrics metrics) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+    this.metrics = Objects.requireNonNull(metrics, "metrics must not be null");
+  }
+
+  public EdekStore getDelegate() {
+    return delegate;
+  }
+
+  @Override
+  public void init(String configJson) throws Exception {
+    delegate.init(configJson);
+  }
+
+  @Override
+  public void put(byte[] fingerprint, byte[] wrappedDek) {
+    long start = System.nanoTime();
+    delegate.put(fingerprint, wrappedDek);
+    metrics.recordEdekPut(System.nanoTime() - start);
+  }
+
+  @Override
+  public Optional<byte[]> get(byte[] fingerprint) {
+    long start = System.nanoTime();
+    var wrappedDek = delegate.get(fingerprint);
+    metrics.recordEdekGet(System.nanoTime() - start, wrappedDek.isPresent());
+    return wrappedDek;
+  }
+
+  @Override
+  public void close() {
+    delegate.close();
+  }
+
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2026. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.hpgrahsl.kryptonite;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.github.hpgrahsl.kryptonite.config.ConfigReader;
+import com.github.hpgrahsl.kryptonite.config.ConfigurationException;
+import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings;
+import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.AlphabetTypeFPE;
+import com.github.hpgrahsl.kryptonite.config.TinkKeyConfig;
+import com.github.hpgrahsl.kryptonite.crypto.DeterministicCipherCache;
+import com.github.hpgrahsl.kryptonite.crypto.custom.MystoFpeFF31;
+import com.github.hpgrahsl.kryptonite.crypto.tink.TinkAesGcm;
+import com.github.hpgrahsl.kryptonite.crypto.tink.TinkAesGcmSiv;
+import com.github.hpgrahsl.kryptonite.keys.TinkKeyVault;
+import com.github.hpgrahsl.kryptonite.metrics.KryptoniteMetrics;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class KryptoniteDeterministicCacheTest {
+
+    static final String FPE_KEYS_CONFIG = "[{\"identifier\":\"keyC\",\"material\":"
+            + TestFixtures.CIPHER_DATA_KEY_CONFIG_FPE_KEY_C + "}]";
+
+    static class RefreshableKeyVault extends TinkKeyVault {
+
+        private final Map<String, TinkKeyConfig> keyConfigs;
+
+        RefreshableKeyVault(Map<String, TinkKeyConfig> keyConfigs) {
+            super(keyConfigs);
+            this.keyConfigs = keyConfigs;
+        }
+
+        void reload(String identifier) {
+            keysetHandles.put(identifier, createKeysetHandle(keyConfigs.get(identifier)));
+        }
+
+    }
+
+    static Kryptonite kryptonite(TinkKeyVault keyVault, DeterministicCipherCache cache) {
+        return new Kryptonite(keyVault, null, null, null, null,
+                KryptoniteSettings.DEK_KEY_BITS_DEFAULT / 8, KryptoniteMetrics.noop(), cache);
+    }
+
+    static PayloadMetaData metaData(String algorithm, String keyId) {
+        return new PayloadMetaData(Kryptonite.KRYPTONITE_VERSION,
+                Kryptonite.CIPHERSPEC_ID_LUT.get(Kryptonite.CipherSpec.fromName(algorithm)), keyId);
+    }
+
+    @Test
+    @DisplayName("deterministic cache serves repeated encryptions and the reverse decryption")
+    void servesRepeatedEncryptionsAndReverseDecryption() {
+        var cache = new DeterministicCipherCache(100, 64);
+        var keyVault = new TinkKeyVault(ConfigReader.tinkKeyConfigFromJsonString(TestFixtures.CIPHER_DATA_KEYS_CONFIG));
+        try (var kryptonite = kryptonite(keyVault, cache)) {
+            var metaData = metaData(TinkAesGcmSiv.CIPHER_ALGORITHM, "key9");
+            var plaintext = "AT".getBytes(StandardCharsets.UTF_8);
+            var first = kryptonite.cipherFieldRaw(plaintext, metaData);
+            var second = kryptonite.cipherFieldRaw(plaintext, metaData);
+            assertArrayEquals(first, second);
+            assertArrayEquals(plaintext, kryptonite.decipherFieldRaw(first, metaData));
+            assertEquals(2, cache.stats().hitCount());
+            assertEquals(1, cache.stats().missCount());
+
+            second[0] ^= 1;
+            assertArrayEquals(first, kryptonite.cipherFieldRaw(plaintext, metaData));
+        }
+    }
+
+    @Test
+    @DisplayName("deterministic cache results match uncached results for AES-GCM-SIV and FPE")
+    void cachedResultsMatchUncachedResults() {
+        var aeadKeys = ConfigReader.tinkKeyConfigFromJsonString(TestFixtures.CIPHER_DATA_KEYS_CONFIG);
+        var fpeKeys = ConfigReader.tinkKeyConfigFromJsonString(FPE_KEYS_CONFIG);
+        var cache = new DeterministicCipherCache(100, 64);
+        try (var cached = kryptonite(new TinkKeyVault(aeadKeys), cache);
+             var uncached = kryptonite(new TinkKeyVault(aeadKeys), null);
+             var cachedFpe = kryptonite(new TinkKeyVault(fpeKeys), cache);
+             var uncachedFpe = kryptonite(new TinkKeyVault(fpeKeys), null)) {
+            var metaData = metaData(TinkAesGcmSiv.CIPHER_ALGORITHM, "key8");
+            var plaintext = "ACTIVE".getBytes(StandardCharsets.UTF_8);
+            var ciphertext = cached.cipherFieldRaw(plaintext, metaData);
+            assertArrayEquals(uncached.cipherFieldRaw(plaintext, metaData), ciphertext);
+            assertArrayEquals(plaintext, uncached.decipherFieldRaw(ciphertext, metaData));
+
+            var fieldMetaData = FieldMetaData.builder()
+                    .algorithm(MystoFpeFF31.CIPHER_ALGORITHM)
+                    .keyId("keyC")
+                    .fpeAlphabet(AlphabetTypeFPE.DIGITS.getAlphabet())
+                    .fpeTweak("0000000")
+                    .build();
+            var digits = "5544600070008000".getBytes(StandardCharsets.UTF_8);
+            var fpeCiphertext = cachedFpe.cipherFieldFPE(digits, fieldMetaData);
+            assertArrayEquals(uncachedFpe.cipherFieldFPE(digits, fieldMetaData), fpeCiphertext);
+            assertArrayEquals(digits, cachedFpe.decipherFieldFPE(fpeCiphertext, fieldMetaData));
+            assertEquals(1, cache.stats().hitCount());
+
+            var otherTweak = FieldMetaData.builder()
+                    .algorithm(MystoFpeFF31.CIPHER_ALGORITHM)
+                    .keyId("keyC")
+                    .fpeAlphabet(AlphabetTypeFPE.DIGITS.getAlphabet())
+                    .fpeTweak("1234567")
+                    .build();
+            assertNotEquals(new String(fpeCiphertext, StandardCharsets.UTF_8),
+                    new String(cachedFpe.cipherFieldFPE(digits, otherTweak), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("deterministic cache skips probabilistic ciphers and values above the max entry size")
+    void skipsProbabilisticCiphersAndLargeValues() {
+        var cache = new DeterministicCipherCache(100, 8);
+        var keyVault = new TinkKeyVault(ConfigReader.tinkKeyConfigFromJsonString(TestFixtures.CIPHER_DATA_KEYS_CONFIG));
+        try (var kryptonite = kryptonite(keyVault, cache)) {
+            var gcm = metaData(TinkAesGcm.CIPHER_ALGORITHM, "keyA");
+            var plaintext = "AT".getBytes(StandardCharsets.UTF_8);
+            assertNotEquals(new String(kryptonite.cipherFieldRaw(plaintext, gcm), StandardCharsets.ISO_8859_1),
+                    new String(kryptonite.cipherFieldRaw(plaintext, gcm), StandardCharsets.ISO_8859_1));
+
+            var siv = metaData(TinkAesGcmSiv.CIPHER_ALGORITHM, "key9");
+            var large = "merchant-0123456789".getBytes(StandardCharsets.UTF_8);
+            kryptonite.cipherFieldRaw(large, siv);
+            kryptonite.cipherFieldRaw(large, siv);
+
+            cache.cleanUp();
+            assertEquals(0, cache.stats().hitCount());
+            assertEquals(0, cache.stats().missCount());
+            assertEquals(0, cache.stats().estimatedSize());
+        }
+    }
+
+    @Test
+    @DisplayName("deterministic cache never serves entries of a key's replaced keyset handle")
+    void servesNoStaleEntriesAfterKeyRefresh() {
+        var cache = new DeterministicCipherCache(100, 64);
+        var keyVault = new RefreshableKeyVault(ConfigReader.tinkKeyConfigFromJsonString(TestFixtures.CIPHER_DATA_KEYS_CONFIG));
+        try (var kryptonite = kryptonite(keyVault, cache)) {
+            var key9 = metaData(TinkAesGcmSiv.CIPHER_ALGORITHM, "key9");
+            var key8 = metaData(TinkAesGcmSiv.CIPHER_ALGORITHM, "key8");
+            var plaintext = "AT".getBytes(StandardCharsets.UTF_8);
+            kryptonite.cipherFieldRaw(plaintext, key9);
+            kryptonite.cipherFieldRaw(plaintext, key8);
+            cache.cleanUp();
+            assertEquals(4, cache.stats().estimatedSize());
+
+            keyVault.reload("key9");
+            kryptonite.cipherFieldRaw(plaintext, key9);
+            assertEquals(3, cache.stats().missCount());
+            assertEquals(0, cache.stats().hitCount());
+
+            kryptonite.cipherFieldRaw(plaintext, key9);
+            kryptonite.cipherFieldRaw(plaintext, key8);
+            assertEquals(2, cache.stats().hitCount());
+            assertEquals(3, cache.stats().missCount());
+        }
+    }
+
+    @Test
+    @DisplayName("deterministic cache never matches entries of a replaced keyset handle in either direction")
+    void neverMatchesStaleGenerationEntries() throws Exception {
+        var cache = new DeterministicCipherCache(100, 64);
+        var keyVault = new RefreshableKeyVault(ConfigReader.tinkKeyConfigFromJsonString(TestFixtures.CIPHER_DATA_KEYS_CONFIG));
+        var plaintext = "AT".getBytes(StandardCharsets.UTF_8);
+        var previousHandle = keyVault.readKeysetHandle("key9");
+        cache.cipher("key9", previousHandle, TinkAesGcmSiv.CIPHER_ALGORITHM, null, plaintext, p -> new byte[] {1});
+
+        keyVault.reload("key9");
+        var refreshedHandle = keyVault.readKeysetHandle("key9");
+        assertNotSame(previousHandle, refreshedHandle);
+        assertArrayEquals(new byte[] {2}, cache.cipher("key9", refreshedHandle, TinkAesGcmSiv.CIPHER_ALGORITHM,
+                null, plaintext, p -> new byte[] {2}));
+        assertArrayEquals(new byte[] {3}, cache.decipher("key9", refreshedHandle, TinkAesGcmSiv.CIPHER_ALGORITHM,
+                null, new byte[] {1}, c -> new byte[] {3}));
+        assertEquals(0, cache.stats().hitCount());
+
+        // the previous handle's entries are still intact, they just never match the refreshed handle
+        assertArrayEquals(new byte[] {1}, cache.cipher("key9", previousHandle, TinkAesGcmSiv.CIPHER_ALGORITHM,
+                null, plaintext, p -> new byte[] {4}));
+        assertEquals(1, cache.stats().hitCount());
+    }
+
+    @Test
+    @DisplayName("reject non-positive deterministic_cache_max_entry_bytes in config")
+    void rejectsNonPositiveMaxEntryBytesInConfig() {
+        var config = Map.of(
+                KryptoniteSettings.KEY_SOURCE, "CONFIG",
+                KryptoniteSettings.CIPHER_DATA_KEYS, TestFixtures.CIPHER_DATA_KEYS_CONFIG,
+                KryptoniteSettings.DETERMINISTIC_CACHE_SIZE, "1000",
+                KryptoniteSettings.DETERMINISTIC_CACHE_MAX_ENTRY_BYTES, "0");
+        assertThrows(ConfigurationException.class, () -> Kryptonite.createFromConfig(config));
+    }
+
+}
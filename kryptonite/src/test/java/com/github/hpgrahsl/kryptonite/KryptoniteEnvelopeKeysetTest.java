@@ -7,18 +7,25 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.security.GeneralSecurityException;
 
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 import com.github.hpgrahsl.kryptonite.Kryptonite.CipherSpec;
 import com.github.hpgrahsl.kryptonite.config.ConfigReader;
+import com.github.hpgrahsl.kryptonite.crypto.EncryptDekSession;
 import com.github.hpgrahsl.kryptonite.crypto.EncryptDekSessionCache;
 import java.time.Duration;
 import com.github.hpgrahsl.kryptonite.crypto.WrappedDekCache;
 import com.github.hpgrahsl.kryptonite.crypto.tink.TinkAesGcmEnvelopeKeyset;
 import com.github.hpgrahsl.kryptonite.keys.TinkKeyVault;
+import com.google.crypto.tink.Aead;
 import com.google.crypto.tink.aead.AeadConfig;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -51,6 +58,23 @@ public class KryptoniteEnvelopeKeysetTest {
         }
     }
 
+    @ParameterizedTest
+    @MethodSource("provideEnvelopeKeysetParams")
+    @DisplayName("envelope keyset: buffer overloads bundle directly into the output buffer")
+    void testEnvelopeKeysetBufferRoundTrip(TinkKeyVault keyVault, byte[] plaintext, PayloadMetaData metadata) {
+        try (var kryptonite = new Kryptonite(keyVault)) {
+            var out = ByteBuffer.allocate(512);
+            int written = kryptonite.cipherFieldRaw(ByteBuffer.wrap(plaintext), metadata, out);
+            byte[] bundle = Arrays.copyOf(out.array(), written);
+            assertArrayEquals(plaintext, kryptonite.decipherFieldRaw(bundle, metadata));
+            var algorithm = new TinkAesGcmEnvelopeKeyset();
+            assertArrayEquals(algorithm.extractWrappedDek(bundle), algorithm.extractWrappedDek(out.flip()));
+            var decrypted = ByteBuffer.allocate(plaintext.length);
+            kryptonite.decipherFieldRaw(ByteBuffer.wrap(kryptonite.cipherFieldRaw(plaintext, metadata)), metadata, decrypted);
+            assertArrayEquals(plaintext, decrypted.array());
+        }
+    }
+
     // -------------------------------------------------------------------------
     // AAD and key binding
     // -------------------------------------------------------------------------
@@ -159,6 +183,22 @@ public class KryptoniteEnvelopeKeysetTest {
         }
     }
 
+    @Test
+    @DisplayName("EncryptDekSession: bulk tryAcquire grants remaining slots only")
+    void testBulkTryAcquireGrantsRemainingSlots() throws Exception {
+        try (var keyVault = new TinkKeyVault(ConfigReader.tinkKeyConfigFromJsonString(TestFixtures.CIPHER_DATA_KEYS_CONFIG))) {
+            var algorithm = new TinkAesGcmEnvelopeKeyset();
+            var kekHandle = keyVault.readKeysetHandle("keyA");
+            var session = algorithm.createSession(kekHandle, "keyA".getBytes(StandardCharsets.UTF_8));
+            long maxEncryptions = 5;
+            long ttlMs = 60_000L;
+            assertEquals(3, session.tryAcquire(3, maxEncryptions, ttlMs));
+            assertEquals(2, session.tryAcquire(3, maxEncryptions, ttlMs), "only 2 of 5 slots must be left");
+            assertEquals(0, session.tryAcquire(1, maxEncryptions, ttlMs));
+            assertFalse(session.tryAcquire(maxEncryptions, ttlMs));
+        }
+    }
+
     // -------------------------------------------------------------------------
     // EncryptDekSessionCache — DEK reuse and rotation
     // -------------------------------------------------------------------------
@@ -302,6 +342,143 @@ public class KryptoniteEnvelopeKeysetTest {
         }
     }
 
+    // -------------------------------------------------------------------------
+    // EncryptDekSessionCache — proactive rotation
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("encrypt session cache: replacement is created ahead of time once max encryptions watermark is crossed")
+    void testSessionCacheRotatesAheadAtMaxEncryptionsWatermark() {
+        var algorithm = new TinkAesGcmEnvelopeKeyset();
+        try (var keyVault = new TinkKeyVault(ConfigReader.tinkKeyConfigFromJsonString(TestFixtures.CIPHER_DATA_KEYS_CONFIG))) {
+            var metadata = new PayloadMetaData(Kryptonite.KRYPTONITE_VERSION, ALGORITHM_ID, "keyA");
+            var created = new AtomicInteger();
+            // direct executor: the replacement is created and swapped in before the triggering call returns
+            var sessionCache = new EncryptDekSessionCache(4L, 720L, 0.5, new MutableClock(), Runnable::run) {
+                @Override
+                public EncryptDekSession getOrCreate(String keyId, Supplier<EncryptDekSession> factory) {
+                    return super.getOrCreate(keyId, () -> {
+                        created.incrementAndGet();
+                        return factory.get();
+                    });
+                }
+            };
+            try (var kryptonite = new Kryptonite(keyVault, null, sessionCache)) {
+                byte[] plaintext = "hello".getBytes(StandardCharsets.UTF_8);
+                byte[] ct1 = kryptonite.cipherFieldRaw(plaintext, metadata);
+                byte[] ct2 = kryptonite.cipherFieldRaw(plaintext, metadata); // 2 of 4 uses -> watermark crossed
+                byte[] ct3 = kryptonite.cipherFieldRaw(plaintext, metadata);
+                assertArrayEquals(algorithm.extractWrappedDek(ct1), algorithm.extractWrappedDek(ct2),
+                        "session must be used until the replacement is swapped in");
+                assertFalse(Arrays.equals(algorithm.extractWrappedDek(ct2), algorithm.extractWrappedDek(ct3)),
+                        "replacement session must take over before the current one is exhausted");
+                assertEquals(2, created.get(), "exactly one replacement must be created ahead of time");
+                for (byte[] ct : List.of(ct1, ct2, ct3)) {
+                    assertArrayEquals(plaintext, kryptonite.decipherFieldRaw(ct, metadata));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("encrypt session cache: replacement is created ahead of time once TTL watermark is crossed")
+    void testSessionCacheRotatesAheadAtTtlWatermark() {
+        var algorithm = new TinkAesGcmEnvelopeKeyset();
+        try (var keyVault = new TinkKeyVault(ConfigReader.tinkKeyConfigFromJsonString(TestFixtures.CIPHER_DATA_KEYS_CONFIG))) {
+            var metadata = new PayloadMetaData(Kryptonite.KRYPTONITE_VERSION, ALGORITHM_ID, "keyA");
+            var clock = new MutableClock();
+            var sessionCache = new EncryptDekSessionCache(1_000_000L, 100L, 0.9, clock, Runnable::run);
+            try (var kryptonite = new Kryptonite(keyVault, null, sessionCache)) {
+                byte[] plaintext = "hello".getBytes(StandardCharsets.UTF_8);
+                byte[] ct1 = kryptonite.cipherFieldRaw(plaintext, metadata);
+                clock.advance(Duration.ofMinutes(89));
+                byte[] ct2 = kryptonite.cipherFieldRaw(plaintext, metadata);
+                clock.advance(Duration.ofMinutes(1)); // 90 of 100 minutes -> watermark crossed
+                byte[] ct3 = kryptonite.cipherFieldRaw(plaintext, metadata);
+                byte[] ct4 = kryptonite.cipherFieldRaw(plaintext, metadata);
+                assertArrayEquals(algorithm.extractWrappedDek(ct1), algorithm.extractWrappedDek(ct2));
+                assertArrayEquals(algorithm.extractWrappedDek(ct1), algorithm.extractWrappedDek(ct3),
+                        "the call crossing the watermark must not wait for the replacement");
+                assertFalse(Arrays.equals(algorithm.extractWrappedDek(ct3), algorithm.extractWrappedDek(ct4)),
+                        "replacement session must take over before the TTL expires");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("encrypt session cache: failed background replacement falls back to synchronous rotation")
+    void testSessionCacheFallsBackWhenRotateAheadFails() {
+        var algorithm = new TinkAesGcmEnvelopeKeyset();
+        try (var keyVault = new TinkKeyVault(ConfigReader.tinkKeyConfigFromJsonString(TestFixtures.CIPHER_DATA_KEYS_CONFIG))) {
+            var metadata = new PayloadMetaData(Kryptonite.KRYPTONITE_VERSION, ALGORITHM_ID, "keyA");
+            var rejected = new AtomicInteger();
+            var sessionCache = new EncryptDekSessionCache(2L, 720L, 0.5, new MutableClock(), task -> {
+                rejected.incrementAndGet();
+                throw new RejectedExecutionException("rotation executor unavailable");
+            });
+            try (var kryptonite = new Kryptonite(keyVault, null, sessionCache)) {
+                byte[] plaintext = "hello".getBytes(StandardCharsets.UTF_8);
+                byte[] ct1 = kryptonite.cipherFieldRaw(plaintext, metadata);
+                byte[] ct2 = kryptonite.cipherFieldRaw(plaintext, metadata);
+                byte[] ct3 = kryptonite.cipherFieldRaw(plaintext, metadata);
+                assertArrayEquals(algorithm.extractWrappedDek(ct1), algorithm.extractWrappedDek(ct2));
+                assertFalse(Arrays.equals(algorithm.extractWrappedDek(ct2), algorithm.extractWrappedDek(ct3)),
+                        "exhausted session must still be rotated synchronously");
+                assertTrue(rejected.get() >= 1);
+                assertArrayEquals(plaintext, kryptonite.decipherFieldRaw(ct3, metadata));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("encrypt session cache: failed background replacements are retried with exponential backoff")
+    void testSessionCacheBacksOffWhenRotateAheadKeepsFailing() {
+        try (var keyVault = new TinkKeyVault(ConfigReader.tinkKeyConfigFromJsonString(TestFixtures.CIPHER_DATA_KEYS_CONFIG))) {
+            var metadata = new PayloadMetaData(Kryptonite.KRYPTONITE_VERSION, ALGORITHM_ID, "keyA");
+            var clock = new MutableClock();
+            var kmsCalls = new AtomicInteger();
+            // failing KMS stub: only the very first session can be created
+            var sessionCache = new EncryptDekSessionCache(1_000L, 720L, 0.01, clock, Runnable::run) {
+                @Override
+                public EncryptDekSession getOrCreate(String keyId, Supplier<EncryptDekSession> factory) {
+                    return super.getOrCreate(keyId, () -> {
+                        if (kmsCalls.incrementAndGet() > 1) {
+                            throw new KryptoniteException("simulated KMS outage");
+                        }
+                        return factory.get();
+                    });
+                }
+            };
+            try (var kryptonite = new Kryptonite(keyVault, null, sessionCache)) {
+                byte[] plaintext = "hello".getBytes(StandardCharsets.UTF_8);
+                for (int i = 0; i < 100; i++) { // watermark of 10 uses crossed after the 10th call
+                    kryptonite.cipherFieldRaw(plaintext, metadata);
+                }
+                assertEquals(2, kmsCalls.get(), "failed replacement must not be retried before its backoff elapsed");
+                clock.advance(Duration.ofSeconds(1));
+                for (int i = 0; i < 100; i++) {
+                    kryptonite.cipherFieldRaw(plaintext, metadata);
+                }
+                assertEquals(3, kmsCalls.get(), "replacement must be retried once after the initial backoff");
+                clock.advance(Duration.ofSeconds(1));
+                for (int i = 0; i < 100; i++) {
+                    kryptonite.cipherFieldRaw(plaintext, metadata);
+                }
+                assertEquals(3, kmsCalls.get(), "backoff must double after each failed replacement");
+                clock.advance(Duration.ofSeconds(1));
+                kryptonite.cipherFieldRaw(plaintext, metadata);
+                assertEquals(4, kmsCalls.get());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("encrypt session cache: rotation watermark outside (0.0, 1.0] is rejected")
+    void testSessionCacheRejectsInvalidRotationWatermark() {
+        assertThrows(IllegalArgumentException.class, () -> new EncryptDekSessionCache(10L, 10L, 0.0));
+        assertThrows(IllegalArgumentException.class, () -> new EncryptDekSessionCache(10L, 10L, 1.5));
+    }
+
     // -------------------------------------------------------------------------
     // WrappedDekCache — eviction
     // -------------------------------------------------------------------------
@@ -387,6 +564,50 @@ public class KryptoniteEnvelopeKeysetTest {
         }
     }
 
+    @Test
+    @DisplayName("batch: cipherFields reserves slots per session and rotates mid-batch, decipherFields round-trips")
+    void testBatchRoundTripRotatesSessionsMidBatch() {
+        var algorithm = new TinkAesGcmEnvelopeKeyset();
+        try (var keyVault = new TinkKeyVault(ConfigReader.tinkKeyConfigFromJsonString(TestFixtures.CIPHER_DATA_KEYS_CONFIG))) {
+            var fieldMetaData = FieldMetaData.builder()
+                    .algorithm(TinkAesGcmEnvelopeKeyset.CIPHER_ALGORITHM)
+                    .keyId("keyA")
+                    .build();
+            var metadata = new PayloadMetaData(Kryptonite.KRYPTONITE_VERSION, ALGORITHM_ID, "keyA");
+            var sessionCache = new EncryptDekSessionCache(3L, 720L); // rotate after 3 uses
+            var loadCount = new AtomicInteger(0);
+            var dekCache = new WrappedDekCache(1024) {
+                @Override
+                public Aead get(byte[] wrappedDek, Function<byte[], Aead> loader) {
+                    loadCount.incrementAndGet();
+                    return super.get(wrappedDek, loader);
+                }
+            };
+            try (var kryptonite = new Kryptonite(keyVault, dekCache, sessionCache)) {
+                var plaintexts = new ArrayList<byte[]>();
+                for (int i = 0; i < 7; i++) {
+                    plaintexts.add(("value-" + i).getBytes(StandardCharsets.UTF_8));
+                }
+                var ciphertexts = kryptonite.cipherFields(plaintexts, fieldMetaData);
+                assertEquals(plaintexts.size(), ciphertexts.size());
+                var wrappedDeks = ciphertexts.stream()
+                        .map(ct -> Arrays.toString(algorithm.extractWrappedDek(ct)))
+                        .distinct()
+                        .count();
+                assertEquals(3, wrappedDeks, "7 values with maxEncryptions=3 must span exactly 3 DEK sessions");
+                assertArrayEquals(algorithm.extractWrappedDek(ciphertexts.get(0)), algorithm.extractWrappedDek(ciphertexts.get(2)));
+                assertFalse(Arrays.equals(algorithm.extractWrappedDek(ciphertexts.get(2)), algorithm.extractWrappedDek(ciphertexts.get(3))));
+
+                var encryptedFields = ciphertexts.stream().map(ct -> new EncryptedField(metadata, ct)).toList();
+                var decrypted = kryptonite.decipherFields(encryptedFields);
+                for (int i = 0; i < plaintexts.size(); i++) {
+                    assertArrayEquals(plaintexts.get(i), decrypted.get(i));
+                }
+                assertEquals(3, loadCount.get(), "DEK cache must be consulted once per distinct wrapped DEK");
+            }
+        }
+    }
+
     // -------------------------------------------------------------------------
     // Parameterized helpers
     // -------------------------------------------------------------------------
@@ -1,6 +1,7 @@
 package com.github.hpgrahsl.kryptonite;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -20,6 +21,7 @@ import com.google.crypto.tink.KeysetHandle;
 import com.google.crypto.tink.RegistryConfiguration;
 import com.google.crypto.tink.aead.AeadConfig;
 import com.google.crypto.tink.aead.PredefinedAeadParameters;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
 import java.time.Duration;
@@ -120,6 +122,27 @@ public class KryptoniteEnvelopeKmsTest {
         }
     }
 
+    @ParameterizedTest
+    @MethodSource("provideEnvelopeKmsParams")
+    @DisplayName("envelope KMS: buffer overloads bundle directly into the output buffer")
+    void testEnvelopeKmsBufferRoundTrip(byte[] plaintext, PayloadMetaData metadata) {
+        var sessionCache = new EncryptDekSessionCache(100_000L, 720L);
+        var dekCache = new WrappedDekCache(1024);
+        var edekStore = inMemoryEdekStore();
+        try (var kryptonite = new Kryptonite(new TinkKeyVault(Map.of()), dekCache, sessionCache, KEK_REGISTRY, edekStore, 16)) {
+            var out = ByteBuffer.allocateDirect(256);
+            int written = kryptonite.cipherFieldRaw(ByteBuffer.wrap(plaintext), metadata, out);
+            byte[] bundle = new byte[written];
+            out.flip().duplicate().get(bundle);
+            assertArrayEquals(plaintext, kryptonite.decipherFieldRaw(bundle, metadata));
+            assertArrayEquals(sessionCache.getOrCreate(metadata.getKeyId(), () -> null).fingerprint(),
+                new TinkAesGcmEnvelopeKms().extractWrappedDek(out));
+            var decrypted = ByteBuffer.allocate(plaintext.length);
+            assertEquals(plaintext.length, kryptonite.decipherFieldRaw(out, metadata, decrypted));
+            assertArrayEquals(plaintext, decrypted.array());
+        }
+    }
+
     @Test
     @DisplayName("envelope KMS: wire format starts with 16-byte fingerprint")
     void testWireFormatFingerprintPrefix() {
@@ -134,6 +157,16 @@ public class KryptoniteEnvelopeKmsTest {
         }
     }
 
+    @Test
+    @DisplayName("envelope KMS: session carries the precomputed fingerprint of its wrapped DEK")
+    void testEnvelopeKmsSessionCarriesFingerprint() throws Exception {
+        var algorithm = new TinkAesGcmEnvelopeKms();
+        var session = algorithm.createSession(FAKE_KEK_A, KEK_ID_A.getBytes(StandardCharsets.UTF_8));
+
+        assertArrayEquals(EdekStore.fingerprint(session.wrappedDek()), session.fingerprint());
+        assertSame(session.fingerprint(), session.fingerprint());
+    }
+
     // -------------------------------------------------------------------------
     // AAD and key binding
     // -------------------------------------------------------------------------
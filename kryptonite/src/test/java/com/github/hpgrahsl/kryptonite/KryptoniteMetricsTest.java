@@ -0,0 +1,187 @@
+package com.github.hpgrahsl.kryptonite;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.hpgrahsl.kryptonite.Kryptonite.CipherSpec;
+import com.github.hpgrahsl.kryptonite.config.ConfigReader;
+import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings;
+import com.github.hpgrahsl.kryptonite.crypto.EncryptDekSessionCache;
+import com.github.hpgrahsl.kryptonite.crypto.WrappedDekCache;
+import com.github.hpgrahsl.kryptonite.crypto.tink.TinkAesGcm;
+import com.github.hpgrahsl.kryptonite.crypto.tink.TinkAesGcmEnvelopeKeyset;
+import com.github.hpgrahsl.kryptonite.keys.TinkKeyVault;
+import com.github.hpgrahsl.kryptonite.metrics.CacheMetrics;
+import com.github.hpgrahsl.kryptonite.metrics.JmxKryptoniteMetrics;
+import com.github.hpgrahsl.kryptonite.metrics.KryptoniteMetrics;
+
+public class KryptoniteMetricsTest {
+
+    static final PayloadMetaData KEYSET_ENVELOPE_METADATA = new PayloadMetaData(Kryptonite.KRYPTONITE_VERSION,
+            Kryptonite.CIPHERSPEC_ID_LUT.get(CipherSpec.fromName(TinkAesGcmEnvelopeKeyset.CIPHER_ALGORITHM)), "keyA");
+
+    static class RecordingMetrics implements KryptoniteMetrics {
+
+        final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+        final Map<String, Supplier<CacheMetrics>> caches = new ConcurrentHashMap<>();
+        final List<RotationCause> rotations = new ArrayList<>();
+        boolean closed;
+
+        long counter(String name) {
+            return counters.getOrDefault(name, new AtomicLong()).get();
+        }
+
+        private void increment(String name, long delta) {
+            counters.computeIfAbsent(name, n -> new AtomicLong()).addAndGet(delta);
+        }
+
+        @Override
+        public void recordCipherOperation(Operation operation, String cipherSpec, String keyId,
+                int count, long durationNanos, boolean success) {
+            increment(operation + "|" + cipherSpec + "|" + keyId + "|" + (success ? "ok" : "failed"), count);
+        }
+
+        @Override
+        public void recordDekSessionCreated(String keyId, long durationNanos) {
+            increment("dekSessionCreated|" + keyId, 1);
+        }
+
+        @Override
+        public synchronized void recordDekSessionRotated(String keyId, RotationCause cause) {
+            rotations.add(cause);
+        }
+
+        @Override
+        public void recordDekUnwrap(String keyId, long durationNanos) {
+            increment("dekUnwrap|" + keyId, 1);
+        }
+
+        @Override
+        public void registerCache(String name, Supplier<CacheMetrics> stats) {
+            caches.put(name, stats);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+    }
+
+    @Test
+    @DisplayName("metrics: cipher operations are counted per operation, cipher spec, key id and outcome")
+    void testCipherOperationsAreRecorded() {
+        var metrics = new RecordingMetrics();
+        var keyVault = new TinkKeyVault(ConfigReader.tinkKeyConfigFromJsonString(TestFixtures.CIPHER_DATA_KEYS_CONFIG));
+        try (var kryptonite = new Kryptonite(keyVault, null, null, null, null, 16, metrics)) {
+            var fieldMetaData = FieldMetaData.builder().algorithm(TinkAesGcm.CIPHER_ALGORITHM).keyId("keyA").build();
+            var preparedCipher = kryptonite.prepare(fieldMetaData);
+            var ciphertext = preparedCipher.encrypt("alice".getBytes(StandardCharsets.UTF_8));
+            var ciphertexts = kryptonite.cipherFields(
+                    List.of("bob".getBytes(StandardCharsets.UTF_8), "carol".getBytes(StandardCharsets.UTF_8)), fieldMetaData);
+            preparedCipher.decrypt(ciphertext);
+            preparedCipher.decrypt(ciphertexts);
+            assertThrows(KryptoniteException.class, () -> preparedCipher.decrypt(new byte[] {1, 2, 3}));
+            assertEquals(3, metrics.counter("ENCRYPT|TINK/AES_GCM|keyA|ok"));
+            assertEquals(3, metrics.counter("DECRYPT|TINK/AES_GCM|keyA|ok"));
+            assertEquals(1, metrics.counter("DECRYPT|TINK/AES_GCM|keyA|failed"));
+        }
+        assertTrue(metrics.closed, "metrics must be closed together with the Kryptonite instance");
+    }
+
+    @Test
+    @DisplayName("metrics: DEK session creations, rotation causes, unwraps and cache stats are recorded")
+    void testDekSessionLifecycleIsRecorded() {
+        var metrics = new RecordingMetrics();
+        var clock = new MutableClock();
+        var sessionCache = new EncryptDekSessionCache(2L, 720L, clock);
+        var dekCache = new WrappedDekCache(1024);
+        var keyVault = new TinkKeyVault(ConfigReader.tinkKeyConfigFromJsonString(TestFixtures.CIPHER_DATA_KEYS_CONFIG));
+        try (var kryptonite = new Kryptonite(keyVault, dekCache, sessionCache, null, null, 16, metrics)) {
+            var plaintext = "hello".getBytes(StandardCharsets.UTF_8);
+            var ciphertexts = new ArrayList<byte[]>();
+            // two uses per session: 3rd call rotates because of max encryptions
+            for (int i = 0; i < 3; i++) {
+                ciphertexts.add(kryptonite.cipherFieldRaw(plaintext, KEYSET_ENVELOPE_METADATA));
+            }
+            // session has one slot left but its TTL has passed
+            clock.advance(Duration.ofMinutes(721));
+            ciphertexts.add(kryptonite.cipherFieldRaw(plaintext, KEYSET_ENVELOPE_METADATA));
+            for (byte[] ciphertext : ciphertexts) {
+                assertArrayEquals(plaintext, kryptonite.decipherFieldRaw(ciphertext, KEYSET_ENVELOPE_METADATA));
+            }
+            assertEquals(3, metrics.counter("dekSessionCreated|keyA"));
+            assertEquals(List.of(KryptoniteMetrics.RotationCause.MAX_ENCRYPTIONS, KryptoniteMetrics.RotationCause.TTL),
+                    metrics.rotations);
+            // three distinct DEKs are unwrapped once each, the 4th decryption is a cache hit
+            assertEquals(3, metrics.counter("dekUnwrap|keyA"));
+            var dekCacheStats = metrics.caches.get("wrappedDekCache").get();
+            assertEquals(1, dekCacheStats.hitCount());
+            assertEquals(3, dekCacheStats.missCount());
+            assertTrue(metrics.caches.containsKey("encryptDekSessionCache"));
+        }
+    }
+
+    @Test
+    @DisplayName("metrics: JMX implementation exposes MXBeans and unregisters them on close")
+    void testJmxMetricsExposeMXBeans() throws Exception {
+        var mBeanServer = MBeanServerFactory.newMBeanServer();
+        var metrics = new JmxKryptoniteMetrics(mBeanServer, "test");
+        var keyVault = new TinkKeyVault(ConfigReader.tinkKeyConfigFromJsonString(TestFixtures.CIPHER_DATA_KEYS_CONFIG));
+        try (var kryptonite = new Kryptonite(keyVault, new WrappedDekCache(16), new EncryptDekSessionCache(10L, 720L),
+                null, null, 16, metrics)) {
+            var ciphertext = kryptonite.cipherFieldRaw("hello".getBytes(StandardCharsets.UTF_8), KEYSET_ENVELOPE_METADATA);
+            kryptonite.decipherFieldRaw(ciphertext, KEYSET_ENVELOPE_METADATA);
+            kryptonite.decipherFieldRaw(ciphertext, KEYSET_ENVELOPE_METADATA);
+
+            var encrypt = new ObjectName(JmxKryptoniteMetrics.DOMAIN + ":type=CipherOperation,operation=ENCRYPT,"
+                    + "cipherSpec=TINK/AES_GCM_ENVELOPE_KEYSET,keyId=keyA,instance=test");
+            assertEquals(1L, mBeanServer.getAttribute(encrypt, "Count"));
+            assertEquals(0L, mBeanServer.getAttribute(encrypt, "Failures"));
+            var session = new ObjectName(JmxKryptoniteMetrics.DOMAIN + ":type=DekSession,keyId=keyA,instance=test");
+            assertEquals(1L, mBeanServer.getAttribute(session, "Created"));
+            var dekCache = new ObjectName(JmxKryptoniteMetrics.DOMAIN + ":type=Cache,name=wrappedDekCache,instance=test");
+            assertEquals(1L, mBeanServer.getAttribute(dekCache, "HitCount"));
+            assertEquals(1L, mBeanServer.getAttribute(dekCache, "MissCount"));
+        }
+        assertTrue(mBeanServer.queryNames(new ObjectName(JmxKryptoniteMetrics.DOMAIN + ":*"), null).isEmpty(),
+                "all MXBeans must be unregistered on close");
+    }
+
+    @Test
+    @DisplayName("metrics: metrics_type config selects the metrics implementation")
+    void testMetricsTypeFromConfig() {
+        Map<String, String> config = new HashMap<>();
+        config.put(KryptoniteSettings.KEY_SOURCE, "CONFIG");
+        config.put(KryptoniteSettings.CIPHER_DATA_KEYS, TestFixtures.CIPHER_DATA_KEYS_CONFIG);
+        try (var kryptonite = Kryptonite.createFromConfig(config)) {
+            assertEquals(KryptoniteMetrics.noop(), kryptonite.getMetrics());
+        }
+        config.put(KryptoniteSettings.METRICS_TYPE, "JMX");
+        try (var kryptonite = Kryptonite.createFromConfig(config)) {
+            assertTrue(kryptonite.getMetrics() instanceof JmxKryptoniteMetrics);
+        }
+        config.put(KryptoniteSettings.METRICS_TYPE, "PROMETHEUS");
+        assertThrows(com.github.hpgrahsl.kryptonite.config.ConfigurationException.class,
+                () -> Kryptonite.createFromConfig(config));
+        assertFalse(config.isEmpty());
+    }
+
+}
@@ -3,7 +3,9 @@ package com.github.hpgrahsl.kryptonite;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -37,6 +39,19 @@ public class KryptoniteTest {
         assertEquals("dynamic_key_id_prefix must not be blank", exception.getMessage());
     }
 
+    @Test
+    @DisplayName("reject unknown cipher_fpe_engine in config")
+    void rejectsUnknownFpeEngineInConfig() {
+        Map<String, String> config = new HashMap<>();
+        config.put(com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.KEY_SOURCE, "CONFIG");
+        config.put(com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.CIPHER_DATA_KEYS, TestFixtures.CIPHER_DATA_KEYS_CONFIG);
+        config.put(com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.CIPHER_DATA_KEY_IDENTIFIER, "keyA");
+        config.put(com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.CIPHER_FPE_ENGINE, "FASTEST");
+
+        assertThrows(com.github.hpgrahsl.kryptonite.config.ConfigurationException.class,
+                () -> Kryptonite.createFromConfig(config));
+    }
+
 
     @ParameterizedTest
     @MethodSource("com.github.hpgrahsl.kryptonite.KryptoniteTest#provideValidInputParamsLocalKeyVaultNoKeyEncryption")
@@ -48,6 +63,107 @@ public class KryptoniteTest {
         }
     }
 
+    @ParameterizedTest
+    @MethodSource("com.github.hpgrahsl.kryptonite.KryptoniteTest#provideValidInputParamsLocalKeyVaultNoKeyEncryption")
+    @DisplayName("test prepared cipher interoperates with cipherFieldRaw/decipherFieldRaw")
+    void testPreparedCipherUsingLocalKeyVaultWithoutKeyEncryption(AbstractKeyVault keyVault, byte[] originalData, PayloadMetaData metaData) {
+        try (var kryptonite = new Kryptonite(keyVault)) {
+            var fieldMetaData = FieldMetaData.builder()
+                .algorithm(Kryptonite.ID_CIPHERSPEC_LUT.get(metaData.getAlgorithmId()).getName())
+                .keyId(metaData.getKeyId())
+                .build();
+            var preparedCipher = kryptonite.prepare(fieldMetaData);
+            assertArrayEquals(metaData.asBytes(), preparedCipher.getPayloadMetaData().asBytes());
+            assertArrayEquals(originalData, kryptonite.decipherFieldRaw(preparedCipher.encrypt(originalData), metaData));
+            assertArrayEquals(originalData, preparedCipher.decrypt(kryptonite.cipherFieldRaw(originalData, metaData)));
+            assertArrayEquals(originalData, preparedCipher.decrypt(
+                new EncryptedField(metaData, preparedCipher.encrypt(originalData))));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("com.github.hpgrahsl.kryptonite.KryptoniteTest#provideValidInputParamsLocalKeyVaultNoKeyEncryption")
+    @DisplayName("test buffer overloads encrypt a slice into a caller-provided buffer and interoperate with byte[] API")
+    void testBufferOverloadsUsingLocalKeyVaultWithoutKeyEncryption(AbstractKeyVault keyVault, byte[] originalData, PayloadMetaData metaData) {
+        try (var kryptonite = new Kryptonite(keyVault)) {
+            var record = new byte[originalData.length + 6];
+            System.arraycopy(originalData, 0, record, 3, originalData.length);
+            var plaintext = ByteBuffer.wrap(record, 3, originalData.length);
+            var out = ByteBuffer.allocate(256).position(10);
+            int written = kryptonite.cipherFieldRaw(plaintext, metaData, out);
+            assertEquals(0, plaintext.remaining());
+            assertEquals(10 + written, out.position());
+            var ciphertext = new byte[written];
+            out.flip().position(10);
+            out.duplicate().get(ciphertext);
+            assertArrayEquals(originalData, kryptonite.decipherFieldRaw(ciphertext, metaData));
+
+            var decrypted = ByteBuffer.allocateDirect(originalData.length);
+            assertEquals(originalData.length, kryptonite.decipherFieldRaw(out, metaData, decrypted));
+            var plain = new byte[originalData.length];
+            decrypted.flip().get(plain);
+            assertArrayEquals(originalData, plain);
+        }
+    }
+
+    @Test
+    @DisplayName("reject too small output buffer without consuming input")
+    void rejectsTooSmallOutputBuffer() {
+        var tinkKeyVault = new TinkKeyVault(ConfigReader.tinkKeyConfigFromJsonString(TestFixtures.CIPHER_DATA_KEYS_CONFIG));
+        try (var kryptonite = new Kryptonite(tinkKeyVault)) {
+            var fieldMetaData = FieldMetaData.builder().algorithm(TinkAesGcm.CIPHER_ALGORITHM).keyId("keyA").build();
+            var preparedCipher = kryptonite.prepare(fieldMetaData);
+            var plaintext = ByteBuffer.wrap("alice".getBytes(StandardCharsets.UTF_8));
+            var out = ByteBuffer.allocate(8);
+            assertThrows(KryptoniteException.class, () -> preparedCipher.encrypt(plaintext, out));
+            assertEquals(5, plaintext.remaining());
+            assertEquals(0, out.position());
+        }
+    }
+
+    @Test
+    @DisplayName("test batch decipherFields(cipherFields(plaintexts)) == plaintexts across mixed key ids")
+    void testBatchEncryptDecryptUsingLocalKeyVaultWithoutKeyEncryption() {
+        var tinkKeyVault = new TinkKeyVault(ConfigReader.tinkKeyConfigFromJsonString(TestFixtures.CIPHER_DATA_KEYS_CONFIG));
+        try (var kryptonite = new Kryptonite(tinkKeyVault)) {
+            var plaintexts = List.of(
+                "alice".getBytes(StandardCharsets.UTF_8),
+                "bob".getBytes(StandardCharsets.UTF_8),
+                "carol".getBytes(StandardCharsets.UTF_8));
+            var fieldsA = FieldMetaData.builder().algorithm(TinkAesGcm.CIPHER_ALGORITHM).keyId("keyA").build();
+            var fieldsB = FieldMetaData.builder().algorithm(TinkAesGcmSiv.CIPHER_ALGORITHM).keyId("key9").build();
+            var ciphertextsA = kryptonite.cipherFields(plaintexts, fieldsA);
+            var ciphertextsB = kryptonite.cipherFields(plaintexts, fieldsB);
+            var metaDataA = kryptonite.prepare(fieldsA).getPayloadMetaData();
+            var metaDataB = kryptonite.prepare(fieldsB).getPayloadMetaData();
+            var encryptedFields = new ArrayList<EncryptedField>();
+            for (int i = 0; i < plaintexts.size(); i++) {
+                encryptedFields.add(new EncryptedField(metaDataA, ciphertextsA.get(i)));
+                encryptedFields.add(new EncryptedField(metaDataB, ciphertextsB.get(i)));
+            }
+            var decrypted = kryptonite.decipherFields(encryptedFields);
+            assertEquals(encryptedFields.size(), decrypted.size());
+            for (int i = 0; i < plaintexts.size(); i++) {
+                assertArrayEquals(plaintexts.get(i), decrypted.get(2 * i));
+                assertArrayEquals(plaintexts.get(i), decrypted.get(2 * i + 1));
+                assertArrayEquals(plaintexts.get(i), kryptonite.decipherFieldRaw(ciphertextsA.get(i), metaDataA));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("reject preparing a cipher for an unknown key identifier")
+    void rejectsPreparedCipherForUnknownKeyId() {
+        var tinkKeyVault = new TinkKeyVault(ConfigReader.tinkKeyConfigFromJsonString(TestFixtures.CIPHER_DATA_KEYS_CONFIG));
+        try (var kryptonite = new Kryptonite(tinkKeyVault)) {
+            var fieldMetaData = FieldMetaData.builder()
+                .algorithm(TinkAesGcm.CIPHER_ALGORITHM)
+                .keyId(TestFixtures.UNKNOWN_KEYSET_IDENTIFIER_PLAIN)
+                .build();
+            assertThrows(KryptoniteException.class, () -> kryptonite.prepare(fieldMetaData));
+        }
+    }
+
     static List<Arguments> provideValidInputParamsLocalKeyVaultNoKeyEncryption() {
         var tinkKeyVault = new TinkKeyVault(ConfigReader.tinkKeyConfigFromJsonString(TestFixtures.CIPHER_DATA_KEYS_CONFIG));
         return List.of(
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2026. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.hpgrahsl.kryptonite.crypto.custom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.github.hpgrahsl.kryptonite.KryptoniteException;
+import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.AlphabetTypeFPE;
+import com.github.hpgrahsl.kryptonite.crypto.custom.mysto.fpe.FpeImpl;
+import com.github.hpgrahsl.kryptonite.crypto.custom.mysto.fpe.FpeKey;
+import com.github.hpgrahsl.kryptonite.crypto.custom.mysto.fpe.FpeParameters;
+
+public class FpeFF31EngineTest {
+
+  @ParameterizedTest
+  @MethodSource("com.github.hpgrahsl.kryptonite.crypto.custom.FpeFF31EngineTest#generateTestVectors")
+  @DisplayName("encrypt and decrypt NIST FF3 and FF3-1 test vectors")
+  void testNistVectors(String key, String tweak, String alphabet, String plaintext, String ciphertext) throws Exception {
+    var engine = new FpeFF31Engine(new FpeKey(HexFormat.of().parseHex(key)), FpeParameters.create(alphabet));
+    var tweakBytes = HexFormat.of().parseHex(tweak);
+    var encrypted = engine.encrypt(plaintext.getBytes(StandardCharsets.UTF_8), tweakBytes);
+    assertEquals(ciphertext, new String(encrypted, StandardCharsets.UTF_8));
+    var decrypted = engine.decrypt(encrypted, tweakBytes);
+    assertEquals(plaintext, new String(decrypted, StandardCharsets.UTF_8));
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = AlphabetTypeFPE.class, names = "CUSTOM", mode = EnumSource.Mode.EXCLUDE)
+  @DisplayName("produce byte-for-byte the same results as Mysto's FF3Cipher for all lengths and tweak sizes")
+  void testCompatibilityWithMysto(AlphabetTypeFPE alphabetType) throws Exception {
+    var random = new Random(alphabetType.ordinal());
+    var alphabet = alphabetType.getAlphabet();
+    var parameters = FpeParameters.create(alphabet);
+    for (int keySize : new int[] {16, 24, 32}) {
+      var keyBytes = new byte[keySize];
+      random.nextBytes(keyBytes);
+      var engine = new FpeFF31Engine(new FpeKey(keyBytes), parameters);
+      var mysto = new FpeImpl(new FpeKey(keyBytes), parameters);
+      int minLen = (int) Math.ceil(Math.log(1_000_000) / Math.log(alphabet.length()));
+      int maxLen = (int) (2 * Math.floor(96 * Math.log(2) / Math.log(alphabet.length())));
+      for (int length = minLen; length <= maxLen; length++) {
+        for (byte[] tweak : new byte[][] {null, randomBytes(random, 7), randomBytes(random, 8)}) {
+          var plaintext = randomString(random, alphabet, length).getBytes(StandardCharsets.UTF_8);
+          var expected = mysto.encrypt(plaintext, tweak);
+          var encrypted = engine.encrypt(plaintext, tweak);
+          assertArrayEquals(expected, encrypted, "ciphertext differs for input of length " + length);
+          assertArrayEquals(plaintext, engine.decrypt(encrypted, tweak));
+          assertArrayEquals(mysto.decrypt(plaintext, tweak), engine.decrypt(plaintext, tweak));
+        }
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("reject invalid alphabets, characters, lengths and tweaks like Mysto's FF3Cipher")
+  void testInvalidInput() {
+    var key = new FpeKey(HexFormat.of().parseHex("EF4359D8D580AA4F7F036D6F04FC6A94"));
+    assertThrows(KryptoniteException.class, () -> new FpeFF31Engine(key, FpeParameters.create("aAbBcCdd")));
+    var engine = new FpeFF31Engine(key, FpeParameters.create(AlphabetTypeFPE.DIGITS.getAlphabet()));
+    assertThrows(KryptoniteException.class, () -> engine.encrypt("2025".getBytes(StandardCharsets.UTF_8), null));
+    assertThrows(KryptoniteException.class, () -> engine.encrypt("5544600070008000".repeat(4).getBytes(StandardCharsets.UTF_8), null));
+    assertThrows(KryptoniteException.class, () -> engine.encrypt("55446000A0008000".getBytes(StandardCharsets.UTF_8), null));
+    assertThrows(KryptoniteException.class, () -> engine.decrypt("554460007000800§".getBytes(StandardCharsets.UTF_8), null));
+    assertThrows(KryptoniteException.class, () -> engine.encrypt("5544600070008000".getBytes(StandardCharsets.UTF_8), "foo".getBytes()));
+  }
+
+  static byte[] randomBytes(Random random, int length) {
+    var bytes = new byte[length];
+    random.nextBytes(bytes);
+    return bytes;
+  }
+
+  static String randomString(Random random, String alphabet, int length) {
+    var sb = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+    }
+    return sb.toString();
+  }
+
+  static List<Arguments> generateTestVectors() {
+    var key = "EF4359D8D580AA4F7F036D6F04FC6A94";
+    return List.of(
+      // NIST FF3 samples 1 to 5 (64-bit tweaks)
+      Arguments.of(key, "D8E7920AFA330A73", "0123456789", "890121234567890000", "750918814058654607"),
+      Arguments.of(key, "9A768A92F60E12D8", "0123456789", "890121234567890000", "018989839189395384"),
+      Arguments.of(key, "D8E7920AFA330A73", "0123456789", "89012123456789000000789000000", "48598367162252569629397416226"),
+      Arguments.of(key, "0000000000000000", "0123456789", "89012123456789000000789000000", "34695224821734535122613701434"),
+      Arguments.of(key, "9A768A92F60E12D8", "0123456789abcdefghijklmnop", "0123456789abcdefghi", "g2pk40i992fn20cjakb"),
+      // FF3-1 (56-bit tweak)
+      Arguments.of("2DE79D232DF5585D68CE47882AE256D6", "CBD09280979564", "0123456789", "3992520240", "8901801106")
+    );
+  }
+
+}
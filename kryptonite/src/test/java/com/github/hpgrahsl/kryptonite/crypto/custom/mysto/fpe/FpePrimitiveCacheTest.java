@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2025. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.hpgrahsl.kryptonite.crypto.custom.mysto.fpe;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.hpgrahsl.kryptonite.KryptoniteException;
+import com.github.hpgrahsl.kryptonite.TestFixtures;
+import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.AlphabetTypeFPE;
+import com.google.crypto.tink.CleartextKeysetHandle;
+import com.google.crypto.tink.JsonKeysetReader;
+import com.google.crypto.tink.KeysetHandle;
+
+public class FpePrimitiveCacheTest {
+
+  private static KeysetHandle readKeysetHandle(String jsonKeyset) throws Exception {
+    return CleartextKeysetHandle.read(JsonKeysetReader.withString(jsonKeyset));
+  }
+
+  @Test
+  void reusesPrimitiveForSameHandleAndAlphabet() throws Exception {
+    var cache = new FpePrimitiveCache(16);
+    var keysetHandle = readKeysetHandle(TestFixtures.CIPHER_DATA_KEY_CONFIG_FPE_KEY_C);
+
+    assertSame(
+        cache.get(keysetHandle, AlphabetTypeFPE.DIGITS.getAlphabet()),
+        cache.get(keysetHandle, AlphabetTypeFPE.DIGITS.getAlphabet()),
+        "error: primitive must be reused for the same keyset handle and alphabet");
+  }
+
+  @Test
+  void distinguishesAlphabetsAndHandleInstances() throws Exception {
+    var cache = new FpePrimitiveCache(16);
+    var keysetHandle = readKeysetHandle(TestFixtures.CIPHER_DATA_KEY_CONFIG_FPE_KEY_C);
+    var refreshedHandle = readKeysetHandle(TestFixtures.CIPHER_DATA_KEY_CONFIG_FPE_KEY_C);
+    var digits = cache.get(keysetHandle, AlphabetTypeFPE.DIGITS.getAlphabet());
+
+    assertNotSame(digits, cache.get(keysetHandle, AlphabetTypeFPE.HEXADECIMAL.getAlphabet()),
+        "error: different alphabets must not share a primitive");
+    assertNotSame(digits, cache.get(refreshedHandle, AlphabetTypeFPE.DIGITS.getAlphabet()),
+        "error: a new keyset handle instance must not hit entries of a previous handle");
+
+    var plaintext = "5544600070008000".getBytes(StandardCharsets.UTF_8);
+    assertArrayEquals(digits.encrypt(plaintext, null),
+        cache.get(refreshedHandle, AlphabetTypeFPE.DIGITS.getAlphabet()).encrypt(plaintext, null),
+        "error: primitives for the same key material must produce identical ciphertexts");
+  }
+
+  @Test
+  void invalidatingHandleEvictsItsPrimitives() throws Exception {
+    var cache = new FpePrimitiveCache(16);
+    var keysetHandle = readKeysetHandle(TestFixtures.CIPHER_DATA_KEY_CONFIG_FPE_KEY_C);
+    var digits = cache.get(keysetHandle, AlphabetTypeFPE.DIGITS.getAlphabet());
+
+    cache.invalidate(keysetHandle);
+
+    assertEquals(0, cache.estimatedSize());
+    assertNotSame(digits, cache.get(keysetHandle, AlphabetTypeFPE.DIGITS.getAlphabet()),
+        "error: primitives of an invalidated keyset handle must not be reused");
+  }
+
+  @Test
+  void propagatesInvalidAlphabetAsKryptoniteException() throws Exception {
+    var cache = new FpePrimitiveCache(16);
+    var keysetHandle = readKeysetHandle(TestFixtures.CIPHER_DATA_KEY_CONFIG_FPE_KEY_C);
+
+    assertThrows(KryptoniteException.class, () -> cache.get(keysetHandle, "aAbBcCdd"));
+    assertThrows(KryptoniteException.class, () -> cache.get(keysetHandle, null));
+  }
+
+}
@@ -29,6 +29,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 import com.github.hpgrahsl.kryptonite.KryptoniteException;
 import com.github.hpgrahsl.kryptonite.TestFixtures;
 import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.AlphabetTypeFPE;
+import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.FpeEngine;
 import com.github.hpgrahsl.kryptonite.crypto.custom.MystoFpeFF31;
 import com.google.crypto.tink.CleartextKeysetHandle;
 import com.google.crypto.tink.JsonKeysetReader;
@@ -57,6 +58,19 @@ public class MystoFpeFF31Test {
     assertThrows(KryptoniteException.class, () -> cryptoAlgo.cipherFPE(plaintext, keysetHandle, alphabet, tweak));
   }
 
+  @ParameterizedTest
+  @MethodSource("com.github.hpgrahsl.kryptonite.crypto.custom.mysto.fpe.MystoFpeFF31Test#generateValidInputParameters")
+  @DisplayName("apply encrypt(plaintext) with NATIVE engine = encrypt(plaintext) with default MYSTO engine")
+  void testFpeNativeEngineMatchesDefaultEngine(String jsonKeyset, byte[] plaintext, String alphabet, byte[] tweak) throws Exception {
+    var keysetHandle = CleartextKeysetHandle.read(
+        JsonKeysetReader.withString(jsonKeyset));
+    var mysto = new MystoFpeFF31();
+    var nativeEngine = new MystoFpeFF31(FpeEngine.NATIVE);
+    byte[] encrypted = mysto.cipherFPE(plaintext, keysetHandle, alphabet, tweak);
+    assertArrayEquals(encrypted, nativeEngine.cipherFPE(plaintext, keysetHandle, alphabet, tweak));
+    assertArrayEquals(plaintext, nativeEngine.decipherFPE(encrypted, keysetHandle, alphabet, tweak));
+  }
+
   static List<Arguments> generateValidInputParameters() {
     return List.of(
       Arguments.of(TestFixtures.CIPHER_DATA_KEY_CONFIG_FPE_KEY_C,"5544600070008000".getBytes(StandardCharsets.UTF_8), AlphabetTypeFPE.DIGITS.getAlphabet(), null),
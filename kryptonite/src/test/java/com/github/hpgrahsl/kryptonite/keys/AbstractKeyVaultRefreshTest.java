@@ -21,12 +21,15 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.github.hpgrahsl.kryptonite.TestFixtures;
 import com.github.hpgrahsl.kryptonite.config.ConfigReader;
 import com.github.hpgrahsl.kryptonite.config.TinkKeyConfig;
+import com.google.crypto.tink.Aead;
+import com.google.crypto.tink.aead.AeadConfig;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
@@ -186,6 +189,33 @@ class AbstractKeyVaultRefreshTest {
     }
   }
 
+  @Test
+  void readPrimitive_reuses_materialized_primitive_for_unchanged_handle() throws Exception {
+    AeadConfig.register();
+    try (var vault = new StubKmsKeyVault(allConfigs())) {
+      var first = vault.readPrimitive("keyA", Aead.class);
+      var second = vault.readPrimitive("keyA", Aead.class);
+
+      assertSame(first, second, "primitive must be cached while the keyset handle is unchanged");
+    }
+  }
+
+  @Test
+  void readPrimitive_rematerializes_after_refresh_installs_new_handle() throws Exception {
+    AeadConfig.register();
+    try (var vault = new StubKmsKeyVault(allConfigs())) {
+      var before = vault.readPrimitive("keyA", Aead.class);
+      var ciphertext = before.encrypt(new byte[]{1, 2, 3}, null);
+
+      vault.refreshKeyCache();
+
+      var after = vault.readPrimitive("keyA", Aead.class);
+      assertNotSame(before, after, "primitive must be replaced once refresh swapped the keyset handle");
+      assertEquals(3, after.decrypt(ciphertext, null).length,
+          "replacement primitive must decrypt ciphertext of the same key material");
+    }
+  }
+
   @Test
   void startBackgroundRefresh_zero_does_not_start_scheduler() {
     try (var vault = new StubKmsKeyVault(allConfigs())) {
@@ -0,0 +1,48 @@
+package com.github.hpgrahsl.kryptonite.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("empty histogram reports zeros")
+    void emptyHistogram() {
+        var histogram = new LatencyHistogram();
+        assertEquals(0, histogram.count());
+        assertEquals(0.0, histogram.meanNanos());
+        assertEquals(0, histogram.percentileNanos(0.99));
+    }
+
+    @Test
+    @DisplayName("percentiles are accurate to within a factor of two")
+    void percentilesWithinPowerOfTwo() {
+        var histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(1_000);
+        }
+        histogram.record(1_000_000);
+        assertEquals(100, histogram.count());
+        assertEquals(1_000_000, histogram.maxNanos());
+        long p50 = histogram.percentileNanos(0.50);
+        assertTrue(p50 >= 1_000 && p50 < 2_000, "p50 was " + p50);
+        long p99 = histogram.percentileNanos(0.99);
+        assertTrue(p99 >= 1_000 && p99 < 2_000, "p99 was " + p99);
+        assertEquals(1_000_000, histogram.percentileNanos(1.0));
+    }
+
+    @Test
+    @DisplayName("batch records count every operation with the per-operation average")
+    void batchRecord() {
+        var histogram = new LatencyHistogram();
+        histogram.record(10_000, 10);
+        assertEquals(10, histogram.count());
+        assertEquals(10_000, histogram.totalNanos());
+        assertEquals(1_000.0, histogram.meanNanos());
+        assertEquals(1_000, histogram.maxNanos());
+    }
+
+}
@@ -16,6 +16,7 @@
 
 package com.github.hpgrahsl.ksqldb.functions.kryptonite;
 
+import java.io.Closeable;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
@@ -29,7 +30,7 @@ import io.confluent.ksql.function.udf.UdfDescription;
 import static com.github.hpgrahsl.kryptonite.config.KryptoniteSettings.*;
 import static com.github.hpgrahsl.ksqldb.functions.kryptonite.CustomUdfConfig.*;
 
-public abstract class AbstractCipherFieldFpeUdf {
+public abstract class AbstractCipherFieldFpeUdf implements Closeable {
 
     private Kryptonite kryptonite;
     private Map<String, ?> configMap;
@@ -42,9 +43,23 @@ public abstract class AbstractCipherFieldFpeUdf {
     public void configure(Map<String, ?> configMap, UdfDescription udfDescription) {
         this.functionName = udfDescription.name();
         this.configMap = configMap;
+        close();
         kryptonite = CustomUdfConfig.KryptoniteUtil.createKryptoniteFromConfig(configMap, functionName);
     }
 
+    /**
+     * Closes the {@link Kryptonite} instance created by {@code configure}, which also unregisters
+     * its metrics. ksqlDB offers no dedicated lifecycle hook for scalar UDFs, so this is invoked by
+     * hosts which honor {@link Closeable} and whenever the UDF gets configured again.
+     */
+    @Override
+    public void close() {
+        if (kryptonite != null) {
+            kryptonite.close();
+            kryptonite = null;
+        }
+    }
+
     protected String encryptData(String data, FieldMetaData fieldMetaData) {
         try {
             // NOTE: null is by definition not encryptable with FPE ciphers
@@ -16,6 +16,7 @@
 
 package com.github.hpgrahsl.ksqldb.functions.kryptonite;
 
+import java.io.Closeable;
 import java.util.Map;
 import java.util.Optional;
 import com.github.hpgrahsl.kryptonite.Kryptonite;
@@ -23,7 +24,7 @@ import com.github.hpgrahsl.kryptonite.config.KryptoniteSettings;
 
 import io.confluent.ksql.function.udf.UdfDescription;
 
-public abstract class AbstractCipherFieldUdf {
+public abstract class AbstractCipherFieldUdf implements Closeable {
 
     private Kryptonite kryptonite;
     private String serdeType;
@@ -37,10 +38,24 @@ public abstract class AbstractCipherFieldUdf {
     }
 
     public void configure(Map<String, ?> configMap, UdfDescription udfDescription) {
+        close();
         kryptonite = CustomUdfConfig.KryptoniteUtil.createKryptoniteFromConfig(configMap, udfDescription.name());
         serdeType = Optional.ofNullable(
                 (String) configMap.get(CustomUdfConfig.getPrefixedConfigParam(udfDescription.name(), CustomUdfConfig.CONFIG_PARAM_SERDE_TYPE)))
                 .orElse(KryptoniteSettings.SERDE_TYPE_DEFAULT);
     }
 
+    /**
+     * Closes the {@link Kryptonite} instance created by {@code configure}, which also unregisters
+     * its metrics. ksqlDB offers no dedicated lifecycle hook for scalar UDFs, so this is invoked by
+     * hosts which honor {@link Closeable} and whenever the UDF gets configured again.
+     */
+    @Override
+    public void close() {
+        if (kryptonite != null) {
+            kryptonite.close();
+            kryptonite = null;
+        }
+    }
+
 }
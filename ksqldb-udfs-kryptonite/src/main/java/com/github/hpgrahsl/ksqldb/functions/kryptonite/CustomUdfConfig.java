@@ -46,8 +46,10 @@ public class CustomUdfConfig {
     public static final String CONFIG_PARAM_DEK_KEY_BITS = "dek_key_bits";
     public static final String CONFIG_PARAM_DEK_MAX_ENCRYPTIONS = "dek_max_encryptions";
     public static final String CONFIG_PARAM_DEK_TTL_MINUTES = "dek_ttl_minutes";
+    public static final String CONFIG_PARAM_DEK_ROTATION_WATERMARK = "dek_rotation_watermark";
     public static final String CONFIG_PARAM_DEK_CACHE_SIZE = "dek_cache_size";
     public static final String CONFIG_PARAM_EDEK_STORE_CONFIG = "edek_store_config";
+    public static final String CONFIG_PARAM_METRICS_TYPE = "metrics_type";
 
     public static String getPrefixedConfigParam(String functionName, String configParam) {
         return KSQL_FUNCTION_CONFIG_PREFIX
@@ -167,6 +169,12 @@ public class CustomUdfConfig {
                     ? dekTtlMinutesConfig
                     : String.valueOf(KryptoniteSettings.DEK_TTL_MINUTES_DEFAULT);
 
+            var dekRotationWatermarkConfig = (String)configMap.get(
+                    getPrefixedConfigParam(functionName, CONFIG_PARAM_DEK_ROTATION_WATERMARK));
+            var dekRotationWatermark = dekRotationWatermarkConfig != null
+                    ? dekRotationWatermarkConfig
+                    : String.valueOf(KryptoniteSettings.DEK_ROTATION_WATERMARK_DEFAULT);
+
             var dekCacheSizeConfig = (String)configMap.get(
                     getPrefixedConfigParam(functionName, CONFIG_PARAM_DEK_CACHE_SIZE));
             var dekCacheSize = dekCacheSizeConfig != null
@@ -179,6 +187,12 @@ public class CustomUdfConfig {
                     ? edekStoreConfigConfig
                     : KryptoniteSettings.EDEK_STORE_CONFIG_DEFAULT;
 
+            var metricsTypeConfig = (String)configMap.get(
+                    getPrefixedConfigParam(functionName, CONFIG_PARAM_METRICS_TYPE));
+            var metricsType = metricsTypeConfig != null
+                    ? metricsTypeConfig
+                    : KryptoniteSettings.METRICS_TYPE_DEFAULT;
+
             var normalizedStringsMap = Map.ofEntries(
                     Map.entry(KryptoniteSettings.CIPHER_DATA_KEYS,
                             (String)configMap.get(getPrefixedConfigParam(functionName, CONFIG_PARAM_CIPHER_DATA_KEYS))),
@@ -200,8 +214,10 @@ public class CustomUdfConfig {
                     Map.entry(KryptoniteSettings.DEK_KEY_BITS, dekKeyBits),
                     Map.entry(KryptoniteSettings.DEK_MAX_ENCRYPTIONS, dekMaxEncryptions),
                     Map.entry(KryptoniteSettings.DEK_TTL_MINUTES, dekTtlMinutes),
+                    Map.entry(KryptoniteSettings.DEK_ROTATION_WATERMARK, dekRotationWatermark),
                     Map.entry(KryptoniteSettings.DEK_CACHE_SIZE, dekCacheSize),
-                    Map.entry(KryptoniteSettings.EDEK_STORE_CONFIG, edekStoreConfig)
+                    Map.entry(KryptoniteSettings.EDEK_STORE_CONFIG, edekStoreConfig),
+                    Map.entry(KryptoniteSettings.METRICS_TYPE, metricsType)
             );
 
             return Kryptonite.createFromConfig(normalizedStringsMap);